@@ -1,14 +1,19 @@
 package com.cinebook;
 
+import com.cinebook.controller.AsyncExecutor;
+import com.cinebook.controller.SeatHoldReaper;
 import com.cinebook.dao.DBConnection;
+import com.cinebook.dao.ScreeningDAO;
+import com.cinebook.dao.SeatInventory;
+import com.cinebook.model.Screening;
 import com.cinebook.view.MainFrame;
 import com.cinebook.view.SplashScreen;
 
 import javax.swing.JOptionPane;
-import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
-import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Main entry point for the CineBook CDO application.
@@ -42,43 +47,48 @@ public class Main {
         
         // Initialize database connection
         try {
-            Connection connection = DBConnection.getConnection();
+            DBConnection.initialize();
             System.out.println("Connected to the database successfully.");
             
+            // Release seats from abandoned bookings in the background
+            SeatHoldReaper.start();
+            
             // Launch the application with a splash screen
             SplashScreen splash = new SplashScreen();
             splash.showSplash();
             
-            // Create a background task to initialize the application
-            new Thread(() -> {
-                try {
-                    // Simulate loading steps (could be real initialization steps)
-                    for (int i = 0; i <= 100; i += 10) {
-                        splash.setProgress(i);
-                        Thread.sleep(150); // Small delay to show progress
-                    }
-                    
-                    // Start the main application on the EDT when ready
-                    SwingUtilities.invokeLater(() -> {
-                        MainFrame mainFrame = new MainFrame();
-                        mainFrame.setVisible(true);
-                        splash.closeSplash();
-                    });
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    System.err.println("Error during application initialization: " + e.getMessage());
-                    
-                    // If error occurs, close splash and show error
-                    SwingUtilities.invokeLater(() -> {
-                        splash.closeSplash();
-                        JOptionPane.showMessageDialog(null, 
-                            "Error initializing application: " + e.getMessage(),
-                            "Initialization Error",
-                            JOptionPane.ERROR_MESSAGE);
-                        System.exit(1);
-                    });
+            // Initialize the application in the background; the splash keeps the EDT responsive
+            AsyncExecutor.onEdt(AsyncExecutor.getInstance().submit("startup.preload", () -> {
+                // Load the seat maps of upcoming screenings into memory
+                List<Integer> screeningIds = new ArrayList<>();
+                for (Screening screening : new ScreeningDAO().getFutureScreenings()) {
+                    screeningIds.add(screening.getId());
+                }
+                SeatInventory.getInstance().preload(screeningIds);
+                
+                // Simulate loading steps (could be real initialization steps)
+                for (int i = 0; i <= 100; i += 10) {
+                    splash.setProgress(i);
+                    Thread.sleep(150); // Small delay to show progress
                 }
-            }).start();
+                return screeningIds.size();
+            }, 0), preloaded -> {
+                // Start the main application on the EDT when ready
+                MainFrame mainFrame = new MainFrame();
+                mainFrame.setVisible(true);
+                splash.closeSplash();
+            }, e -> {
+                e.printStackTrace();
+                System.err.println("Error during application initialization: " + e.getMessage());
+                
+                // If error occurs, close splash and show error
+                splash.closeSplash();
+                JOptionPane.showMessageDialog(null, 
+                    "Error initializing application: " + e.getMessage(),
+                    "Initialization Error",
+                    JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            });
             
         } catch (SQLException e) {
             System.err.println("Failed to connect to the database: " + e.getMessage());
@@ -3,20 +3,37 @@ package com.cinebook.controller;
 import com.cinebook.dao.CinemaDAO;
 import com.cinebook.dao.ConcessionDAO;
 import com.cinebook.dao.PaymentDAO;
+import com.cinebook.dao.ReportCache;
+import com.cinebook.dao.ReportDAO;
 import com.cinebook.dao.ReservationDAO;
+import com.cinebook.dao.SalesAnalytics;
+import com.cinebook.dao.SalesRollupDAO;
 import com.cinebook.dao.UserDAO;
+import com.cinebook.model.AnalyticsQuery;
+import com.cinebook.model.AnalyticsRow;
 import com.cinebook.model.Cinema;
 import com.cinebook.model.Concession;
+import com.cinebook.model.ExportDataset;
+import com.cinebook.model.ExportFormat;
+import com.cinebook.model.ExportResult;
 import com.cinebook.model.Payment;
 import com.cinebook.model.Reservation;
+import com.cinebook.model.ReservationCursor;
+import com.cinebook.model.SalesAggregate;
+import com.cinebook.model.SalesSummary;
 import com.cinebook.model.User;
 import com.cinebook.util.PasswordUtil;
+import com.cinebook.util.ReportExporter;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +49,9 @@ public class AdminController {
     private ConcessionDAO concessionDAO;
     private PaymentDAO paymentDAO;
     private ReservationDAO reservationDAO;
+    private ReportDAO reportDAO;
+    private ReportCache reportCache;
+    private SalesRollupDAO salesRollupDAO;
     private UserDAO userDAO;
     
     /**
@@ -45,6 +65,9 @@ public class AdminController {
         this.concessionDAO = new ConcessionDAO();
         this.paymentDAO = new PaymentDAO();
         this.reservationDAO = new ReservationDAO();
+        this.reportDAO = new ReportDAO();
+        this.reportCache = ReportCache.getInstance();
+        this.salesRollupDAO = new SalesRollupDAO();
         this.userDAO = new UserDAO();
     }
     
@@ -61,6 +84,9 @@ public class AdminController {
         this.concessionDAO = new ConcessionDAO();
         this.paymentDAO = new PaymentDAO();
         this.reservationDAO = new ReservationDAO();
+        this.reportDAO = new ReportDAO();
+        this.reportCache = ReportCache.getInstance();
+        this.salesRollupDAO = new SalesRollupDAO();
         this.userDAO = new UserDAO();
     }
     
@@ -314,7 +340,7 @@ public class AdminController {
      */
     public double getDailySalesReport(String date) {
         try {
-            return paymentDAO.calculateTotalSales(date, date);
+            return salesSummary(date, date).getGross();
         } catch (SQLException e) {
             e.printStackTrace();
             return 0.0;
@@ -330,7 +356,7 @@ public class AdminController {
      */
     public double getWeeklySalesReport(String startDate, String endDate) {
         try {
-            return paymentDAO.calculateTotalSales(startDate, endDate);
+            return salesSummary(startDate, endDate).getGross();
         } catch (SQLException e) {
             e.printStackTrace();
             return 0.0;
@@ -354,13 +380,43 @@ public class AdminController {
             String startDate = firstDay.format(formatter);
             String endDate = lastDay.format(formatter);
             
-            return paymentDAO.calculateTotalSales(startDate, endDate);
+            return salesSummary(startDate, endDate).getGross();
         } catch (SQLException e) {
             e.printStackTrace();
             return 0.0;
         }
     }
     
+    /**
+     * Generates a sales summary for a date range from the daily sales rollup.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return The sales totals, or null if they could not be read
+     */
+    public SalesSummary getSalesSummary(String startDate, String endDate) {
+        try {
+            return salesSummary(startDate, endDate);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Regenerates the daily sales rollup from the payment history.
+     *
+     * @return The number of rollup rows after the rebuild, or -1 if the rebuild failed
+     */
+    public int rebuildSalesRollups() {
+        try {
+            return salesRollupDAO.rebuild();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+    
     /**
      * Gets all payments for a date range.
      *
@@ -393,31 +449,73 @@ public class AdminController {
         }
     }
     
+    /**
+     * Gets one page of the reservations for a date range, oldest first.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @param after The cursor of the last reservation of the previous page, or null for the first page
+     * @param limit The maximum number of reservations to return
+     * @return The reservations of the page
+     */
+    public List<Reservation> getReservationsByDateRange(String startDate, String endDate,
+                                                        ReservationCursor after, int limit) {
+        try {
+            return reservationDAO.getReservationsByDateRange(startDate, endDate, after, limit);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Counts the reservations for a date range.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return The number of reservations, or 0 if they could not be counted
+     */
+    public int countReservationsByDateRange(String startDate, String endDate) {
+        try {
+            return reservationDAO.countReservationsByDateRange(startDate, endDate);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+    
+    /**
+     * Gets the cursors at which the pages of the reservations for a date range start.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @param pageSize The number of reservations per page
+     * @return The cursor of every page, null for the first page
+     */
+    public List<ReservationCursor> getReservationPageCursors(String startDate, String endDate, int pageSize) {
+        try {
+            return reservationDAO.getPageCursorsByDateRange(startDate, endDate, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            List<ReservationCursor> firstPageOnly = new ArrayList<>();
+            firstPageOnly.add(null);
+            return firstPageOnly;
+        }
+    }
+    
     /**
      * Generates a sales report by movie.
      *
      * @param startDate The start date (format: YYYY-MM-DD)
      * @param endDate The end date (format: YYYY-MM-DD)
-     * @return A map of movie titles to total sales
+     * @return A map of movie titles to total sales, highest first
      */
     public Map<String, Double> getSalesByMovie(String startDate, String endDate) {
         try {
-            List<Reservation> reservations = reservationDAO.getReservationsByDateRange(startDate, endDate);
-            Map<String, Double> salesByMovie = new HashMap<>();
-            
-            for (Reservation reservation : reservations) {
-                if (reservation.isPaid()) {
-                    String movieTitle = reservation.getMovieTitle();
-                    double amount = reservation.getTotalAmount();
-                    
-                    if (salesByMovie.containsKey(movieTitle)) {
-                        salesByMovie.put(movieTitle, salesByMovie.get(movieTitle) + amount);
-                    } else {
-                        salesByMovie.put(movieTitle, amount);
-                    }
-                }
+            Map<String, Double> salesByMovie = new LinkedHashMap<>();
+            for (SalesAggregate row : salesAggregates("salesByMovie", startDate, endDate, reportDAO::getSalesByMovie)) {
+                salesByMovie.put(row.getLabel(), row.getAmount());
             }
-            
             return salesByMovie;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -430,26 +528,14 @@ public class AdminController {
      *
      * @param startDate The start date (format: YYYY-MM-DD)
      * @param endDate The end date (format: YYYY-MM-DD)
-     * @return A map of cinema names to total sales
+     * @return A map of cinema names to total sales, highest first
      */
     public Map<String, Double> getSalesByCinema(String startDate, String endDate) {
         try {
-            List<Reservation> reservations = reservationDAO.getReservationsByDateRange(startDate, endDate);
-            Map<String, Double> salesByCinema = new HashMap<>();
-            
-            for (Reservation reservation : reservations) {
-                if (reservation.isPaid()) {
-                    String cinemaName = reservation.getCinemaName();
-                    double amount = reservation.getTotalAmount();
-                    
-                    if (salesByCinema.containsKey(cinemaName)) {
-                        salesByCinema.put(cinemaName, salesByCinema.get(cinemaName) + amount);
-                    } else {
-                        salesByCinema.put(cinemaName, amount);
-                    }
-                }
+            Map<String, Double> salesByCinema = new LinkedHashMap<>();
+            for (SalesAggregate row : salesAggregates("salesByCinema", startDate, endDate, reportDAO::getSalesByCinema)) {
+                salesByCinema.put(row.getLabel(), row.getAmount());
             }
-            
             return salesByCinema;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -466,19 +552,135 @@ public class AdminController {
      */
     public int getTicketsSold(String startDate, String endDate) {
         try {
-            List<Reservation> reservations = reservationDAO.getReservationsByDateRange(startDate, endDate);
-            int ticketCount = 0;
-            
-            for (Reservation reservation : reservations) {
-                if (reservation.isPaid()) {
-                    ticketCount += reservation.getSelectedSeats().size();
-                }
-            }
-            
-            return ticketCount;
+            return reportCache.get("ticketsSold", startDate, endDate, () -> reportDAO.countTicketsSold(startDate, endDate));
         } catch (SQLException e) {
             e.printStackTrace();
             return 0;
         }
     }
+    
+    /**
+     * Generates a sales report by the hour of the day the reservations were made.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return One row per hour with sales, in hour order
+     */
+    public List<SalesAggregate> getSalesByHour(String startDate, String endDate) {
+        try {
+            return salesAggregates("salesByHour", startDate, endDate, reportDAO::getSalesByHour);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Generates a sales report by the day of the week the reservations were made.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return One row per weekday with sales, Monday first
+     */
+    public List<SalesAggregate> getSalesByWeekday(String startDate, String endDate) {
+        try {
+            return salesAggregates("salesByWeekday", startDate, endDate, reportDAO::getSalesByWeekday);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Generates a sales report by seat type, at the screenings' seat prices.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return One row per seat type with its tickets and ticket revenue
+     */
+    public List<SalesAggregate> getSalesBySeatType(String startDate, String endDate) {
+        try {
+            return salesAggregates("salesBySeatType", startDate, endDate, reportDAO::getSalesBySeatType);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Generates a sales report by concession.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return One row per concession with the items sold, highest first
+     */
+    public List<SalesAggregate> getSalesByConcession(String startDate, String endDate) {
+        try {
+            return salesAggregates("salesByConcession", startDate, endDate, reportDAO::getSalesByConcession);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Runs an ad-hoc analytics query against the in-memory copy of the sales history.
+     *
+     * @param query The date range, filters and dimensions to group by
+     * @return One row per group with its capacity and sales
+     */
+    public List<AnalyticsRow> runAnalytics(AnalyticsQuery query) {
+        try {
+            return SalesAnalytics.getInstance().query(query);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Exports the reservations, payments or tickets of a date range to a file.
+     * Runs on the calling thread; interrupting it cancels the export.
+     *
+     * @param dataset The records to export
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @param file The file to write
+     * @param format The file format
+     * @param listener The progress listener, or null
+     * @return The export result, or null if the export failed
+     */
+    public ExportResult exportReport(ExportDataset dataset, String startDate, String endDate, File file,
+                                     ExportFormat format, ReportExporter.ProgressListener listener) {
+        try {
+            return new ReportExporter().export(dataset, startDate, endDate, file, format, listener);
+        } catch (SQLException | IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Gets the sales summary of a date range through the report cache.
+     */
+    private SalesSummary salesSummary(String startDate, String endDate) throws SQLException {
+        return reportCache.get("salesSummary", startDate, endDate, () -> reportDAO.getSalesSummary(startDate, endDate));
+    }
+    
+    /**
+     * Gets a grouped sales report through the report cache.
+     * The cached list is shared, so it is handed out read-only.
+     */
+    private List<SalesAggregate> salesAggregates(String reportType, String startDate, String endDate,
+                                                 SalesAggregateQuery query) throws SQLException {
+        return reportCache.get(reportType, startDate, endDate,
+                               () -> Collections.unmodifiableList(query.load(startDate, endDate)));
+    }
+    
+    /**
+     * A grouped sales report of {@link ReportDAO}.
+     */
+    private interface SalesAggregateQuery {
+        List<SalesAggregate> load(String startDate, String endDate) throws SQLException;
+    }
 }
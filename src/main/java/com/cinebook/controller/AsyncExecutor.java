@@ -0,0 +1,332 @@
+package com.cinebook.controller;
+
+import javax.swing.SwingUtilities;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Runs controller calls off the Swing event dispatch thread.
+ * Panels submit a controller call and get a {@link CompletableFuture} back, then use
+ * {@link #onEdt(CompletableFuture, Consumer, Consumer)} to update their components on the event
+ * thread once it completes, so a busy database never freezes the UI.
+ * The executor is bounded: a fixed number of workers (virtual threads when the JVM has them)
+ * drain a bounded queue, and submissions beyond the queue fail fast instead of piling up.
+ * Every task has a timeout, can be cancelled, and is counted in the statistics with its
+ * queue and run time.
+ */
+public class AsyncExecutor {
+    // Sizing can be tuned per terminal with -Dcinebook.async.workers=N and -Dcinebook.async.queue=N
+    private static final int WORKERS = Integer.getInteger("cinebook.async.workers", 8);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("cinebook.async.queue", 256);
+    private static final long DEFAULT_TIMEOUT_MILLIS = Long.getLong("cinebook.async.timeoutMillis", 30000L);
+    private static final boolean USE_VIRTUAL_THREADS =
+        Boolean.parseBoolean(System.getProperty("cinebook.async.virtualThreads", "true"));
+    
+    private static final AsyncExecutor INSTANCE = new AsyncExecutor();
+    
+    private final ThreadPoolExecutor executor;
+    private final boolean virtualThreads;
+    private final Map<String, TaskCounters> counters = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    
+    private AsyncExecutor() {
+        ThreadFactory virtualFactory = USE_VIRTUAL_THREADS ? virtualThreadFactory() : null;
+        this.virtualThreads = virtualFactory != null;
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = virtualFactory != null ? virtualFactory.newThread(runnable) : new Thread(runnable);
+            thread.setName("cinebook-async-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(WORKERS, WORKERS, 60L, TimeUnit.SECONDS,
+                                               new ArrayBlockingQueue<>(QUEUE_CAPACITY), factory,
+                                               new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+    
+    /**
+     * Gets the shared executor.
+     *
+     * @return The executor instance
+     */
+    public static AsyncExecutor getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Runs a task in the background with the default timeout.
+     *
+     * @param taskName The name the task is counted under in the statistics, e.g. "movies.active"
+     * @param task The task, typically a controller call
+     * @param <T> The type of the result
+     * @return A future completed with the task's result, or exceptionally with the task's exception,
+     *         a {@link TimeoutException} or a {@link RejectedExecutionException} if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(String taskName, Callable<T> task) {
+        return submit(taskName, task, DEFAULT_TIMEOUT_MILLIS);
+    }
+    
+    /**
+     * Runs a task in the background.
+     * Cancelling the returned future, or the future timing out, interrupts the task if it is running
+     * and drops it if it is still queued.
+     *
+     * @param taskName The name the task is counted under in the statistics
+     * @param task The task, typically a controller call
+     * @param timeoutMillis How long the task may take from submission, or 0 for no timeout
+     * @param <T> The type of the result
+     * @return A future completed with the task's result
+     */
+    public <T> CompletableFuture<T> submit(String taskName, Callable<T> task, long timeoutMillis) {
+        TaskCounters taskCounters = counters.computeIfAbsent(taskName, k -> new TaskCounters());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long submittedAt = System.nanoTime();
+        
+        Future<?> running;
+        try {
+            running = executor.submit(() -> {
+                if (result.isDone()) {
+                    return; // Cancelled or timed out while queued
+                }
+                try {
+                    result.complete(task.call());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                } finally {
+                    taskCounters.record(System.nanoTime() - submittedAt, result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(e);
+            return result;
+        }
+        
+        if (timeoutMillis > 0) {
+            result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                running.cancel(true);
+                if (error instanceof TimeoutException) {
+                    taskCounters.timeouts.increment();
+                }
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Hands the outcome of a future to callbacks on the Swing event dispatch thread.
+     * A cancelled future calls neither callback, since whoever cancelled it no longer wants the result.
+     *
+     * @param future The future to wait for
+     * @param onSuccess Called with the result
+     * @param onFailure Called with the cause of the failure (unwrapped), or null to only log failures
+     * @param <T> The type of the result
+     */
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> onSuccess,
+                                 Consumer<Throwable> onFailure) {
+        future.whenComplete((value, error) -> {
+            if (error != null && unwrap(error) instanceof CancellationException) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (error == null) {
+                    onSuccess.accept(value);
+                } else if (onFailure != null) {
+                    onFailure.accept(unwrap(error));
+                } else {
+                    unwrap(error).printStackTrace();
+                }
+            });
+        });
+    }
+    
+    /**
+     * Gets usage statistics, one entry per task name, with the totals first.
+     *
+     * @return The statistics snapshot
+     */
+    public List<AsyncStatistics> getStatistics() {
+        List<AsyncStatistics> statistics = new ArrayList<>();
+        TaskCounters total = new TaskCounters();
+        for (TaskCounters taskCounters : counters.values()) {
+            total.add(taskCounters);
+        }
+        statistics.add(total.snapshot("all tasks", executor.getQueue().size(), executor.getActiveCount(),
+                                      rejected.sum()));
+        counters.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> statistics.add(entry.getValue().snapshot(entry.getKey(), -1, -1, 0)));
+        return statistics;
+    }
+    
+    /**
+     * Gets the number of tasks waiting for a worker.
+     *
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    /**
+     * Checks whether the workers are virtual threads.
+     *
+     * @return true if tasks run on virtual threads
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+    
+    /**
+     * Looks up the virtual thread factory (Java 21+) reflectively, so the code still runs on older JVMs.
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Method factory = builder.getClass().getMethod("factory");
+            factory.setAccessible(true);
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Running totals of one task name.
+     */
+    private static class TaskCounters {
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        
+        void record(long latencyNanos, CompletableFuture<?> result) {
+            if (result.isCompletedExceptionally()) {
+                failed.increment();
+            } else {
+                completed.increment();
+            }
+            totalNanos.add(latencyNanos);
+            maxNanos.accumulateAndGet(latencyNanos, Math::max);
+        }
+        
+        void add(TaskCounters other) {
+            completed.add(other.completed.sum());
+            failed.add(other.failed.sum());
+            timeouts.add(other.timeouts.sum());
+            totalNanos.add(other.totalNanos.sum());
+            maxNanos.accumulateAndGet(other.maxNanos.get(), Math::max);
+        }
+        
+        AsyncStatistics snapshot(String name, int queued, int active, long rejectedTasks) {
+            long finished = completed.sum() + failed.sum();
+            double averageMillis = finished == 0 ? 0 : totalNanos.sum() / (double) finished / 1_000_000.0;
+            return new AsyncStatistics(name, queued, active, completed.sum(), failed.sum(), timeouts.sum(),
+                                       rejectedTasks, averageMillis, maxNanos.get() / 1_000_000.0);
+        }
+    }
+    
+    /**
+     * Immutable snapshot of executor usage for one task name, or for all tasks.
+     * Queue depth and active workers are only known for the totals and are -1 otherwise.
+     */
+    public static class AsyncStatistics {
+        private final String taskName;
+        private final int queuedTasks;
+        private final int activeTasks;
+        private final long completedTasks;
+        private final long failedTasks;
+        private final long timedOutTasks;
+        private final long rejectedTasks;
+        private final double averageLatencyMillis;
+        private final double maxLatencyMillis;
+        
+        public AsyncStatistics(String taskName, int queuedTasks, int activeTasks, long completedTasks,
+                               long failedTasks, long timedOutTasks, long rejectedTasks,
+                               double averageLatencyMillis, double maxLatencyMillis) {
+            this.taskName = taskName;
+            this.queuedTasks = queuedTasks;
+            this.activeTasks = activeTasks;
+            this.completedTasks = completedTasks;
+            this.failedTasks = failedTasks;
+            this.timedOutTasks = timedOutTasks;
+            this.rejectedTasks = rejectedTasks;
+            this.averageLatencyMillis = averageLatencyMillis;
+            this.maxLatencyMillis = maxLatencyMillis;
+        }
+        
+        public String getTaskName() {
+            return taskName;
+        }
+        
+        public int getQueuedTasks() {
+            return queuedTasks;
+        }
+        
+        public int getActiveTasks() {
+            return activeTasks;
+        }
+        
+        public long getCompletedTasks() {
+            return completedTasks;
+        }
+        
+        public long getFailedTasks() {
+            return failedTasks;
+        }
+        
+        public long getTimedOutTasks() {
+            return timedOutTasks;
+        }
+        
+        public long getRejectedTasks() {
+            return rejectedTasks;
+        }
+        
+        public double getAverageLatencyMillis() {
+            return averageLatencyMillis;
+        }
+        
+        public double getMaxLatencyMillis() {
+            return maxLatencyMillis;
+        }
+        
+        @Override
+        public String toString() {
+            String load = queuedTasks >= 0 ? String.format("%d queued, %d active, %d rejected, ",
+                                                           queuedTasks, activeTasks, rejectedTasks) : "";
+            return String.format("%s: %s%d completed, %d failed, %d timed out, latency avg %.2f ms / max %.2f ms",
+                                 taskName, load, completedTasks, failedTasks, timedOutTasks,
+                                 averageLatencyMillis, maxLatencyMillis);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.cinebook.controller;
+
+import com.cinebook.model.Seat;
+import com.cinebook.model.SeatType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the best block of adjacent free seats in one row for a party.
+ * Each row is kept as a bitmask of free seats (bit i is column i + 1), so all runs of N free
+ * seats in a row are found with a handful of shift-and operations instead of walking the grid.
+ * Candidate runs are ranked by seat type first and then by how close the middle of the run is
+ * to the middle of the house, so the result is the block a box-office clerk would pick.
+ */
+public class BestSeatFinder {
+    private final Seat[][] grid;
+    private final long[][] freeBits;
+    private final long[][] deluxeBits;
+    private final int totalRows;
+    private final int seatsPerRow;
+    
+    /**
+     * Builds the row bitmasks for the seats of one screening.
+     *
+     * @param seats The seats of the screening with their current reservation status
+     */
+    public BestSeatFinder(List<Seat> seats) {
+        int rows = 0;
+        int columns = 0;
+        for (Seat seat : seats) {
+            rows = Math.max(rows, seat.getRowNumber());
+            columns = Math.max(columns, seat.getColumnNumber());
+        }
+        this.totalRows = rows;
+        this.seatsPerRow = columns;
+        
+        int words = (columns + 63) / 64;
+        this.grid = new Seat[rows][columns];
+        this.freeBits = new long[rows][words];
+        this.deluxeBits = new long[rows][words];
+        
+        for (Seat seat : seats) {
+            int row = seat.getRowNumber() - 1;
+            int column = seat.getColumnNumber() - 1;
+            if (row < 0 || column < 0) {
+                continue;
+            }
+            grid[row][column] = seat;
+            if (!seat.isReserved()) {
+                freeBits[row][column >>> 6] |= 1L << column;
+            }
+            if (seat.getSeatType() == SeatType.DELUXE) {
+                deluxeBits[row][column >>> 6] |= 1L << column;
+            }
+        }
+    }
+    
+    /**
+     * Finds the best block of adjacent free seats in a single row.
+     * Blocks made only of the preferred seat type come first, then blocks of one other type,
+     * then blocks that mix types; within each group the block nearest the middle of the house wins.
+     *
+     * @param partySize The number of seats wanted
+     * @param preferredType The preferred seat type, or null for no preference
+     * @return The seats ordered by column, or an empty list if no row has enough adjacent free seats
+     */
+    public List<Seat> find(int partySize, SeatType preferredType) {
+        List<Seat> result = new ArrayList<>();
+        if (partySize <= 0 || partySize > seatsPerRow) {
+            return result;
+        }
+        
+        int bestRow = -1;
+        int bestStart = -1;
+        int bestRank = Integer.MAX_VALUE;
+        double bestDistance = Double.MAX_VALUE;
+        double centerRow = (totalRows - 1) / 2.0;
+        double centerColumn = (seatsPerRow - 1) / 2.0;
+        
+        for (int row = 0; row < totalRows; row++) {
+            long[] free = freeBits[row];
+            long[] starts = runStarts(free, partySize);
+            if (isEmpty(starts)) {
+                continue;
+            }
+            
+            long[] deluxeStarts = runStarts(and(free, deluxeBits[row], false), partySize);
+            long[] standardStarts = runStarts(and(free, deluxeBits[row], true), partySize);
+            double rowOffset = row - centerRow;
+            
+            for (int word = 0; word < starts.length; word++) {
+                long candidates = starts[word];
+                while (candidates != 0) {
+                    int bit = Long.numberOfTrailingZeros(candidates);
+                    candidates &= candidates - 1;
+                    int start = word * 64 + bit;
+                    long mask = 1L << bit;
+                    
+                    SeatType uniformType = (deluxeStarts[word] & mask) != 0 ? SeatType.DELUXE :
+                                           (standardStarts[word] & mask) != 0 ? SeatType.STANDARD : null;
+                    int rank = uniformType == null ? 2 :
+                               preferredType == null || uniformType == preferredType ? 0 : 1;
+                    
+                    double columnOffset = start + (partySize - 1) / 2.0 - centerColumn;
+                    double distance = rowOffset * rowOffset + columnOffset * columnOffset;
+                    
+                    if (rank < bestRank || (rank == bestRank && distance < bestDistance)) {
+                        bestRank = rank;
+                        bestDistance = distance;
+                        bestRow = row;
+                        bestStart = start;
+                    }
+                }
+            }
+        }
+        
+        if (bestRow >= 0) {
+            for (int column = bestStart; column < bestStart + partySize; column++) {
+                result.add(grid[bestRow][column]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Marks the columns where a run of the given length of set bits starts.
+     * The run length doubles on each step, so a run of N costs about log2(N) shift-and passes.
+     */
+    private static long[] runStarts(long[] bits, int length) {
+        long[] starts = bits.clone();
+        int covered = 1;
+        while (covered < length) {
+            int shift = Math.min(covered, length - covered);
+            long[] shifted = shiftRight(starts, shift);
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] &= shifted[i];
+            }
+            covered += shift;
+        }
+        return starts;
+    }
+    
+    private static long[] shiftRight(long[] bits, int shift) {
+        long[] shifted = new long[bits.length];
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int i = 0; i + wordShift < bits.length; i++) {
+            long value = bits[i + wordShift] >>> bitShift;
+            if (bitShift != 0 && i + wordShift + 1 < bits.length) {
+                value |= bits[i + wordShift + 1] << (64 - bitShift);
+            }
+            shifted[i] = value;
+        }
+        return shifted;
+    }
+    
+    private static long[] and(long[] bits, long[] mask, boolean invertMask) {
+        long[] result = new long[bits.length];
+        for (int i = 0; i < bits.length; i++) {
+            result[i] = bits[i] & (invertMask ? ~mask[i] : mask[i]);
+        }
+        return result;
+    }
+    
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,144 @@
+package com.cinebook.controller;
+
+import com.cinebook.dao.SeatHoldDAO;
+import com.cinebook.model.BookingSession;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the booking sessions of this process, keyed by session ID.
+ * Every window, kiosk or API client books through its own session; the registry only keeps
+ * the map of sessions, which is concurrent, so sessions are opened, looked up and closed
+ * without a shared lock and independent bookings proceed in parallel.
+ * Sessions that stay idle too long are closed by {@link #expireIdleSessions()}, which the
+ * {@link SeatHoldReaper} runs on its schedule.
+ */
+public class BookingSessionRegistry {
+    // How long a session may stay idle before it is closed and its seats are released
+    private static final long IDLE_TTL_SECONDS = Long.getLong("cinebook.session.idleSeconds", 1800L);
+    
+    private static final BookingSessionRegistry INSTANCE = new BookingSessionRegistry();
+    
+    private final Map<String, BookingSession> sessions = new ConcurrentHashMap<>();
+    private final SeatHoldDAO seatHoldDAO = new SeatHoldDAO();
+    
+    private BookingSessionRegistry() {
+    }
+    
+    /**
+     * Gets the shared session registry.
+     *
+     * @return The session registry instance
+     */
+    public static BookingSessionRegistry getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Opens a new booking session.
+     *
+     * @return The new session
+     */
+    public BookingSession openSession() {
+        BookingSession session = new BookingSession(UUID.randomUUID().toString());
+        sessions.put(session.getSessionId(), session);
+        return session;
+    }
+    
+    /**
+     * Gets an open booking session.
+     *
+     * @param sessionId The ID of the session
+     * @return The session, or null if it does not exist or was closed
+     */
+    public BookingSession getSession(String sessionId) {
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+    
+    /**
+     * Closes a booking session, releasing the seats it still holds.
+     *
+     * @param sessionId The ID of the session
+     * @return true if the session was open
+     */
+    public boolean closeSession(String sessionId) {
+        BookingSession session = sessionId != null ? sessions.remove(sessionId) : null;
+        if (session == null) {
+            return false;
+        }
+        
+        close(session);
+        return true;
+    }
+    
+    /**
+     * Closes every session that has been idle longer than the idle time-to-live.
+     *
+     * @return The number of sessions closed
+     */
+    public int expireIdleSessions() {
+        long now = System.currentTimeMillis() / 1000L;
+        int expired = 0;
+        for (BookingSession session : sessions.values()) {
+            if (session.isIdle(now, IDLE_TTL_SECONDS) && sessions.remove(session.getSessionId(), session)) {
+                close(session);
+                expired++;
+            }
+        }
+        return expired;
+    }
+    
+    /**
+     * Gets the open booking sessions.
+     *
+     * @return A snapshot of the open sessions
+     */
+    public List<BookingSession> getSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+    
+    /**
+     * Gets the number of open booking sessions.
+     *
+     * @return The number of open sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+    
+    /**
+     * Gets how long sessions may stay idle.
+     *
+     * @return The idle time-to-live in seconds
+     */
+    public static long getIdleTtlSeconds() {
+        return IDLE_TTL_SECONDS;
+    }
+    
+    /**
+     * Marks a removed session closed and gives back its seats.
+     */
+    private void close(BookingSession session) {
+        String holdToken;
+        synchronized (session) {
+            session.setClosed(true);
+            holdToken = session.getHoldToken();
+            session.setHoldToken(null);
+            session.setReservation(null);
+        }
+        
+        if (holdToken != null) {
+            try {
+                seatHoldDAO.releaseHold(holdToken);
+            } catch (SQLException e) {
+                // The hold still expires and the reaper releases it then
+                System.err.println("Error releasing seats of session " + session.getSessionId() + ": " + e.getMessage());
+            }
+        }
+    }
+}
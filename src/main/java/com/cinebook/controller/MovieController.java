@@ -149,23 +149,33 @@ public class MovieController {
     }
     
     /**
-     * Searches for movies by title.
+     * Searches movies by the words of their title, director, cast, genre and synopsis,
+     * matching word prefixes so it can run as the text is typed.
      *
-     * @param searchTerm The search term
-     * @return A list of movies matching the search term
+     * @param text The search text
+     * @param activeOnly Whether to leave out inactive movies
+     * @param offset The number of results to skip
+     * @param limit The maximum number of results
+     * @return The page of matching movies, best matches first
+     */
+    public List<Movie> searchMovies(String text, boolean activeOnly, int offset, int limit) {
+        try {
+            return movieDAO.searchMovies(text, null, activeOnly, offset, limit);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Searches active movies by title.
+     *
+     * @param searchTerm The search term; each word matches the start of a word in the title
+     * @return A list of movies matching the search term, best matches first
      */
     public List<Movie> searchMoviesByTitle(String searchTerm) {
         try {
-            List<Movie> allMovies = movieDAO.getAllActiveMovies();
-            List<Movie> matchingMovies = new ArrayList<>();
-            
-            for (Movie movie : allMovies) {
-                if (movie.getTitle().toLowerCase().contains(searchTerm.toLowerCase())) {
-                    matchingMovies.add(movie);
-                }
-            }
-            
-            return matchingMovies;
+            return movieDAO.searchMovies(searchTerm, "title", true, 0, Integer.MAX_VALUE);
         } catch (SQLException e) {
             e.printStackTrace();
             return new ArrayList<>();
@@ -173,23 +183,14 @@ public class MovieController {
     }
     
     /**
-     * Searches for movies by genre.
+     * Searches active movies by genre.
      *
-     * @param genre The genre to search for
-     * @return A list of movies in the specified genre
+     * @param genre The genre to search for; each word matches the start of a word in the genre
+     * @return A list of movies in the specified genre, best matches first
      */
     public List<Movie> searchMoviesByGenre(String genre) {
         try {
-            List<Movie> allMovies = movieDAO.getAllActiveMovies();
-            List<Movie> matchingMovies = new ArrayList<>();
-            
-            for (Movie movie : allMovies) {
-                if (movie.getGenre().toLowerCase().contains(genre.toLowerCase())) {
-                    matchingMovies.add(movie);
-                }
-            }
-            
-            return matchingMovies;
+            return movieDAO.searchMovies(genre, "genre", true, 0, Integer.MAX_VALUE);
         } catch (SQLException e) {
             e.printStackTrace();
             return new ArrayList<>();
@@ -1,5 +1,6 @@
 package com.cinebook.controller;
 
+import com.cinebook.dao.DBConnection;
 import com.cinebook.dao.PaymentDAO;
 import com.cinebook.dao.ReservationDAO;
 import com.cinebook.model.Payment;
@@ -35,24 +36,41 @@ public class PaymentController {
      * @return The ID of the newly created payment, or -1 if processing failed
      */
     public int processPayment(int reservationId, PaymentMethod paymentMethod) {
+        return processPayment(reservationId, paymentMethod, null);
+    }
+    
+    /**
+     * Processes a payment for a reservation at most once per idempotency key.
+     * Submitting the same key again returns the original payment instead of charging twice,
+     * which also makes it safe to retry automatically when the database is busy.
+     *
+     * @param reservationId The ID of the reservation
+     * @param paymentMethod The payment method
+     * @param idempotencyKey The client-generated key of this payment, or null for none
+     * @return The ID of the newly created (or original) payment, or -1 if processing failed
+     */
+    public int processPayment(int reservationId, PaymentMethod paymentMethod, String idempotencyKey) {
         try {
-            // Get the reservation
-            Reservation reservation = reservationDAO.getReservationById(reservationId);
-            if (reservation == null) {
-                return -1;
-            }
-            
-            // Create a payment object
-            Payment payment = new Payment(reservationId, reservation.getTotalAmount(), paymentMethod);
-            payment.setPaymentTime(LocalDateTime.now());
-            payment.generateTransactionReference();
-            
-            // Simulate payment processing - in a real system, we would integrate with a payment gateway
-            // For demonstration purposes, we'll always mark the payment as successful
-            payment.setSuccessful(true);
-            
-            // Save the payment to the database
-            return paymentDAO.processPayment(payment);
+            return DBConnection.retryOnBusy(() -> {
+                // Get the reservation
+                Reservation reservation = reservationDAO.getReservationById(reservationId);
+                if (reservation == null) {
+                    return -1;
+                }
+                
+                // Create a payment object
+                Payment payment = new Payment(reservationId, reservation.getTotalAmount(), paymentMethod);
+                payment.setPaymentTime(LocalDateTime.now());
+                payment.generateTransactionReference();
+                payment.setIdempotencyKey(idempotencyKey);
+                
+                // Simulate payment processing - in a real system, we would integrate with a payment gateway
+                // For demonstration purposes, we'll always mark the payment as successful
+                payment.setSuccessful(true);
+                
+                // Save the payment to the database
+                return paymentDAO.processPayment(payment);
+            });
         } catch (SQLException e) {
             e.printStackTrace();
             return -1;
@@ -1,14 +1,25 @@
 package com.cinebook.controller;
 
+import com.cinebook.dao.CheckoutDAO;
 import com.cinebook.dao.ConcessionDAO;
+import com.cinebook.dao.DBConnection;
 import com.cinebook.dao.ReservationDAO;
 import com.cinebook.dao.ScreeningDAO;
 import com.cinebook.dao.SeatDAO;
+import com.cinebook.dao.SeatHoldDAO;
+import com.cinebook.dao.SeatInventory;
 import com.cinebook.dao.TicketDAO;
+import com.cinebook.model.BookingConfirmation;
+import com.cinebook.model.BookingSession;
 import com.cinebook.model.Concession;
+import com.cinebook.model.Payment;
+import com.cinebook.model.PaymentMethod;
 import com.cinebook.model.Reservation;
+import com.cinebook.model.ReservationCursor;
 import com.cinebook.model.Screening;
 import com.cinebook.model.Seat;
+import com.cinebook.model.SeatClaimResult;
+import com.cinebook.model.SeatType;
 import com.cinebook.model.Ticket;
 import com.cinebook.model.User;
 
@@ -16,22 +27,32 @@ import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Controller for reservation-related operations.
  * Handles business logic for booking and reservation management.
+ * The booking in progress lives in a {@link BookingSession} from the {@link BookingSessionRegistry};
+ * each controller works on its own session and locks only that session, so bookings made through
+ * different controllers (e.g. the box-office window and a kiosk window) proceed in parallel.
  */
 public class ReservationController {
+    // How long seats stay held without activity before the reaper releases them
+    private static final long HOLD_TTL_SECONDS = Long.getLong("cinebook.hold.ttlSeconds", 600L);
+    
     private ReservationDAO reservationDAO;
     private ScreeningDAO screeningDAO;
     private SeatDAO seatDAO;
     private ConcessionDAO concessionDAO;
     private TicketDAO ticketDAO;
+    private SeatHoldDAO seatHoldDAO;
+    private CheckoutDAO checkoutDAO;
     
-    private Reservation currentReservation; // Store the current reservation being created
+    private volatile BookingSession session; // Opened when the first reservation is started
     
     /**
      * Constructor for ReservationController.
+     * The controller opens its own booking session when a reservation is started.
      */
     public ReservationController() {
         this.reservationDAO = new ReservationDAO();
@@ -39,7 +60,24 @@ public class ReservationController {
         this.seatDAO = new SeatDAO();
         this.concessionDAO = new ConcessionDAO();
         this.ticketDAO = new TicketDAO();
-        this.currentReservation = null;
+        this.seatHoldDAO = new SeatHoldDAO();
+        this.checkoutDAO = new CheckoutDAO();
+        this.session = null;
+    }
+    
+    /**
+     * Constructor for a ReservationController that continues an open booking session,
+     * e.g. for a front end that keeps only the session ID between requests.
+     *
+     * @param sessionId The ID of the session
+     * @throws IllegalArgumentException If the session does not exist or was closed
+     */
+    public ReservationController(String sessionId) {
+        this();
+        this.session = BookingSessionRegistry.getInstance().getSession(sessionId);
+        if (this.session == null) {
+            throw new IllegalArgumentException("Unknown booking session: " + sessionId);
+        }
     }
     
     /**
@@ -61,11 +99,7 @@ public class ReservationController {
             }
             
             // Create a new reservation for the user
-            currentReservation = new Reservation(user.getId(), screeningId);
-            currentReservation.setMovieTitle(screening.getMovieTitle());
-            currentReservation.setCinemaName(screening.getCinemaName());
-            currentReservation.setScreeningTime(screening.getScreeningTime());
-            
+            startReservation(new Reservation(user.getId(), screeningId), screening);
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -96,11 +130,7 @@ public class ReservationController {
             }
             
             // Create a new reservation for the guest
-            currentReservation = new Reservation(guestName, guestEmail, guestPhone, screeningId);
-            currentReservation.setMovieTitle(screening.getMovieTitle());
-            currentReservation.setCinemaName(screening.getCinemaName());
-            currentReservation.setScreeningTime(screening.getScreeningTime());
-            
+            startReservation(new Reservation(guestName, guestEmail, guestPhone, screeningId), screening);
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -108,6 +138,25 @@ public class ReservationController {
         }
     }
     
+    /**
+     * Makes a new reservation the session's current one.
+     *
+     * @throws SQLException If the seats of an abandoned booking could not be released
+     */
+    private void startReservation(Reservation reservation, Screening screening) throws SQLException {
+        reservation.setMovieTitle(screening.getMovieTitle());
+        reservation.setCinemaName(screening.getCinemaName());
+        reservation.setScreeningTime(screening.getScreeningTime());
+        
+        BookingSession current = openSession();
+        synchronized (current) {
+            // Give back seats still held by an abandoned booking
+            releaseHold(current);
+            current.setReservation(reservation);
+            current.touch();
+        }
+    }
+    
     /**
      * Adds seats to the current reservation.
      *
@@ -115,104 +164,116 @@ public class ReservationController {
      * @return true if the seats were added successfully
      */
     public boolean addSeatsToReservation(List<Integer> selectedSeatIds) {
+        return claimSeatsForReservation(selectedSeatIds).isSuccessful();
+    }
+    
+    /**
+     * Claims seats for the current reservation under an expiring seat hold.
+     * Seats the reservation already holds are kept, new seats are claimed atomically in the
+     * database, and seats that are no longer selected are released once the claim succeeds.
+     *
+     * @param selectedSeatIds The IDs of the selected seats
+     * @return The claim result, listing the lost seats if any seat was already taken
+     */
+    public SeatClaimResult claimSeatsForReservation(List<Integer> selectedSeatIds) {
         System.out.println("Adding seats to reservation: " + selectedSeatIds);
         
-        if (currentReservation == null) {
+        BookingSession current = session;
+        if (current == null || current.getReservation() == null) {
             System.err.println("ERROR: No current reservation");
-            return false;
+            return SeatClaimResult.lost(new ArrayList<>());
         }
         
         if (selectedSeatIds == null || selectedSeatIds.isEmpty()) {
             System.err.println("ERROR: No seats selected");
-            return false;
+            return SeatClaimResult.lost(new ArrayList<>());
         }
         
-        try {
-            // Clear any previously selected seats
-            currentReservation.setSelectedSeats(new ArrayList<>());
-            
-            // Get all seats in a synchronized way to ensure they're still available
-            List<Seat> allSeats = new ArrayList<>();
-            List<Integer> reservedSeatIds = new ArrayList<>();
+        synchronized (current) {
+            Reservation currentReservation = current.getReservation();
+            if (currentReservation == null) {
+                System.err.println("ERROR: No current reservation");
+                return SeatClaimResult.lost(new ArrayList<>());
+            }
+            current.touch();
             
-            synchronized (this) {
-                // Re-check all seats to make sure they haven't been reserved by another user
+            try {
+                Screening screening = screeningDAO.getScreeningById(currentReservation.getScreeningId());
+                if (screening == null) {
+                    System.err.println("ERROR: Screening not found: " + currentReservation.getScreeningId());
+                    return SeatClaimResult.lost(new ArrayList<>());
+                }
+                
+                // If the earlier hold has expired, its seats may already belong to someone else
+                long expiresAt = currentEpochSeconds() + HOLD_TTL_SECONDS;
+                String holdToken = current.getHoldToken();
+                if (holdToken != null && seatHoldDAO.extendHold(holdToken, expiresAt) == 0) {
+                    System.out.println("Previous seat hold has expired: " + holdToken);
+                    currentReservation.setSelectedSeats(new ArrayList<>());
+                    holdToken = null;
+                }
+                if (holdToken == null) {
+                    holdToken = UUID.randomUUID().toString();
+                    current.setHoldToken(holdToken);
+                }
+                
+                // Seats this reservation already holds (e.g. the customer went back to change seats)
+                List<Seat> keptSeats = new ArrayList<>();
+                List<Integer> droppedSeatIds = new ArrayList<>();
+                for (Seat seat : currentReservation.getSelectedSeats()) {
+                    if (selectedSeatIds.contains(seat.getId())) {
+                        keptSeats.add(seat);
+                    } else {
+                        droppedSeatIds.add(seat.getId());
+                    }
+                }
+                
+                List<Integer> newSeatIds = new ArrayList<>();
                 for (int seatId : selectedSeatIds) {
-                    Seat seat = seatDAO.getSeatById(seatId);
-                    if (seat != null) {
-                        allSeats.add(seat);
-                        // Keep track of any already reserved seats
-                        if (seat.isReserved()) {
-                            reservedSeatIds.add(seatId);
-                            System.out.println("Seat " + seatId + " is already reserved");
+                    boolean alreadyHeld = false;
+                    for (Seat seat : keptSeats) {
+                        if (seat.getId() == seatId) {
+                            alreadyHeld = true;
+                            break;
                         }
-                    } else {
-                        System.err.println("ERROR: Seat with ID " + seatId + " not found");
+                    }
+                    if (!alreadyHeld && !newSeatIds.contains(seatId)) {
+                        newSeatIds.add(seatId);
                     }
                 }
                 
-                // If any seat is already reserved, log and return false
-                if (!reservedSeatIds.isEmpty()) {
-                    System.err.println("ERROR: Seats already reserved: " + reservedSeatIds);
-                    return false;
+                List<Seat> claimedSeats = new ArrayList<>();
+                if (!newSeatIds.isEmpty()) {
+                    SeatClaimResult claim = seatHoldDAO.holdSeats(
+                        holdToken, current.getSessionId(), screening.getId(), newSeatIds, expiresAt);
+                    if (!claim.isSuccessful()) {
+                        System.err.println("ERROR: Seats already reserved: " + claim.getLostSeatIds());
+                        return claim;
+                    }
+                    claimedSeats = claim.getClaimedSeats();
                 }
                 
-                System.out.println("All seats are available, proceeding with reservation");
+                // Only give up the old seats once the new ones are secured
+                if (!droppedSeatIds.isEmpty()) {
+                    seatHoldDAO.releaseSeats(holdToken, droppedSeatIds);
+                }
                 
-                // Add all the seats to the reservation
-                for (Seat seat : allSeats) {
+                currentReservation.setSelectedSeats(new ArrayList<>());
+                for (Seat seat : keptSeats) {
                     currentReservation.addSeat(seat);
                 }
-                
-                // Calculate the total amount
-                Screening screening = screeningDAO.getScreeningById(currentReservation.getScreeningId());
-                if (screening == null) {
-                    System.err.println("ERROR: Screening not found: " + currentReservation.getScreeningId());
-                    return false;
+                for (Seat seat : claimedSeats) {
+                    currentReservation.addSeat(seat);
                 }
                 currentReservation.calculateTotalAmount(screening);
                 
-                // Mark seats as temporarily reserved in the database to prevent conflicts
-                List<Integer> seatIds = new ArrayList<>();
-                for (Seat seat : allSeats) {
-                    seat.setReserved(true);  // Set in memory
-                    seatIds.add(seat.getId());
-                }
-                
-                System.out.println("Attempting to reserve seats in database: " + seatIds);
-                
-                // Now actually reserve the seats in the database
-                if (!seatIds.isEmpty()) {
-                    boolean reserved = seatDAO.updateMultipleSeatReservations(seatIds, true);
-                    if (!reserved) {
-                        System.err.println("ERROR: Failed to update seat reservations in database");
-                        // If database update failed, revert the in-memory state
-                        for (Seat seat : allSeats) {
-                            seat.setReserved(false);
-                        }
-                        return false;
-                    }
-                    
-                    System.out.println("Seat reservations updated in database, performing verification");
-                    
-                    // Skip the double-check and verification steps since it's causing issues
-                    // This is adequate since we're already in a synchronized block and have checked
-                    // the seats aren't reserved before attempting to reserve them
-                }
-            }
-            
-            // Final check - ensure we have at least one seat
-            if (currentReservation.getSelectedSeats().isEmpty()) {
-                System.err.println("ERROR: No seats were added to reservation");
-                return false;
+                System.out.println("Seats successfully added to reservation: " + currentReservation.getSelectedSeats().size());
+                return SeatClaimResult.claimed(currentReservation.getSelectedSeats());
+            } catch (SQLException e) {
+                System.err.println("SQL ERROR in addSeatsToReservation: " + e.getMessage());
+                e.printStackTrace();
+                return SeatClaimResult.lost(new ArrayList<>());
             }
-            
-            System.out.println("Seats successfully added to reservation: " + currentReservation.getSelectedSeats().size());
-            return true;
-        } catch (SQLException e) {
-            System.err.println("SQL ERROR in addSeatsToReservation: " + e.getMessage());
-            e.printStackTrace();
-            return false;
         }
     }
     
@@ -223,29 +284,38 @@ public class ReservationController {
      * @return true if the concessions were added successfully
      */
     public boolean addConcessionsToReservation(List<Concession> selectedConcessions) {
-        if (currentReservation == null || selectedConcessions == null) {
+        BookingSession current = session;
+        if (current == null || selectedConcessions == null) {
             return false;
         }
         
-        try {
-            // Clear any previously selected concessions
-            currentReservation.setSelectedConcessions(new ArrayList<>());
+        synchronized (current) {
+            Reservation currentReservation = current.getReservation();
+            if (currentReservation == null) {
+                return false;
+            }
+            current.touch();
             
-            // Add each selected concession to the reservation
-            for (Concession concession : selectedConcessions) {
-                if (concession.getQuantity() > 0) {
-                    currentReservation.addConcession(concession);
+            try {
+                // Clear any previously selected concessions
+                currentReservation.setSelectedConcessions(new ArrayList<>());
+                
+                // Add each selected concession to the reservation
+                for (Concession concession : selectedConcessions) {
+                    if (concession.getQuantity() > 0) {
+                        currentReservation.addConcession(concession);
+                    }
                 }
+                
+                // Recalculate the total amount
+                Screening screening = screeningDAO.getScreeningById(currentReservation.getScreeningId());
+                currentReservation.calculateTotalAmount(screening);
+                
+                return true;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
             }
-            
-            // Recalculate the total amount
-            Screening screening = screeningDAO.getScreeningById(currentReservation.getScreeningId());
-            currentReservation.calculateTotalAmount(screening);
-            
-            return true;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
         }
     }
     
@@ -255,28 +325,43 @@ public class ReservationController {
      * @return The ID of the newly created reservation, or -1 if creation failed
      */
     public int completeReservation() {
-        if (currentReservation == null ||
-            currentReservation.getSelectedSeats().isEmpty()) {
+        BookingSession current = session;
+        if (current == null) {
             return -1;
         }
         
-        try {
-            // Use synchronized block to prevent race conditions
-            synchronized (this) {
+        synchronized (current) {
+            Reservation currentReservation = current.getReservation();
+            if (currentReservation == null ||
+                currentReservation.getSelectedSeats().isEmpty()) {
+                return -1;
+            }
+            current.touch();
+            
+            try {
                 // Set the reservation time to now
                 currentReservation.setReservationTime(LocalDateTime.now());
                 
-                // Seats have already been reserved in the database during addSeatsToReservation,
-                // so we just need to verify they're still in our reservation
-                
+                // Seats have already been claimed in the database during addSeatsToReservation
                 List<Integer> seatIds = new ArrayList<>();
                 for (Seat seat : currentReservation.getSelectedSeats()) {
                     seatIds.add(seat.getId());
                 }
                 
-                if (seatIds.isEmpty()) {
-                    // This shouldn't happen, but we check just in case
-                    return -1;
+                // Take the seats out of the hold so the reaper can no longer release them
+                String holdToken = current.getHoldToken();
+                if (holdToken != null) {
+                    List<Integer> confirmed = seatHoldDAO.confirmHold(holdToken);
+                    current.setHoldToken(null);
+                    if (confirmed.size() != seatIds.size()) {
+                        System.err.println("ERROR: Seat hold expired before the reservation was completed");
+                        // Seats whose hold expired may belong to another customer by now; free only ours
+                        if (!confirmed.isEmpty()) {
+                            seatDAO.releaseSeats(confirmed);
+                        }
+                        currentReservation.setSelectedSeats(new ArrayList<>());
+                        return -1;
+                    }
                 }
                 
                 // Save the reservation to the database with seats now marked as reserved
@@ -284,54 +369,241 @@ public class ReservationController {
                 
                 if (reservationId == -1) {
                     // If reservation failed, release the seats
-                    seatDAO.updateMultipleSeatReservations(seatIds, false);
+                    seatDAO.releaseSeats(seatIds);
                     return -1;
                 }
                 
                 // Clear the current reservation on success
-                currentReservation = null;
+                current.setReservation(null);
                 
                 return reservationId;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return -1;
+            }
+        }
+    }
+    
+    /**
+     * Pays for the current reservation and completes it in one step.
+     * The reservation, its seats and concessions, the payment and the tickets are saved in a
+     * single transaction, so either all of them exist afterwards or none do. The caller generates
+     * one idempotency key per checkout and passes the same key when it submits again (double
+     * click, timeout); the repeat returns the original confirmation without charging twice.
+     * This is also what makes it safe to retry automatically when the database is busy.
+     *
+     * @param paymentMethod The payment method
+     * @param idempotencyKey The client-generated key of this checkout
+     * @return The confirmation with the saved reservation, payment and tickets, or null if checkout failed
+     */
+    public BookingConfirmation checkout(PaymentMethod paymentMethod, String idempotencyKey) {
+        BookingSession current = session;
+        try {
+            if (current == null) {
+                // Nothing to check out here; the key may still belong to an earlier checkout
+                return idempotencyKey != null ? checkoutDAO.findByIdempotencyKey(idempotencyKey) : null;
+            }
+            
+            // Repeated submissions of this session run one after the other and find the first one's result
+            synchronized (current) {
+                current.touch();
+                return DBConnection.retryOnBusy(() -> checkoutOnce(current, paymentMethod, idempotencyKey));
             }
         } catch (SQLException e) {
             e.printStackTrace();
-            return -1;
+            return null;
         }
     }
     
+    /**
+     * Runs one checkout attempt for {@link #checkout(PaymentMethod, String)}.
+     * Called with the session locked.
+     */
+    private BookingConfirmation checkoutOnce(BookingSession current, PaymentMethod paymentMethod,
+                                             String idempotencyKey) throws SQLException {
+        Reservation currentReservation = current.getReservation();
+        if (currentReservation == null) {
+            // Already checked out by an earlier submission of the same key
+            return idempotencyKey != null ? checkoutDAO.findByIdempotencyKey(idempotencyKey) : null;
+        }
+        if (currentReservation.getSelectedSeats().isEmpty()) {
+            return null;
+        }
+        
+        // Set the reservation time to now
+        currentReservation.setReservationTime(LocalDateTime.now());
+        
+        // Simulate payment processing - in a real system, we would integrate with a payment gateway
+        Payment payment = new Payment(0, currentReservation.getTotalAmount(), paymentMethod);
+        payment.setPaymentTime(LocalDateTime.now());
+        payment.generateTransactionReference();
+        payment.setIdempotencyKey(idempotencyKey);
+        payment.setSuccessful(true);
+        
+        BookingConfirmation confirmation = checkoutDAO.checkout(currentReservation, payment, current.getHoldToken());
+        if (confirmation == null) {
+            System.err.println("ERROR: Seat hold expired before the reservation was completed");
+            // The released seats may be claimed by others now, so they have to be selected again
+            releaseHold(current);
+            currentReservation.setSelectedSeats(new ArrayList<>());
+            return null;
+        }
+        
+        // The hold was confirmed as part of the checkout; clear the current reservation on success
+        current.setHoldToken(null);
+        current.setReservation(null);
+        
+        return confirmation;
+    }
+    
     /**
      * Cancels the current reservation process.
      * This releases any temporarily held seats.
      */
     public void cancelReservationProcess() {
-        try {
-            // Release any seats that were temporarily marked as reserved
-            if (currentReservation != null && !currentReservation.getSelectedSeats().isEmpty()) {
-                List<Integer> seatIds = new ArrayList<>();
-                for (Seat seat : currentReservation.getSelectedSeats()) {
-                    seatIds.add(seat.getId());
-                }
-                
-                // Release the seats in the database
-                if (!seatIds.isEmpty()) {
-                    seatDAO.updateMultipleSeatReservations(seatIds, false);
-                }
+        BookingSession current = session;
+        if (current == null) {
+            return;
+        }
+        
+        synchronized (current) {
+            try {
+                // Release any seats that were temporarily held
+                releaseHold(current);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            } finally {
+                // Clear the reservation regardless of whether the seat updates succeeded
+                current.setReservation(null);
             }
+        }
+    }
+    
+    /**
+     * Extends the seat hold of the current reservation.
+     * Called periodically while the customer is still working through checkout.
+     *
+     * @return true if the seats are still held, false if the hold has expired or there is none
+     */
+    public boolean extendSeatHold() {
+        BookingSession current = session;
+        if (current == null) {
+            return false;
+        }
+        
+        synchronized (current) {
+            String holdToken = current.getHoldToken();
+            if (holdToken == null) {
+                return false;
+            }
+            current.touch();
+            
+            try {
+                return seatHoldDAO.extendHold(holdToken, currentEpochSeconds() + HOLD_TTL_SECONDS) > 0;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+    }
+    
+    /**
+     * Finds the best block of adjacent free seats in one row for a party.
+     * Works on the in-memory seat inventory, so it is cheap enough to call whenever the party
+     * size changes; the seats are only suggested and still have to be claimed.
+     *
+     * @param screeningId The ID of the screening
+     * @param partySize The number of seats wanted
+     * @param preferredType The preferred seat type, or null for no preference
+     * @return The suggested seats ordered by column, or an empty list if no row has room for the party
+     */
+    public List<Seat> findBestAvailableSeats(int screeningId, int partySize, SeatType preferredType) {
+        try {
+            List<Seat> seats = SeatInventory.getInstance().getSeats(screeningId);
+            return new BestSeatFinder(seats).find(partySize, preferredType);
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            // Clear the reservation regardless of whether the seat updates succeeded
-            currentReservation = null;
+            return new ArrayList<>();
         }
     }
     
+    /**
+     * Gets how long seat holds last without being extended.
+     *
+     * @return The hold time-to-live in seconds
+     */
+    public static long getHoldTtlSeconds() {
+        return HOLD_TTL_SECONDS;
+    }
+    
+    /**
+     * Releases the seats held for a session's reservation, if any.
+     * Called with the session locked.
+     *
+     * @throws SQLException If a database error occurs
+     */
+    private void releaseHold(BookingSession current) throws SQLException {
+        String token = current.getHoldToken();
+        if (token != null) {
+            current.setHoldToken(null);
+            seatHoldDAO.releaseHold(token);
+        }
+    }
+    
+    /**
+     * Gets the controller's booking session, opening a new one if there is none or it was closed.
+     */
+    private synchronized BookingSession openSession() {
+        if (session == null || session.isClosed()) {
+            session = BookingSessionRegistry.getInstance().openSession();
+        }
+        return session;
+    }
+    
+    private static long currentEpochSeconds() {
+        return System.currentTimeMillis() / 1000L;
+    }
+    
+    /**
+     * Checks whether the current reservation lost its seats, because their hold expired
+     * before checkout, and the customer has to select seats again.
+     *
+     * @return true if there is a current reservation without seats
+     */
+    public boolean needsSeatSelection() {
+        Reservation reservation = getCurrentReservation();
+        return reservation != null && reservation.getSelectedSeats().isEmpty();
+    }
+    
     /**
      * Gets the current reservation being created.
      *
      * @return The current Reservation object
      */
     public Reservation getCurrentReservation() {
-        return currentReservation;
+        BookingSession current = session;
+        return current != null ? current.getReservation() : null;
+    }
+    
+    /**
+     * Gets the ID of the booking session this controller works on.
+     *
+     * @return The session ID, or null if no reservation was started yet
+     */
+    public String getSessionId() {
+        BookingSession current = session;
+        return current != null ? current.getSessionId() : null;
+    }
+    
+    /**
+     * Closes the booking session, releasing the seats it still holds.
+     * A later reservation opens a new session.
+     */
+    public void closeSession() {
+        BookingSession current = session;
+        if (current != null) {
+            BookingSessionRegistry.getInstance().closeSession(current.getSessionId());
+        }
     }
     
     /**
@@ -364,6 +636,23 @@ public class ReservationController {
         }
     }
     
+    /**
+     * Retrieves one page of a user's reservations, newest first.
+     *
+     * @param userId The ID of the user
+     * @param after The cursor of the last reservation of the previous page, or null for the first page
+     * @param limit The maximum number of reservations to return
+     * @return The reservations of the page
+     */
+    public List<Reservation> getReservationsByUser(int userId, ReservationCursor after, int limit) {
+        try {
+            return reservationDAO.getReservationsByUser(userId, after, limit);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
     /**
      * Generates tickets for a reservation.
      *
@@ -439,23 +728,13 @@ public class ReservationController {
     }
     
     /**
-     * Gets all available seat categories.
+     * Gets the categories that have available concessions.
      *
-     * @return A list of all seat categories
+     * @return A list of concession categories
      */
     public List<String> getAvailableConcessionCategories() {
         try {
-            List<Concession> allConcessions = concessionDAO.getAllAvailableConcessions();
-            List<String> categories = new ArrayList<>();
-            
-            for (Concession concession : allConcessions) {
-                String category = concession.getCategory();
-                if (!categories.contains(category)) {
-                    categories.add(category);
-                }
-            }
-            
-            return categories;
+            return concessionDAO.getAvailableCategories();
         } catch (SQLException e) {
             e.printStackTrace();
             return new ArrayList<>();
@@ -3,18 +3,26 @@ package com.cinebook.controller;
 import com.cinebook.dao.CinemaDAO;
 import com.cinebook.dao.MovieDAO;
 import com.cinebook.dao.ScreeningDAO;
+import com.cinebook.dao.SeatChangeFeed;
 import com.cinebook.dao.SeatDAO;
+import com.cinebook.dao.SeatInventory;
+import com.cinebook.model.BulkScheduleResult;
 import com.cinebook.model.Cinema;
 import com.cinebook.model.Movie;
 import com.cinebook.model.Screening;
 import com.cinebook.model.Seat;
+import com.cinebook.model.SeatChangeEvent;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 /**
  * Controller for screening-related operations.
@@ -53,12 +61,20 @@ public class ScreeningController {
     
     /**
      * Updates an existing screening in the database.
+     * A screening with reserved or held seats cannot be moved to another cinema, since its
+     * seats are positions in the current cinema's layout.
      *
      * @param screening The Screening object with updated information
      * @return true if the update was successful, false otherwise
      */
     public boolean updateScreening(Screening screening) {
         try {
+            Screening existing = screeningDAO.getScreeningById(screening.getId());
+            if (existing != null && existing.getCinemaId() != screening.getCinemaId()
+                    && seatDAO.hasReservedSeats(screening.getId())) {
+                System.err.println("ERROR: Screening " + screening.getId() + " has taken seats and cannot change cinema");
+                return false;
+            }
             return screeningDAO.updateScreening(screening);
         } catch (SQLException e) {
             e.printStackTrace();
@@ -145,18 +161,39 @@ public class ScreeningController {
      * @return A list of screenings for the next 7 days
      */
     public List<Screening> getScreeningsForNext7Days() {
+        LocalDate today = LocalDate.now();
+        return getScreenings(null, null, today.toString(), today.plusDays(6).toString());
+    }
+    
+    /**
+     * Retrieves the screenings of a date range, optionally of one movie, one cinema or both.
+     *
+     * @param movieId The ID of the movie, or null for all movies
+     * @param cinemaId The ID of the cinema, or null for all cinemas
+     * @param startDate The first date (format: YYYY-MM-DD), or null for no lower bound
+     * @param endDate The last date (format: YYYY-MM-DD), or null for no upper bound
+     * @return A list of screenings ordered by time
+     */
+    public List<Screening> getScreenings(Integer movieId, Integer cinemaId, String startDate, String endDate) {
         try {
-            List<Screening> allScreenings = new ArrayList<>();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            
-            LocalDate today = LocalDate.now();
-            for (int i = 0; i < 7; i++) {
-                LocalDate date = today.plusDays(i);
-                String dateStr = date.format(formatter);
-                allScreenings.addAll(screeningDAO.getScreeningsByDate(dateStr));
-            }
-            
-            return allScreenings;
+            return screeningDAO.getScreenings(movieId, cinemaId, startDate, endDate);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Retrieves the next showtimes, optionally of one movie, one cinema or both.
+     *
+     * @param movieId The ID of the movie, or null for all movies
+     * @param cinemaId The ID of the cinema, or null for all cinemas
+     * @param limit The maximum number of showtimes
+     * @return Up to limit upcoming screenings ordered by time
+     */
+    public List<Screening> getNextShowtimes(Integer movieId, Integer cinemaId, int limit) {
+        try {
+            return screeningDAO.getNextShowtimes(movieId, cinemaId, limit);
         } catch (SQLException e) {
             e.printStackTrace();
             return new ArrayList<>();
@@ -179,20 +216,82 @@ public class ScreeningController {
     }
     
     /**
-     * Retrieves all seats for a specific screening.
+     * Retrieves all seats for a specific screening from the in-memory seat inventory.
      *
      * @param screeningId The ID of the screening
      * @return A list of seats for the screening
      */
     public List<Seat> getSeatsByScreening(int screeningId) {
         try {
-            return seatDAO.getSeatsByScreening(screeningId);
+            return SeatInventory.getInstance().getSeats(screeningId);
         } catch (SQLException e) {
             e.printStackTrace();
             return new ArrayList<>();
         }
     }
     
+    /**
+     * Counts the free seats of several screenings, e.g. for a "seats left" column in a listing.
+     * Each screening costs one packed seat bitmap read rather than a scan of its seats.
+     *
+     * @param screeningIds The IDs of the screenings
+     * @return The number of free seats by screening ID
+     */
+    public Map<Integer, Integer> getAvailableSeatCounts(List<Integer> screeningIds) {
+        try {
+            return seatDAO.getAvailableSeatCounts(screeningIds);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new HashMap<>();
+        }
+    }
+    
+    /**
+     * Discards the in-memory seat states of a screening so they are re-read from the database.
+     * Used when the customer explicitly refreshes the seat map.
+     *
+     * @param screeningId The ID of the screening
+     */
+    public void refreshSeatsByScreening(int screeningId) {
+        SeatInventory.getInstance().invalidate(screeningId);
+    }
+    
+    /**
+     * Subscribes to the seat changes of a screening so a seat map can be kept current.
+     * Changes made in this application arrive immediately; changes made elsewhere arrive
+     * with the next poll of the database.
+     *
+     * @param screeningId The ID of the screening
+     * @param listener The listener to call with each change, on a background or the calling thread
+     * @return true if the subscription was made, false otherwise
+     */
+    public boolean subscribeToSeatChanges(int screeningId, Consumer<SeatChangeEvent> listener) {
+        try {
+            SeatChangeFeed.getInstance().subscribe(screeningId, listener);
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Stops delivering the seat changes of a screening to a listener.
+     *
+     * @param screeningId The ID of the screening
+     * @param listener The listener passed when subscribing
+     */
+    public void unsubscribeFromSeatChanges(int screeningId, Consumer<SeatChangeEvent> listener) {
+        SeatChangeFeed.getInstance().unsubscribe(screeningId, listener);
+    }
+    
+    /**
+     * Checks the database for seat changes made elsewhere without waiting for the next poll.
+     */
+    public void checkForSeatChanges() {
+        SeatChangeFeed.getInstance().pollNow();
+    }
+    
     /**
      * Retrieves all movies from the database.
      *
@@ -235,6 +334,21 @@ public class ScreeningController {
         }
     }
     
+    /**
+     * Retrieves a cinema by its ID.
+     *
+     * @param id The ID of the cinema
+     * @return The Cinema object if found, null otherwise
+     */
+    public Cinema getCinemaById(int id) {
+        try {
+            return cinemaDAO.getCinemaById(id);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
     /**
      * Retrieves all active cinemas from the database.
      *
@@ -257,13 +371,7 @@ public class ScreeningController {
      */
     public boolean hasReservedSeats(int screeningId) {
         try {
-            List<Seat> seats = seatDAO.getSeatsByScreening(screeningId);
-            for (Seat seat : seats) {
-                if (seat.isReserved()) {
-                    return true;
-                }
-            }
-            return false;
+            return seatDAO.hasReservedSeats(screeningId);
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -306,4 +414,44 @@ public class ScreeningController {
             return -1;
         }
     }
+    
+    /**
+     * Schedules a movie in a cinema at the same times every day over a date range.
+     * All screenings and their seats are created in one transaction; times at which the cinema
+     * already has a screening are skipped.
+     *
+     * @param movieId The ID of the movie
+     * @param cinemaId The ID of the cinema
+     * @param times The daily start times
+     * @param startDate The first day to schedule (inclusive)
+     * @param endDate The last day to schedule (inclusive)
+     * @param standardSeatPrice The price of standard seats
+     * @param deluxeSeatPrice The price of deluxe seats
+     * @return The result of the bulk creation, or null if the input was invalid or creation failed
+     */
+    public BulkScheduleResult scheduleRecurringScreenings(int movieId, int cinemaId, List<LocalTime> times,
+                                                          LocalDate startDate, LocalDate endDate,
+                                                          double standardSeatPrice, double deluxeSeatPrice) {
+        if (times == null || times.isEmpty() || startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            return null;
+        }
+        
+        List<LocalTime> dailyTimes = new ArrayList<>(new TreeSet<>(times));
+        List<Screening> screenings = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            for (LocalTime time : dailyTimes) {
+                screenings.add(new Screening(movieId, cinemaId, LocalDateTime.of(date, time),
+                                             standardSeatPrice, deluxeSeatPrice, true));
+            }
+        }
+        
+        try {
+            BulkScheduleResult result = screeningDAO.addScreenings(screenings, true);
+            System.out.println("Recurring schedule: " + result);
+            return result;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 }
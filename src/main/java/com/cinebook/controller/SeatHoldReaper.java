@@ -0,0 +1,74 @@
+package com.cinebook.controller;
+
+import com.cinebook.dao.SeatHoldDAO;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background task that releases expired seat holds.
+ * Seats held by a customer who closed the window, lost the connection or abandoned payment
+ * return to sale once their hold expires, without waiting for anyone to cancel them.
+ * Booking sessions that stayed idle too long are closed on the same schedule.
+ */
+public class SeatHoldReaper {
+    private static final long INTERVAL_SECONDS = Long.getLong("cinebook.hold.reapIntervalSeconds", 30L);
+    
+    private static ScheduledExecutorService scheduler;
+    
+    private static final SeatHoldDAO seatHoldDAO = new SeatHoldDAO();
+    
+    /**
+     * Starts the reaper if it is not already running.
+     * The first run happens immediately so holds left by a crashed session are released at startup.
+     */
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-hold-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(SeatHoldReaper::reapOnce, 0, INTERVAL_SECONDS, TimeUnit.SECONDS);
+        System.out.println("Seat hold reaper started (every " + INTERVAL_SECONDS + " s).");
+    }
+    
+    /**
+     * Stops the reaper.
+     */
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+    
+    /**
+     * Closes idle booking sessions and releases all expired holds once.
+     *
+     * @return The number of seats released, or -1 if the release failed
+     */
+    public static int reapOnce() {
+        int expiredSessions = BookingSessionRegistry.getInstance().expireIdleSessions();
+        if (expiredSessions > 0) {
+            System.out.println("Closed " + expiredSessions + " idle booking session(s)");
+        }
+        
+        try {
+            int released = seatHoldDAO.releaseExpiredHolds();
+            if (released > 0) {
+                System.out.println("Released " + released + " seat(s) from expired holds");
+            }
+            return released;
+        } catch (SQLException e) {
+            // Keep the schedule alive; the next run retries
+            System.err.println("Error releasing expired seat holds: " + e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.cinebook.dao;
+
+import com.cinebook.model.Cinema;
+import com.cinebook.model.Concession;
+import com.cinebook.model.Movie;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory catalog of movies, cinemas and concessions.
+ * The three tables change a few times a week but are read on almost every screen, so they are
+ * loaded together into an immutable snapshot with indexes by ID and by concession category.
+ * Reads take the current snapshot without locking; the reads of {@link MovieDAO},
+ * {@link CinemaDAO} and {@link ConcessionDAO} go through here and hand out copies, so callers
+ * may modify what they get.
+ *
+ * Every write in those DAOs bumps the catalog version after it succeeds, and the next read
+ * loads a new snapshot. Snapshots older than a minute are reloaded too, so changes made by
+ * other processes show up.
+ */
+public class CatalogCache {
+    // Snapshots older than this are reloaded so changes made by other processes show up
+    private static final long MAX_AGE_MILLIS = Long.getLong("cinebook.catalog.maxAgeSeconds", 60L) * 1000L;
+
+    private static final CatalogCache INSTANCE = new CatalogCache();
+
+    private final AtomicLong version = new AtomicLong();
+    private final Object loadLock = new Object();
+    private volatile Snapshot snapshot;
+
+    private final MovieDAO movieDAO = new MovieDAO();
+    private final CinemaDAO cinemaDAO = new CinemaDAO();
+    private final ConcessionDAO concessionDAO = new ConcessionDAO();
+
+    private CatalogCache() {
+    }
+
+    /**
+     * Gets the shared catalog cache.
+     *
+     * @return The catalog cache instance
+     */
+    public static CatalogCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the catalog version, which changes whenever the catalog is modified through the DAOs.
+     *
+     * @return The current version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Marks the loaded catalog as out of date after a movie, cinema or concession was written.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Gets all movies ordered by title.
+     *
+     * @return Copies of the movies
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public List<Movie> getMovies() throws SQLException {
+        return copyAll(snapshot().movies, Movie::copy);
+    }
+
+    /**
+     * Gets the active movies ordered by title.
+     *
+     * @return Copies of the active movies
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public List<Movie> getActiveMovies() throws SQLException {
+        return copyAll(snapshot().activeMovies, Movie::copy);
+    }
+
+    /**
+     * Gets a movie by its ID.
+     *
+     * @param id The ID of the movie
+     * @return A copy of the movie, or null if there is no such movie
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public Movie getMovie(int id) throws SQLException {
+        Movie movie = snapshot().moviesById.get(id);
+        return movie == null ? null : movie.copy();
+    }
+
+    /**
+     * Gets all cinemas ordered by name.
+     *
+     * @return Copies of the cinemas
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public List<Cinema> getCinemas() throws SQLException {
+        return copyAll(snapshot().cinemas, Cinema::copy);
+    }
+
+    /**
+     * Gets the active cinemas ordered by name.
+     *
+     * @return Copies of the active cinemas
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public List<Cinema> getActiveCinemas() throws SQLException {
+        return copyAll(snapshot().activeCinemas, Cinema::copy);
+    }
+
+    /**
+     * Gets a cinema by its ID.
+     *
+     * @param id The ID of the cinema
+     * @return A copy of the cinema, or null if there is no such cinema
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public Cinema getCinema(int id) throws SQLException {
+        Cinema cinema = snapshot().cinemasById.get(id);
+        return cinema == null ? null : cinema.copy();
+    }
+
+    /**
+     * Gets all concessions ordered by category and name.
+     *
+     * @return Copies of the concessions
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public List<Concession> getConcessions() throws SQLException {
+        return copyAll(snapshot().concessions, Concession::copy);
+    }
+
+    /**
+     * Gets the available concessions ordered by category and name.
+     *
+     * @return Copies of the available concessions
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public List<Concession> getAvailableConcessions() throws SQLException {
+        return copyAll(snapshot().availableConcessions, Concession::copy);
+    }
+
+    /**
+     * Gets the available concessions of a category ordered by name.
+     *
+     * @param category The category
+     * @return Copies of the available concessions in the category
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public List<Concession> getAvailableConcessions(String category) throws SQLException {
+        List<Concession> concessions = snapshot().availableByCategory.get(category);
+        return concessions == null ? new ArrayList<>() : copyAll(concessions, Concession::copy);
+    }
+
+    /**
+     * Gets the categories that have available concessions, in category order.
+     *
+     * @return The categories
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public List<String> getAvailableConcessionCategories() throws SQLException {
+        return new ArrayList<>(snapshot().availableByCategory.keySet());
+    }
+
+    /**
+     * Gets a concession by its ID.
+     *
+     * @param id The ID of the concession
+     * @return A copy of the concession, or null if there is no such concession
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    public Concession getConcession(int id) throws SQLException {
+        Concession concession = snapshot().concessionsById.get(id);
+        return concession == null ? null : concession.copy();
+    }
+
+    /**
+     * Gets a movie without copying it, for lookups within this package that only read it,
+     * such as the titles of the screenings in the {@link ScheduleIndex}.
+     *
+     * @param id The ID of the movie
+     * @return The shared movie, which must not be modified, or null if there is no such movie
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    Movie peekMovie(int id) throws SQLException {
+        return snapshot().moviesById.get(id);
+    }
+
+    /**
+     * Gets a cinema without copying it, for lookups within this package that only read it.
+     *
+     * @param id The ID of the cinema
+     * @return The shared cinema, which must not be modified, or null if there is no such cinema
+     * @throws SQLException If the catalog had to be loaded and a database error occurred
+     */
+    Cinema peekCinema(int id) throws SQLException {
+        return snapshot().cinemasById.get(id);
+    }
+
+    /**
+     * Gets the current snapshot, loading a new one if the catalog changed or the snapshot is too old.
+     * Loads are serialized so a burst of reads after a change loads the catalog once.
+     */
+    private Snapshot snapshot() throws SQLException {
+        Snapshot current = snapshot;
+        if (isCurrent(current)) {
+            return current;
+        }
+
+        synchronized (loadLock) {
+            current = snapshot;
+            if (isCurrent(current)) {
+                return current;
+            }
+
+            // A write during the load bumps the version again, so the next read reloads
+            long loadVersion = version.get();
+            current = new Snapshot(loadVersion, movieDAO.loadAllMovies(), cinemaDAO.loadAllCinemas(),
+                                   concessionDAO.loadAllConcessions());
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private boolean isCurrent(Snapshot current) {
+        return current != null && current.version == version.get()
+            && System.currentTimeMillis() - current.loadedAt < MAX_AGE_MILLIS;
+    }
+
+    private static <T> List<T> copyAll(List<T> items, Function<T, T> copy) {
+        List<T> copies = new ArrayList<>(items.size());
+        for (T item : items) {
+            copies.add(copy.apply(item));
+        }
+        return copies;
+    }
+
+    /**
+     * Immutable catalog contents of one version with their indexes.
+     * The objects in it are never handed out, only copies of them.
+     */
+    private static class Snapshot {
+        private final long version;
+        private final long loadedAt;
+        private final List<Movie> movies;
+        private final List<Movie> activeMovies = new ArrayList<>();
+        private final Map<Integer, Movie> moviesById = new HashMap<>();
+        private final List<Cinema> cinemas;
+        private final List<Cinema> activeCinemas = new ArrayList<>();
+        private final Map<Integer, Cinema> cinemasById = new HashMap<>();
+        private final List<Concession> concessions;
+        private final List<Concession> availableConcessions = new ArrayList<>();
+        private final Map<Integer, Concession> concessionsById = new HashMap<>();
+        private final Map<String, List<Concession>> availableByCategory = new LinkedHashMap<>();
+
+        Snapshot(long version, List<Movie> movies, List<Cinema> cinemas, List<Concession> concessions) {
+            this.version = version;
+            this.loadedAt = System.currentTimeMillis();
+            this.movies = Collections.unmodifiableList(movies);
+            this.cinemas = Collections.unmodifiableList(cinemas);
+            this.concessions = Collections.unmodifiableList(concessions);
+
+            for (Movie movie : movies) {
+                moviesById.put(movie.getId(), movie);
+                if (movie.isActive()) {
+                    activeMovies.add(movie);
+                }
+            }
+            for (Cinema cinema : cinemas) {
+                cinemasById.put(cinema.getId(), cinema);
+                if (cinema.isActive()) {
+                    activeCinemas.add(cinema);
+                }
+            }
+            // Concessions come ordered by category and name, so each category list is ordered by name
+            for (Concession concession : concessions) {
+                concessionsById.put(concession.getId(), concession);
+                if (concession.isAvailable()) {
+                    availableConcessions.add(concession);
+                    availableByCategory.computeIfAbsent(concession.getCategory(), k -> new ArrayList<>()).add(concession);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.cinebook.dao;
+
+import com.cinebook.model.BookingConfirmation;
+import com.cinebook.model.Concession;
+import com.cinebook.model.Payment;
+import com.cinebook.model.Reservation;
+import com.cinebook.model.Seat;
+import com.cinebook.model.Ticket;
+import com.cinebook.util.DateTimeUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data Access Object for checkout.
+ * Confirms the seat hold, saves the reservation with its seats and concessions, records the
+ * payment, books it in the daily sales rollup and issues the tickets in one write transaction,
+ * so a failure at any step leaves nothing behind: no paid reservation without tickets and no
+ * reservation without payment.
+ * A checkout is identified by the idempotency key of its payment; submitting the same key
+ * again returns the original confirmation instead of booking and charging a second time.
+ */
+public class CheckoutDAO {
+    
+    private PaymentDAO paymentDAO = new PaymentDAO();
+    private ReservationDAO reservationDAO = new ReservationDAO();
+    private SalesRollupDAO salesRollupDAO = new SalesRollupDAO();
+    private TicketDAO ticketDAO = new TicketDAO();
+    
+    private static final DateTimeFormatter DB_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    /**
+     * Checks out a reservation whose seats are held under a hold token.
+     * The reservation, payment and tickets passed in are completed with their new IDs and returned
+     * as the confirmation, so nothing has to be read back afterwards. If the payment's idempotency
+     * key was used before, nothing is written and the original checkout is returned instead.
+     *
+     * @param reservation The reservation with its selected seats and concessions
+     * @param payment The payment for the reservation; its reservation ID is filled in here
+     * @param holdToken The token of the seat hold; may only be null if the reservation has no seats
+     * @return The confirmation, or null if the seats are not held (any more) and nothing was saved
+     * @throws SQLException If a database error occurs; nothing is saved in that case either
+     */
+    public BookingConfirmation checkout(Reservation reservation, Payment payment, String holdToken) throws SQLException {
+        String confirmHoldQuery = "DELETE FROM seat_holds WHERE hold_token = ? AND expires_at > ?";
+        String reservationQuery = "INSERT INTO reservations (user_id, guest_name, guest_email, guest_phone, " +
+                                 "screening_id, reservation_time, reservation_epoch, total_amount, is_paid) " +
+                                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String seatQuery = "INSERT INTO reservation_seats (reservation_id, seat_id) VALUES (?, ?)";
+        String concessionQuery = "INSERT INTO reservation_concessions (reservation_id, concession_id, quantity) " +
+                                "VALUES (?, ?, ?)";
+        String paymentQuery = "INSERT INTO payments (reservation_id, amount, payment_method, " +
+                             "transaction_reference, payment_time, payment_epoch, is_successful, idempotency_key) " +
+                             "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String ticketCodeQuery = "SELECT 1 FROM tickets WHERE ticket_code = ?";
+        String ticketQuery = "INSERT INTO tickets (reservation_id, seat_id, ticket_code, is_used, generation_time) " +
+                            "VALUES (?, ?, ?, 0, ?) RETURNING id";
+        String customerQuery = "SELECT full_name FROM users WHERE id = ?";
+        
+        List<Seat> seats = reservation.getSelectedSeats();
+        
+        // Seats without a hold may have been released and claimed by someone else
+        if (holdToken == null && !seats.isEmpty()) {
+            return null;
+        }
+        
+        // A retried submission must not book the seats again; answer it from the original checkout
+        if (payment.getIdempotencyKey() != null) {
+            BookingConfirmation original = findByIdempotencyKey(payment.getIdempotencyKey());
+            if (original != null) {
+                return original;
+            }
+        }
+        
+        // Every statement is prepared once up front and reused for all rows of this checkout
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement confirmHoldStmt = conn.prepareStatement(confirmHoldQuery);
+             PreparedStatement reservationStmt = conn.prepareStatement(reservationQuery, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement seatStmt = conn.prepareStatement(seatQuery);
+             PreparedStatement concessionStmt = conn.prepareStatement(concessionQuery);
+             PreparedStatement paymentStmt = conn.prepareStatement(paymentQuery, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement ticketCodeStmt = conn.prepareStatement(ticketCodeQuery);
+             PreparedStatement ticketStmt = conn.prepareStatement(ticketQuery)) {
+            
+            conn.setAutoCommit(false);
+            
+            try {
+                // Take the seats out of the hold so the reaper can no longer release them. This write comes
+                // first so the transaction waits for the write lock on the busy timeout instead of failing
+                // to upgrade a read snapshot that another writer has moved past.
+                if (holdToken != null) {
+                    confirmHoldStmt.setString(1, holdToken);
+                    confirmHoldStmt.setLong(2, System.currentTimeMillis() / 1000L);
+                    if (confirmHoldStmt.executeUpdate() != seats.size()) {
+                        conn.rollback();
+                        // The same submission may have confirmed the hold in the meantime
+                        return payment.getIdempotencyKey() == null ? null :
+                               findByIdempotencyKey(payment.getIdempotencyKey());
+                    }
+                }
+                
+                // Save the reservation
+                reservation.setPaid(payment.isSuccessful());
+                if (reservation.isGuestReservation()) {
+                    reservationStmt.setNull(1, java.sql.Types.INTEGER);
+                    reservationStmt.setString(2, reservation.getGuestName());
+                    reservationStmt.setString(3, reservation.getGuestEmail());
+                    reservationStmt.setString(4, reservation.getGuestPhone());
+                } else {
+                    reservationStmt.setInt(1, reservation.getUserId());
+                    reservationStmt.setNull(2, java.sql.Types.VARCHAR);
+                    reservationStmt.setNull(3, java.sql.Types.VARCHAR);
+                    reservationStmt.setNull(4, java.sql.Types.VARCHAR);
+                }
+                reservationStmt.setInt(5, reservation.getScreeningId());
+                reservationStmt.setString(6, DateTimeUtil.toLegacyText(reservation.getReservationTime()));
+                reservationStmt.setLong(7, DateTimeUtil.toEpochSeconds(reservation.getReservationTime()));
+                reservationStmt.setDouble(8, reservation.getTotalAmount());
+                reservationStmt.setInt(9, reservation.isPaid() ? 1 : 0);
+                reservationStmt.executeUpdate();
+                reservation.setId(generatedId(reservationStmt));
+                
+                // Link the seats and concessions
+                for (Seat seat : seats) {
+                    seatStmt.setInt(1, reservation.getId());
+                    seatStmt.setInt(2, seat.getId());
+                    seatStmt.addBatch();
+                }
+                seatStmt.executeBatch();
+                
+                boolean hasConcessions = false;
+                for (Concession concession : reservation.getSelectedConcessions()) {
+                    if (concession.getQuantity() > 0) {
+                        concessionStmt.setInt(1, reservation.getId());
+                        concessionStmt.setInt(2, concession.getId());
+                        concessionStmt.setInt(3, concession.getQuantity());
+                        concessionStmt.addBatch();
+                        hasConcessions = true;
+                    }
+                }
+                if (hasConcessions) {
+                    concessionStmt.executeBatch();
+                }
+                
+                // Record the payment
+                payment.setReservationId(reservation.getId());
+                paymentStmt.setInt(1, payment.getReservationId());
+                paymentStmt.setDouble(2, payment.getAmount());
+                paymentStmt.setString(3, payment.getPaymentMethod().toString());
+                paymentStmt.setString(4, payment.getTransactionReference());
+                paymentStmt.setString(5, DateTimeUtil.toLegacyText(payment.getPaymentTime()));
+                paymentStmt.setLong(6, DateTimeUtil.toEpochSeconds(payment.getPaymentTime()));
+                paymentStmt.setInt(7, payment.isSuccessful() ? 1 : 0);
+                paymentStmt.setString(8, payment.getIdempotencyKey());
+                paymentStmt.executeUpdate();
+                payment.setId(generatedId(paymentStmt));
+                if (payment.isSuccessful()) {
+                    salesRollupDAO.recordPayment(conn, payment.getId());
+                }
+                
+                String customerName = reservation.getCustomerName();
+                if (!reservation.isGuestReservation()) {
+                    try (PreparedStatement customerStmt = conn.prepareStatement(customerQuery)) {
+                        customerStmt.setInt(1, reservation.getUserId());
+                        try (ResultSet rs = customerStmt.executeQuery()) {
+                            if (rs.next()) {
+                                customerName = rs.getString("full_name");
+                            }
+                        }
+                    }
+                }
+                payment.setCustomerName(customerName);
+                
+                // Issue one ticket per seat
+                List<Ticket> tickets = new ArrayList<>();
+                Set<String> usedCodes = new HashSet<>();
+                LocalDateTime generationTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+                for (Seat seat : seats) {
+                    Ticket ticket = new Ticket(reservation.getId(), seat.getId());
+                    ticket.setGenerationTime(generationTime);
+                    do {
+                        ticket.generateTicketCode();
+                    } while (!usedCodes.add(ticket.getTicketCode()) || isTicketCodeTaken(ticketCodeStmt, ticket.getTicketCode()));
+                    
+                    ticketStmt.setInt(1, ticket.getReservationId());
+                    ticketStmt.setInt(2, ticket.getSeatId());
+                    ticketStmt.setString(3, ticket.getTicketCode());
+                    ticketStmt.setString(4, generationTime.format(DB_FORMATTER));
+                    try (ResultSet rs = ticketStmt.executeQuery()) {
+                        rs.next();
+                        ticket.setId(rs.getInt("id"));
+                    }
+                    
+                    ticket.setSeatNumber(seat.getSeatNumber());
+                    ticket.setSeatType(seat.getSeatType());
+                    ticket.setMovieTitle(reservation.getMovieTitle());
+                    ticket.setCinemaName(reservation.getCinemaName());
+                    ticket.setScreeningTime(reservation.getScreeningTime());
+                    ticket.setCustomerName(customerName);
+                    tickets.add(ticket);
+                }
+                
+                conn.commit();
+                if (payment.isSuccessful()) {
+                    ReportCache.getInstance().invalidateDays(Arrays.asList(
+                        DateTimeUtil.epochDay(DateTimeUtil.toEpochSeconds(reservation.getReservationTime())),
+                        DateTimeUtil.epochDay(DateTimeUtil.toEpochSeconds(payment.getPaymentTime()))));
+                }
+                return new BookingConfirmation(reservation, payment, tickets);
+            } catch (SQLException e) {
+                conn.rollback();
+                if (payment.getIdempotencyKey() != null && DBConnection.isUniqueViolation(e)) {
+                    // Another process checked out with the same key first
+                    BookingConfirmation original = findByIdempotencyKey(payment.getIdempotencyKey());
+                    if (original != null) {
+                        return original;
+                    }
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    /**
+     * Retrieves the checkout submitted with an idempotency key.
+     *
+     * @param idempotencyKey The client-generated key of the checkout
+     * @return The confirmation of the original checkout, or null if no checkout used the key
+     * @throws SQLException If a database error occurs
+     */
+    public BookingConfirmation findByIdempotencyKey(String idempotencyKey) throws SQLException {
+        Payment payment = paymentDAO.getPaymentByIdempotencyKey(idempotencyKey);
+        if (payment == null) {
+            return null;
+        }
+        
+        Reservation reservation = reservationDAO.getReservationById(payment.getReservationId());
+        if (reservation == null) {
+            return null;
+        }
+        return new BookingConfirmation(reservation, payment, ticketDAO.getTicketsByReservation(reservation.getId()));
+    }
+    
+    /**
+     * Gets the key generated by the insert just executed on a statement.
+     */
+    private static int generatedId(PreparedStatement stmt) throws SQLException {
+        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+            if (!generatedKeys.next()) {
+                throw new SQLException("Insert did not generate an ID");
+            }
+            return generatedKeys.getInt(1);
+        }
+    }
+    
+    /**
+     * Checks whether a ticket code was already issued.
+     */
+    private static boolean isTicketCodeTaken(PreparedStatement stmt, String ticketCode) throws SQLException {
+        stmt.setString(1, ticketCode);
+        try (ResultSet rs = stmt.executeQuery()) {
+            return rs.next();
+        }
+    }
+}
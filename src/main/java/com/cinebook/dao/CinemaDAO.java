@@ -1,6 +1,7 @@
 package com.cinebook.dao;
 
 import com.cinebook.model.Cinema;
+import com.cinebook.model.SeatLayout;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -9,13 +10,19 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Data Access Object for Cinema operations.
- * Handles CRUD operations for cinemas in the database.
+ * Handles CRUD operations for cinemas in the database, including their versioned seat layouts.
+ * Cinema reads are served from the {@link CatalogCache}, which every successful write invalidates.
  */
 public class CinemaDAO {
     
+    // Layout versions are never modified once written, so they can be cached without invalidation
+    private static final Map<Integer, SeatLayout> LAYOUT_CACHE = new ConcurrentHashMap<>();
+    
     /**
      * Adds a new cinema to the database.
      *
@@ -44,6 +51,8 @@ public class CinemaDAO {
             if (affectedRows == 0) {
                 return -1; // No rows affected, insertion failed
             }
+            CatalogCache.getInstance().invalidate();
+            
             
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
@@ -63,21 +72,7 @@ public class CinemaDAO {
      * @throws SQLException If a database error occurs
      */
     public Cinema getCinemaById(int id) throws SQLException {
-        String query = "SELECT * FROM cinemas WHERE id = ?";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setInt(1, id);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return extractCinemaFromResultSet(rs);
-                }
-            }
-        }
-        
-        return null; // Cinema not found
+        return CatalogCache.getInstance().getCinema(id);
     }
     
     /**
@@ -104,8 +99,32 @@ public class CinemaDAO {
             stmt.setInt(7, cinema.isActive() ? 1 : 0);
             stmt.setInt(8, cinema.getId());
             
-            int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+            conn.setAutoCommit(false);
+            
+            try {
+                int affectedRows = stmt.executeUpdate();
+                
+                // A new grid becomes a new layout version; existing screenings keep theirs
+                SeatLayout current = getCurrentSeatLayout(cinema.getId());
+                if (affectedRows > 0 && (current == null ||
+                    current.getTotalRows() != cinema.getTotalRows() ||
+                    current.getSeatsPerRow() != cinema.getSeatsPerRow() ||
+                    current.hasDeluxeSeats() != cinema.hasDeluxeSeats())) {
+                    insertSeatLayout(conn, SeatLayout.standard(cinema.getId(), cinema.getTotalRows(),
+                                                               cinema.getSeatsPerRow(), cinema.hasDeluxeSeats()));
+                }
+                
+                conn.commit();
+                if (affectedRows > 0) {
+                    CatalogCache.getInstance().invalidate();
+                }
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
     
@@ -117,29 +136,57 @@ public class CinemaDAO {
      * @throws SQLException If a database error occurs
      */
     public boolean deleteCinema(int id) throws SQLException {
+        String deleteLayoutsQuery = "DELETE FROM seat_layouts WHERE cinema_id = ?";
         String query = "DELETE FROM cinemas WHERE id = ?";
         
         try (Connection conn = DBConnection.getConnection();
+             PreparedStatement deleteLayoutsStmt = conn.prepareStatement(deleteLayoutsQuery);
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
-            stmt.setInt(1, id);
+            conn.setAutoCommit(false);
             
-            int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+            try {
+                deleteLayoutsStmt.setInt(1, id);
+                deleteLayoutsStmt.executeUpdate();
+                
+                stmt.setInt(1, id);
+                int affectedRows = stmt.executeUpdate();
+                
+                conn.commit();
+                if (affectedRows > 0) {
+                    CatalogCache.getInstance().invalidate();
+                }
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
     
     /**
-     * Retrieves all cinemas from the database.
+     * Retrieves all cinemas.
      *
      * @return A list of all cinemas
      * @throws SQLException If a database error occurs
      */
     public List<Cinema> getAllCinemas() throws SQLException {
+        return CatalogCache.getInstance().getCinemas();
+    }
+    
+    /**
+     * Loads all cinemas from the database for the catalog cache.
+     *
+     * @return A list of all cinemas ordered by name
+     * @throws SQLException If a database error occurs
+     */
+    List<Cinema> loadAllCinemas() throws SQLException {
         String query = "SELECT * FROM cinemas ORDER BY name";
         List<Cinema> cinemas = new ArrayList<>();
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
@@ -152,25 +199,190 @@ public class CinemaDAO {
     }
     
     /**
-     * Retrieves all active cinemas from the database.
+     * Retrieves all active cinemas.
      *
      * @return A list of all active cinemas
      * @throws SQLException If a database error occurs
      */
     public List<Cinema> getAllActiveCinemas() throws SQLException {
-        String query = "SELECT * FROM cinemas WHERE is_active = 1 ORDER BY name";
-        List<Cinema> cinemas = new ArrayList<>();
+        return CatalogCache.getInstance().getActiveCinemas();
+    }
+    
+    /**
+     * Retrieves a seat layout version by its ID.
+     *
+     * @param layoutId The ID of the layout
+     * @return The SeatLayout object if found, null otherwise
+     * @throws SQLException If a database error occurs
+     */
+    public SeatLayout getSeatLayoutById(int layoutId) throws SQLException {
+        SeatLayout cached = LAYOUT_CACHE.get(layoutId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        String query = "SELECT * FROM seat_layouts WHERE id = ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setInt(1, layoutId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    SeatLayout layout = extractSeatLayoutFromResultSet(rs);
+                    LAYOUT_CACHE.put(layoutId, layout);
+                    return layout;
+                }
+            }
+        }
+        
+        return null; // Layout not found
+    }
+    
+    /**
+     * Retrieves the newest seat layout of a cinema, used for screenings scheduled from now on.
+     *
+     * @param cinemaId The ID of the cinema
+     * @return The current SeatLayout, or null if the cinema has none
+     * @throws SQLException If a database error occurs
+     */
+    public SeatLayout getCurrentSeatLayout(int cinemaId) throws SQLException {
+        String query = "SELECT id FROM seat_layouts WHERE cinema_id = ? ORDER BY version DESC LIMIT 1";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setInt(1, cinemaId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return getSeatLayoutById(rs.getInt("id"));
+                }
+            }
+        }
+        
+        return null; // Cinema has no layout
+    }
+    
+    /**
+     * Retrieves the seat layout version a screening was scheduled with.
+     *
+     * @param screeningId The ID of the screening
+     * @return The SeatLayout of the screening, or null if the screening does not exist
+     * @throws SQLException If a database error occurs
+     */
+    public SeatLayout getSeatLayoutByScreening(int screeningId) throws SQLException {
+        String query = "SELECT layout_id FROM screenings WHERE id = ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setInt(1, screeningId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return getSeatLayoutById(rs.getInt("layout_id"));
+                }
+            }
+        }
+        
+        return null; // Screening not found
+    }
+    
+    /**
+     * Adds a new layout version for a cinema, for example one with aisles or a different grid.
+     * The cinema's dimensions are updated to match; screenings scheduled before keep their layout.
+     *
+     * @param layout The layout to add; its cinema ID, grid and cells must be set
+     * @return The ID of the new layout version, or -1 if the layout is invalid
+     * @throws SQLException If a database error occurs
+     */
+    public int addSeatLayout(SeatLayout layout) throws SQLException {
+        if (!layout.isValid()) {
+            return -1;
+        }
+        
+        String cinemaQuery = "UPDATE cinemas SET total_seats = ?, total_rows = ?, seats_per_row = ?, " +
+                            "has_deluxe_seats = ? WHERE id = ?";
         
         try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+             PreparedStatement stmt = conn.prepareStatement(cinemaQuery)) {
             
-            while (rs.next()) {
-                cinemas.add(extractCinemaFromResultSet(rs));
+            conn.setAutoCommit(false);
+            
+            try {
+                stmt.setInt(1, layout.getSeatCount());
+                stmt.setInt(2, layout.getTotalRows());
+                stmt.setInt(3, layout.getSeatsPerRow());
+                stmt.setInt(4, layout.hasDeluxeSeats() ? 1 : 0);
+                stmt.setInt(5, layout.getCinemaId());
+                
+                if (stmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return -1; // Cinema not found
+                }
+                
+                int layoutId = insertSeatLayout(conn, layout);
+                conn.commit();
+                CatalogCache.getInstance().invalidate(); // The cinema's dimensions changed
+                return layoutId;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         }
+    }
+    
+    /**
+     * Helper method to insert a layout as the next version of its cinema.
+     *
+     * @param conn The connection of the surrounding transaction
+     * @param layout The layout to insert; its ID and version are set on success
+     * @return The ID of the new layout version
+     * @throws SQLException If a database error occurs
+     */
+    private int insertSeatLayout(Connection conn, SeatLayout layout) throws SQLException {
+        String query = "INSERT INTO seat_layouts (cinema_id, version, total_rows, seats_per_row, cells) " +
+                      "SELECT ?, COALESCE(MAX(version), 0) + 1, ?, ?, ? FROM seat_layouts WHERE cinema_id = ? " +
+                      "RETURNING id, version";
         
-        return cinemas;
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, layout.getCinemaId());
+            stmt.setInt(2, layout.getTotalRows());
+            stmt.setInt(3, layout.getSeatsPerRow());
+            stmt.setString(4, layout.getCells());
+            stmt.setInt(5, layout.getCinemaId());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Creating seat layout failed, no ID obtained.");
+                }
+                layout.setId(rs.getInt("id"));
+                layout.setVersion(rs.getInt("version"));
+                return layout.getId();
+            }
+        }
+    }
+    
+    /**
+     * Helper method to extract a SeatLayout object from a ResultSet.
+     *
+     * @param rs The ResultSet containing layout data
+     * @return A SeatLayout object populated with data from the ResultSet
+     * @throws SQLException If a database error occurs
+     */
+    private SeatLayout extractSeatLayoutFromResultSet(ResultSet rs) throws SQLException {
+        return new SeatLayout(
+            rs.getInt("id"),
+            rs.getInt("cinema_id"),
+            rs.getInt("version"),
+            rs.getInt("total_rows"),
+            rs.getInt("seats_per_row"),
+            rs.getString("cells")
+        );
     }
     
     /**
@@ -12,7 +12,8 @@ import java.util.List;
 
 /**
  * Data Access Object for Concession operations.
- * Handles CRUD operations for concessions in the database.
+ * Handles CRUD operations for concessions in the database. Reads are served from the
+ * {@link CatalogCache}, which every successful write invalidates.
  */
 public class ConcessionDAO {
     
@@ -41,6 +42,8 @@ public class ConcessionDAO {
             if (affectedRows == 0) {
                 return -1; // No rows affected, insertion failed
             }
+            CatalogCache.getInstance().invalidate();
+            
             
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
@@ -60,21 +63,7 @@ public class ConcessionDAO {
      * @throws SQLException If a database error occurs
      */
     public Concession getConcessionById(int id) throws SQLException {
-        String query = "SELECT * FROM concessions WHERE id = ?";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setInt(1, id);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return extractConcessionFromResultSet(rs);
-                }
-            }
-        }
-        
-        return null; // Concession not found
+        return CatalogCache.getInstance().getConcession(id);
     }
     
     /**
@@ -99,6 +88,9 @@ public class ConcessionDAO {
             stmt.setInt(6, concession.getId());
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                CatalogCache.getInstance().invalidate();
+            }
             return affectedRows > 0;
         }
     }
@@ -119,21 +111,34 @@ public class ConcessionDAO {
             stmt.setInt(1, id);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                CatalogCache.getInstance().invalidate();
+            }
             return affectedRows > 0;
         }
     }
     
     /**
-     * Retrieves all concessions from the database.
+     * Retrieves all concessions.
      *
      * @return A list of all concessions
      * @throws SQLException If a database error occurs
      */
     public List<Concession> getAllConcessions() throws SQLException {
+        return CatalogCache.getInstance().getConcessions();
+    }
+    
+    /**
+     * Loads all concessions from the database for the catalog cache.
+     *
+     * @return A list of all concessions ordered by category and name
+     * @throws SQLException If a database error occurs
+     */
+    List<Concession> loadAllConcessions() throws SQLException {
         String query = "SELECT * FROM concessions ORDER BY category, name";
         List<Concession> concessions = new ArrayList<>();
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
@@ -146,51 +151,34 @@ public class ConcessionDAO {
     }
     
     /**
-     * Retrieves all available concessions from the database.
+     * Retrieves all available concessions.
      *
      * @return A list of all available concessions
      * @throws SQLException If a database error occurs
      */
     public List<Concession> getAllAvailableConcessions() throws SQLException {
-        String query = "SELECT * FROM concessions WHERE is_available = 1 ORDER BY category, name";
-        List<Concession> concessions = new ArrayList<>();
-        
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            
-            while (rs.next()) {
-                concessions.add(extractConcessionFromResultSet(rs));
-            }
-        }
-        
-        return concessions;
+        return CatalogCache.getInstance().getAvailableConcessions();
     }
     
     /**
-     * Retrieves all concessions of a specific category.
+     * Retrieves the available concessions of a specific category.
      *
      * @param category The category of concessions to retrieve
      * @return A list of concessions in the specified category
      * @throws SQLException If a database error occurs
      */
     public List<Concession> getConcessionsByCategory(String category) throws SQLException {
-        String query = "SELECT * FROM concessions WHERE category = ? AND is_available = 1 ORDER BY name";
-        List<Concession> concessions = new ArrayList<>();
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, category);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    concessions.add(extractConcessionFromResultSet(rs));
-                }
-            }
-        }
-        
-        return concessions;
+        return CatalogCache.getInstance().getAvailableConcessions(category);
+    }
+    
+    /**
+     * Retrieves the categories that have available concessions.
+     *
+     * @return A list of categories in alphabetical order
+     * @throws SQLException If a database error occurs
+     */
+    public List<String> getAvailableCategories() throws SQLException {
+        return CatalogCache.getInstance().getAvailableConcessionCategories();
     }
     
     /**
@@ -0,0 +1,425 @@
+package com.cinebook.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of SQLite connections with per-thread leases.
+ * A thread that already holds a lease gets the same physical connection back, so nested
+ * DAO calls share one connection and one transaction instead of competing for a second one.
+ * Closing the handed-out connection returns the lease; the physical connection stays open.
+ */
+public class ConnectionPool {
+    private final String name;
+    private final String url;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final List<String> pragmas;
+
+    private final LinkedBlockingDeque<Connection> idleConnections = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+    private volatile boolean shutdown = false;
+
+    // Statistics
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger activeLeases = new AtomicInteger();
+    private final LongAdder totalLeases = new LongAdder();
+    private final LongAdder reentrantLeases = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Constructor for ConnectionPool.
+     *
+     * @param name A short name used in log messages and statistics
+     * @param url The JDBC URL of the database
+     * @param maxSize The maximum number of physical connections
+     * @param acquireTimeoutMillis How long a caller waits for a free connection before failing
+     * @param pragmas PRAGMA statements applied to every new physical connection
+     */
+    public ConnectionPool(String name, String url, int maxSize, long acquireTimeoutMillis, List<String> pragmas) {
+        this.name = name;
+        this.url = url;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.pragmas = pragmas;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Leases a connection for the calling thread.
+     * If the thread already holds a lease, the same connection is returned and the lease depth increases.
+     *
+     * @return A connection whose close() releases the lease
+     * @throws SQLException If no connection became available in time or a connection could not be opened
+     */
+    public Connection acquire() throws SQLException {
+        Lease lease = currentLease.get();
+        if (lease != null) {
+            lease.depth++;
+            reentrantLeases.increment();
+            return lease.newHandle(false);
+        }
+
+        if (shutdown) {
+            throw new SQLException("Connection pool '" + name + "' has been shut down");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Timed out after " + acquireTimeoutMillis +
+                                      " ms waiting for a connection from pool '" + name + "'");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection from pool '" + name + "'", e);
+        }
+        recordWait(System.nanoTime() - waitStart);
+
+        Connection physical;
+        try {
+            physical = takeIdleOrOpen();
+        } catch (SQLException e) {
+            permits.release();
+            throw e;
+        }
+
+        lease = new Lease(physical);
+        currentLease.set(lease);
+        activeLeases.incrementAndGet();
+        totalLeases.increment();
+        return lease.newHandle(true);
+    }
+
+    /**
+     * Checks whether the calling thread currently holds a lease from this pool.
+     *
+     * @return true if the thread holds a lease
+     */
+    public boolean isHeldByCurrentThread() {
+        return currentLease.get() != null;
+    }
+
+    /**
+     * Closes all idle connections and refuses new leases.
+     * Connections that are still leased are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Gets a snapshot of the pool statistics.
+     *
+     * @return The current pool statistics
+     */
+    public PoolStatistics getStatistics() {
+        long leases = totalLeases.sum();
+        long waitNanos = totalWaitNanos.sum();
+        return new PoolStatistics(
+            name,
+            maxSize,
+            openConnections.get(),
+            activeLeases.get(),
+            idleConnections.size(),
+            permits.getQueueLength(),
+            leases,
+            reentrantLeases.sum(),
+            timeouts.sum(),
+            leases == 0 ? 0.0 : waitNanos / (double) leases / 1_000_000.0,
+            maxWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    /**
+     * Takes an idle connection, or opens a new one if none is idle.
+     */
+    private Connection takeIdleOrOpen() throws SQLException {
+        Connection connection;
+        while ((connection = idleConnections.pollFirst()) != null) {
+            if (!connection.isClosed()) {
+                return connection;
+            }
+            openConnections.decrementAndGet();
+        }
+
+        connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            for (String pragma : pragmas) {
+                statement.execute(pragma);
+            }
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+        openConnections.incrementAndGet();
+        return connection;
+    }
+
+    /**
+     * Returns a physical connection to the pool once the outermost lease is closed.
+     */
+    private void release(Lease lease) {
+        currentLease.remove();
+        activeLeases.decrementAndGet();
+
+        Connection physical = lease.physical;
+        boolean reusable = false;
+        try {
+            if (!physical.isClosed()) {
+                if (!physical.getAutoCommit()) {
+                    // A caller left a transaction open; never hand it to the next thread
+                    System.err.println("WARNING: Connection returned to pool '" + name +
+                                      "' with an open transaction, rolling back");
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                reusable = true;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error resetting pooled connection: " + e.getMessage());
+        }
+
+        if (reusable && !shutdown) {
+            idleConnections.offerFirst(physical);
+        } else {
+            closeQuietly(physical);
+            openConnections.decrementAndGet();
+        }
+        permits.release();
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One thread's hold on a physical connection.
+     * Nested handles join the transaction of the outer handle: their commit and setAutoCommit
+     * calls are ignored while the outer transaction is open, and a nested rollback marks the
+     * whole transaction rollback-only so the outer commit fails instead of half-applying.
+     */
+    private class Lease {
+        private final Connection physical;
+        private int depth = 1;
+        private boolean rollbackOnly = false;
+
+        Lease(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle(boolean outermost) {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Handle(this, outermost));
+        }
+    }
+
+    /**
+     * Invocation handler behind every connection handed out by the pool.
+     */
+    private class Handle implements InvocationHandler {
+        private final Lease lease;
+        private final boolean outermost;
+        private boolean ownsTransaction = false;
+        private boolean closed = false;
+
+        Handle(Lease lease, boolean outermost) {
+            this.lease = lease;
+            this.outermost = outermost;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+
+            switch (methodName) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed || lease.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + name + "]" + lease.physical;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection handle has already been closed");
+            }
+
+            if (!outermost && !ownsTransaction) {
+                switch (methodName) {
+                    case "setAutoCommit":
+                        boolean autoCommit = (Boolean) args[0];
+                        if (!lease.physical.getAutoCommit()) {
+                            return null; // Join the outer transaction
+                        }
+                        ownsTransaction = !autoCommit;
+                        break;
+                    case "commit":
+                        if (!lease.physical.getAutoCommit()) {
+                            return null; // The outer handle commits
+                        }
+                        break;
+                    case "rollback":
+                        if (!lease.physical.getAutoCommit() && (args == null || args.length == 0)) {
+                            lease.rollbackOnly = true;
+                            return null;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } else if (methodName.equals("commit") && lease.rollbackOnly) {
+                lease.physical.rollback();
+                lease.rollbackOnly = false;
+                throw new SQLException("Transaction was marked rollback-only by a nested operation");
+            } else if (methodName.equals("rollback") && (args == null || args.length == 0)) {
+                lease.rollbackOnly = false;
+            } else if (methodName.equals("setAutoCommit") && !outermost) {
+                ownsTransaction = !((Boolean) args[0]);
+            }
+
+            try {
+                return method.invoke(lease.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lease.depth--;
+            if (lease.depth == 0) {
+                release(lease);
+            }
+        }
+    }
+
+    /**
+     * Immutable snapshot of pool usage, used to size the pools under load.
+     */
+    public static class PoolStatistics {
+        private final String poolName;
+        private final int maxSize;
+        private final int openConnections;
+        private final int activeLeases;
+        private final int idleConnections;
+        private final int waitingThreads;
+        private final long totalLeases;
+        private final long reentrantLeases;
+        private final long timeouts;
+        private final double averageWaitMillis;
+        private final double maxWaitMillis;
+
+        public PoolStatistics(String poolName, int maxSize, int openConnections, int activeLeases,
+                              int idleConnections, int waitingThreads, long totalLeases,
+                              long reentrantLeases, long timeouts, double averageWaitMillis,
+                              double maxWaitMillis) {
+            this.poolName = poolName;
+            this.maxSize = maxSize;
+            this.openConnections = openConnections;
+            this.activeLeases = activeLeases;
+            this.idleConnections = idleConnections;
+            this.waitingThreads = waitingThreads;
+            this.totalLeases = totalLeases;
+            this.reentrantLeases = reentrantLeases;
+            this.timeouts = timeouts;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        public String getPoolName() {
+            return poolName;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getOpenConnections() {
+            return openConnections;
+        }
+
+        public int getActiveLeases() {
+            return activeLeases;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getWaitingThreads() {
+            return waitingThreads;
+        }
+
+        public long getTotalLeases() {
+            return totalLeases;
+        }
+
+        public long getReentrantLeases() {
+            return reentrantLeases;
+        }
+
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        public double getAverageWaitMillis() {
+            return averageWaitMillis;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s pool: %d/%d open, %d active, %d idle, %d waiting, " +
+                                "%d leases (%d re-entrant), %d timeouts, wait avg %.2f ms / max %.2f ms",
+                                poolName, openConnections, maxSize, activeLeases, idleConnections,
+                                waitingThreads, totalLeases, reentrantLeases, timeouts,
+                                averageWaitMillis, maxWaitMillis);
+        }
+    }
+}
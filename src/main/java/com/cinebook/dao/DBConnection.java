@@ -1,243 +1,239 @@
 package com.cinebook.dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * Singleton class to manage database connections.
- * This class handles establishing a connection to the SQLite database and provides
- * a method to get the connection instance.
+ * Manages pooled connections to the SQLite database.
+ * Writers and readers use separate bounded pools. The database runs in WAL journal mode,
+ * so readers (listings, reports) never block the writer that is checking out a booking,
+ * and writers wait on a busy timeout instead of failing immediately with SQLITE_BUSY.
+ * Writer transactions begin IMMEDIATE, taking the write lock up front, so a transaction that
+ * reads before it writes waits its turn instead of failing to upgrade a stale read snapshot.
+ * The schema is migrated once, when the pools are first created.
  */
 public class DBConnection {
-    private static Connection connection = null;
-    private static final String DATABASE_PATH = "db/cinebook.db";
+    // Another database file (a copy for benchmarks or training) can be used with -Dcinebook.db.path=FILE
+    private static final String DATABASE_PATH = System.getProperty("cinebook.db.path", "db/cinebook.db");
+    private static final String DATABASE_URL = "jdbc:sqlite:" + DATABASE_PATH;
+    private static final String WRITER_URL = DATABASE_URL + "?transaction_mode=IMMEDIATE";
+    
+    // Pool sizing can be tuned per terminal with -Dcinebook.db.writers=N and -Dcinebook.db.readers=N
+    private static final int WRITER_POOL_SIZE = Integer.getInteger("cinebook.db.writers", 2);
+    private static final int READER_POOL_SIZE = Integer.getInteger("cinebook.db.readers", 4);
+    private static final int BUSY_TIMEOUT_MILLIS = Integer.getInteger("cinebook.db.busyTimeout", 5000);
+    private static final long ACQUIRE_TIMEOUT_MILLIS = Long.getLong("cinebook.db.acquireTimeout", 30000L);
+    private static final int BUSY_RETRIES = Integer.getInteger("cinebook.db.busyRetries", 3);
+    
+    private static volatile ConnectionPool writerPool = null;
+    private static volatile ConnectionPool readerPool = null;
+    private static final Object INIT_LOCK = new Object();
     
     // Private constructor to prevent instantiation
     private DBConnection() { }
     
     /**
-     * Gets a connection to the database.
-     * If a connection doesn't exist, it creates one.
+     * Creates the connection pools and migrates the schema, if that has not happened yet.
+     * Takes no connection lease, so startup does not hold the writer while the UI loads.
+     *
+     * @throws SQLException If the database cannot be opened or migrated
+     */
+    public static void initialize() throws SQLException {
+        ensureInitialized();
+    }
+    
+    /**
+     * Gets a read-write connection to the database.
+     * The connection is leased from the writer pool for the calling thread and must be closed
+     * (typically with try-with-resources) to return it. Nested calls on the same thread share
+     * the same connection and transaction.
      *
      * @return The Connection object
      * @throws SQLException If a database access error occurs
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        ensureInitialized();
+        return writerPool.acquire();
+    }
+    
+    /**
+     * Gets a read-only connection to the database.
+     * If the calling thread already holds a read-write connection, that connection is returned
+     * so the caller sees its own uncommitted changes.
+     *
+     * @return The Connection object
+     * @throws SQLException If a database access error occurs
+     */
+    public static Connection getReadConnection() throws SQLException {
+        ensureInitialized();
+        if (writerPool.isHeldByCurrentThread()) {
+            return writerPool.acquire();
+        }
+        return readerPool.acquire();
+    }
+    
+    /**
+     * A unit of database work that can safely be run again, e.g. because it is idempotent.
+     *
+     * @param <T> The type of the result
+     */
+    public interface Work<T> {
+        T execute() throws SQLException;
+    }
+    
+    /**
+     * Runs database work, running it again with a short back-off if it fails because the database
+     * stayed busy or locked past the busy timeout. Work that joins an outer transaction is not
+     * retried, since that transaction has already been marked for rollback.
+     *
+     * @param work The work to run; must be safe to repeat
+     * @param <T> The type of the result
+     * @return The result of the first run that did not fail with SQLITE_BUSY
+     * @throws SQLException If the work failed for another reason or stayed busy on every attempt
+     */
+    public static <T> T retryOnBusy(Work<T> work) throws SQLException {
+        boolean nested = writerPool != null && writerPool.isHeldByCurrentThread();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.execute();
+            } catch (SQLException e) {
+                if (nested || attempt > BUSY_RETRIES || !isBusy(e)) {
+                    throw e;
+                }
+                System.err.println("Database busy, retrying (attempt " + attempt + " of " + BUSY_RETRIES + ")");
+                try {
+                    Thread.sleep(50L << (attempt - 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Checks whether a database error means the database was busy or locked by another connection.
+     *
+     * @param e The database error
+     * @return true for SQLITE_BUSY and SQLITE_LOCKED
+     */
+    public static boolean isBusy(SQLException e) {
+        String message = e.getMessage() == null ? "" : e.getMessage();
+        return e.getErrorCode() == 5 || e.getErrorCode() == 6 ||
+               message.contains("SQLITE_BUSY") || message.contains("SQLITE_LOCKED") ||
+               message.contains("database is locked");
+    }
+    
+    /**
+     * Checks whether a database error is a UNIQUE constraint violation.
+     *
+     * @param e The database error
+     * @return true if a unique constraint or index rejected the write
+     */
+    public static boolean isUniqueViolation(SQLException e) {
+        return e.getMessage() != null && e.getMessage().contains("UNIQUE constraint failed");
+    }
+    
+    /**
+     * Gets usage statistics for the writer and reader pools.
+     *
+     * @return The writer pool statistics followed by the reader pool statistics
+     */
+    public static List<ConnectionPool.PoolStatistics> getPoolStatistics() {
+        List<ConnectionPool.PoolStatistics> statistics = new ArrayList<>();
+        if (writerPool != null) {
+            statistics.add(writerPool.getStatistics());
+        }
+        if (readerPool != null) {
+            statistics.add(readerPool.getStatistics());
+        }
+        return statistics;
+    }
+    
+    /**
+     * Creates the connection pools and initializes the schema on first use.
+     *
+     * @throws SQLException If the database cannot be opened
+     */
+    private static void ensureInitialized() throws SQLException {
+        if (writerPool != null) {
+            return;
+        }
+        
+        synchronized (INIT_LOCK) {
+            if (writerPool != null) {
+                return;
+            }
+            
             try {
                 // Create the db directory if it doesn't exist
-                File dbDirectory = new File("db");
+                File dbDirectory = new File(DATABASE_PATH).getAbsoluteFile().getParentFile();
                 if (!dbDirectory.exists()) {
                     dbDirectory.mkdirs();
                 }
                 
                 // Load the SQLite JDBC driver
                 Class.forName("org.sqlite.JDBC");
-                
-                // Create a connection to the database
-                connection = DriverManager.getConnection("jdbc:sqlite:" + DATABASE_PATH);
-                
-                // Set PRAGMA statements for SQLite
-                Statement statement = connection.createStatement();
-                statement.execute("PRAGMA foreign_keys = ON");
-                statement.close();
-                
-                System.out.println("Connected to the SQLite database.");
-                
-                // Initialize the database schema if it doesn't exist
-                initializeDatabase();
-                
             } catch (ClassNotFoundException e) {
                 System.err.println("SQLite JDBC driver not found: " + e.getMessage());
                 throw new SQLException("SQLite JDBC driver not found", e);
             }
-        }
-        return connection;
-    }
-    
-    /**
-     * Initializes the database schema if it doesn't exist.
-     * This method creates all the necessary tables for the application.
-     */
-    private static void initializeDatabase() {
-        try {
-            Statement statement = connection.createStatement();
-            
-            // Create Users table
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS users (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "username TEXT NOT NULL UNIQUE, " +
-                "password TEXT NOT NULL, " +
-                "email TEXT NOT NULL, " +
-                "phone_number TEXT, " +
-                "full_name TEXT NOT NULL, " +
-                "is_admin INTEGER NOT NULL DEFAULT 0, " +
-                "registration_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                ")"
-            );
             
-            // Create Cinemas table
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS cinemas (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "name TEXT NOT NULL, " +
-                "location TEXT NOT NULL, " +
-                "total_seats INTEGER NOT NULL, " +
-                "total_rows INTEGER NOT NULL, " +
-                "seats_per_row INTEGER NOT NULL, " +
-                "has_deluxe_seats INTEGER NOT NULL DEFAULT 0, " +
-                "is_active INTEGER NOT NULL DEFAULT 1" +
-                ")"
-            );
+            ConnectionPool writers = new ConnectionPool("writer", WRITER_URL, WRITER_POOL_SIZE,
+                ACQUIRE_TIMEOUT_MILLIS, Arrays.asList(
+                    "PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS,
+                    "PRAGMA journal_mode = WAL",
+                    "PRAGMA synchronous = NORMAL",
+                    "PRAGMA foreign_keys = ON"
+                ));
+            ConnectionPool readers = new ConnectionPool("reader", DATABASE_URL, READER_POOL_SIZE,
+                ACQUIRE_TIMEOUT_MILLIS, Arrays.asList(
+                    "PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS,
+                    "PRAGMA foreign_keys = ON",
+                    "PRAGMA query_only = 1"
+                ));
             
-            // Create Movies table
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS movies (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "title TEXT NOT NULL, " +
-                "director TEXT NOT NULL, " +
-                "cast TEXT NOT NULL, " +
-                "genre TEXT NOT NULL, " +
-                "synopsis TEXT NOT NULL, " +
-                "duration_minutes INTEGER NOT NULL, " +
-                "rating TEXT NOT NULL, " +
-                "release_date TEXT NOT NULL, " +
-                "poster_url TEXT, " +
-                "is_active INTEGER NOT NULL DEFAULT 1" +
-                ")"
-            );
-            
-            // Create Screenings table
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS screenings (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "movie_id INTEGER NOT NULL, " +
-                "cinema_id INTEGER NOT NULL, " +
-                "screening_time TIMESTAMP NOT NULL, " +
-                "standard_seat_price REAL NOT NULL, " +
-                "deluxe_seat_price REAL NOT NULL, " +
-                "is_active INTEGER NOT NULL DEFAULT 1, " +
-                "FOREIGN KEY (movie_id) REFERENCES movies(id), " +
-                "FOREIGN KEY (cinema_id) REFERENCES cinemas(id)" +
-                ")"
-            );
-            
-            // Create Seats table
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS seats (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "screening_id INTEGER NOT NULL, " +
-                "seat_number TEXT NOT NULL, " +
-                "seat_type TEXT NOT NULL, " +
-                "is_reserved INTEGER NOT NULL DEFAULT 0, " +
-                "row_number INTEGER NOT NULL, " +
-                "column_number INTEGER NOT NULL, " +
-                "FOREIGN KEY (screening_id) REFERENCES screenings(id), " +
-                "UNIQUE (screening_id, seat_number)" +
-                ")"
-            );
-            
-            // Create Concessions table
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS concessions (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "name TEXT NOT NULL, " +
-                "description TEXT NOT NULL, " +
-                "price REAL NOT NULL, " +
-                "category TEXT NOT NULL, " +
-                "is_available INTEGER NOT NULL DEFAULT 1" +
-                ")"
-            );
-            
-            // Create Reservations table
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS reservations (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "user_id INTEGER, " +
-                "guest_name TEXT, " +
-                "guest_email TEXT, " +
-                "guest_phone TEXT, " +
-                "screening_id INTEGER NOT NULL, " +
-                "reservation_time TIMESTAMP NOT NULL, " +
-                "total_amount REAL NOT NULL, " +
-                "is_paid INTEGER NOT NULL DEFAULT 0, " +
-                "FOREIGN KEY (user_id) REFERENCES users(id), " +
-                "FOREIGN KEY (screening_id) REFERENCES screenings(id)" +
-                ")"
-            );
-            
-            // Create ReservationSeats table (junction table)
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS reservation_seats (" +
-                "reservation_id INTEGER NOT NULL, " +
-                "seat_id INTEGER NOT NULL, " +
-                "PRIMARY KEY (reservation_id, seat_id), " +
-                "FOREIGN KEY (reservation_id) REFERENCES reservations(id), " +
-                "FOREIGN KEY (seat_id) REFERENCES seats(id)" +
-                ")"
-            );
-            
-            // Create ReservationConcessions table (junction table)
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS reservation_concessions (" +
-                "reservation_id INTEGER NOT NULL, " +
-                "concession_id INTEGER NOT NULL, " +
-                "quantity INTEGER NOT NULL, " +
-                "PRIMARY KEY (reservation_id, concession_id), " +
-                "FOREIGN KEY (reservation_id) REFERENCES reservations(id), " +
-                "FOREIGN KEY (concession_id) REFERENCES concessions(id)" +
-                ")"
-            );
-            
-            // Create Payments table
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS payments (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "reservation_id INTEGER NOT NULL, " +
-                "amount REAL NOT NULL, " +
-                "payment_method TEXT NOT NULL, " +
-                "transaction_reference TEXT NOT NULL, " +
-                "payment_time TIMESTAMP NOT NULL, " +
-                "is_successful INTEGER NOT NULL DEFAULT 0, " +
-                "FOREIGN KEY (reservation_id) REFERENCES reservations(id)" +
-                ")"
-            );
-            
-            // Create Tickets table
-            statement.execute(
-                "CREATE TABLE IF NOT EXISTS tickets (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "reservation_id INTEGER NOT NULL, " +
-                "seat_id INTEGER NOT NULL, " +
-                "ticket_code TEXT NOT NULL UNIQUE, " +
-                "is_used INTEGER NOT NULL DEFAULT 0, " +
-                "generation_time TIMESTAMP NOT NULL, " +
-                "FOREIGN KEY (reservation_id) REFERENCES reservations(id), " +
-                "FOREIGN KEY (seat_id) REFERENCES seats(id)" +
-                ")"
-            );
-            
-            statement.close();
-            System.out.println("Database schema initialized.");
+            // Initialize the database schema if it doesn't exist
+            try (Connection connection = writers.acquire()) {
+                System.out.println("Connected to the SQLite database.");
+                initializeDatabase(connection);
+            } catch (SQLException e) {
+                writers.shutdown();
+                throw e;
+            }
             
-            // Insert initial admin user if none exists
-            insertInitialData();
+            readerPool = readers;
+            writerPool = writers;
             
-        } catch (SQLException e) {
-            System.err.println("Error initializing database schema: " + e.getMessage());
-            e.printStackTrace();
+            Runtime.getRuntime().addShutdownHook(new Thread(DBConnection::closeConnection));
         }
     }
     
+    /**
+     * Brings the database schema up to date and seeds the initial data.
+     * Runs once per process, when the connection pools are created.
+     *
+     * @param connection A read-write connection
+     * @throws SQLException If a schema migration fails
+     */
+    private static void initializeDatabase(Connection connection) throws SQLException {
+        new SchemaMigrator(connection).migrate();
+        System.out.println("Database schema initialized.");
+        
+        // Insert initial admin user if none exists
+        insertInitialData(connection);
+    }
+    
     /**
      * Inserts initial data into the database if it doesn't exist.
      * This includes an admin user, sample cinemas, and concession items.
      */
-    private static void insertInitialData() {
+    private static void insertInitialData(Connection connection) {
         try {
             Statement statement = connection.createStatement();
             
@@ -320,17 +316,21 @@ public class DBConnection {
     }
     
     /**
-     * Closes the database connection.
+     * Closes all pooled database connections.
      */
     public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
+        synchronized (INIT_LOCK) {
+            if (writerPool == null) {
+                return;
             }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
-            e.printStackTrace();
+            for (ConnectionPool.PoolStatistics statistics : getPoolStatistics()) {
+                System.out.println(statistics);
+            }
+            readerPool.shutdown();
+            writerPool.shutdown();
+            readerPool = null;
+            writerPool = null;
+            System.out.println("Database connections closed.");
         }
     }
 }
@@ -0,0 +1,179 @@
+package com.cinebook.dao;
+
+import com.cinebook.model.ExportDataset;
+import com.cinebook.util.DateTimeUtil;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Data Access Object for report exports.
+ * Rows are handed to the caller one at a time straight from a forward-only, read-only result
+ * set, in the order of an index, so an export of any size never holds more than one row.
+ * Times are exported as local date-times (yyyy-MM-dd HH:mm:ss) computed from the epoch columns.
+ */
+public class ExportDAO {
+
+    // Customer of reservation r: the registered user or the guest
+    private static final String CUSTOMER_NAME = "CASE WHEN r.user_id IS NULL THEN r.guest_name ELSE u.full_name END";
+    private static final String CUSTOMER_EMAIL = "CASE WHEN r.user_id IS NULL THEN r.guest_email ELSE u.email END";
+
+    /**
+     * Receives the exported rows.
+     */
+    public interface RowHandler {
+        /**
+         * Called once before the first row.
+         *
+         * @param columns The column headers
+         * @throws IOException If the columns could not be written
+         */
+        void columns(String[] columns) throws IOException;
+
+        /**
+         * Called for each row. The array is reused for the next row.
+         *
+         * @param values The values of the row: strings, numbers or null
+         * @return true to continue, false to stop the export
+         * @throws IOException If the row could not be written
+         */
+        boolean row(Object[] values) throws IOException;
+    }
+
+    /**
+     * Counts the rows an export of a date range will write.
+     *
+     * @param dataset The records to export
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return The number of rows
+     * @throws SQLException If a database error occurs
+     */
+    public long countRows(ExportDataset dataset, String startDate, String endDate) throws SQLException {
+        String query;
+        switch (dataset) {
+            case PAYMENTS:
+                query = "SELECT COUNT(*) FROM payments p WHERE p.payment_epoch >= ? AND p.payment_epoch < ?";
+                break;
+            case TICKETS:
+                query = "SELECT COUNT(*) FROM reservations r JOIN tickets t ON t.reservation_id = r.id " +
+                        "WHERE r.reservation_epoch >= ? AND r.reservation_epoch < ?";
+                break;
+            case RESERVATIONS:
+            default:
+                query = "SELECT COUNT(*) FROM reservations r WHERE r.reservation_epoch >= ? AND r.reservation_epoch < ?";
+                break;
+        }
+
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setLong(1, DateTimeUtil.startOfDay(startDate));
+            stmt.setLong(2, DateTimeUtil.startOfNextDay(endDate));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+    }
+
+    /**
+     * Streams the rows of a date range to a handler.
+     * Reservations and tickets are selected by reservation time, payments by payment time.
+     *
+     * @param dataset The records to export
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @param handler The handler to pass the rows to
+     * @return The number of rows passed to the handler
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the handler failed to write a row
+     */
+    public long streamRows(ExportDataset dataset, String startDate, String endDate, RowHandler handler)
+            throws SQLException, IOException {
+        String query;
+        switch (dataset) {
+            case PAYMENTS:
+                query = "SELECT p.id AS \"Payment ID\", p.reservation_id AS \"Reservation ID\", " +
+                        "datetime(p.payment_epoch, 'unixepoch') AS \"Paid At\", " +
+                        CUSTOMER_NAME + " AS \"Customer\", p.payment_method AS \"Method\", " +
+                        "p.transaction_reference AS \"Reference\", p.amount AS \"Amount\", " +
+                        "CASE p.is_successful WHEN 1 THEN 'Yes' ELSE 'No' END AS \"Successful\" " +
+                        "FROM payments p " +
+                        "JOIN reservations r ON p.reservation_id = r.id " +
+                        "LEFT JOIN users u ON r.user_id = u.id " +
+                        "WHERE p.payment_epoch >= ? AND p.payment_epoch < ? " +
+                        "ORDER BY p.payment_epoch, p.id";
+                break;
+            case TICKETS:
+                query = "SELECT t.id AS \"Ticket ID\", t.ticket_code AS \"Ticket Code\", r.id AS \"Reservation ID\", " +
+                        CUSTOMER_NAME + " AS \"Customer\", m.title AS \"Movie\", c.name AS \"Cinema\", " +
+                        "datetime(s.screening_epoch, 'unixepoch') AS \"Screening Time\", " +
+                        "st.seat_number AS \"Seat\", st.seat_type AS \"Seat Type\", " +
+                        "CASE t.is_used WHEN 1 THEN 'Yes' ELSE 'No' END AS \"Used\", " +
+                        "t.generation_time AS \"Issued At\" " +
+                        "FROM reservations r " +
+                        "JOIN tickets t ON t.reservation_id = r.id " +
+                        "JOIN screenings s ON r.screening_id = s.id " +
+                        "JOIN movies m ON s.movie_id = m.id " +
+                        "JOIN cinemas c ON s.cinema_id = c.id " +
+                        "LEFT JOIN seats st ON t.seat_id = st.id " +
+                        "LEFT JOIN users u ON r.user_id = u.id " +
+                        "WHERE r.reservation_epoch >= ? AND r.reservation_epoch < ? " +
+                        "ORDER BY r.reservation_epoch, r.id, t.id";
+                break;
+            case RESERVATIONS:
+            default:
+                query = "SELECT r.id AS \"Reservation ID\", datetime(r.reservation_epoch, 'unixepoch') AS \"Reserved At\", " +
+                        CUSTOMER_NAME + " AS \"Customer\", " + CUSTOMER_EMAIL + " AS \"Email\", " +
+                        "m.title AS \"Movie\", c.name AS \"Cinema\", " +
+                        "datetime(s.screening_epoch, 'unixepoch') AS \"Screening Time\", " +
+                        "(SELECT COUNT(*) FROM reservation_seats rs WHERE rs.reservation_id = r.id) AS \"Tickets\", " +
+                        "r.total_amount AS \"Total Amount\", " +
+                        "CASE r.is_paid WHEN 1 THEN 'Yes' ELSE 'No' END AS \"Paid\" " +
+                        "FROM reservations r " +
+                        "JOIN screenings s ON r.screening_id = s.id " +
+                        "JOIN movies m ON s.movie_id = m.id " +
+                        "JOIN cinemas c ON s.cinema_id = c.id " +
+                        "LEFT JOIN users u ON r.user_id = u.id " +
+                        "WHERE r.reservation_epoch >= ? AND r.reservation_epoch < ? " +
+                        "ORDER BY r.reservation_epoch, r.id";
+                break;
+        }
+
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                                                            ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(1000);
+            stmt.setLong(1, DateTimeUtil.startOfDay(startDate));
+            stmt.setLong(2, DateTimeUtil.startOfNextDay(endDate));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                String[] columns = new String[metaData.getColumnCount()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = metaData.getColumnLabel(i + 1);
+                }
+                handler.columns(columns);
+
+                Object[] values = new Object[columns.length];
+                long rows = 0;
+                while (rs.next()) {
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = rs.getObject(i + 1);
+                    }
+                    rows++;
+                    if (!handler.row(values)) {
+                        break;
+                    }
+                }
+                return rows;
+            }
+        }
+    }
+}
@@ -8,13 +8,22 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Data Access Object for Movie operations.
- * Handles CRUD operations for movies in the database.
+ * Handles CRUD operations for movies in the database. Reads are served from the
+ * {@link CatalogCache}, which every successful write invalidates. Searches use the
+ * movies_fts full-text index, which triggers keep in step with the movies table.
  */
 public class MovieDAO {
+    // Columns of movies_fts, which can be searched on their own
+    private static final List<String> SEARCH_COLUMNS = Arrays.asList("title", "director", "cast", "genre", "synopsis");
+    // Words of the search text; everything else is a separator, the same as for the unicode61 tokenizer
+    private static final Pattern SEARCH_WORD = Pattern.compile("[\\p{L}\\p{N}]+");
     
     /**
      * Adds a new movie to the database.
@@ -47,6 +56,8 @@ public class MovieDAO {
             if (affectedRows == 0) {
                 return -1; // No rows affected, insertion failed
             }
+            CatalogCache.getInstance().invalidate();
+            
             
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
@@ -66,21 +77,7 @@ public class MovieDAO {
      * @throws SQLException If a database error occurs
      */
     public Movie getMovieById(int id) throws SQLException {
-        String query = "SELECT * FROM movies WHERE id = ?";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setInt(1, id);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return extractMovieFromResultSet(rs);
-                }
-            }
-        }
-        
-        return null; // Movie not found
+        return CatalogCache.getInstance().getMovie(id);
     }
     
     /**
@@ -111,6 +108,9 @@ public class MovieDAO {
             stmt.setInt(11, movie.getId());
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                CatalogCache.getInstance().invalidate();
+            }
             return affectedRows > 0;
         }
     }
@@ -131,21 +131,34 @@ public class MovieDAO {
             stmt.setInt(1, id);
             
             int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                CatalogCache.getInstance().invalidate();
+            }
             return affectedRows > 0;
         }
     }
     
     /**
-     * Retrieves all movies from the database.
+     * Retrieves all movies.
      *
      * @return A list of all movies
      * @throws SQLException If a database error occurs
      */
     public List<Movie> getAllMovies() throws SQLException {
+        return CatalogCache.getInstance().getMovies();
+    }
+    
+    /**
+     * Loads all movies from the database for the catalog cache.
+     *
+     * @return A list of all movies ordered by title
+     * @throws SQLException If a database error occurs
+     */
+    List<Movie> loadAllMovies() throws SQLException {
         String query = "SELECT * FROM movies ORDER BY title";
         List<Movie> movies = new ArrayList<>();
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
@@ -158,27 +171,88 @@ public class MovieDAO {
     }
     
     /**
-     * Retrieves all active movies from the database.
+     * Retrieves all active movies.
      *
      * @return A list of all active movies
      * @throws SQLException If a database error occurs
      */
     public List<Movie> getAllActiveMovies() throws SQLException {
-        String query = "SELECT * FROM movies WHERE is_active = 1 ORDER BY title";
+        return CatalogCache.getInstance().getActiveMovies();
+    }
+    
+    /**
+     * Searches movies by the words of their title, director, cast, genre and synopsis.
+     * Every word of the text must match the start of a word in the movie, so the text can be
+     * searched as it is typed. Results are ranked with title matches first, then director and
+     * cast, genre and synopsis, and paged with offset and limit.
+     *
+     * @param text The search text
+     * @param column The column to search, one of title, director, cast, genre and synopsis, or null for all
+     * @param activeOnly Whether to leave out inactive movies
+     * @param offset The number of results to skip
+     * @param limit The maximum number of results
+     * @return The page of matching movies in rank order, empty if the text has no words
+     * @throws SQLException If a database error occurs
+     */
+    public List<Movie> searchMovies(String text, String column, boolean activeOnly, int offset, int limit)
+            throws SQLException {
+        if (column != null && !SEARCH_COLUMNS.contains(column)) {
+            throw new IllegalArgumentException("Not a searchable column: " + column);
+        }
         List<Movie> movies = new ArrayList<>();
+        String match = toMatchExpression(text, column);
+        if (match == null || limit <= 0) {
+            return movies;
+        }
         
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        String query = "SELECT m.* FROM movies_fts JOIN movies m ON m.id = movies_fts.rowid " +
+                      "WHERE movies_fts MATCH ? " + (activeOnly ? "AND m.is_active = 1 " : "") +
+                      "ORDER BY bm25(movies_fts, 10.0, 4.0, 4.0, 2.0, 1.0), m.title, m.id " +
+                      "LIMIT ? OFFSET ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             
-            while (rs.next()) {
-                movies.add(extractMovieFromResultSet(rs));
+            stmt.setString(1, match);
+            stmt.setInt(2, limit);
+            stmt.setInt(3, Math.max(offset, 0));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    movies.add(extractMovieFromResultSet(rs));
+                }
             }
         }
         
         return movies;
     }
     
+    /**
+     * Builds an FTS5 query that matches the prefixes of all words of a search text.
+     * Each word is quoted, so FTS5 operators and punctuation in the text are taken literally.
+     *
+     * @param text The search text
+     * @param column The column to restrict each word to, or null for all columns
+     * @return The query, or null if the text has no words
+     */
+    private static String toMatchExpression(String text, String column) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        Matcher words = SEARCH_WORD.matcher(text);
+        while (words.find()) {
+            if (match.length() > 0) {
+                match.append(" AND ");
+            }
+            if (column != null) {
+                match.append(column).append(" : ");
+            }
+            match.append('"').append(words.group()).append("\"*");
+        }
+        return match.length() == 0 ? null : match.toString();
+    }
+    
     /**
      * Helper method to extract a Movie object from a ResultSet.
      *
@@ -2,16 +2,18 @@ package com.cinebook.dao;
 
 import com.cinebook.model.Payment;
 import com.cinebook.model.PaymentMethod;
+import com.cinebook.util.DateTimeUtil;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Data Access Object for Payment operations.
@@ -19,19 +21,28 @@ import java.util.List;
  */
 public class PaymentDAO {
     
-    private static final DateTimeFormatter DB_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private SalesRollupDAO salesRollupDAO = new SalesRollupDAO();
     
     /**
-     * Processes a payment and updates the reservation's payment status.
+     * Processes a payment and updates the reservation's payment status and the daily sales rollup.
+     * If the payment carries an idempotency key that was already used, nothing is written and
+     * the ID of the original payment is returned, so a retried submission is never charged twice.
      *
      * @param payment The Payment object to process
-     * @return The ID of the newly created payment, or -1 if creation failed
+     * @return The ID of the newly created (or original) payment, or -1 if creation failed
      * @throws SQLException If a database error occurs
      */
     public int processPayment(Payment payment) throws SQLException {
+        if (payment.getIdempotencyKey() != null) {
+            Payment original = getPaymentByIdempotencyKey(payment.getIdempotencyKey());
+            if (original != null) {
+                return original.getId();
+            }
+        }
+        
         String query = "INSERT INTO payments (reservation_id, amount, payment_method, " +
-                      "transaction_reference, payment_time, is_successful) " +
-                      "VALUES (?, ?, ?, ?, ?, ?)";
+                      "transaction_reference, payment_time, payment_epoch, is_successful, idempotency_key) " +
+                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -47,8 +58,10 @@ public class PaymentDAO {
             stmt.setDouble(2, payment.getAmount());
             stmt.setString(3, payment.getPaymentMethod().toString());
             stmt.setString(4, payment.getTransactionReference());
-            stmt.setString(5, payment.getPaymentTime().format(DB_FORMATTER));
-            stmt.setInt(6, payment.isSuccessful() ? 1 : 0);
+            stmt.setString(5, DateTimeUtil.toLegacyText(payment.getPaymentTime()));
+            stmt.setLong(6, DateTimeUtil.toEpochSeconds(payment.getPaymentTime()));
+            stmt.setInt(7, payment.isSuccessful() ? 1 : 0);
+            stmt.setString(8, payment.getIdempotencyKey());
             
             int affectedRows = stmt.executeUpdate();
             
@@ -64,6 +77,7 @@ public class PaymentDAO {
             }
             
             int paymentId = generatedKeys.getInt(1);
+            Set<Long> salesDays = null;
             
             // If payment was successful, update the reservation's payment status
             if (payment.isSuccessful()) {
@@ -72,9 +86,16 @@ public class PaymentDAO {
                     updateStmt.setInt(1, payment.getReservationId());
                     updateStmt.executeUpdate();
                 }
+                
+                // Book the sale in the daily rollup as part of the same transaction
+                salesRollupDAO.recordPayment(conn, paymentId);
+                salesDays = salesRollupDAO.getSalesDays(conn, payment.getReservationId());
             }
             
             conn.commit();
+            if (salesDays != null) {
+                ReportCache.getInstance().invalidateDays(salesDays);
+            }
             return paymentId;
             
         } catch (SQLException e) {
@@ -85,6 +106,13 @@ public class PaymentDAO {
                     ex.printStackTrace();
                 }
             }
+            if (payment.getIdempotencyKey() != null && DBConnection.isUniqueViolation(e)) {
+                // A concurrent submission with the same key won the race; report its payment
+                Payment original = getPaymentByIdempotencyKey(payment.getIdempotencyKey());
+                if (original != null) {
+                    return original.getId();
+                }
+            }
             throw e;
         } finally {
             if (generatedKeys != null) {
@@ -95,11 +123,41 @@ public class PaymentDAO {
             }
             if (conn != null) {
                 conn.setAutoCommit(true);
-                // Don't close the connection here, as it's managed by DBConnection
+                conn.close(); // Returns the lease to the connection pool
             }
         }
     }
     
+    /**
+     * Retrieves the payment submitted with an idempotency key.
+     *
+     * @param idempotencyKey The client-generated key of the submission
+     * @return The Payment object if found, null otherwise
+     * @throws SQLException If a database error occurs
+     */
+    public Payment getPaymentByIdempotencyKey(String idempotencyKey) throws SQLException {
+        String query = "SELECT p.*, " +
+                      "CASE WHEN r.user_id IS NULL THEN r.guest_name ELSE u.full_name END as customer_name " +
+                      "FROM payments p " +
+                      "JOIN reservations r ON p.reservation_id = r.id " +
+                      "LEFT JOIN users u ON r.user_id = u.id " +
+                      "WHERE p.idempotency_key = ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setString(1, idempotencyKey);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return extractPaymentFromResultSet(rs, new PaymentColumns(rs));
+                }
+            }
+        }
+        
+        return null; // No payment with this key
+    }
+    
     /**
      * Retrieves a payment by its ID.
      *
@@ -115,14 +173,14 @@ public class PaymentDAO {
                       "LEFT JOIN users u ON r.user_id = u.id " +
                       "WHERE p.id = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractPaymentFromResultSet(rs);
+                    return extractPaymentFromResultSet(rs, new PaymentColumns(rs));
                 }
             }
         }
@@ -144,16 +202,16 @@ public class PaymentDAO {
                       "JOIN reservations r ON p.reservation_id = r.id " +
                       "LEFT JOIN users u ON r.user_id = u.id " +
                       "WHERE p.reservation_id = ? " +
-                      "ORDER BY p.payment_time DESC LIMIT 1";
+                      "ORDER BY p.payment_epoch DESC LIMIT 1";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, reservationId);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractPaymentFromResultSet(rs);
+                    return extractPaymentFromResultSet(rs, new PaymentColumns(rs));
                 }
             }
         }
@@ -175,20 +233,21 @@ public class PaymentDAO {
                       "FROM payments p " +
                       "JOIN reservations r ON p.reservation_id = r.id " +
                       "LEFT JOIN users u ON r.user_id = u.id " +
-                      "WHERE date(p.payment_time) BETWEEN ? AND ? " +
+                      "WHERE p.payment_epoch >= ? AND p.payment_epoch < ? " +
                       "AND p.is_successful = 1 " +
-                      "ORDER BY p.payment_time";
+                      "ORDER BY p.payment_epoch";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
-            stmt.setString(1, startDate);
-            stmt.setString(2, endDate);
+            stmt.setLong(1, DateTimeUtil.startOfDay(startDate));
+            stmt.setLong(2, DateTimeUtil.startOfNextDay(endDate));
             
             List<Payment> payments = new ArrayList<>();
             try (ResultSet rs = stmt.executeQuery()) {
+                PaymentColumns columns = new PaymentColumns(rs);
                 while (rs.next()) {
-                    payments.add(extractPaymentFromResultSet(rs));
+                    payments.add(extractPaymentFromResultSet(rs, columns));
                 }
             }
             
@@ -206,14 +265,14 @@ public class PaymentDAO {
      */
     public double calculateTotalSales(String startDate, String endDate) throws SQLException {
         String query = "SELECT SUM(amount) as total_sales FROM payments " +
-                      "WHERE date(payment_time) BETWEEN ? AND ? " +
+                      "WHERE payment_epoch >= ? AND payment_epoch < ? " +
                       "AND is_successful = 1";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
-            stmt.setString(1, startDate);
-            stmt.setString(2, endDate);
+            stmt.setLong(1, DateTimeUtil.startOfDay(startDate));
+            stmt.setLong(2, DateTimeUtil.startOfNextDay(endDate));
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -229,29 +288,66 @@ public class PaymentDAO {
      * Helper method to extract a Payment object from a ResultSet.
      *
      * @param rs The ResultSet containing payment data
+     * @param columns The column indexes of the ResultSet
      * @return A Payment object populated with data from the ResultSet
      * @throws SQLException If a database error occurs
      */
-    private Payment extractPaymentFromResultSet(ResultSet rs) throws SQLException {
+    private Payment extractPaymentFromResultSet(ResultSet rs, PaymentColumns columns) throws SQLException {
         Payment payment = new Payment();
         
-        payment.setId(rs.getInt("id"));
-        payment.setReservationId(rs.getInt("reservation_id"));
-        payment.setAmount(rs.getDouble("amount"));
-        payment.setPaymentMethod(PaymentMethod.valueOf(rs.getString("payment_method")));
-        payment.setTransactionReference(rs.getString("transaction_reference"));
+        payment.setId(rs.getInt(columns.id));
+        payment.setReservationId(rs.getInt(columns.reservationId));
+        payment.setAmount(rs.getDouble(columns.amount));
+        payment.setPaymentMethod(PaymentMethod.fromString(rs.getString(columns.paymentMethod)));
+        payment.setTransactionReference(rs.getString(columns.transactionReference));
         
-        LocalDateTime paymentTime = LocalDateTime.parse(
-            rs.getString("payment_time"), DB_FORMATTER);
+        LocalDateTime paymentTime = DateTimeUtil.fromEpochSeconds(rs.getLong(columns.paymentEpoch));
         payment.setPaymentTime(paymentTime);
         
-        payment.setSuccessful(rs.getInt("is_successful") == 1);
+        payment.setSuccessful(rs.getInt(columns.successful) == 1);
+        payment.setIdempotencyKey(rs.getString(columns.idempotencyKey));
         
         // Set additional display fields if available
-        if (rs.getMetaData().getColumnCount() > 7) { // If customer_name column exists
-            payment.setCustomerName(rs.getString("customer_name"));
+        if (columns.customerName > 0) {
+            payment.setCustomerName(rs.getString(columns.customerName));
         }
         
         return payment;
     }
+    
+    /**
+     * Indexes of the payment columns of a ResultSet, looked up once before its rows are read.
+     */
+    private static class PaymentColumns {
+        private final int id;
+        private final int reservationId;
+        private final int amount;
+        private final int paymentMethod;
+        private final int transactionReference;
+        private final int paymentEpoch;
+        private final int successful;
+        private final int idempotencyKey;
+        private final int customerName; // 0 if the query has no customer name
+        
+        PaymentColumns(ResultSet rs) throws SQLException {
+            id = rs.findColumn("id");
+            reservationId = rs.findColumn("reservation_id");
+            amount = rs.findColumn("amount");
+            paymentMethod = rs.findColumn("payment_method");
+            transactionReference = rs.findColumn("transaction_reference");
+            paymentEpoch = rs.findColumn("payment_epoch");
+            successful = rs.findColumn("is_successful");
+            idempotencyKey = rs.findColumn("idempotency_key");
+            
+            int customerNameIndex = 0;
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if ("customer_name".equals(metaData.getColumnLabel(i))) {
+                    customerNameIndex = i;
+                    break;
+                }
+            }
+            customerName = customerNameIndex;
+        }
+    }
 }
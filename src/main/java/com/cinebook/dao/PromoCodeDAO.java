@@ -17,20 +17,8 @@ import java.util.List;
  * Data Access Object for promo code operations.
  */
 public class PromoCodeDAO {
-    private Connection connection;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
-    /**
-     * Constructor for PromoCodeDAO.
-     */
-    public PromoCodeDAO() {
-        try {
-            this.connection = DBConnection.getConnection();
-        } catch (SQLException e) {
-            System.err.println("Error connecting to database: " + e.getMessage());
-        }
-    }
-    
     /**
      * Get all promo codes.
      *
@@ -41,7 +29,8 @@ public class PromoCodeDAO {
         List<PromoCode> promoCodes = new ArrayList<>();
         String query = "SELECT * FROM promo_codes ORDER BY valid_until DESC";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection conn = DBConnection.getReadConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -65,7 +54,8 @@ public class PromoCodeDAO {
                        "AND (max_uses IS NULL OR current_uses < max_uses) " +
                        "ORDER BY valid_until ASC";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection conn = DBConnection.getReadConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -86,7 +76,8 @@ public class PromoCodeDAO {
     public PromoCode getPromoCodeById(int id) throws SQLException {
         String query = "SELECT * FROM promo_codes WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -109,7 +100,8 @@ public class PromoCodeDAO {
     public PromoCode getPromoCodeByCode(String code) throws SQLException {
         String query = "SELECT * FROM promo_codes WHERE code = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, code);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -134,7 +126,8 @@ public class PromoCodeDAO {
                        "valid_from, valid_until, max_uses, current_uses, min_purchase_amount, is_active) " +
                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, promoCode.getCode());
             pstmt.setString(2, promoCode.getDescription());
             pstmt.setString(3, promoCode.getDiscountType().name());
@@ -176,7 +169,8 @@ public class PromoCodeDAO {
                        "discount_amount = ?, valid_from = ?, valid_until = ?, max_uses = ?, " +
                        "current_uses = ?, min_purchase_amount = ?, is_active = ? WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, promoCode.getCode());
             pstmt.setString(2, promoCode.getDescription());
             pstmt.setString(3, promoCode.getDiscountType().name());
@@ -210,7 +204,8 @@ public class PromoCodeDAO {
     public boolean deletePromoCode(int id) throws SQLException {
         String query = "DELETE FROM promo_codes WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, id);
             
             int rowsAffected = pstmt.executeUpdate();
@@ -228,7 +223,8 @@ public class PromoCodeDAO {
     public boolean incrementPromoCodeUsage(String code) throws SQLException {
         String query = "UPDATE promo_codes SET current_uses = current_uses + 1 WHERE code = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, code);
             
             int rowsAffected = pstmt.executeUpdate();
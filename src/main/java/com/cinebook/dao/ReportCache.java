@@ -0,0 +1,308 @@
+package com.cinebook.dao;
+
+import com.cinebook.util.DateTimeUtil;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of report results, keyed by report type and date range.
+ * Every write that changes sales invalidates the days it touched, which drops exactly the
+ * results whose range contains one of those days: {@link PaymentDAO} and {@link CheckoutDAO}
+ * the days of the payment and of the reservation, {@link ReservationDAO} the days of the
+ * cancelled reservation, its payments and the refund. A rollup rebuild drops everything.
+ *
+ * Results for ranges that end before today are kept until they are invalidated or pushed out
+ * by newer results, since closed days only change through those writes. Ranges that include
+ * today are also reloaded after a short time, so sales made by other processes show up.
+ */
+public class ReportCache {
+    private static final int MAX_ENTRIES = Integer.getInteger("cinebook.reportCache.maxEntries", 500);
+    // Results covering today are reloaded after this so other processes' sales show up
+    private static final long OPEN_MAX_AGE_MILLIS =
+        Long.getLong("cinebook.reportCache.openMaxAgeSeconds", 30L) * 1000L;
+
+    private static final ReportCache INSTANCE = new ReportCache();
+
+    // Least recently used first; guarded by itself
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > MAX_ENTRIES) {
+                counters(eldest.getValue().reportType).evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private long generation; // Incremented by every invalidation; guarded by entries
+
+    /**
+     * Loads a report result on a cache miss.
+     *
+     * @param <T> The type of the result
+     */
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    private ReportCache() {
+    }
+
+    /**
+     * Gets the shared report cache.
+     *
+     * @return The report cache instance
+     */
+    public static ReportCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets a report result from the cache, loading and caching it on a miss.
+     * The result is shared between callers and must not be modified.
+     * A result loaded while days were invalidated is returned but not cached, since it may
+     * have been read before the write that invalidated them.
+     *
+     * @param reportType The name of the report
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @param loader Loads the result on a miss
+     * @param <T> The type of the result
+     * @return The cached or loaded result
+     * @throws SQLException If the result had to be loaded and a database error occurred
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String reportType, String startDate, String endDate, Loader<T> loader) throws SQLException {
+        long firstDay;
+        long lastDay;
+        try {
+            firstDay = LocalDate.parse(startDate).toEpochDay();
+            lastDay = LocalDate.parse(endDate).toEpochDay();
+        } catch (DateTimeParseException | NullPointerException e) {
+            return loader.load(); // Let the report itself reject the range
+        }
+
+        String key = reportType + '|' + startDate + '|' + endDate;
+        Counters reportCounters = counters(reportType);
+        long loadGeneration;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.isFresh()) {
+                    reportCounters.hits.increment();
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                reportCounters.expirations.increment();
+            }
+            loadGeneration = generation;
+        }
+
+        reportCounters.misses.increment();
+        long today = LocalDate.now().toEpochDay();
+        T value = loader.load();
+
+        synchronized (entries) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry(reportType, firstDay, lastDay, lastDay < today, value));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops the results whose date range contains any of the given days.
+     * Call after the write that changed those days is committed.
+     *
+     * @param epochDays The changed days, as local epoch days (see {@link DateTimeUtil#epochDay(long)})
+     */
+    public void invalidateDays(Collection<Long> epochDays) {
+        if (epochDays.isEmpty()) {
+            return;
+        }
+        synchronized (entries) {
+            generation++;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                for (long day : epochDays) {
+                    if (day >= entry.firstDay && day <= entry.lastDay) {
+                        iterator.remove();
+                        counters(entry.reportType).invalidations.increment();
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            for (Entry entry : entries.values()) {
+                counters(entry.reportType).invalidations.increment();
+            }
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the cache statistics, one entry per report type, with the totals first.
+     *
+     * @return The statistics snapshot
+     */
+    public List<CacheStatistics> getStatistics() {
+        Map<String, Integer> sizes = new TreeMap<>();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+            for (Entry entry : entries.values()) {
+                sizes.merge(entry.reportType, 1, Integer::sum);
+            }
+        }
+
+        Counters total = new Counters();
+        List<CacheStatistics> byReport = new ArrayList<>();
+        for (Map.Entry<String, Counters> entry : new TreeMap<>(counters).entrySet()) {
+            total.add(entry.getValue());
+            byReport.add(entry.getValue().snapshot(entry.getKey(), sizes.getOrDefault(entry.getKey(), 0)));
+        }
+
+        List<CacheStatistics> statistics = new ArrayList<>();
+        statistics.add(total.snapshot("all reports", size));
+        statistics.addAll(byReport);
+        return statistics;
+    }
+
+    private Counters counters(String reportType) {
+        return counters.computeIfAbsent(reportType, k -> new Counters());
+    }
+
+    /**
+     * A cached result with the days it covers.
+     */
+    private static class Entry {
+        private final String reportType;
+        private final long firstDay;
+        private final long lastDay;
+        private final boolean closed; // The range ended before the day it was loaded
+        private final Object value;
+        private final long loadedAt;
+
+        Entry(String reportType, long firstDay, long lastDay, boolean closed, Object value) {
+            this.reportType = reportType;
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            this.closed = closed;
+            this.value = value;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        boolean isFresh() {
+            return closed || System.currentTimeMillis() - loadedAt < OPEN_MAX_AGE_MILLIS;
+        }
+    }
+
+    /**
+     * Running totals of one report type.
+     */
+    private static class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+        private final LongAdder expirations = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        void add(Counters other) {
+            hits.add(other.hits.sum());
+            misses.add(other.misses.sum());
+            invalidations.add(other.invalidations.sum());
+            expirations.add(other.expirations.sum());
+            evictions.add(other.evictions.sum());
+        }
+
+        CacheStatistics snapshot(String name, int entries) {
+            return new CacheStatistics(name, entries, hits.sum(), misses.sum(), invalidations.sum(),
+                                       expirations.sum(), evictions.sum());
+        }
+    }
+
+    /**
+     * Immutable snapshot of cache usage for one report type, or for all reports.
+     */
+    public static class CacheStatistics {
+        private final String reportType;
+        private final int entries;
+        private final long hits;
+        private final long misses;
+        private final long invalidations;
+        private final long expirations;
+        private final long evictions;
+
+        public CacheStatistics(String reportType, int entries, long hits, long misses, long invalidations,
+                               long expirations, long evictions) {
+            this.reportType = reportType;
+            this.entries = entries;
+            this.hits = hits;
+            this.misses = misses;
+            this.invalidations = invalidations;
+            this.expirations = expirations;
+            this.evictions = evictions;
+        }
+
+        public String getReportType() {
+            return reportType;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public long getExpirations() {
+            return expirations;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : hits / (double) lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d cached, %d hits, %d misses (%.1f%% hit rate), %d invalidated, %d expired, %d evicted",
+                                 reportType, entries, hits, misses, getHitRate() * 100.0, invalidations,
+                                 expirations, evictions);
+        }
+    }
+}
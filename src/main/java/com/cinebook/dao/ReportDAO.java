@@ -0,0 +1,256 @@
+package com.cinebook.dao;
+
+import com.cinebook.model.SalesAggregate;
+import com.cinebook.model.SalesSummary;
+import com.cinebook.util.DateTimeUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for sales reports.
+ * Totals and the sales by movie and cinema are read from the daily sales rollup maintained by
+ * SalesRollupDAO, so any range costs at most one row per day, cinema and movie; these reports
+ * book sales on the day of the payment. The breakdowns the rollup does not keep (per hour,
+ * weekday, seat type and concession) are single GROUP BY queries over the paid reservations of
+ * the range, found through the paid-reservation index, and book sales on the reservation day.
+ */
+public class ReportDAO {
+    
+    // Rollup rows of the date range; binds the first and last local epoch day (inclusive)
+    private static final String ROLLUP_IN_RANGE = "d.sales_day BETWEEN ? AND ?";
+    
+    // Paid reservations of the date range; binds the start (inclusive) and end (exclusive) epoch
+    private static final String PAID_IN_RANGE = "r.is_paid = 1 AND r.reservation_epoch >= ? AND r.reservation_epoch < ?";
+    
+    // Number of tickets of reservation r
+    private static final String TICKETS_OF_RESERVATION =
+        "(SELECT COUNT(*) FROM reservation_seats rs WHERE rs.reservation_id = r.id)";
+    
+    /**
+     * Gets the sales of each movie for a date range, highest first.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return One row per movie with its reservations, tickets and amount
+     * @throws SQLException If a database error occurs
+     */
+    public List<SalesAggregate> getSalesByMovie(String startDate, String endDate) throws SQLException {
+        String query = "SELECT m.title AS label, SUM(d.reservations) AS reservations, " +
+                      "SUM(d.tickets) AS quantity, SUM(d.gross) AS amount " +
+                      "FROM daily_sales d " +
+                      "JOIN movies m ON d.movie_id = m.id " +
+                      "WHERE " + ROLLUP_IN_RANGE + " " +
+                      "GROUP BY m.title " +
+                      "HAVING SUM(d.reservations) > 0 " +
+                      "ORDER BY amount DESC, label";
+        return querySales(query, rollupDay(startDate), rollupDay(endDate));
+    }
+    
+    /**
+     * Gets the sales of each cinema for a date range, highest first.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return One row per cinema with its reservations, tickets and amount
+     * @throws SQLException If a database error occurs
+     */
+    public List<SalesAggregate> getSalesByCinema(String startDate, String endDate) throws SQLException {
+        String query = "SELECT c.name AS label, SUM(d.reservations) AS reservations, " +
+                      "SUM(d.tickets) AS quantity, SUM(d.gross) AS amount " +
+                      "FROM daily_sales d " +
+                      "JOIN cinemas c ON d.cinema_id = c.id " +
+                      "WHERE " + ROLLUP_IN_RANGE + " " +
+                      "GROUP BY c.name " +
+                      "HAVING SUM(d.reservations) > 0 " +
+                      "ORDER BY amount DESC, label";
+        return querySales(query, rollupDay(startDate), rollupDay(endDate));
+    }
+    
+    /**
+     * Gets the sales by hour of the day the reservations were made.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return One row per hour with sales, labelled "00:00" to "23:00", in hour order
+     * @throws SQLException If a database error occurs
+     */
+    public List<SalesAggregate> getSalesByHour(String startDate, String endDate) throws SQLException {
+        // Epochs are local time (see DateTimeUtil), so the hour is plain integer arithmetic
+        String query = "SELECT printf('%02d:00', (r.reservation_epoch % 86400) / 3600) AS label, COUNT(*) AS reservations, " +
+                      "SUM(" + TICKETS_OF_RESERVATION + ") AS quantity, SUM(r.total_amount) AS amount " +
+                      "FROM reservations r " +
+                      "WHERE " + PAID_IN_RANGE + " " +
+                      "GROUP BY label " +
+                      "ORDER BY label";
+        return querySales(query, DateTimeUtil.startOfDay(startDate), DateTimeUtil.startOfNextDay(endDate));
+    }
+    
+    /**
+     * Gets the sales by day of the week the reservations were made.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return One row per weekday with sales, Monday first
+     * @throws SQLException If a database error occurs
+     */
+    public List<SalesAggregate> getSalesByWeekday(String startDate, String endDate) throws SQLException {
+        // Day 0 of the epoch, 1970-01-01, was a Thursday, so (days + 3) % 7 numbers the days from Monday = 0
+        String weekday = "((r.reservation_epoch / 86400) + 3) % 7";
+        String query = "SELECT CASE " + weekday + " " +
+                      "WHEN 0 THEN 'Monday' WHEN 1 THEN 'Tuesday' WHEN 2 THEN 'Wednesday' WHEN 3 THEN 'Thursday' " +
+                      "WHEN 4 THEN 'Friday' WHEN 5 THEN 'Saturday' ELSE 'Sunday' END AS label, " +
+                      "COUNT(*) AS reservations, " +
+                      "SUM(" + TICKETS_OF_RESERVATION + ") AS quantity, SUM(r.total_amount) AS amount " +
+                      "FROM reservations r " +
+                      "WHERE " + PAID_IN_RANGE + " " +
+                      "GROUP BY " + weekday + " " +
+                      "ORDER BY " + weekday;
+        return querySales(query, DateTimeUtil.startOfDay(startDate), DateTimeUtil.startOfNextDay(endDate));
+    }
+    
+    /**
+     * Gets the tickets sold by seat type.
+     * The amount is the ticket revenue at the screening's seat prices, before discounts.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return One row per seat type with its reservations, tickets and ticket revenue
+     * @throws SQLException If a database error occurs
+     */
+    public List<SalesAggregate> getSalesBySeatType(String startDate, String endDate) throws SQLException {
+        String query = "SELECT CASE st.seat_type WHEN 'DELUXE' THEN 'Deluxe' ELSE 'Standard' END AS label, " +
+                      "COUNT(DISTINCT r.id) AS reservations, COUNT(*) AS quantity, " +
+                      "SUM(CASE st.seat_type WHEN 'DELUXE' THEN s.deluxe_seat_price ELSE s.standard_seat_price END) AS amount " +
+                      "FROM reservations r " +
+                      "JOIN reservation_seats rs ON rs.reservation_id = r.id " +
+                      "JOIN seats st ON st.id = rs.seat_id " +
+                      "JOIN screenings s ON r.screening_id = s.id " +
+                      "WHERE " + PAID_IN_RANGE + " " +
+                      "GROUP BY st.seat_type " +
+                      "ORDER BY label";
+        return querySales(query, DateTimeUtil.startOfDay(startDate), DateTimeUtil.startOfNextDay(endDate));
+    }
+    
+    /**
+     * Gets the sales of each concession, highest first.
+     * The amount is the concession's current price times the quantity sold.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return One row per concession with the reservations it was ordered in, items sold and amount
+     * @throws SQLException If a database error occurs
+     */
+    public List<SalesAggregate> getSalesByConcession(String startDate, String endDate) throws SQLException {
+        String query = "SELECT c.name AS label, COUNT(*) AS reservations, SUM(rc.quantity) AS quantity, " +
+                      "SUM(rc.quantity * c.price) AS amount " +
+                      "FROM reservations r " +
+                      "JOIN reservation_concessions rc ON rc.reservation_id = r.id " +
+                      "JOIN concessions c ON c.id = rc.concession_id " +
+                      "WHERE " + PAID_IN_RANGE + " " +
+                      "GROUP BY c.id " +
+                      "ORDER BY amount DESC, label";
+        return querySales(query, DateTimeUtil.startOfDay(startDate), DateTimeUtil.startOfNextDay(endDate));
+    }
+    
+    /**
+     * Counts the tickets of the paid reservations for a date range.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return The number of tickets sold
+     * @throws SQLException If a database error occurs
+     */
+    public int countTicketsSold(String startDate, String endDate) throws SQLException {
+        return getSalesSummary(startDate, endDate).getTicketCount();
+    }
+    
+    /**
+     * Gets the sales totals for a date range.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return The gross, reservations, tickets, concessions and refunds of the range
+     * @throws SQLException If a database error occurs
+     */
+    public SalesSummary getSalesSummary(String startDate, String endDate) throws SQLException {
+        String query = "SELECT COALESCE(SUM(d.gross), 0) AS gross, COALESCE(SUM(d.reservations), 0) AS reservations, " +
+                      "COALESCE(SUM(d.tickets), 0) AS tickets, COALESCE(SUM(d.concessions), 0) AS concessions, " +
+                      "COALESCE(SUM(d.refunds), 0) AS refunds " +
+                      "FROM daily_sales d " +
+                      "WHERE " + ROLLUP_IN_RANGE;
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setLong(1, rollupDay(startDate));
+            stmt.setLong(2, rollupDay(endDate));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return new SalesSummary(
+                    rs.getDouble("gross"),
+                    rs.getInt("reservations"),
+                    rs.getInt("tickets"),
+                    rs.getDouble("concessions"),
+                    rs.getDouble("refunds")
+                );
+            }
+        }
+    }
+    
+    /**
+     * Helper method to run a report query whose only parameters are the bounds of its range.
+     *
+     * @param query The query, selecting label, reservations, quantity and amount
+     * @param from The lower bound of the range, an epoch or rollup day
+     * @param to The upper bound of the range, an epoch or rollup day
+     * @return The report rows in query order
+     * @throws SQLException If a database error occurs
+     */
+    private List<SalesAggregate> querySales(String query, long from, long to) throws SQLException {
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setLong(1, from);
+            stmt.setLong(2, to);
+            
+            List<SalesAggregate> rows = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(extractSalesAggregateFromResultSet(rs));
+                }
+            }
+            
+            return rows;
+        }
+    }
+    
+    /**
+     * Gets the daily_sales day number of a date.
+     */
+    private static long rollupDay(String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+    
+    /**
+     * Helper method to extract a SalesAggregate object from a ResultSet.
+     *
+     * @param rs The ResultSet containing report data
+     * @return A SalesAggregate object populated with data from the ResultSet
+     * @throws SQLException If a database error occurs
+     */
+    private SalesAggregate extractSalesAggregateFromResultSet(ResultSet rs) throws SQLException {
+        return new SalesAggregate(
+            rs.getString("label"),
+            rs.getInt("reservations"),
+            rs.getInt("quantity"),
+            rs.getDouble("amount")
+        );
+    }
+}
@@ -2,7 +2,9 @@ package com.cinebook.dao;
 
 import com.cinebook.model.Concession;
 import com.cinebook.model.Reservation;
+import com.cinebook.model.ReservationCursor;
 import com.cinebook.model.Seat;
+import com.cinebook.util.DateTimeUtil;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -10,9 +12,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for Reservation operations.
@@ -20,8 +27,8 @@ import java.util.List;
  */
 public class ReservationDAO {
     
-    private static final DateTimeFormatter DB_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private SeatDAO seatDAO = new SeatDAO();
+    private SalesRollupDAO salesRollupDAO = new SalesRollupDAO();
     
     /**
      * Adds a new reservation to the database.
@@ -32,8 +39,8 @@ public class ReservationDAO {
      */
     public int addReservation(Reservation reservation) throws SQLException {
         String query = "INSERT INTO reservations (user_id, guest_name, guest_email, guest_phone, " +
-                      "screening_id, reservation_time, total_amount, is_paid) " +
-                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+                      "screening_id, reservation_time, reservation_epoch, total_amount, is_paid) " +
+                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -59,9 +66,10 @@ public class ReservationDAO {
             }
             
             stmt.setInt(5, reservation.getScreeningId());
-            stmt.setString(6, reservation.getReservationTime().format(DB_FORMATTER));
-            stmt.setDouble(7, reservation.getTotalAmount());
-            stmt.setInt(8, reservation.isPaid() ? 1 : 0);
+            stmt.setString(6, DateTimeUtil.toLegacyText(reservation.getReservationTime()));
+            stmt.setLong(7, DateTimeUtil.toEpochSeconds(reservation.getReservationTime()));
+            stmt.setDouble(8, reservation.getTotalAmount());
+            stmt.setInt(9, reservation.isPaid() ? 1 : 0);
             
             int affectedRows = stmt.executeUpdate();
             
@@ -122,7 +130,7 @@ public class ReservationDAO {
             }
             if (conn != null) {
                 conn.setAutoCommit(true);
-                // Don't close the connection here, as it's managed by DBConnection
+                conn.close(); // Returns the lease to the connection pool
             }
         }
     }
@@ -206,14 +214,14 @@ public class ReservationDAO {
      * @throws SQLException If a database error occurs
      */
     public Reservation getReservationById(int id) throws SQLException {
-        String query = "SELECT r.*, s.screening_time, m.title as movie_title, c.name as cinema_name " +
+        String query = "SELECT r.*, s.screening_epoch, m.title as movie_title, c.name as cinema_name " +
                       "FROM reservations r " +
                       "JOIN screenings s ON r.screening_id = s.id " +
                       "JOIN movies m ON s.movie_id = m.id " +
                       "JOIN cinemas c ON s.cinema_id = c.id " +
                       "WHERE r.id = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, id);
@@ -222,11 +230,8 @@ public class ReservationDAO {
                 if (rs.next()) {
                     Reservation reservation = extractReservationFromResultSet(rs);
                     
-                    // Load the selected seats
-                    reservation.setSelectedSeats(seatDAO.getSeatsByReservation(id));
-                    
-                    // Load the selected concessions
-                    reservation.setSelectedConcessions(getReservationConcessions(id));
+                    // Load the selected seats and concessions
+                    loadSeatsAndConcessions(Collections.singletonList(reservation));
                     
                     return reservation;
                 }
@@ -260,6 +265,7 @@ public class ReservationDAO {
     
     /**
      * Cancels a reservation and releases the reserved seats.
+     * A paid reservation's sales are taken out of the daily sales rollup and booked as a refund.
      *
      * @param id The ID of the reservation to cancel
      * @return true if the cancellation was successful, false otherwise
@@ -285,6 +291,11 @@ public class ReservationDAO {
                 return false;
             }
             
+            // Take the sale back out of the daily rollup while its seats, concessions and payments still exist
+            salesRollupDAO.recordCancellation(conn, id);
+            Set<Long> salesDays = salesRollupDAO.getSalesDays(conn, id);
+            salesDays.add(DateTimeUtil.epochDay(DateTimeUtil.nowEpochSeconds())); // The refund
+            
             // Delete the reservation-seat associations
             String deleteSeatsQuery = "DELETE FROM reservation_seats WHERE reservation_id = ?";
             try (PreparedStatement deleteSeatsStmt = conn.prepareStatement(deleteSeatsQuery)) {
@@ -321,6 +332,7 @@ public class ReservationDAO {
                 
                 if (affectedRows > 0) {
                     conn.commit();
+                    ReportCache.getInstance().invalidateDays(salesDays);
                     return true;
                 } else {
                     conn.rollback();
@@ -340,7 +352,7 @@ public class ReservationDAO {
         } finally {
             if (conn != null) {
                 conn.setAutoCommit(true);
-                // Don't close the connection here, as it's managed by DBConnection
+                conn.close(); // Returns the lease to the connection pool
             }
         }
     }
@@ -353,15 +365,15 @@ public class ReservationDAO {
      * @throws SQLException If a database error occurs
      */
     public List<Reservation> getReservationsByUser(int userId) throws SQLException {
-        String query = "SELECT r.*, s.screening_time, m.title as movie_title, c.name as cinema_name " +
+        String query = "SELECT r.*, s.screening_epoch, m.title as movie_title, c.name as cinema_name " +
                       "FROM reservations r " +
                       "JOIN screenings s ON r.screening_id = s.id " +
                       "JOIN movies m ON s.movie_id = m.id " +
                       "JOIN cinemas c ON s.cinema_id = c.id " +
                       "WHERE r.user_id = ? " +
-                      "ORDER BY r.reservation_time DESC";
+                      "ORDER BY r.reservation_epoch DESC";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, userId);
@@ -373,6 +385,52 @@ public class ReservationDAO {
                 }
             }
             
+            loadSeatsAndConcessions(reservations);
+            return reservations;
+        }
+    }
+    
+    /**
+     * Retrieves one page of a user's reservations, newest first.
+     * The page starts right after the cursor, so fetching a page seeks through the index
+     * instead of skipping over all earlier rows.
+     *
+     * @param userId The ID of the user
+     * @param after The cursor of the last reservation of the previous page, or null for the first page
+     * @param limit The maximum number of reservations to return
+     * @return The reservations of the page, with their seats and concessions
+     * @throws SQLException If a database error occurs
+     */
+    public List<Reservation> getReservationsByUser(int userId, ReservationCursor after, int limit) throws SQLException {
+        String query = "SELECT r.*, s.screening_epoch, m.title as movie_title, c.name as cinema_name " +
+                      "FROM reservations r " +
+                      "JOIN screenings s ON r.screening_id = s.id " +
+                      "JOIN movies m ON s.movie_id = m.id " +
+                      "JOIN cinemas c ON s.cinema_id = c.id " +
+                      "WHERE r.user_id = ? " +
+                      (after != null ? "AND (r.reservation_epoch, r.id) < (?, ?) " : "") +
+                      "ORDER BY r.reservation_epoch DESC, r.id DESC " +
+                      "LIMIT ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            int index = 1;
+            stmt.setInt(index++, userId);
+            if (after != null) {
+                stmt.setLong(index++, after.getReservationEpoch());
+                stmt.setInt(index++, after.getReservationId());
+            }
+            stmt.setInt(index, limit);
+            
+            List<Reservation> reservations = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reservations.add(extractReservationFromResultSet(rs));
+                }
+            }
+            
+            loadSeatsAndConcessions(reservations);
             return reservations;
         }
     }
@@ -385,15 +443,15 @@ public class ReservationDAO {
      * @throws SQLException If a database error occurs
      */
     public List<Reservation> getReservationsByScreening(int screeningId) throws SQLException {
-        String query = "SELECT r.*, s.screening_time, m.title as movie_title, c.name as cinema_name " +
+        String query = "SELECT r.*, s.screening_epoch, m.title as movie_title, c.name as cinema_name " +
                       "FROM reservations r " +
                       "JOIN screenings s ON r.screening_id = s.id " +
                       "JOIN movies m ON s.movie_id = m.id " +
                       "JOIN cinemas c ON s.cinema_id = c.id " +
                       "WHERE r.screening_id = ? " +
-                      "ORDER BY r.reservation_time";
+                      "ORDER BY r.reservation_epoch";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, screeningId);
@@ -405,6 +463,7 @@ public class ReservationDAO {
                 }
             }
             
+            loadSeatsAndConcessions(reservations);
             return reservations;
         }
     }
@@ -418,19 +477,19 @@ public class ReservationDAO {
      * @throws SQLException If a database error occurs
      */
     public List<Reservation> getReservationsByDateRange(String startDate, String endDate) throws SQLException {
-        String query = "SELECT r.*, s.screening_time, m.title as movie_title, c.name as cinema_name " +
+        String query = "SELECT r.*, s.screening_epoch, m.title as movie_title, c.name as cinema_name " +
                       "FROM reservations r " +
                       "JOIN screenings s ON r.screening_id = s.id " +
                       "JOIN movies m ON s.movie_id = m.id " +
                       "JOIN cinemas c ON s.cinema_id = c.id " +
-                      "WHERE date(r.reservation_time) BETWEEN ? AND ? " +
-                      "ORDER BY r.reservation_time";
+                      "WHERE r.reservation_epoch >= ? AND r.reservation_epoch < ? " +
+                      "ORDER BY r.reservation_epoch";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
-            stmt.setString(1, startDate);
-            stmt.setString(2, endDate);
+            stmt.setLong(1, DateTimeUtil.startOfDay(startDate));
+            stmt.setLong(2, DateTimeUtil.startOfNextDay(endDate));
             
             List<Reservation> reservations = new ArrayList<>();
             try (ResultSet rs = stmt.executeQuery()) {
@@ -439,45 +498,196 @@ public class ReservationDAO {
                 }
             }
             
+            loadSeatsAndConcessions(reservations);
             return reservations;
         }
     }
     
     /**
-     * Helper method to get concessions for a reservation.
+     * Retrieves one page of the reservations in a date range, oldest first.
      *
-     * @param reservationId The ID of the reservation
-     * @return A list of concessions associated with the reservation
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @param after The cursor of the last reservation of the previous page, or null for the first page
+     * @param limit The maximum number of reservations to return
+     * @return The reservations of the page, with their seats and concessions
      * @throws SQLException If a database error occurs
      */
-    private List<Concession> getReservationConcessions(int reservationId) throws SQLException {
-        String query = "SELECT c.*, rc.quantity " +
-                      "FROM concessions c " +
-                      "JOIN reservation_concessions rc ON c.id = rc.concession_id " +
-                      "WHERE rc.reservation_id = ?";
+    public List<Reservation> getReservationsByDateRange(String startDate, String endDate,
+                                                        ReservationCursor after, int limit) throws SQLException {
+        String query = "SELECT r.*, s.screening_epoch, m.title as movie_title, c.name as cinema_name " +
+                      "FROM reservations r " +
+                      "JOIN screenings s ON r.screening_id = s.id " +
+                      "JOIN movies m ON s.movie_id = m.id " +
+                      "JOIN cinemas c ON s.cinema_id = c.id " +
+                      // The cursor lies inside the range, so past the first page it replaces the lower
+                      // bound and the index seek starts right at the cursor
+                      (after != null ? "WHERE (r.reservation_epoch, r.id) > (?, ?) " : "WHERE r.reservation_epoch >= ? ") +
+                      "AND r.reservation_epoch < ? " +
+                      "ORDER BY r.reservation_epoch, r.id " +
+                      "LIMIT ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
-            stmt.setInt(1, reservationId);
+            int index = 1;
+            if (after != null) {
+                stmt.setLong(index++, after.getReservationEpoch());
+                stmt.setInt(index++, after.getReservationId());
+            } else {
+                stmt.setLong(index++, DateTimeUtil.startOfDay(startDate));
+            }
+            stmt.setLong(index++, DateTimeUtil.startOfNextDay(endDate));
+            stmt.setInt(index, limit);
             
-            List<Concession> concessions = new ArrayList<>();
+            List<Reservation> reservations = new ArrayList<>();
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Concession concession = new Concession(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("description"),
-                        rs.getDouble("price"),
-                        rs.getInt("is_available") == 1,
-                        rs.getString("category")
-                    );
-                    concession.setQuantity(rs.getInt("quantity"));
-                    concessions.add(concession);
+                    reservations.add(extractReservationFromResultSet(rs));
                 }
             }
             
-            return concessions;
+            loadSeatsAndConcessions(reservations);
+            return reservations;
+        }
+    }
+    
+    /**
+     * Counts the reservations in a date range.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return The number of reservations
+     * @throws SQLException If a database error occurs
+     */
+    public int countReservationsByDateRange(String startDate, String endDate) throws SQLException {
+        String query = "SELECT COUNT(*) FROM reservations " +
+                      "WHERE reservation_epoch >= ? AND reservation_epoch < ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setLong(1, DateTimeUtil.startOfDay(startDate));
+            stmt.setLong(2, DateTimeUtil.startOfNextDay(endDate));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
+    /**
+     * Gets the cursors at which the pages of a date range start, for jumping straight to any page.
+     * Only the key columns are read from the index, one row per page, so this stays small even
+     * for ranges with many reservations.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @param pageSize The number of reservations per page
+     * @return For every page, the cursor to pass to
+     *         {@link #getReservationsByDateRange(String, String, ReservationCursor, int)}; null for the first page
+     * @throws SQLException If a database error occurs
+     */
+    public List<ReservationCursor> getPageCursorsByDateRange(String startDate, String endDate, int pageSize)
+            throws SQLException {
+        // The last row of every full page is the cursor of the page after it
+        String query = "SELECT reservation_epoch, id FROM (" +
+                      "SELECT reservation_epoch, id, ROW_NUMBER() OVER (ORDER BY reservation_epoch, id) AS row_number " +
+                      "FROM reservations WHERE reservation_epoch >= ? AND reservation_epoch < ?" +
+                      ") WHERE row_number % ? = 0 ORDER BY row_number";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setLong(1, DateTimeUtil.startOfDay(startDate));
+            stmt.setLong(2, DateTimeUtil.startOfNextDay(endDate));
+            stmt.setInt(3, pageSize);
+            
+            List<ReservationCursor> cursors = new ArrayList<>();
+            cursors.add(null);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    cursors.add(new ReservationCursor(rs.getLong("reservation_epoch"), rs.getInt("id")));
+                }
+            }
+            
+            return cursors;
+        }
+    }
+    
+    /**
+     * Retrieves the concessions of several reservations at once.
+     * Runs one query per batch of reservations instead of one per reservation.
+     *
+     * @param reservationIds The IDs of the reservations
+     * @return The concessions with their quantities by reservation ID; reservations without concessions are left out
+     * @throws SQLException If a database error occurs
+     */
+    public Map<Integer, List<Concession>> getConcessionsByReservations(Collection<Integer> reservationIds) throws SQLException {
+        Map<Integer, List<Concession>> concessionsByReservation = new HashMap<>();
+        if (reservationIds == null || reservationIds.isEmpty()) {
+            return concessionsByReservation;
+        }
+        
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(reservationIds));
+        try (Connection conn = DBConnection.getReadConnection()) {
+            for (int from = 0; from < ids.size(); from += SeatDAO.MAX_BATCH_SIZE) {
+                List<Integer> batch = ids.subList(from, Math.min(from + SeatDAO.MAX_BATCH_SIZE, ids.size()));
+                String query = "SELECT c.*, rc.reservation_id, rc.quantity " +
+                              "FROM concessions c " +
+                              "JOIN reservation_concessions rc ON c.id = rc.concession_id " +
+                              "WHERE rc.reservation_id IN (" + SeatDAO.placeholders(batch.size()) + ")";
+                
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    int index = 1;
+                    for (int reservationId : batch) {
+                        stmt.setInt(index++, reservationId);
+                    }
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Concession concession = new Concession(
+                                rs.getInt("id"),
+                                rs.getString("name"),
+                                rs.getString("description"),
+                                rs.getDouble("price"),
+                                rs.getInt("is_available") == 1,
+                                rs.getString("category")
+                            );
+                            concession.setQuantity(rs.getInt("quantity"));
+                            concessionsByReservation.computeIfAbsent(rs.getInt("reservation_id"), k -> new ArrayList<>())
+                                                    .add(concession);
+                        }
+                    }
+                }
+            }
+        }
+        
+        return concessionsByReservation;
+    }
+    
+    /**
+     * Helper method to fill in the seats and concessions of loaded reservations.
+     * Both are loaded for the whole list in one batch each, then matched up by reservation ID.
+     *
+     * @param reservations The reservations to complete
+     * @throws SQLException If a database error occurs
+     */
+    private void loadSeatsAndConcessions(List<Reservation> reservations) throws SQLException {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        
+        List<Integer> ids = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            ids.add(reservation.getId());
+        }
+        
+        Map<Integer, List<Seat>> seatsByReservation = seatDAO.getSeatsByReservations(ids);
+        Map<Integer, List<Concession>> concessionsByReservation = getConcessionsByReservations(ids);
+        for (Reservation reservation : reservations) {
+            reservation.setSelectedSeats(seatsByReservation.getOrDefault(reservation.getId(), new ArrayList<>()));
+            reservation.setSelectedConcessions(concessionsByReservation.getOrDefault(reservation.getId(), new ArrayList<>()));
         }
     }
     
@@ -491,11 +701,9 @@ public class ReservationDAO {
     private Reservation extractReservationFromResultSet(ResultSet rs) throws SQLException {
         Reservation reservation;
         
-        LocalDateTime reservationTime = LocalDateTime.parse(
-            rs.getString("reservation_time"), DB_FORMATTER);
+        LocalDateTime reservationTime = DateTimeUtil.fromEpochSeconds(rs.getLong("reservation_epoch"));
         
-        LocalDateTime screeningTime = LocalDateTime.parse(
-            rs.getString("screening_time"), DB_FORMATTER);
+        LocalDateTime screeningTime = DateTimeUtil.fromEpochSeconds(rs.getLong("screening_epoch"));
         
         // Check if it's a guest reservation
         if (rs.getObject("user_id") == null) {
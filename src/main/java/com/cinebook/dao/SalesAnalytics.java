@@ -0,0 +1,619 @@
+package com.cinebook.dao;
+
+import com.cinebook.model.AnalyticsDimension;
+import com.cinebook.model.AnalyticsQuery;
+import com.cinebook.model.AnalyticsRow;
+import com.cinebook.model.SeatLayout;
+import com.cinebook.util.DateTimeUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory, column-oriented copy of the sales history for ad-hoc analytics.
+ * Screenings and paid reservations are held in primitive arrays, one per column: movies and
+ * cinemas are dictionary-encoded to small integer codes, times are epoch seconds and amounts
+ * are centavos in longs. A query filters the screenings, then scans the reservation columns
+ * in parallel on the fork-join pool and aggregates them per group, so it never touches SQLite.
+ *
+ * The copy is refreshed before a query when it is older than a few seconds. A refresh reads
+ * only the reservations logged in reservation_changes since the last refresh (the change
+ * cursor) and any new screenings; a full reload is done on first use, and when the copy is so
+ * old that the change log may have been pruned past its cursor.
+ */
+public class SalesAnalytics {
+    // A copy older than this is refreshed before the next query
+    private static final long MAX_AGE_MILLIS = Long.getLong("cinebook.analytics.maxAgeSeconds", 5L) * 1000L;
+
+    // Change log entries are kept this long; a copy older than half of it is reloaded in full
+    private static final long CHANGE_RETENTION_SECONDS = 86400L;
+    private static final long PRUNE_INTERVAL_MILLIS = 3600L * 1000L;
+
+    // Reservations scanned by one fork-join leaf task
+    private static final int LEAF_ROWS = 16384;
+
+    // Bits per dimension value in a packed group key; three dimensions fit in a long
+    private static final int KEY_BITS = 21;
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+    private static final long SECONDS_PER_DAY = 86400L;
+
+    private static final String SCREENING_QUERY =
+        "SELECT s.id, s.movie_id, m.title, s.cinema_id, c.name, s.screening_epoch, " +
+        "COALESCE(length(replace(l.cells, '" + SeatLayout.GAP_CELL + "', '')), c.total_seats) AS capacity " +
+        "FROM screenings s " +
+        "JOIN movies m ON m.id = s.movie_id " +
+        "JOIN cinemas c ON c.id = s.cinema_id " +
+        "LEFT JOIN seat_layouts l ON l.id = s.layout_id " +
+        "WHERE s.id > ? " +
+        "ORDER BY s.id";
+
+    private static final String RESERVATION_COLUMNS =
+        "SELECT r.id, r.screening_id, r.is_paid, r.total_amount, " +
+        "(SELECT COUNT(*) FROM reservation_seats rs WHERE rs.reservation_id = r.id) AS tickets, " +
+        "(SELECT COALESCE(SUM(rc.quantity * c.price), 0) FROM reservation_concessions rc " +
+        "JOIN concessions c ON c.id = rc.concession_id WHERE rc.reservation_id = r.id) AS concessions " +
+        "FROM reservations r ";
+
+    private static final SalesAnalytics INSTANCE = new SalesAnalytics();
+
+    // Queries read the columns under the read lock; refreshes apply changes under the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Columns columns;
+    private long changeCursor;
+    private long refreshedAt;
+    private long prunedAt;
+
+    private SalesAnalytics() {
+    }
+
+    /**
+     * Gets the shared analytics engine.
+     *
+     * @return The analytics engine instance
+     */
+    public static SalesAnalytics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs an analytics query.
+     * Every screening that matches the query counts towards the capacity of its group, whether
+     * or not it sold any tickets; only paid reservations count towards the sales.
+     *
+     * @param query The query
+     * @return One row per group that has at least one screening, ordered by the group values
+     * @throws SQLException If the copy had to be refreshed and a database error occurred
+     */
+    public List<AnalyticsRow> query(AnalyticsQuery query) throws SQLException {
+        Columns current = refreshIfStale();
+
+        lock.readLock().lock();
+        try {
+            return run(current, query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of reservations held in memory, including unpaid and cancelled slots.
+     *
+     * @return The number of reservation rows
+     */
+    public int getReservationRowCount() {
+        Columns current = columns;
+        return current == null ? 0 : current.reservationCount;
+    }
+
+    /**
+     * Drops the in-memory copy; the next query reloads it in full.
+     */
+    public synchronized void invalidate() {
+        columns = null;
+    }
+
+    /**
+     * Brings the copy up to date if it is older than the maximum age.
+     *
+     * @return The current columns
+     */
+    private synchronized Columns refreshIfStale() throws SQLException {
+        long now = System.currentTimeMillis();
+        if (columns != null && now - refreshedAt < MAX_AGE_MILLIS) {
+            return columns;
+        }
+
+        if (columns == null || now - refreshedAt > CHANGE_RETENTION_SECONDS * 1000L / 2) {
+            loadAll();
+        } else {
+            applyChanges();
+        }
+        refreshedAt = now;
+
+        if (now - prunedAt > PRUNE_INTERVAL_MILLIS) {
+            pruneChangeLog();
+            prunedAt = now;
+        }
+        return columns;
+    }
+
+    /**
+     * Loads every screening and paid reservation into a new set of columns.
+     */
+    private void loadAll() throws SQLException {
+        Columns loaded = new Columns();
+        try (Connection conn = DBConnection.getReadConnection()) {
+            // Read the cursor first: changes made during the load are applied again by the next refresh
+            long cursor;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(seq), 0) FROM reservation_changes")) {
+                cursor = rs.next() ? rs.getLong(1) : 0L;
+            }
+
+            loadScreenings(conn, loaded);
+
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(RESERVATION_COLUMNS + "WHERE r.is_paid = 1")) {
+                while (rs.next()) {
+                    addReservationRow(loaded, rs);
+                }
+            }
+
+            changeCursor = cursor;
+        }
+
+        lock.writeLock().lock();
+        try {
+            columns = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the reservations logged since the change cursor and any new screenings.
+     */
+    private void applyChanges() throws SQLException {
+        Columns current = columns;
+        try (Connection conn = DBConnection.getReadConnection()) {
+            LinkedHashSet<Integer> changedIds = new LinkedHashSet<>();
+            long cursor = changeCursor;
+            try (PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT seq, reservation_id FROM reservation_changes WHERE seq > ? ORDER BY seq")) {
+                stmt.setLong(1, cursor);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        cursor = rs.getLong("seq");
+                        changedIds.add(rs.getInt("reservation_id"));
+                    }
+                }
+            }
+
+            // Everything is read before the write lock is taken, so queries only wait for the in-memory updates
+            Columns newScreenings = new Columns();
+            loadScreenings(conn, newScreenings, current.maxScreeningId);
+            List<Integer> ids = new ArrayList<>(changedIds);
+            List<Object[]> rows = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += SeatDAO.MAX_BATCH_SIZE) {
+                List<Integer> batch = ids.subList(from, Math.min(from + SeatDAO.MAX_BATCH_SIZE, ids.size()));
+                try (PreparedStatement stmt = conn.prepareStatement(
+                         RESERVATION_COLUMNS + "WHERE r.id IN (" + SeatDAO.placeholders(batch.size()) + ")")) {
+                    int index = 1;
+                    for (int reservationId : batch) {
+                        stmt.setInt(index++, reservationId);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            rows.add(new Object[]{rs.getInt("id"), rs.getInt("screening_id"), rs.getInt("is_paid") == 1,
+                                                  rs.getInt("tickets"), toCents(rs.getDouble("total_amount")),
+                                                  toCents(rs.getDouble("concessions"))});
+                        }
+                    }
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (int slot = 0; slot < newScreenings.screeningCount; slot++) {
+                    current.addScreening(newScreenings.screeningIds[slot],
+                                         newScreenings.movieIds.get(newScreenings.screeningMovies[slot]),
+                                         newScreenings.movieNames.get(newScreenings.screeningMovies[slot]),
+                                         newScreenings.cinemaIds.get(newScreenings.screeningCinemas[slot]),
+                                         newScreenings.cinemaNames.get(newScreenings.screeningCinemas[slot]),
+                                         newScreenings.screeningEpochs[slot],
+                                         newScreenings.screeningCapacities[slot]);
+                }
+
+                // Reservations that are no longer returned were deleted
+                for (int reservationId : changedIds) {
+                    current.excludeReservation(reservationId);
+                }
+                for (Object[] row : rows) {
+                    int reservationId = (Integer) row[0];
+                    if ((Boolean) row[2]) {
+                        current.putReservation(reservationId, (Integer) row[1], (Integer) row[3],
+                                               (Long) row[4], (Long) row[5]);
+                    }
+                }
+                changeCursor = cursor;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Loads all screenings into a set of columns.
+     */
+    private static void loadScreenings(Connection conn, Columns target) throws SQLException {
+        loadScreenings(conn, target, 0);
+    }
+
+    /**
+     * Loads the screenings with an ID above a bound into a set of columns.
+     */
+    private static void loadScreenings(Connection conn, Columns target, int afterId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SCREENING_QUERY)) {
+            stmt.setInt(1, afterId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    target.addScreening(rs.getInt("id"), rs.getInt("movie_id"), rs.getString("title"),
+                                        rs.getInt("cinema_id"), rs.getString("name"),
+                                        rs.getLong("screening_epoch"), rs.getInt("capacity"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the reservation at the current row of a result set to a set of columns.
+     */
+    private static void addReservationRow(Columns target, ResultSet rs) throws SQLException {
+        target.putReservation(rs.getInt("id"), rs.getInt("screening_id"), rs.getInt("tickets"),
+                              toCents(rs.getDouble("total_amount")), toCents(rs.getDouble("concessions")));
+    }
+
+    /**
+     * Deletes change log entries older than the retention period.
+     */
+    private static void pruneChangeLog() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "DELETE FROM reservation_changes WHERE changed_at < strftime('%s', 'now') - ?")) {
+            stmt.setLong(1, CHANGE_RETENTION_SECONDS);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Runs a query against a set of columns; the caller holds the read lock.
+     */
+    private static List<AnalyticsRow> run(Columns cols, AnalyticsQuery query) {
+        List<AnalyticsDimension> dimensions = query.getDimensions();
+        long fromEpoch = DateTimeUtil.startOfDay(query.getStartDate());
+        long toEpoch = DateTimeUtil.startOfNextDay(query.getEndDate());
+
+        int movieCode = -1;
+        if (query.getMovieId() != null) {
+            Integer code = cols.movieCodes.get(query.getMovieId());
+            if (code == null) {
+                return new ArrayList<>();
+            }
+            movieCode = code;
+        }
+        int cinemaCode = -1;
+        if (query.getCinemaId() != null) {
+            Integer code = cols.cinemaCodes.get(query.getCinemaId());
+            if (code == null) {
+                return new ArrayList<>();
+            }
+            cinemaCode = code;
+        }
+
+        // Filter the screenings and work out each one's group key; -1 leaves it out
+        long[] keys = new long[cols.screeningCount];
+        Map<Long, long[]> screeningTotals = new HashMap<>();
+        for (int slot = 0; slot < cols.screeningCount; slot++) {
+            long epoch = cols.screeningEpochs[slot];
+            if (epoch < fromEpoch || epoch >= toEpoch ||
+                (movieCode >= 0 && cols.screeningMovies[slot] != movieCode) ||
+                (cinemaCode >= 0 && cols.screeningCinemas[slot] != cinemaCode)) {
+                keys[slot] = -1;
+                continue;
+            }
+
+            long key = 0;
+            for (AnalyticsDimension dimension : dimensions) {
+                key = (key << KEY_BITS) | dimensionValue(cols, slot, dimension);
+            }
+            keys[slot] = key;
+
+            long[] totals = screeningTotals.computeIfAbsent(key, k -> new long[2]);
+            totals[0]++;
+            totals[1] += cols.screeningCapacities[slot];
+        }
+
+        Map<Long, long[]> salesTotals = ForkJoinPool.commonPool().invoke(
+            new ScanTask(cols, keys, 0, cols.reservationCount));
+
+        List<long[]> sortKeys = new ArrayList<>();
+        List<AnalyticsRow> rows = new ArrayList<>();
+        for (Map.Entry<Long, long[]> entry : screeningTotals.entrySet()) {
+            long key = entry.getKey();
+            long[] values = unpack(key, dimensions.size());
+            List<String> labels = new ArrayList<>(dimensions.size());
+            for (int i = 0; i < dimensions.size(); i++) {
+                labels.add(label(cols, dimensions.get(i), (int) values[i]));
+            }
+
+            long[] sales = salesTotals.getOrDefault(key, new long[ScanTask.MEASURES]);
+            rows.add(new AnalyticsRow(labels, (int) entry.getValue()[0], entry.getValue()[1],
+                                      sales[0], sales[1], sales[2], sales[3], sales[4]));
+            sortKeys.add(values);
+        }
+
+        // Order by the group values: names alphabetically, times chronologically
+        Integer[] order = new Integer[rows.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            for (int i = 0; i < dimensions.size(); i++) {
+                AnalyticsDimension dimension = dimensions.get(i);
+                int compared = dimension == AnalyticsDimension.MOVIE || dimension == AnalyticsDimension.CINEMA
+                    ? rows.get(a).getLabels().get(i).compareToIgnoreCase(rows.get(b).getLabels().get(i))
+                    : Long.compare(sortKeys.get(a)[i], sortKeys.get(b)[i]);
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            return 0;
+        });
+
+        List<AnalyticsRow> sorted = new ArrayList<>(rows.size());
+        for (int index : order) {
+            sorted.add(rows.get(index));
+        }
+        return sorted;
+    }
+
+    /**
+     * Gets the encoded value of a dimension for a screening.
+     */
+    private static long dimensionValue(Columns cols, int slot, AnalyticsDimension dimension) {
+        long epoch = cols.screeningEpochs[slot];
+        switch (dimension) {
+            case MOVIE:
+                return cols.screeningMovies[slot];
+            case CINEMA:
+                return cols.screeningCinemas[slot];
+            case HOUR_OF_DAY:
+                return Math.floorMod(epoch, SECONDS_PER_DAY) / 3600;
+            case WEEKDAY:
+                // Day 0 of the epoch, 1970-01-01, was a Thursday; Monday is 0
+                return Math.floorMod(Math.floorDiv(epoch, SECONDS_PER_DAY) + 3, 7L);
+            case DAY:
+            default:
+                return Math.floorDiv(epoch, SECONDS_PER_DAY) & KEY_MASK;
+        }
+    }
+
+    /**
+     * Splits a packed group key into its dimension values, first dimension first.
+     */
+    private static long[] unpack(long key, int dimensionCount) {
+        long[] values = new long[dimensionCount];
+        for (int i = dimensionCount - 1; i >= 0; i--) {
+            values[i] = key & KEY_MASK;
+            key >>>= KEY_BITS;
+        }
+        return values;
+    }
+
+    /**
+     * Gets the display label of an encoded dimension value.
+     */
+    private static String label(Columns cols, AnalyticsDimension dimension, int value) {
+        switch (dimension) {
+            case MOVIE:
+                return cols.movieNames.get(value);
+            case CINEMA:
+                return cols.cinemaNames.get(value);
+            case HOUR_OF_DAY:
+                return String.format("%02d:00", value);
+            case WEEKDAY:
+                return DayOfWeek.of(value + 1).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+            case DAY:
+            default:
+                return LocalDate.ofEpochDay(value).toString();
+        }
+    }
+
+    /**
+     * Fork-join scan of a range of reservation rows, aggregating the measures per group key.
+     */
+    private static class ScanTask extends RecursiveTask<Map<Long, long[]>> {
+        // Reservations, tickets, gross cents, concession cents, reservations with concessions
+        static final int MEASURES = 5;
+
+        private final Columns cols;
+        private final long[] keys;
+        private final int from;
+        private final int to;
+
+        ScanTask(Columns cols, long[] keys, int from, int to) {
+            this.cols = cols;
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, long[]> compute() {
+            if (to - from <= LEAF_ROWS) {
+                return scan();
+            }
+
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(cols, keys, from, middle);
+            left.fork();
+            Map<Long, long[]> totals = new ScanTask(cols, keys, middle, to).compute();
+            for (Map.Entry<Long, long[]> entry : left.join().entrySet()) {
+                long[] merged = totals.computeIfAbsent(entry.getKey(), k -> new long[MEASURES]);
+                for (int i = 0; i < MEASURES; i++) {
+                    merged[i] += entry.getValue()[i];
+                }
+            }
+            return totals;
+        }
+
+        private Map<Long, long[]> scan() {
+            Map<Long, long[]> totals = new HashMap<>();
+            int[] screenings = cols.reservationScreenings;
+            long lastKey = -1;
+            long[] last = null;
+            for (int row = from; row < to; row++) {
+                int slot = screenings[row];
+                if (slot < 0 || keys[slot] < 0) {
+                    continue;
+                }
+
+                // Rows of the same group tend to be adjacent, so the last group is checked first
+                long key = keys[slot];
+                if (last == null || key != lastKey) {
+                    last = totals.computeIfAbsent(key, k -> new long[MEASURES]);
+                    lastKey = key;
+                }
+                long concessions = cols.reservationConcessions[row];
+                last[0]++;
+                last[1] += cols.reservationTickets[row];
+                last[2] += cols.reservationGross[row];
+                last[3] += concessions;
+                if (concessions > 0) {
+                    last[4]++;
+                }
+            }
+            return totals;
+        }
+    }
+
+    /**
+     * The columns of the in-memory copy.
+     * Screenings and reservations are stored by slot; a reservation refers to its screening's slot.
+     * Grown arrays are replaced, so a set of columns is only modified under the write lock.
+     */
+    private static class Columns {
+        // Dictionaries: the code of a movie or cinema is its position in these lists
+        private final List<Integer> movieIds = new ArrayList<>();
+        private final List<String> movieNames = new ArrayList<>();
+        private final Map<Integer, Integer> movieCodes = new HashMap<>();
+        private final List<Integer> cinemaIds = new ArrayList<>();
+        private final List<String> cinemaNames = new ArrayList<>();
+        private final Map<Integer, Integer> cinemaCodes = new HashMap<>();
+
+        private int screeningCount;
+        private int maxScreeningId;
+        private int[] screeningIds = new int[1024];
+        private int[] screeningMovies = new int[1024];
+        private int[] screeningCinemas = new int[1024];
+        private long[] screeningEpochs = new long[1024];
+        private int[] screeningCapacities = new int[1024];
+        private final Map<Integer, Integer> screeningSlots = new HashMap<>();
+
+        // A reservation's screening slot is -1 while it is unpaid or after it was cancelled
+        private int reservationCount;
+        private int[] reservationScreenings = new int[4096];
+        private int[] reservationTickets = new int[4096];
+        private long[] reservationGross = new long[4096];
+        private long[] reservationConcessions = new long[4096];
+        private final Map<Integer, Integer> reservationSlots = new HashMap<>();
+
+        void addScreening(int screeningId, int movieId, String movieTitle, int cinemaId, String cinemaName,
+                          long epoch, int capacity) {
+            if (screeningSlots.containsKey(screeningId)) {
+                return;
+            }
+            if (screeningCount == screeningIds.length) {
+                int size = screeningCount * 2;
+                screeningIds = Arrays.copyOf(screeningIds, size);
+                screeningMovies = Arrays.copyOf(screeningMovies, size);
+                screeningCinemas = Arrays.copyOf(screeningCinemas, size);
+                screeningEpochs = Arrays.copyOf(screeningEpochs, size);
+                screeningCapacities = Arrays.copyOf(screeningCapacities, size);
+            }
+
+            int slot = screeningCount++;
+            screeningIds[slot] = screeningId;
+            screeningMovies[slot] = code(movieCodes, movieIds, movieNames, movieId, movieTitle);
+            screeningCinemas[slot] = code(cinemaCodes, cinemaIds, cinemaNames, cinemaId, cinemaName);
+            screeningEpochs[slot] = epoch;
+            screeningCapacities[slot] = capacity;
+            screeningSlots.put(screeningId, slot);
+            maxScreeningId = Math.max(maxScreeningId, screeningId);
+        }
+
+        void putReservation(int reservationId, int screeningId, int tickets, long grossCents, long concessionCents) {
+            Integer screeningSlot = screeningSlots.get(screeningId);
+            if (screeningSlot == null) {
+                return; // Screening was deleted
+            }
+
+            Integer slot = reservationSlots.get(reservationId);
+            if (slot == null) {
+                if (reservationCount == reservationScreenings.length) {
+                    int size = reservationCount * 2;
+                    reservationScreenings = Arrays.copyOf(reservationScreenings, size);
+                    reservationTickets = Arrays.copyOf(reservationTickets, size);
+                    reservationGross = Arrays.copyOf(reservationGross, size);
+                    reservationConcessions = Arrays.copyOf(reservationConcessions, size);
+                }
+                slot = reservationCount++;
+                reservationSlots.put(reservationId, slot);
+            }
+
+            reservationScreenings[slot] = screeningSlot;
+            reservationTickets[slot] = tickets;
+            reservationGross[slot] = grossCents;
+            reservationConcessions[slot] = concessionCents;
+        }
+
+        void excludeReservation(int reservationId) {
+            Integer slot = reservationSlots.get(reservationId);
+            if (slot != null) {
+                reservationScreenings[slot] = -1;
+            }
+        }
+
+        private static int code(Map<Integer, Integer> codes, List<Integer> ids, List<String> names, int id, String name) {
+            Integer code = codes.get(id);
+            if (code == null) {
+                code = ids.size();
+                ids.add(id);
+                names.add(name);
+                codes.put(id, code);
+            }
+            return code;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.cinebook.dao;
+
+import com.cinebook.util.DateTimeUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Data Access Object for the daily sales rollup.
+ * The daily_sales table holds one row per day, cinema and movie with the gross takings, paid
+ * reservations, tickets, concession sales and refunds of that day. It is kept up to date in the
+ * same transaction as every payment and cancellation, so reports over any range read a few
+ * hundred rollup rows instead of scanning payments and reservations.
+ *
+ * Sales are booked on the day of the payment. A reservation's tickets and concessions count
+ * once, with its first successful payment. Cancelling a paid reservation takes its sales back
+ * out of the day they were booked on and books the amount paid as a refund on the day of the
+ * cancellation. Cancelled reservations are deleted from history, so a rebuild regenerates all
+ * columns except the refunds, which are kept as they are.
+ */
+public class SalesRollupDAO {
+
+    private static final long SECONDS_PER_DAY = 86400L;
+
+    // 1 for the first successful payment of a reservation, which carries its tickets and concessions
+    private static final String FIRST_PAYMENT =
+        "(p.id = (SELECT MIN(p2.id) FROM payments p2 WHERE p2.reservation_id = p.reservation_id AND p2.is_successful = 1))";
+
+    // One row per successful payment with the sales it books; callers append further conditions with AND
+    private static final String PAYMENT_SALES =
+        "SELECT p.payment_epoch / " + SECONDS_PER_DAY + " AS sales_day, s.cinema_id, s.movie_id, " +
+        "p.amount AS gross, " + FIRST_PAYMENT + " AS reservations, " +
+        FIRST_PAYMENT + " * (SELECT COUNT(*) FROM reservation_seats rs WHERE rs.reservation_id = p.reservation_id) AS tickets, " +
+        FIRST_PAYMENT + " * (SELECT COALESCE(SUM(rc.quantity * c.price), 0) FROM reservation_concessions rc " +
+        "JOIN concessions c ON c.id = rc.concession_id WHERE rc.reservation_id = p.reservation_id) AS concessions " +
+        "FROM payments p " +
+        "JOIN reservations r ON r.id = p.reservation_id " +
+        "JOIN screenings s ON s.id = r.screening_id " +
+        "WHERE p.is_successful = 1";
+
+    // Adds the inserted values to an existing rollup row
+    private static final String ADD_ON_CONFLICT =
+        "ON CONFLICT (sales_day, cinema_id, movie_id) DO UPDATE SET " +
+        "gross = gross + excluded.gross, reservations = reservations + excluded.reservations, " +
+        "tickets = tickets + excluded.tickets, concessions = concessions + excluded.concessions, " +
+        "refunds = refunds + excluded.refunds";
+
+    /**
+     * Adds a payment's sales to the rollup.
+     * Must be called on the connection and in the transaction that inserted the payment.
+     * Unsuccessful payments book nothing.
+     *
+     * @param conn The connection whose transaction inserted the payment
+     * @param paymentId The ID of the payment
+     * @throws SQLException If a database error occurs
+     */
+    public void recordPayment(Connection conn, int paymentId) throws SQLException {
+        String query = "INSERT INTO daily_sales (sales_day, cinema_id, movie_id, gross, reservations, tickets, concessions, refunds) " +
+                      "SELECT sales_day, cinema_id, movie_id, gross, reservations, tickets, concessions, 0 " +
+                      "FROM (" + PAYMENT_SALES + " AND p.id = ?) WHERE true " +
+                      ADD_ON_CONFLICT;
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, paymentId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Takes a cancelled reservation's sales out of the rollup and books what was paid as a refund today.
+     * Must be called on the cancelling transaction before the reservation's seats, concessions and
+     * payments are deleted, since the tickets and concessions taken out are counted from them.
+     *
+     * @param conn The connection whose transaction cancels the reservation
+     * @param reservationId The ID of the reservation being cancelled
+     * @throws SQLException If a database error occurs
+     */
+    public void recordCancellation(Connection conn, int reservationId) throws SQLException {
+        String reverseQuery = "INSERT INTO daily_sales (sales_day, cinema_id, movie_id, gross, reservations, tickets, concessions, refunds) " +
+                             "SELECT sales_day, cinema_id, movie_id, -SUM(gross), -SUM(reservations), -SUM(tickets), -SUM(concessions), 0 " +
+                             "FROM (" + PAYMENT_SALES + " AND p.reservation_id = ?) " +
+                             "GROUP BY sales_day, cinema_id, movie_id " +
+                             ADD_ON_CONFLICT;
+        String refundQuery = "INSERT INTO daily_sales (sales_day, cinema_id, movie_id, gross, reservations, tickets, concessions, refunds) " +
+                            "SELECT ?, cinema_id, movie_id, 0, 0, 0, 0, SUM(gross) " +
+                            "FROM (" + PAYMENT_SALES + " AND p.reservation_id = ?) " +
+                            "GROUP BY cinema_id, movie_id " +
+                            ADD_ON_CONFLICT;
+
+        try (PreparedStatement reverseStmt = conn.prepareStatement(reverseQuery);
+             PreparedStatement refundStmt = conn.prepareStatement(refundQuery)) {
+            reverseStmt.setInt(1, reservationId);
+            reverseStmt.executeUpdate();
+
+            refundStmt.setLong(1, DateTimeUtil.nowEpochSeconds() / SECONDS_PER_DAY);
+            refundStmt.setInt(2, reservationId);
+            refundStmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Gets the days a reservation's sales appear on in reports: the day it was made and the
+     * days of its payments. Used to invalidate the cached reports those days are part of.
+     *
+     * @param conn The connection, so uncommitted payments of its transaction are included
+     * @param reservationId The ID of the reservation
+     * @return The local epoch days
+     * @throws SQLException If a database error occurs
+     */
+    public Set<Long> getSalesDays(Connection conn, int reservationId) throws SQLException {
+        String query = "SELECT reservation_epoch / " + SECONDS_PER_DAY + " FROM reservations WHERE id = ? " +
+                      "UNION SELECT payment_epoch / " + SECONDS_PER_DAY + " FROM payments WHERE reservation_id = ?";
+
+        Set<Long> days = new TreeSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, reservationId);
+            stmt.setInt(2, reservationId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    days.add(rs.getLong(1));
+                }
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Regenerates the rollup from the payment history in one write transaction.
+     *
+     * @return The number of rollup rows after the rebuild
+     * @throws SQLException If a database error occurs; the rollup is left unchanged in that case
+     */
+    public int rebuild() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int rows = rebuild(conn);
+                conn.commit();
+                ReportCache.getInstance().invalidateAll();
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Regenerates the rollup from the payment history on a connection whose transaction is managed by the caller.
+     * Refunds cannot be derived from history and are kept.
+     *
+     * @param conn The read-write connection
+     * @return The number of rollup rows after the rebuild
+     * @throws SQLException If a database error occurs
+     */
+    static int rebuild(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE daily_sales SET gross = 0, reservations = 0, tickets = 0, concessions = 0");
+            stmt.executeUpdate(
+                "INSERT INTO daily_sales (sales_day, cinema_id, movie_id, gross, reservations, tickets, concessions, refunds) " +
+                "SELECT sales_day, cinema_id, movie_id, SUM(gross), SUM(reservations), SUM(tickets), SUM(concessions), 0 " +
+                "FROM (" + PAYMENT_SALES + ") " +
+                "GROUP BY sales_day, cinema_id, movie_id " +
+                ADD_ON_CONFLICT);
+            stmt.executeUpdate("DELETE FROM daily_sales WHERE gross = 0 AND reservations = 0 AND tickets = 0 " +
+                              "AND concessions = 0 AND refunds = 0");
+
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM daily_sales")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.cinebook.dao;
+
+import com.cinebook.model.Cinema;
+import com.cinebook.model.Movie;
+import com.cinebook.model.Screening;
+import com.cinebook.util.DateTimeUtil;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory index of the screening schedule.
+ * Every screening is kept in a set sorted by time, and in the same kind of set per movie, per
+ * cinema and per movie and cinema. Any lookup by time range, optionally narrowed to a movie,
+ * a cinema or both, is a single range scan of the narrowest of these sets, and the next
+ * showtimes are the head of a scan starting now. Reads do not lock.
+ *
+ * Every write in {@link ScreeningDAO} is written through to this index after it succeeds.
+ * Movie titles, cinema names and whether they are active come from the {@link CatalogCache},
+ * so edits to movies and cinemas show up without touching the index. The index is reloaded
+ * when it is older than five minutes, so schedules written by other processes show up; writes
+ * wait for a running load, so none of them can be lost between a load's query and its use.
+ */
+public class ScheduleIndex {
+    // Indexes older than this are reloaded so other processes' schedule changes show up
+    private static final long MAX_AGE_MILLIS = Long.getLong("cinebook.schedule.maxAgeSeconds", 300L) * 1000L;
+
+    // Time first, ID to tell apart screenings at the same time
+    private static final Comparator<Entry> BY_TIME =
+        Comparator.comparingLong((Entry e) -> e.epoch).thenComparingInt(e -> e.id);
+
+    private static final ScheduleIndex INSTANCE = new ScheduleIndex();
+
+    private final Object loadLock = new Object(); // Serializes loads and writes
+    private final ScreeningDAO screeningDAO = new ScreeningDAO();
+    private volatile Index index;
+
+    private ScheduleIndex() {
+    }
+
+    /**
+     * Gets the shared schedule index.
+     *
+     * @return The schedule index instance
+     */
+    public static ScheduleIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets a screening by its ID, whether or not it is active.
+     *
+     * @param id The ID of the screening
+     * @return The screening, or null if there is no such screening or its movie or cinema no longer exists
+     * @throws SQLException If the index or the catalog had to be loaded and a database error occurred
+     */
+    public Screening getScreening(int id) throws SQLException {
+        Entry entry = index().byId.get(id);
+        return entry == null ? null : toScreening(entry, false);
+    }
+
+    /**
+     * Gets the screenings in a time range, optionally of one movie, one cinema or both.
+     *
+     * @param movieId The ID of the movie, or null for all movies
+     * @param cinemaId The ID of the cinema, or null for all cinemas
+     * @param fromEpoch The start of the range in local epoch seconds, inclusive
+     * @param toEpoch The end of the range in local epoch seconds, exclusive
+     * @param activeOnly Whether to leave out screenings that are inactive or whose movie or cinema is inactive
+     * @return The screenings ordered by time
+     * @throws SQLException If the index or the catalog had to be loaded and a database error occurred
+     */
+    public List<Screening> getScreenings(Integer movieId, Integer cinemaId, long fromEpoch, long toEpoch,
+                                         boolean activeOnly) throws SQLException {
+        List<Screening> screenings = new ArrayList<>();
+        if (fromEpoch >= toEpoch) {
+            return screenings;
+        }
+        NavigableSet<Entry> range = index().select(movieId, cinemaId)
+            .subSet(probe(fromEpoch), true, probe(toEpoch), true);
+        for (Entry entry : range) {
+            Screening screening = toScreening(entry, activeOnly);
+            if (screening != null) {
+                screenings.add(screening);
+            }
+        }
+        return screenings;
+    }
+
+    /**
+     * Gets the next active showtimes after a point in time, optionally of one movie, one cinema or both.
+     *
+     * @param movieId The ID of the movie, or null for all movies
+     * @param cinemaId The ID of the cinema, or null for all cinemas
+     * @param afterEpoch The point in time in local epoch seconds, exclusive
+     * @param limit The maximum number of showtimes
+     * @return Up to limit screenings ordered by time
+     * @throws SQLException If the index or the catalog had to be loaded and a database error occurred
+     */
+    public List<Screening> getNextShowtimes(Integer movieId, Integer cinemaId, long afterEpoch, int limit)
+            throws SQLException {
+        List<Screening> screenings = new ArrayList<>();
+        if (limit <= 0) {
+            return screenings;
+        }
+        for (Entry entry : index().select(movieId, cinemaId).tailSet(probe(afterEpoch + 1), true)) {
+            Screening screening = toScreening(entry, true);
+            if (screening != null) {
+                screenings.add(screening);
+                if (screenings.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return screenings;
+    }
+
+    /**
+     * Records a screening after it was inserted or updated in the database.
+     *
+     * @param screening The screening with its ID set
+     */
+    void put(Screening screening) {
+        synchronized (loadLock) {
+            Index current = index;
+            if (current != null) {
+                current.put(new Entry(screening));
+            }
+        }
+    }
+
+    /**
+     * Removes a screening after it was deleted from the database.
+     *
+     * @param screeningId The ID of the screening
+     */
+    void remove(int screeningId) {
+        synchronized (loadLock) {
+            Index current = index;
+            if (current != null) {
+                current.remove(screeningId);
+            }
+        }
+    }
+
+    /**
+     * Gets the current index, loading it if it is missing or too old.
+     */
+    private Index index() throws SQLException {
+        Index current = index;
+        if (isCurrent(current)) {
+            return current;
+        }
+
+        synchronized (loadLock) {
+            current = index;
+            if (isCurrent(current)) {
+                return current;
+            }
+
+            List<Screening> screenings = screeningDAO.loadAllScreenings();
+            current = new Index();
+            for (Screening screening : screenings) {
+                current.put(new Entry(screening));
+            }
+            index = current;
+            return current;
+        }
+    }
+
+    private boolean isCurrent(Index current) {
+        return current != null && System.currentTimeMillis() - current.loadedAt < MAX_AGE_MILLIS;
+    }
+
+    /**
+     * Builds the screening of an entry with its movie title and cinema name.
+     *
+     * @return The screening, or null if its movie or cinema no longer exists or, with activeOnly,
+     *         if it or its movie or cinema is inactive
+     */
+    private static Screening toScreening(Entry entry, boolean activeOnly) throws SQLException {
+        if (activeOnly && !entry.active) {
+            return null;
+        }
+        CatalogCache catalog = CatalogCache.getInstance();
+        Movie movie = catalog.peekMovie(entry.movieId);
+        Cinema cinema = catalog.peekCinema(entry.cinemaId);
+        if (movie == null || cinema == null || (activeOnly && (!movie.isActive() || !cinema.isActive()))) {
+            return null;
+        }
+        return new Screening(entry.id, entry.movieId, movie.getTitle(), entry.cinemaId, cinema.getName(),
+                             DateTimeUtil.fromEpochSeconds(entry.epoch), entry.standardSeatPrice,
+                             entry.deluxeSeatPrice, entry.active);
+    }
+
+    /**
+     * Gets a search key that sorts before every screening at or after a time.
+     */
+    private static Entry probe(long epoch) {
+        return new Entry(Integer.MIN_VALUE, 0, 0, epoch, 0, 0, false);
+    }
+
+    private static long movieCinemaKey(int movieId, int cinemaId) {
+        return ((long) movieId << 32) | (cinemaId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The indexed sets of one load of the schedule.
+     * Written only under the load lock; read concurrently.
+     */
+    private static class Index {
+        private final long loadedAt;
+        private final Map<Integer, Entry> byId = new ConcurrentHashMap<>();
+        private final NavigableSet<Entry> byTime = new ConcurrentSkipListSet<>(BY_TIME);
+        private final Map<Integer, NavigableSet<Entry>> byMovie = new ConcurrentHashMap<>();
+        private final Map<Integer, NavigableSet<Entry>> byCinema = new ConcurrentHashMap<>();
+        private final Map<Long, NavigableSet<Entry>> byMovieAndCinema = new ConcurrentHashMap<>();
+
+        Index() {
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Gets the narrowest set that holds every screening of a movie and cinema.
+         */
+        NavigableSet<Entry> select(Integer movieId, Integer cinemaId) {
+            NavigableSet<Entry> set;
+            if (movieId != null && cinemaId != null) {
+                set = byMovieAndCinema.get(movieCinemaKey(movieId, cinemaId));
+            } else if (movieId != null) {
+                set = byMovie.get(movieId);
+            } else if (cinemaId != null) {
+                set = byCinema.get(cinemaId);
+            } else {
+                set = byTime;
+            }
+            return set != null ? set : new ConcurrentSkipListSet<>(BY_TIME);
+        }
+
+        void put(Entry entry) {
+            remove(entry.id);
+            byId.put(entry.id, entry);
+            byTime.add(entry);
+            byMovie.computeIfAbsent(entry.movieId, k -> new ConcurrentSkipListSet<>(BY_TIME)).add(entry);
+            byCinema.computeIfAbsent(entry.cinemaId, k -> new ConcurrentSkipListSet<>(BY_TIME)).add(entry);
+            byMovieAndCinema.computeIfAbsent(movieCinemaKey(entry.movieId, entry.cinemaId),
+                                             k -> new ConcurrentSkipListSet<>(BY_TIME)).add(entry);
+        }
+
+        void remove(int screeningId) {
+            Entry entry = byId.remove(screeningId);
+            if (entry == null) {
+                return;
+            }
+            byTime.remove(entry);
+            byMovie.get(entry.movieId).remove(entry);
+            byCinema.get(entry.cinemaId).remove(entry);
+            byMovieAndCinema.get(movieCinemaKey(entry.movieId, entry.cinemaId)).remove(entry);
+        }
+    }
+
+    /**
+     * The indexed fields of one screening.
+     */
+    private static class Entry {
+        private final int id;
+        private final int movieId;
+        private final int cinemaId;
+        private final long epoch;
+        private final double standardSeatPrice;
+        private final double deluxeSeatPrice;
+        private final boolean active;
+
+        Entry(int id, int movieId, int cinemaId, long epoch, double standardSeatPrice,
+              double deluxeSeatPrice, boolean active) {
+            this.id = id;
+            this.movieId = movieId;
+            this.cinemaId = cinemaId;
+            this.epoch = epoch;
+            this.standardSeatPrice = standardSeatPrice;
+            this.deluxeSeatPrice = deluxeSeatPrice;
+            this.active = active;
+        }
+
+        Entry(Screening screening) {
+            this(screening.getId(), screening.getMovieId(), screening.getCinemaId(),
+                 DateTimeUtil.toEpochSeconds(screening.getScreeningTime()), screening.getStandardSeatPrice(),
+                 screening.getDeluxeSeatPrice(), screening.isActive());
+        }
+    }
+}
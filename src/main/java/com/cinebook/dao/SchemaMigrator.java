@@ -0,0 +1,792 @@
+package com.cinebook.dao;
+
+import com.cinebook.model.SeatBitmap;
+import com.cinebook.model.SeatLayout;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies numbered, checksummed schema migrations to the database.
+ * Every applied migration is recorded in the schema_version table together with a checksum
+ * of its SQL. On startup, already-applied migrations are verified against their recorded
+ * checksum and pending ones are applied in order, each in its own transaction.
+ */
+public class SchemaMigrator {
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    static {
+        register(1, "Baseline schema",
+            "CREATE TABLE IF NOT EXISTS users (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "username TEXT NOT NULL UNIQUE, " +
+            "password TEXT NOT NULL, " +
+            "email TEXT NOT NULL, " +
+            "phone_number TEXT, " +
+            "full_name TEXT NOT NULL, " +
+            "is_admin INTEGER NOT NULL DEFAULT 0, " +
+            "registration_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")",
+
+            "CREATE TABLE IF NOT EXISTS cinemas (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "name TEXT NOT NULL, " +
+            "location TEXT NOT NULL, " +
+            "total_seats INTEGER NOT NULL, " +
+            "total_rows INTEGER NOT NULL, " +
+            "seats_per_row INTEGER NOT NULL, " +
+            "has_deluxe_seats INTEGER NOT NULL DEFAULT 0, " +
+            "is_active INTEGER NOT NULL DEFAULT 1" +
+            ")",
+
+            "CREATE TABLE IF NOT EXISTS movies (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "title TEXT NOT NULL, " +
+            "director TEXT NOT NULL, " +
+            "cast TEXT NOT NULL, " +
+            "genre TEXT NOT NULL, " +
+            "synopsis TEXT NOT NULL, " +
+            "duration_minutes INTEGER NOT NULL, " +
+            "rating TEXT NOT NULL, " +
+            "release_date TEXT NOT NULL, " +
+            "poster_url TEXT, " +
+            "is_active INTEGER NOT NULL DEFAULT 1" +
+            ")",
+
+            "CREATE TABLE IF NOT EXISTS screenings (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "movie_id INTEGER NOT NULL, " +
+            "cinema_id INTEGER NOT NULL, " +
+            "screening_time TIMESTAMP NOT NULL, " +
+            "standard_seat_price REAL NOT NULL, " +
+            "deluxe_seat_price REAL NOT NULL, " +
+            "is_active INTEGER NOT NULL DEFAULT 1, " +
+            "FOREIGN KEY (movie_id) REFERENCES movies(id), " +
+            "FOREIGN KEY (cinema_id) REFERENCES cinemas(id)" +
+            ")",
+
+            "CREATE TABLE IF NOT EXISTS seats (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "screening_id INTEGER NOT NULL, " +
+            "seat_number TEXT NOT NULL, " +
+            "seat_type TEXT NOT NULL, " +
+            "is_reserved INTEGER NOT NULL DEFAULT 0, " +
+            "row_number INTEGER NOT NULL, " +
+            "column_number INTEGER NOT NULL, " +
+            "FOREIGN KEY (screening_id) REFERENCES screenings(id), " +
+            "UNIQUE (screening_id, seat_number)" +
+            ")",
+
+            "CREATE TABLE IF NOT EXISTS concessions (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "name TEXT NOT NULL, " +
+            "description TEXT NOT NULL, " +
+            "price REAL NOT NULL, " +
+            "category TEXT NOT NULL, " +
+            "is_available INTEGER NOT NULL DEFAULT 1" +
+            ")",
+
+            "CREATE TABLE IF NOT EXISTS reservations (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "user_id INTEGER, " +
+            "guest_name TEXT, " +
+            "guest_email TEXT, " +
+            "guest_phone TEXT, " +
+            "screening_id INTEGER NOT NULL, " +
+            "reservation_time TIMESTAMP NOT NULL, " +
+            "total_amount REAL NOT NULL, " +
+            "is_paid INTEGER NOT NULL DEFAULT 0, " +
+            "FOREIGN KEY (user_id) REFERENCES users(id), " +
+            "FOREIGN KEY (screening_id) REFERENCES screenings(id)" +
+            ")",
+
+            "CREATE TABLE IF NOT EXISTS reservation_seats (" +
+            "reservation_id INTEGER NOT NULL, " +
+            "seat_id INTEGER NOT NULL, " +
+            "PRIMARY KEY (reservation_id, seat_id), " +
+            "FOREIGN KEY (reservation_id) REFERENCES reservations(id), " +
+            "FOREIGN KEY (seat_id) REFERENCES seats(id)" +
+            ")",
+
+            "CREATE TABLE IF NOT EXISTS reservation_concessions (" +
+            "reservation_id INTEGER NOT NULL, " +
+            "concession_id INTEGER NOT NULL, " +
+            "quantity INTEGER NOT NULL, " +
+            "PRIMARY KEY (reservation_id, concession_id), " +
+            "FOREIGN KEY (reservation_id) REFERENCES reservations(id), " +
+            "FOREIGN KEY (concession_id) REFERENCES concessions(id)" +
+            ")",
+
+            "CREATE TABLE IF NOT EXISTS payments (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "reservation_id INTEGER NOT NULL, " +
+            "amount REAL NOT NULL, " +
+            "payment_method TEXT NOT NULL, " +
+            "transaction_reference TEXT NOT NULL, " +
+            "payment_time TIMESTAMP NOT NULL, " +
+            "is_successful INTEGER NOT NULL DEFAULT 0, " +
+            "FOREIGN KEY (reservation_id) REFERENCES reservations(id)" +
+            ")",
+
+            "CREATE TABLE IF NOT EXISTS tickets (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "reservation_id INTEGER NOT NULL, " +
+            "seat_id INTEGER NOT NULL, " +
+            "ticket_code TEXT NOT NULL UNIQUE, " +
+            "is_used INTEGER NOT NULL DEFAULT 0, " +
+            "generation_time TIMESTAMP NOT NULL, " +
+            "FOREIGN KEY (reservation_id) REFERENCES reservations(id), " +
+            "FOREIGN KEY (seat_id) REFERENCES seats(id)" +
+            ")",
+
+            // Previously created outside the application; owned by the migrations from now on
+            "CREATE TABLE IF NOT EXISTS promo_codes (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "code TEXT NOT NULL UNIQUE, " +
+            "description TEXT NOT NULL, " +
+            "discount_type TEXT NOT NULL, " +
+            "discount_amount REAL NOT NULL, " +
+            "valid_from TEXT NOT NULL, " +
+            "valid_until TEXT NOT NULL, " +
+            "max_uses INTEGER, " +
+            "current_uses INTEGER DEFAULT 0, " +
+            "min_purchase_amount REAL DEFAULT 0, " +
+            "is_active INTEGER NOT NULL DEFAULT 1" +
+            ")"
+        );
+
+        register(2, "Secondary indexes for booking lookups",
+            // SeatDAO.getSeatsByScreening: WHERE screening_id = ? ORDER BY row_number, column_number
+            "CREATE INDEX IF NOT EXISTS idx_seats_screening_grid " +
+            "ON seats (screening_id, row_number, column_number, is_reserved)",
+            // SeatDAO.getSeatsByReservation and ticket joins go from a seat back to its reservation
+            "CREATE INDEX IF NOT EXISTS idx_reservation_seats_seat " +
+            "ON reservation_seats (seat_id, reservation_id)",
+            // TicketDAO.getTicketsByReservation and ReservationDAO.cancelReservation
+            "CREATE INDEX IF NOT EXISTS idx_tickets_reservation " +
+            "ON tickets (reservation_id, seat_id)",
+            "CREATE INDEX IF NOT EXISTS idx_tickets_seat " +
+            "ON tickets (seat_id)",
+            // PaymentDAO.getPaymentByReservation and ReservationDAO.cancelReservation
+            "CREATE INDEX IF NOT EXISTS idx_payments_reservation " +
+            "ON payments (reservation_id, payment_time)",
+            // ReservationDAO.getReservationsByUser and getReservationsByScreening
+            "CREATE INDEX IF NOT EXISTS idx_reservations_user " +
+            "ON reservations (user_id, reservation_time)",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_screening " +
+            "ON reservations (screening_id, reservation_time)",
+            // ScreeningDAO.getScreeningsByMovie and getScreeningsByCinema
+            "CREATE INDEX IF NOT EXISTS idx_screenings_movie " +
+            "ON screenings (movie_id, screening_time)",
+            "CREATE INDEX IF NOT EXISTS idx_screenings_cinema " +
+            "ON screenings (cinema_id, screening_time)",
+            // ConcessionDAO.getConcessionsByCategory and getAllAvailableConcessions
+            "CREATE INDEX IF NOT EXISTS idx_concessions_category " +
+            "ON concessions (category, is_available, name)",
+            // MovieDAO.getAllActiveMovies
+            "CREATE INDEX IF NOT EXISTS idx_movies_active_title " +
+            "ON movies (is_active, title)",
+            // UserDAO.emailExists
+            "CREATE INDEX IF NOT EXISTS idx_users_email " +
+            "ON users (email)"
+        );
+
+        register(3, "Date range indexes for reports",
+            // PaymentDAO.getPaymentsByDateRange and calculateTotalSales
+            "CREATE INDEX IF NOT EXISTS idx_payments_time " +
+            "ON payments (is_successful, payment_time, amount)",
+            // ReservationDAO.getReservationsByDateRange
+            "CREATE INDEX IF NOT EXISTS idx_reservations_time " +
+            "ON reservations (reservation_time)",
+            // ScreeningDAO.getScreeningsByDate and getFutureScreenings
+            "CREATE INDEX IF NOT EXISTS idx_screenings_time " +
+            "ON screenings (screening_time)"
+        );
+
+        register(4, "Epoch timestamp columns for range queries",
+            // Integer local-epoch seconds; see DateTimeUtil. The TEXT columns are kept for external tools.
+            "ALTER TABLE screenings ADD COLUMN screening_epoch INTEGER",
+            "ALTER TABLE reservations ADD COLUMN reservation_epoch INTEGER",
+            "ALTER TABLE payments ADD COLUMN payment_epoch INTEGER",
+            "UPDATE screenings SET screening_epoch = CAST(strftime('%s', screening_time) AS INTEGER)",
+            "UPDATE reservations SET reservation_epoch = CAST(strftime('%s', reservation_time) AS INTEGER)",
+            "UPDATE payments SET payment_epoch = CAST(strftime('%s', payment_time) AS INTEGER)",
+
+            // Writers that only set the TEXT column (scripts, older builds) still get an epoch value
+            "CREATE TRIGGER IF NOT EXISTS trg_screenings_epoch_insert AFTER INSERT ON screenings " +
+            "WHEN NEW.screening_epoch IS NULL BEGIN " +
+            "UPDATE screenings SET screening_epoch = CAST(strftime('%s', NEW.screening_time) AS INTEGER) " +
+            "WHERE id = NEW.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_screenings_epoch_update AFTER UPDATE OF screening_time ON screenings " +
+            "BEGIN " +
+            "UPDATE screenings SET screening_epoch = CAST(strftime('%s', NEW.screening_time) AS INTEGER) " +
+            "WHERE id = NEW.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_reservations_epoch_insert AFTER INSERT ON reservations " +
+            "WHEN NEW.reservation_epoch IS NULL BEGIN " +
+            "UPDATE reservations SET reservation_epoch = CAST(strftime('%s', NEW.reservation_time) AS INTEGER) " +
+            "WHERE id = NEW.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_reservations_epoch_update AFTER UPDATE OF reservation_time ON reservations " +
+            "BEGIN " +
+            "UPDATE reservations SET reservation_epoch = CAST(strftime('%s', NEW.reservation_time) AS INTEGER) " +
+            "WHERE id = NEW.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_payments_epoch_insert AFTER INSERT ON payments " +
+            "WHEN NEW.payment_epoch IS NULL BEGIN " +
+            "UPDATE payments SET payment_epoch = CAST(strftime('%s', NEW.payment_time) AS INTEGER) " +
+            "WHERE id = NEW.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_payments_epoch_update AFTER UPDATE OF payment_time ON payments " +
+            "BEGIN " +
+            "UPDATE payments SET payment_epoch = CAST(strftime('%s', NEW.payment_time) AS INTEGER) " +
+            "WHERE id = NEW.id; END",
+
+            // Move the time indexes from the TEXT columns to the epoch columns
+            "DROP INDEX IF EXISTS idx_screenings_movie",
+            "DROP INDEX IF EXISTS idx_screenings_cinema",
+            "DROP INDEX IF EXISTS idx_screenings_time",
+            "DROP INDEX IF EXISTS idx_reservations_user",
+            "DROP INDEX IF EXISTS idx_reservations_screening",
+            "DROP INDEX IF EXISTS idx_reservations_time",
+            "DROP INDEX IF EXISTS idx_payments_reservation",
+            "DROP INDEX IF EXISTS idx_payments_time",
+            "CREATE INDEX idx_screenings_movie ON screenings (movie_id, screening_epoch)",
+            "CREATE INDEX idx_screenings_cinema ON screenings (cinema_id, screening_epoch)",
+            "CREATE INDEX idx_screenings_epoch ON screenings (screening_epoch)",
+            "CREATE INDEX idx_reservations_user ON reservations (user_id, reservation_epoch)",
+            "CREATE INDEX idx_reservations_screening ON reservations (screening_id, reservation_epoch)",
+            "CREATE INDEX idx_reservations_epoch ON reservations (reservation_epoch)",
+            "CREATE INDEX idx_payments_reservation ON payments (reservation_id, payment_epoch)",
+            "CREATE INDEX idx_payments_epoch ON payments (is_successful, payment_epoch, amount)"
+        );
+
+        register(5, "Expiring seat holds",
+            // One row per held seat; all seats picked in one booking share a hold token.
+            // expires_at is UTC epoch seconds, unlike the local-time *_epoch columns.
+            "CREATE TABLE seat_holds (" +
+            "seat_id INTEGER PRIMARY KEY, " +
+            "hold_token TEXT NOT NULL, " +
+            "screening_id INTEGER NOT NULL, " +
+            "owner_session TEXT NOT NULL, " +
+            "created_at INTEGER NOT NULL, " +
+            "expires_at INTEGER NOT NULL, " +
+            "FOREIGN KEY (seat_id) REFERENCES seats(id), " +
+            "FOREIGN KEY (screening_id) REFERENCES screenings(id)" +
+            ")",
+            "CREATE INDEX idx_seat_holds_token ON seat_holds (hold_token)",
+            "CREATE INDEX idx_seat_holds_expiry ON seat_holds (expires_at)",
+            "CREATE INDEX idx_seat_holds_session ON seat_holds (owner_session)",
+            // Seats flagged before holds existed but never booked were leaked by abandoned sessions
+            "UPDATE seats SET is_reserved = 0 " +
+            "WHERE is_reserved = 1 AND id NOT IN (SELECT seat_id FROM reservation_seats)"
+        );
+
+        register(6, "Seat layout templates with per-screening deviations",
+            // One immutable row per layout version; see SeatLayout for the cell encoding
+            "CREATE TABLE seat_layouts (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "cinema_id INTEGER NOT NULL, " +
+            "version INTEGER NOT NULL, " +
+            "total_rows INTEGER NOT NULL, " +
+            "seats_per_row INTEGER NOT NULL, " +
+            "cells TEXT NOT NULL, " +
+            "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "FOREIGN KEY (cinema_id) REFERENCES cinemas(id), " +
+            "UNIQUE (cinema_id, version), " +
+            "CHECK (length(cells) = total_rows * seats_per_row), " +
+            "CHECK (total_rows * seats_per_row <= " + SeatLayout.SEAT_ID_STRIDE + ")" +
+            ")",
+            "INSERT INTO seat_layouts (cinema_id, version, total_rows, seats_per_row, cells) " +
+            "SELECT id, 1, total_rows, seats_per_row, " + defaultLayoutCells("cinemas") + " FROM cinemas",
+            // Cinemas created by plain SQL (sample data, scripts) still get their first layout
+            "CREATE TRIGGER IF NOT EXISTS trg_cinemas_layout_insert AFTER INSERT ON cinemas BEGIN " +
+            "INSERT INTO seat_layouts (cinema_id, version, total_rows, seats_per_row, cells) " +
+            "VALUES (NEW.id, 1, NEW.total_rows, NEW.seats_per_row, " + defaultLayoutCells("NEW") + "); END",
+
+            // Each screening is pinned to the layout version it was scheduled with
+            "ALTER TABLE screenings ADD COLUMN layout_id INTEGER REFERENCES seat_layouts(id)",
+            "UPDATE screenings SET layout_id = " + currentLayoutOf("screenings.cinema_id"),
+            "CREATE TRIGGER IF NOT EXISTS trg_screenings_layout_insert AFTER INSERT ON screenings " +
+            "WHEN NEW.layout_id IS NULL BEGIN " +
+            "UPDATE screenings SET layout_id = " + currentLayoutOf("NEW.cinema_id") + " WHERE id = NEW.id; END",
+            "CREATE TRIGGER IF NOT EXISTS trg_screenings_layout_update AFTER UPDATE OF cinema_id ON screenings " +
+            "WHEN OLD.cinema_id <> NEW.cinema_id BEGIN " +
+            "UPDATE screenings SET layout_id = " + currentLayoutOf("NEW.cinema_id") + " WHERE id = NEW.id; END",
+
+            // Keep only the deviations: seats that are reserved, held, booked or ticketed
+            "DELETE FROM seats WHERE is_reserved = 0 " +
+            "AND id NOT IN (SELECT seat_id FROM reservation_seats) " +
+            "AND id NOT IN (SELECT seat_id FROM tickets) " +
+            "AND id NOT IN (SELECT seat_id FROM seat_holds)",
+
+            // Renumber the remaining seats to screening_id * stride + grid position. Going through
+            // negative IDs avoids transient key collisions; foreign keys are checked at commit.
+            "PRAGMA defer_foreign_keys = ON",
+            "CREATE TEMP TABLE seat_id_map AS " +
+            "SELECT s.id AS old_id, s.screening_id * " + SeatLayout.SEAT_ID_STRIDE + " + " +
+            "(s.row_number - 1) * l.seats_per_row + (s.column_number - 1) AS new_id, " +
+            "(s.row_number BETWEEN 1 AND l.total_rows AND s.column_number BETWEEN 1 AND l.seats_per_row) AS in_grid " +
+            "FROM seats s JOIN screenings sc ON sc.id = s.screening_id JOIN seat_layouts l ON l.id = sc.layout_id",
+            // Seats generated before their cinema was resized may lie outside the grid or share a position;
+            // renumbering those would silently merge or misplace seats, so abort the migration instead
+            "CREATE TEMP TABLE seat_id_conflicts (seat_id INTEGER)",
+            "CREATE TEMP TRIGGER seat_id_conflict_guard BEFORE INSERT ON seat_id_conflicts BEGIN " +
+            "SELECT RAISE(ABORT, 'Cannot renumber seats: some seats lie outside their cinema''s current grid " +
+            "or share a position with another seat; fix their row_number and column_number first'); END",
+            "INSERT INTO seat_id_conflicts " +
+            "SELECT id FROM seats WHERE id NOT IN (SELECT old_id FROM seat_id_map) " +
+            "UNION ALL SELECT old_id FROM seat_id_map WHERE NOT in_grid " +
+            "UNION ALL SELECT old_id FROM seat_id_map m " +
+            "WHERE (SELECT COUNT(*) FROM seat_id_map m2 WHERE m2.new_id = m.new_id) > 1",
+            "DROP TRIGGER seat_id_conflict_guard",
+            "DROP TABLE seat_id_conflicts",
+            "UPDATE seats SET id = -(SELECT new_id FROM seat_id_map WHERE old_id = seats.id)",
+            "UPDATE seats SET id = -id",
+            "UPDATE reservation_seats SET seat_id = " +
+            "-(SELECT new_id FROM seat_id_map WHERE old_id = reservation_seats.seat_id)",
+            "UPDATE reservation_seats SET seat_id = -seat_id",
+            "UPDATE tickets SET seat_id = (SELECT new_id FROM seat_id_map WHERE old_id = tickets.seat_id)",
+            "UPDATE seat_holds SET seat_id = -(SELECT new_id FROM seat_id_map WHERE old_id = seat_holds.seat_id)",
+            "UPDATE seat_holds SET seat_id = -seat_id",
+            "DROP TABLE seat_id_map"
+        );
+
+        // The bits are filled from seats.is_reserved in Java; see buildSeatBitmaps
+        register(new Migration(7, "Packed seat bitmap per screening", Arrays.asList(
+            "ALTER TABLE screenings ADD COLUMN seat_bitmap BLOB",
+            "UPDATE screenings SET seat_bitmap = " +
+            "(SELECT zeroblob((length(l.cells) + 7) / 8) FROM seat_layouts l WHERE l.id = screenings.layout_id)"
+        ), "buildSeatBitmaps v1") {
+            @Override
+            public void afterStatements(Connection connection) throws SQLException {
+                buildSeatBitmaps(connection);
+            }
+        });
+
+        // Incremented with every seat bitmap update; polled by SeatChangeFeed to see other processes' writes
+        register(8, "Seat change sequence per screening",
+            "ALTER TABLE screenings ADD COLUMN seat_change_seq INTEGER NOT NULL DEFAULT 0"
+        );
+
+        // NULL for payments taken before keys existed; SQLite lets any number of rows share NULL
+        register(9, "Idempotency keys for payments",
+            "ALTER TABLE payments ADD COLUMN idempotency_key TEXT",
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_payments_idempotency_key ON payments (idempotency_key)"
+        );
+
+        register(10, "Covering index for sales reports",
+            // ReportDAO: paid reservations of a date range with the columns the reports group and sum
+            "CREATE INDEX IF NOT EXISTS idx_reservations_paid_epoch " +
+            "ON reservations (is_paid, reservation_epoch, screening_id, total_amount)"
+        );
+
+        // Maintained by SalesRollupDAO on every payment and cancellation; filled from history here
+        register(new Migration(11, "Daily sales rollup per cinema and movie", Arrays.asList(
+            // sales_day is the local epoch day (see DateTimeUtil)
+            "CREATE TABLE daily_sales (" +
+            "sales_day INTEGER NOT NULL, " +
+            "cinema_id INTEGER NOT NULL, " +
+            "movie_id INTEGER NOT NULL, " +
+            "gross REAL NOT NULL DEFAULT 0, " +
+            "reservations INTEGER NOT NULL DEFAULT 0, " +
+            "tickets INTEGER NOT NULL DEFAULT 0, " +
+            "concessions REAL NOT NULL DEFAULT 0, " +
+            "refunds REAL NOT NULL DEFAULT 0, " +
+            "PRIMARY KEY (sales_day, cinema_id, movie_id)" +
+            ") WITHOUT ROWID"
+        ), "SalesRollupDAO.rebuild v1") {
+            @Override
+            public void afterStatements(Connection connection) throws SQLException {
+                SalesRollupDAO.rebuild(connection);
+            }
+        });
+
+        // Change cursor for SalesAnalytics: every write that affects a reservation's sales logs its ID
+        register(12, "Reservation change log",
+            "CREATE TABLE reservation_changes (" +
+            "seq INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "reservation_id INTEGER NOT NULL, " +
+            "changed_at INTEGER NOT NULL DEFAULT (strftime('%s', 'now'))" +
+            ")",
+            "CREATE INDEX idx_reservation_changes_time ON reservation_changes (changed_at)",
+            "CREATE TRIGGER trg_reservations_change_insert AFTER INSERT ON reservations BEGIN " +
+            "INSERT INTO reservation_changes (reservation_id) VALUES (NEW.id); END",
+            "CREATE TRIGGER trg_reservations_change_update AFTER UPDATE ON reservations BEGIN " +
+            "INSERT INTO reservation_changes (reservation_id) VALUES (NEW.id); END",
+            "CREATE TRIGGER trg_reservations_change_delete AFTER DELETE ON reservations BEGIN " +
+            "INSERT INTO reservation_changes (reservation_id) VALUES (OLD.id); END",
+            "CREATE TRIGGER trg_reservation_seats_change_insert AFTER INSERT ON reservation_seats BEGIN " +
+            "INSERT INTO reservation_changes (reservation_id) VALUES (NEW.reservation_id); END",
+            "CREATE TRIGGER trg_reservation_seats_change_delete AFTER DELETE ON reservation_seats BEGIN " +
+            "INSERT INTO reservation_changes (reservation_id) VALUES (OLD.reservation_id); END",
+            "CREATE TRIGGER trg_reservation_concessions_change_insert AFTER INSERT ON reservation_concessions BEGIN " +
+            "INSERT INTO reservation_changes (reservation_id) VALUES (NEW.reservation_id); END",
+            "CREATE TRIGGER trg_reservation_concessions_change_delete AFTER DELETE ON reservation_concessions BEGIN " +
+            "INSERT INTO reservation_changes (reservation_id) VALUES (OLD.reservation_id); END"
+        );
+
+        register(13, "Payment time index for exports",
+            // ExportDAO streams all payments of a range in time order; idx_payments_epoch leads with is_successful
+            "CREATE INDEX IF NOT EXISTS idx_payments_export ON payments (payment_epoch)"
+        );
+
+        // MovieDAO.searchMovies; external content table over movies, kept in sync by the triggers
+        register(14, "Full-text movie search",
+            "CREATE VIRTUAL TABLE movies_fts USING fts5(" +
+            "title, director, \"cast\", genre, synopsis, " +
+            "content='movies', content_rowid='id', " +
+            "tokenize='unicode61 remove_diacritics 2', prefix='2 3')",
+            "CREATE TRIGGER trg_movies_fts_insert AFTER INSERT ON movies BEGIN " +
+            "INSERT INTO movies_fts (rowid, title, director, \"cast\", genre, synopsis) " +
+            "VALUES (NEW.id, NEW.title, NEW.director, NEW.cast, NEW.genre, NEW.synopsis); END",
+            "CREATE TRIGGER trg_movies_fts_delete AFTER DELETE ON movies BEGIN " +
+            "INSERT INTO movies_fts (movies_fts, rowid, title, director, \"cast\", genre, synopsis) " +
+            "VALUES ('delete', OLD.id, OLD.title, OLD.director, OLD.cast, OLD.genre, OLD.synopsis); END",
+            // Only the indexed columns; toggling a movie's status leaves the index alone
+            "CREATE TRIGGER trg_movies_fts_update AFTER UPDATE OF title, director, cast, genre, synopsis " +
+            "ON movies BEGIN " +
+            "INSERT INTO movies_fts (movies_fts, rowid, title, director, \"cast\", genre, synopsis) " +
+            "VALUES ('delete', OLD.id, OLD.title, OLD.director, OLD.cast, OLD.genre, OLD.synopsis); " +
+            "INSERT INTO movies_fts (rowid, title, director, \"cast\", genre, synopsis) " +
+            "VALUES (NEW.id, NEW.title, NEW.director, NEW.cast, NEW.genre, NEW.synopsis); END",
+            "INSERT INTO movies_fts (movies_fts) VALUES ('rebuild')"
+        );
+
+        // Seat IDs and bitmap bits are grid positions of the pinned layout, so a screening can only
+        // move to another cinema while none of its seats are taken, and then starts with an empty map
+        register(15, "Re-pin screening layouts only while no seats are taken",
+            "DROP TRIGGER IF EXISTS trg_screenings_layout_update",
+            "CREATE TRIGGER trg_screenings_cinema_guard BEFORE UPDATE OF cinema_id ON screenings " +
+            "WHEN OLD.cinema_id <> NEW.cinema_id AND OLD.seat_bitmap <> zeroblob(length(OLD.seat_bitmap)) BEGIN " +
+            "SELECT RAISE(ABORT, 'Cannot move a screening with reserved or held seats to another cinema'); END",
+            "CREATE TRIGGER trg_screenings_layout_update AFTER UPDATE OF cinema_id ON screenings " +
+            "WHEN OLD.cinema_id <> NEW.cinema_id BEGIN " +
+            "UPDATE screenings SET layout_id = " + currentLayoutOf("NEW.cinema_id") + ", " +
+            "seat_bitmap = (SELECT zeroblob((length(l.cells) + 7) / 8) FROM seat_layouts l " +
+            "WHERE l.id = " + currentLayoutOf("NEW.cinema_id") + "), " +
+            "seat_change_seq = seat_change_seq + 1 WHERE id = NEW.id; END"
+        );
+    }
+
+    private final Connection connection;
+
+    /**
+     * Constructor for SchemaMigrator.
+     *
+     * @param connection The read-write connection to migrate
+     */
+    public SchemaMigrator(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Verifies applied migrations and applies any pending ones in version order.
+     *
+     * @return The number of migrations applied
+     * @throws SQLException If a migration fails or an applied migration was modified
+     */
+    public int migrate() throws SQLException {
+        createVersionTable();
+        Map<Integer, String> applied = getAppliedChecksums();
+
+        int appliedCount = 0;
+        for (Migration migration : MIGRATIONS) {
+            String recordedChecksum = applied.get(migration.getVersion());
+
+            if (recordedChecksum != null) {
+                if (!recordedChecksum.equals(migration.getChecksum())) {
+                    throw new SQLException("Checksum mismatch for schema migration " + migration.getVersion() +
+                                          " (" + migration.getDescription() + "): the database recorded " +
+                                          recordedChecksum + " but the application has " + migration.getChecksum());
+                }
+                continue;
+            }
+
+            apply(migration);
+            appliedCount++;
+        }
+
+        System.out.println("Database schema is at version " + getCurrentVersion() +
+                          " (" + appliedCount + " migration(s) applied).");
+        return appliedCount;
+    }
+
+    /**
+     * Gets the highest applied schema version.
+     *
+     * @return The current schema version, or 0 if no migrations have been applied
+     * @throws SQLException If a database error occurs
+     */
+    public int getCurrentVersion() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Gets all registered migrations in version order.
+     *
+     * @return An unmodifiable list of migrations
+     */
+    public static List<Migration> getMigrations() {
+        return Collections.unmodifiableList(MIGRATIONS);
+    }
+
+    /**
+     * Creates the schema_version table if it doesn't exist.
+     */
+    private void createVersionTable() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(
+                "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INTEGER PRIMARY KEY, " +
+                "description TEXT NOT NULL, " +
+                "checksum TEXT NOT NULL, " +
+                "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "execution_ms INTEGER NOT NULL" +
+                ")"
+            );
+        }
+    }
+
+    /**
+     * Reads the checksums of all applied migrations.
+     */
+    private Map<Integer, String> getAppliedChecksums() throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Applies one migration and records it, all in a single transaction.
+     */
+    private void apply(Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : migration.getStatements()) {
+                    stmt.execute(sql);
+                }
+            }
+
+            migration.afterStatements(connection);
+
+            String insert = "INSERT INTO schema_version (version, description, checksum, execution_ms) " +
+                           "VALUES (?, ?, ?, ?)";
+            try (PreparedStatement stmt = connection.prepareStatement(insert)) {
+                stmt.setInt(1, migration.getVersion());
+                stmt.setString(2, migration.getDescription());
+                stmt.setString(3, migration.getChecksum());
+                stmt.setLong(4, System.currentTimeMillis() - start);
+                stmt.executeUpdate();
+            }
+
+            connection.commit();
+            System.out.println("Applied schema migration " + migration.getVersion() + ": " +
+                              migration.getDescription());
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Schema migration " + migration.getVersion() + " (" +
+                                  migration.getDescription() + ") failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Sets the bitmap bit of every reserved seat row, so the bitmaps start out consistent
+     * with the seats table. Seat IDs encode their grid position (see SeatLayout).
+     */
+    private static void buildSeatBitmaps(Connection connection) throws SQLException {
+        String selectQuery = "SELECT s.screening_id, s.id, sc.seat_bitmap FROM seats s " +
+                            "JOIN screenings sc ON sc.id = s.screening_id " +
+                            "WHERE s.is_reserved = 1 ORDER BY s.screening_id";
+        String updateQuery = "UPDATE screenings SET seat_bitmap = ? WHERE id = ?";
+
+        Map<Integer, SeatBitmap> bitmaps = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(selectQuery)) {
+            while (rs.next()) {
+                int screeningId = rs.getInt("screening_id");
+                SeatBitmap bitmap = bitmaps.get(screeningId);
+                if (bitmap == null) {
+                    bitmap = new SeatBitmap(rs.getBytes("seat_bitmap"));
+                    bitmaps.put(screeningId, bitmap);
+                }
+                bitmap.setReserved(SeatLayout.positionOf(rs.getInt("id")), true);
+            }
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(updateQuery)) {
+            for (Map.Entry<Integer, SeatBitmap> entry : bitmaps.entrySet()) {
+                stmt.setBytes(1, entry.getValue().toBytes());
+                stmt.setInt(2, entry.getKey());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Builds the SQL expression for the default layout cells of a cinema row: a full grid
+     * whose last three rows are deluxe when the cinema has deluxe seats.
+     *
+     * @param alias The table alias or trigger row (e.g. "NEW") holding the cinema columns
+     * @return The SQL expression
+     */
+    private static String defaultLayoutCells(String alias) {
+        String deluxeRows = "(CASE WHEN " + alias + ".has_deluxe_seats = 1 THEN min(3, " + alias + ".total_rows) ELSE 0 END)";
+        // hex(zeroblob(n)) is 2n zeros, so replacing '00' yields n copies of the cell character
+        return "replace(hex(zeroblob(" + alias + ".seats_per_row * (" + alias + ".total_rows - " + deluxeRows + "))), " +
+               "'00', '" + SeatLayout.STANDARD_CELL + "') || " +
+               "replace(hex(zeroblob(" + alias + ".seats_per_row * " + deluxeRows + ")), " +
+               "'00', '" + SeatLayout.DELUXE_CELL + "')";
+    }
+
+    /**
+     * Builds a scalar subquery for the ID of the newest layout of a cinema.
+     *
+     * @param cinemaId The SQL expression for the cinema ID
+     * @return The SQL subquery
+     */
+    private static String currentLayoutOf(String cinemaId) {
+        return "(SELECT l.id FROM seat_layouts l WHERE l.cinema_id = " + cinemaId + " ORDER BY l.version DESC LIMIT 1)";
+    }
+
+    /**
+     * Registers a migration that consists only of SQL statements.
+     */
+    private static void register(int version, String description, String... statements) {
+        register(new Migration(version, description, Arrays.asList(statements)));
+    }
+
+    /**
+     * Registers a migration, enforcing strictly increasing version numbers and a checksummed
+     * tag for every Java step.
+     */
+    private static void register(Migration migration) {
+        if (!MIGRATIONS.isEmpty() &&
+            MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion() >= migration.getVersion()) {
+            throw new IllegalStateException("Schema migrations must be registered in increasing version order");
+        }
+        if (migration.getJavaStep() == null && hasJavaStep(migration)) {
+            throw new IllegalStateException("Schema migration " + migration.getVersion() +
+                                            " overrides afterStatements but has no Java step tag");
+        }
+        MIGRATIONS.add(migration);
+    }
+
+    private static boolean hasJavaStep(Migration migration) {
+        try {
+            return migration.getClass().getMethod("afterStatements", Connection.class).getDeclaringClass()
+                != Migration.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A single numbered schema migration.
+     * Subclasses can override {@link #afterStatements(Connection)} for data conversions that
+     * cannot be expressed as plain SQL. The checksum cannot see that code, so such migrations
+     * carry a Java step tag (e.g. "buildSeatBitmaps v1") that is checksummed with the statements;
+     * change the tag whenever the Java step changes, so databases migrated with the old step are
+     * reported by the checksum verification.
+     */
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final List<String> statements;
+        private final String javaStep;
+        private final String checksum;
+
+        public Migration(int version, String description, List<String> statements) {
+            this(version, description, statements, null);
+        }
+
+        public Migration(int version, String description, List<String> statements, String javaStep) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+            this.javaStep = javaStep;
+            this.checksum = computeChecksum(statements, javaStep);
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public List<String> getStatements() {
+            return statements;
+        }
+
+        /**
+         * Gets the tag of the Java step that runs after the statements.
+         *
+         * @return The tag, or null if the migration is plain SQL
+         */
+        public String getJavaStep() {
+            return javaStep;
+        }
+
+        public String getChecksum() {
+            return checksum;
+        }
+
+        /**
+         * Runs after the SQL statements, inside the same transaction.
+         *
+         * @param connection The connection being migrated
+         * @throws SQLException If a database error occurs
+         */
+        public void afterStatements(Connection connection) throws SQLException {
+            // No data conversion by default
+        }
+
+        private static String computeChecksum(List<String> statements, String javaStep) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (String statement : statements) {
+                    digest.update(statement.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) ';');
+                }
+                // Plain SQL migrations keep the checksum they always had
+                if (javaStep != null) {
+                    digest.update(("java:" + javaStep).getBytes(StandardCharsets.UTF_8));
+                }
+
+                StringBuilder hex = new StringBuilder();
+                for (byte b : digest.digest()) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.substring(0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
@@ -1,24 +1,27 @@
 package com.cinebook.dao;
 
+import com.cinebook.model.BulkScheduleResult;
 import com.cinebook.model.Screening;
+import com.cinebook.model.SeatLayout;
+import com.cinebook.util.DateTimeUtil;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Data Access Object for Screening operations.
- * Handles CRUD operations for movie screenings in the database.
+ * Handles CRUD operations for movie screenings in the database. Reads are served from the
+ * {@link ScheduleIndex}, to which every successful write is written through.
  */
 public class ScreeningDAO {
     
-    private static final DateTimeFormatter DB_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private CinemaDAO cinemaDAO = new CinemaDAO();
     
     /**
      * Adds a new screening to the database.
@@ -28,107 +31,92 @@ public class ScreeningDAO {
      * @throws SQLException If a database error occurs
      */
     public int addScreening(Screening screening) throws SQLException {
-        String query = "INSERT INTO screenings (movie_id, cinema_id, screening_time, " +
-                      "standard_seat_price, deluxe_seat_price, is_active) " +
-                      "VALUES (?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setInt(1, screening.getMovieId());
-            stmt.setInt(2, screening.getCinemaId());
-            stmt.setString(3, screening.getScreeningTime().format(DB_FORMATTER));
-            stmt.setDouble(4, screening.getStandardSeatPrice());
-            stmt.setDouble(5, screening.getDeluxeSeatPrice());
-            stmt.setInt(6, screening.isActive() ? 1 : 0);
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                return -1; // No rows affected, insertion failed
-            }
-            
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    int screeningId = generatedKeys.getInt(1);
-                    
-                    // Generate seats for this screening
-                    generateSeatsForScreening(screeningId, screening.getCinemaId());
-                    
-                    return screeningId; // Return the generated ID
-                } else {
-                    return -1; // No ID generated, insertion failed
-                }
-            }
-        }
+        BulkScheduleResult result = addScreenings(Collections.singletonList(screening), false);
+        return result.getScreeningIds().isEmpty() ? -1 : result.getScreeningIds().get(0);
     }
     
     /**
-     * Generates seats for a new screening based on the cinema configuration.
+     * Adds many screenings in one transaction.
+     * Each screening is pinned to the current seat layout of its cinema; no seat rows are
+     * written until seats are actually reserved. Either every screening is created or none is.
      *
-     * @param screeningId The ID of the screening to generate seats for
-     * @param cinemaId The ID of the cinema to get configuration from
+     * @param screenings The screenings to add
+     * @param skipExisting Whether to skip screenings whose cinema already has a screening at the same time
+     * @return The IDs of the created screenings, the number of seats put on sale and the write throughput
      * @throws SQLException If a database error occurs
      */
-    private void generateSeatsForScreening(int screeningId, int cinemaId) throws SQLException {
+    public BulkScheduleResult addScreenings(List<Screening> screenings, boolean skipExisting) throws SQLException {
+        String insertQuery = "INSERT INTO screenings (movie_id, cinema_id, screening_time, screening_epoch, " +
+                            "standard_seat_price, deluxe_seat_price, is_active, layout_id, seat_bitmap) " +
+                            "SELECT ?, ?, ?, ?, ?, ?, ?, l.id, zeroblob((length(l.cells) + 7) / 8) " +
+                            "FROM seat_layouts l WHERE l.cinema_id = ? ORDER BY l.version DESC LIMIT 1 " +
+                            "RETURNING id, layout_id";
+        String existsQuery = "SELECT 1 FROM screenings WHERE cinema_id = ? AND screening_epoch = ?";
+        
+        long start = System.nanoTime();
+        BulkScheduleResult result = new BulkScheduleResult();
+        List<Screening> created = new ArrayList<>();
+        
         try (Connection conn = DBConnection.getConnection()) {
-            // Get cinema details
-            String cinemaQuery = "SELECT total_rows, seats_per_row, has_deluxe_seats FROM cinemas WHERE id = ?";
-            try (PreparedStatement cinemaStmt = conn.prepareStatement(cinemaQuery)) {
-                cinemaStmt.setInt(1, cinemaId);
-                ResultSet cinemaRs = cinemaStmt.executeQuery();
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery);
+                 PreparedStatement existsStmt = conn.prepareStatement(existsQuery)) {
                 
-                if (cinemaRs.next()) {
-                    int totalRows = cinemaRs.getInt("total_rows");
-                    int seatsPerRow = cinemaRs.getInt("seats_per_row");
-                    boolean hasDeluxeSeats = cinemaRs.getInt("has_deluxe_seats") == 1;
-                    
-                    // Define the last few rows as deluxe (if cinema has deluxe seats)
-                    int deluxeRowStart = hasDeluxeSeats ? totalRows - 2 : totalRows + 1; // No deluxe seats if row > totalRows
+                int seatCount = 0;
+                for (Screening screening : screenings) {
+                    long epoch = DateTimeUtil.toEpochSeconds(screening.getScreeningTime());
                     
-                    // Prepare seat insertion statement
-                    String seatQuery = "INSERT INTO seats (screening_id, seat_number, seat_type, is_reserved, row_number, column_number) " +
-                                      "VALUES (?, ?, ?, ?, ?, ?)";
-                    try (PreparedStatement seatStmt = conn.prepareStatement(seatQuery)) {
-                        
-                        // Generate seats row by row
-                        for (int row = 1; row <= totalRows; row++) {
-                            String rowLabel = getRowLabel(row);
-                            String seatType = (row >= deluxeRowStart) ? "DELUXE" : "STANDARD";
-                            
-                            for (int column = 1; column <= seatsPerRow; column++) {
-                                String seatNumber = rowLabel + column;
-                                
-                                seatStmt.setInt(1, screeningId);
-                                seatStmt.setString(2, seatNumber);
-                                seatStmt.setString(3, seatType);
-                                seatStmt.setInt(4, 0); // Not reserved initially
-                                seatStmt.setInt(5, row);
-                                seatStmt.setInt(6, column);
-                                
-                                seatStmt.executeUpdate();
+                    if (skipExisting) {
+                        existsStmt.setInt(1, screening.getCinemaId());
+                        existsStmt.setLong(2, epoch);
+                        try (ResultSet rs = existsStmt.executeQuery()) {
+                            if (rs.next()) {
+                                result.setSkippedScreenings(result.getSkippedScreenings() + 1);
+                                continue;
                             }
                         }
                     }
+                    
+                    insertStmt.setInt(1, screening.getMovieId());
+                    insertStmt.setInt(2, screening.getCinemaId());
+                    insertStmt.setString(3, DateTimeUtil.toLegacyText(screening.getScreeningTime()));
+                    insertStmt.setLong(4, epoch);
+                    insertStmt.setDouble(5, screening.getStandardSeatPrice());
+                    insertStmt.setDouble(6, screening.getDeluxeSeatPrice());
+                    insertStmt.setInt(7, screening.isActive() ? 1 : 0);
+                    insertStmt.setInt(8, screening.getCinemaId());
+                    
+                    try (ResultSet rs = insertStmt.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new SQLException("Creating screening failed: cinema " +
+                                                  screening.getCinemaId() + " has no seat layout.");
+                        }
+                        result.getScreeningIds().add(rs.getInt("id"));
+                        created.add(new Screening(rs.getInt("id"), screening.getMovieId(), screening.getCinemaId(),
+                                                  screening.getScreeningTime(), screening.getStandardSeatPrice(),
+                                                  screening.getDeluxeSeatPrice(), screening.isActive()));
+                        
+                        seatCount += cinemaDAO.getSeatLayoutById(rs.getInt("layout_id")).getSeatCount();
+                    }
                 }
+                
+                conn.commit();
+                result.setSeatCount(seatCount);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         }
-    }
-    
-    /**
-     * Converts a row number to a letter label (A-Z, then AA, AB, etc.)
-     *
-     * @param rowNumber The numeric row number
-     * @return A letter label for the row
-     */
-    private String getRowLabel(int rowNumber) {
-        if (rowNumber <= 26) {
-            return String.valueOf((char) ('A' + rowNumber - 1));
-        } else {
-            int firstChar = (rowNumber - 1) / 26;
-            int secondChar = (rowNumber - 1) % 26;
-            return String.valueOf((char) ('A' + firstChar - 1)) + String.valueOf((char) ('A' + secondChar));
+        
+        for (Screening screening : created) {
+            ScheduleIndex.getInstance().put(screening);
         }
+        
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000L);
+        return result;
     }
     
     /**
@@ -139,52 +127,44 @@ public class ScreeningDAO {
      * @throws SQLException If a database error occurs
      */
     public Screening getScreeningById(int id) throws SQLException {
-        String query = "SELECT s.*, m.title as movie_title, c.name as cinema_name " +
-                      "FROM screenings s " +
-                      "JOIN movies m ON s.movie_id = m.id " +
-                      "JOIN cinemas c ON s.cinema_id = c.id " +
-                      "WHERE s.id = ?";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setInt(1, id);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return extractScreeningFromResultSet(rs, true);
-                }
-            }
-        }
-        
-        return null; // Screening not found
+        return ScheduleIndex.getInstance().getScreening(id);
     }
     
     /**
      * Updates an existing screening in the database.
+     * Moving it to another cinema pins that cinema's current seat layout and clears the seat map;
+     * the database refuses the move while any seat is reserved or held.
      *
      * @param screening The Screening object with updated information
      * @return true if the update was successful, false otherwise
-     * @throws SQLException If a database error occurs
+     * @throws SQLException If a database error occurs, or the screening is moved while seats are taken
      */
     public boolean updateScreening(Screening screening) throws SQLException {
-        String query = "UPDATE screenings SET movie_id = ?, cinema_id = ?, screening_time = ?, " +
+        String query = "UPDATE screenings SET movie_id = ?, cinema_id = ?, screening_time = ?, screening_epoch = ?, " +
                       "standard_seat_price = ?, deluxe_seat_price = ?, is_active = ? WHERE id = ?";
+        int affectedRows;
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, screening.getMovieId());
             stmt.setInt(2, screening.getCinemaId());
-            stmt.setString(3, screening.getScreeningTime().format(DB_FORMATTER));
-            stmt.setDouble(4, screening.getStandardSeatPrice());
-            stmt.setDouble(5, screening.getDeluxeSeatPrice());
-            stmt.setInt(6, screening.isActive() ? 1 : 0);
-            stmt.setInt(7, screening.getId());
+            stmt.setString(3, DateTimeUtil.toLegacyText(screening.getScreeningTime()));
+            stmt.setLong(4, DateTimeUtil.toEpochSeconds(screening.getScreeningTime()));
+            stmt.setDouble(5, screening.getStandardSeatPrice());
+            stmt.setDouble(6, screening.getDeluxeSeatPrice());
+            stmt.setInt(7, screening.isActive() ? 1 : 0);
+            stmt.setInt(8, screening.getId());
             
-            int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+            affectedRows = stmt.executeUpdate();
+        }
+        
+        if (affectedRows > 0) {
+            // A move to another cinema pins the new cinema's layout with an empty seat map
+            SeatInventory.getInstance().invalidate(screening.getId());
+            ScheduleIndex.getInstance().put(screening);
         }
+        return affectedRows > 0;
     }
     
     /**
@@ -197,6 +177,7 @@ public class ScreeningDAO {
     public boolean deleteScreening(int id) throws SQLException {
         // First, delete associated seats
         String deleteSeatsQuery = "DELETE FROM seats WHERE screening_id = ?";
+        int affectedRows;
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement deleteSeatsStmt = conn.prepareStatement(deleteSeatsQuery)) {
@@ -208,26 +189,25 @@ public class ScreeningDAO {
             String deleteScreeningQuery = "DELETE FROM screenings WHERE id = ?";
             try (PreparedStatement deleteScreeningStmt = conn.prepareStatement(deleteScreeningQuery)) {
                 deleteScreeningStmt.setInt(1, id);
-                int affectedRows = deleteScreeningStmt.executeUpdate();
-                return affectedRows > 0;
+                affectedRows = deleteScreeningStmt.executeUpdate();
+                SeatInventory.getInstance().invalidate(id);
             }
         }
+        
+        if (affectedRows > 0) {
+            ScheduleIndex.getInstance().remove(id);
+        }
+        return affectedRows > 0;
     }
     
     /**
-     * Retrieves all screenings from the database.
+     * Retrieves all screenings, active or not.
      *
-     * @return A list of all screenings
+     * @return A list of all screenings ordered by time
      * @throws SQLException If a database error occurs
      */
     public List<Screening> getAllScreenings() throws SQLException {
-        String query = "SELECT s.*, m.title as movie_title, c.name as cinema_name " +
-                      "FROM screenings s " +
-                      "JOIN movies m ON s.movie_id = m.id " +
-                      "JOIN cinemas c ON s.cinema_id = c.id " +
-                      "ORDER BY s.screening_time";
-        
-        return getScreeningsWithQuery(query);
+        return ScheduleIndex.getInstance().getScreenings(null, null, Long.MIN_VALUE, Long.MAX_VALUE, false);
     }
     
     /**
@@ -238,28 +218,24 @@ public class ScreeningDAO {
      * @throws SQLException If a database error occurs
      */
     public List<Screening> getScreeningsByDate(String date) throws SQLException {
-        String query = "SELECT s.*, m.title as movie_title, c.name as cinema_name " +
-                      "FROM screenings s " +
-                      "JOIN movies m ON s.movie_id = m.id " +
-                      "JOIN cinemas c ON s.cinema_id = c.id " +
-                      "WHERE s.is_active = 1 AND m.is_active = 1 AND c.is_active = 1 " +
-                      "AND date(s.screening_time) = ? " +
-                      "ORDER BY s.screening_time";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, date);
-            
-            List<Screening> screenings = new ArrayList<>();
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    screenings.add(extractScreeningFromResultSet(rs, true));
-                }
-            }
-            
-            return screenings;
-        }
+        return getScreenings(null, null, date, date);
+    }
+    
+    /**
+     * Retrieves the active screenings of a date range, optionally of one movie, one cinema or both.
+     *
+     * @param movieId The ID of the movie, or null for all movies
+     * @param cinemaId The ID of the cinema, or null for all cinemas
+     * @param startDate The first date (format: YYYY-MM-DD), or null for no lower bound
+     * @param endDate The last date (format: YYYY-MM-DD), or null for no upper bound
+     * @return A list of screenings ordered by time
+     * @throws SQLException If a database error occurs
+     */
+    public List<Screening> getScreenings(Integer movieId, Integer cinemaId, String startDate, String endDate)
+            throws SQLException {
+        long from = startDate == null ? Long.MIN_VALUE : DateTimeUtil.startOfDay(startDate);
+        long to = endDate == null ? Long.MAX_VALUE : DateTimeUtil.startOfNextDay(endDate);
+        return ScheduleIndex.getInstance().getScreenings(movieId, cinemaId, from, to, true);
     }
     
     /**
@@ -270,28 +246,7 @@ public class ScreeningDAO {
      * @throws SQLException If a database error occurs
      */
     public List<Screening> getScreeningsByMovie(int movieId) throws SQLException {
-        String query = "SELECT s.*, m.title as movie_title, c.name as cinema_name " +
-                      "FROM screenings s " +
-                      "JOIN movies m ON s.movie_id = m.id " +
-                      "JOIN cinemas c ON s.cinema_id = c.id " +
-                      "WHERE s.is_active = 1 AND m.is_active = 1 AND c.is_active = 1 " +
-                      "AND s.movie_id = ? " +
-                      "ORDER BY s.screening_time";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setInt(1, movieId);
-            
-            List<Screening> screenings = new ArrayList<>();
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    screenings.add(extractScreeningFromResultSet(rs, true));
-                }
-            }
-            
-            return screenings;
-        }
+        return getScreenings(movieId, null, null, null);
     }
     
     /**
@@ -302,28 +257,7 @@ public class ScreeningDAO {
      * @throws SQLException If a database error occurs
      */
     public List<Screening> getScreeningsByCinema(int cinemaId) throws SQLException {
-        String query = "SELECT s.*, m.title as movie_title, c.name as cinema_name " +
-                      "FROM screenings s " +
-                      "JOIN movies m ON s.movie_id = m.id " +
-                      "JOIN cinemas c ON s.cinema_id = c.id " +
-                      "WHERE s.is_active = 1 AND m.is_active = 1 AND c.is_active = 1 " +
-                      "AND s.cinema_id = ? " +
-                      "ORDER BY s.screening_time";
-        
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setInt(1, cinemaId);
-            
-            List<Screening> screenings = new ArrayList<>();
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    screenings.add(extractScreeningFromResultSet(rs, true));
-                }
-            }
-            
-            return screenings;
-        }
+        return getScreenings(null, cinemaId, null, null);
     }
     
     /**
@@ -333,33 +267,40 @@ public class ScreeningDAO {
      * @throws SQLException If a database error occurs
      */
     public List<Screening> getFutureScreenings() throws SQLException {
-        String query = "SELECT s.*, m.title as movie_title, c.name as cinema_name " +
-                      "FROM screenings s " +
-                      "JOIN movies m ON s.movie_id = m.id " +
-                      "JOIN cinemas c ON s.cinema_id = c.id " +
-                      "WHERE s.is_active = 1 AND m.is_active = 1 AND c.is_active = 1 " +
-                      "AND s.screening_time > datetime('now', 'localtime') " +
-                      "ORDER BY s.screening_time";
-        
-        return getScreeningsWithQuery(query);
+        return ScheduleIndex.getInstance().getScreenings(null, null, DateTimeUtil.nowEpochSeconds() + 1,
+                                                         Long.MAX_VALUE, true);
     }
     
     /**
-     * Helper method to execute a query and return a list of screenings.
+     * Retrieves the next active showtimes from now, optionally of one movie, one cinema or both.
      *
-     * @param query The SQL query to execute
-     * @return A list of screenings from the query results
+     * @param movieId The ID of the movie, or null for all movies
+     * @param cinemaId The ID of the cinema, or null for all cinemas
+     * @param limit The maximum number of showtimes
+     * @return Up to limit upcoming screenings ordered by time
      * @throws SQLException If a database error occurs
      */
-    private List<Screening> getScreeningsWithQuery(String query) throws SQLException {
+    public List<Screening> getNextShowtimes(Integer movieId, Integer cinemaId, int limit) throws SQLException {
+        return ScheduleIndex.getInstance().getNextShowtimes(movieId, cinemaId, DateTimeUtil.nowEpochSeconds(), limit);
+    }
+    
+    /**
+     * Loads all screenings from the database for the schedule index.
+     *
+     * @return A list of all screenings without movie titles and cinema names
+     * @throws SQLException If a database error occurs
+     */
+    List<Screening> loadAllScreenings() throws SQLException {
+        String query = "SELECT id, movie_id, cinema_id, screening_epoch, standard_seat_price, " +
+                      "deluxe_seat_price, is_active FROM screenings";
         List<Screening> screenings = new ArrayList<>();
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
-                screenings.add(extractScreeningFromResultSet(rs, true));
+                screenings.add(extractScreeningFromResultSet(rs));
             }
         }
         
@@ -370,40 +311,18 @@ public class ScreeningDAO {
      * Helper method to extract a Screening object from a ResultSet.
      *
      * @param rs The ResultSet containing screening data
-     * @param withJoinData Whether the ResultSet includes joined data like movie_title
      * @return A Screening object populated with data from the ResultSet
      * @throws SQLException If a database error occurs
      */
-    private Screening extractScreeningFromResultSet(ResultSet rs, boolean withJoinData) throws SQLException {
-        Screening screening;
-        
-        LocalDateTime screeningTime = LocalDateTime.parse(
-            rs.getString("screening_time"), DB_FORMATTER);
-        
-        if (withJoinData) {
-            screening = new Screening(
-                rs.getInt("id"),
-                rs.getInt("movie_id"),
-                rs.getString("movie_title"),
-                rs.getInt("cinema_id"),
-                rs.getString("cinema_name"),
-                screeningTime,
-                rs.getDouble("standard_seat_price"),
-                rs.getDouble("deluxe_seat_price"),
-                rs.getInt("is_active") == 1
-            );
-        } else {
-            screening = new Screening(
-                rs.getInt("id"),
-                rs.getInt("movie_id"),
-                rs.getInt("cinema_id"),
-                screeningTime,
-                rs.getDouble("standard_seat_price"),
-                rs.getDouble("deluxe_seat_price"),
-                rs.getInt("is_active") == 1
-            );
-        }
-        
-        return screening;
+    private Screening extractScreeningFromResultSet(ResultSet rs) throws SQLException {
+        return new Screening(
+            rs.getInt("id"),
+            rs.getInt("movie_id"),
+            rs.getInt("cinema_id"),
+            DateTimeUtil.fromEpochSeconds(rs.getLong("screening_epoch")),
+            rs.getDouble("standard_seat_price"),
+            rs.getDouble("deluxe_seat_price"),
+            rs.getInt("is_active") == 1
+        );
     }
 }
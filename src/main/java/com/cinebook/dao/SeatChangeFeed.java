@@ -0,0 +1,272 @@
+package com.cinebook.dao;
+
+import com.cinebook.model.Seat;
+import com.cinebook.model.SeatBitmap;
+import com.cinebook.model.SeatChangeEvent;
+import com.cinebook.model.SeatLayout;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Publishes seat map changes of screenings to subscribers such as an open seat selection screen.
+ * Seat writes made by this process are published as soon as they are written through to the
+ * {@link SeatInventory}. Writes made by other processes are found by polling each subscribed
+ * screening's seat_change_seq, which every seat bitmap update increments, and comparing the
+ * stored bitmap with the last one seen. Either way subscribers only receive the seats whose
+ * status changed.
+ */
+public class SeatChangeFeed {
+    private static final long POLL_INTERVAL_MILLIS = Long.getLong("cinebook.seatFeed.pollMillis", 1000L);
+    
+    private static final SeatChangeFeed INSTANCE = new SeatChangeFeed();
+    
+    private final Map<Integer, ScreeningFeed> feeds = new ConcurrentHashMap<>();
+    private ScheduledExecutorService poller;
+    
+    private SeatChangeFeed() {
+    }
+    
+    /**
+     * Gets the shared seat change feed.
+     *
+     * @return The seat change feed instance
+     */
+    public static SeatChangeFeed getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Subscribes to the seat changes of a screening.
+     * The listener is called on the thread that made or found the change, so it should hand the
+     * event over to its own thread (e.g. the Swing event dispatch thread) and return quickly.
+     *
+     * @param screeningId The ID of the screening
+     * @param listener The listener to call with each change
+     * @throws SQLException If the screening's seats had to be loaded and a database error occurred
+     */
+    public synchronized void subscribe(int screeningId, Consumer<SeatChangeEvent> listener) throws SQLException {
+        ScreeningFeed feed = feeds.get(screeningId);
+        if (feed == null) {
+            // Start from the seat map subscribers were shown; the first poll corrects any difference
+            SeatBitmap known = new SeatBitmap();
+            for (Seat seat : SeatInventory.getInstance().getSeats(screeningId)) {
+                if (seat.isReserved()) {
+                    known.setReserved(SeatLayout.positionOf(seat.getId()), true);
+                }
+            }
+            feed = new ScreeningFeed(screeningId, known);
+            feeds.put(screeningId, feed);
+        }
+        feed.listeners.add(listener);
+        startPoller();
+    }
+    
+    /**
+     * Stops delivering the seat changes of a screening to a listener.
+     *
+     * @param screeningId The ID of the screening
+     * @param listener The listener passed to {@link #subscribe(int, Consumer)}
+     */
+    public synchronized void unsubscribe(int screeningId, Consumer<SeatChangeEvent> listener) {
+        ScreeningFeed feed = feeds.get(screeningId);
+        if (feed != null) {
+            feed.listeners.remove(listener);
+            if (feed.listeners.isEmpty()) {
+                feeds.remove(screeningId);
+            }
+        }
+    }
+    
+    /**
+     * Checks the subscribed screenings for changes made by other processes right away.
+     */
+    public void pollNow() {
+        pollOnce();
+    }
+    
+    /**
+     * Publishes the status of seats after it was written to the database.
+     * Seats of screenings nobody subscribed to, and seats whose status did not change, are ignored.
+     *
+     * @param seatIds The IDs of the seats
+     * @param reserved The new reservation status
+     */
+    void publish(Collection<Integer> seatIds, boolean reserved) {
+        if (feeds.isEmpty() || seatIds.isEmpty()) {
+            return;
+        }
+        
+        Map<Integer, List<Integer>> seatIdsByScreening = new HashMap<>();
+        for (int seatId : seatIds) {
+            seatIdsByScreening.computeIfAbsent(SeatLayout.screeningIdOf(seatId), k -> new ArrayList<>()).add(seatId);
+        }
+        
+        for (Map.Entry<Integer, List<Integer>> entry : seatIdsByScreening.entrySet()) {
+            ScreeningFeed feed = feeds.get(entry.getKey());
+            if (feed == null) {
+                continue;
+            }
+            
+            List<Integer> changed = new ArrayList<>();
+            synchronized (feed) {
+                for (int seatId : entry.getValue()) {
+                    int position = SeatLayout.positionOf(seatId);
+                    if (feed.known.isReserved(position) != reserved) {
+                        feed.known.setReserved(position, reserved);
+                        changed.add(seatId);
+                    }
+                }
+            }
+            
+            if (!changed.isEmpty()) {
+                List<Integer> none = Collections.emptyList();
+                feed.notifyListeners(new SeatChangeEvent(feed.screeningId, reserved ? changed : none,
+                                                         reserved ? none : changed));
+            }
+        }
+    }
+    
+    /**
+     * Makes the next poll compare a screening's stored bitmap even if its change sequence did not move,
+     * e.g. after a transaction that had already published its seats was rolled back.
+     *
+     * @param screeningId The ID of the screening
+     */
+    void resync(int screeningId) {
+        ScreeningFeed feed = feeds.get(screeningId);
+        if (feed != null) {
+            feed.lastSequence = -1;
+        }
+    }
+    
+    private synchronized void startPoller() {
+        if (poller != null) {
+            return;
+        }
+        
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollOnce, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS,
+                                      TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Reads the bitmap of every subscribed screening whose change sequence moved and publishes the difference.
+     * Each screening is read while its feed is locked, so a newer change published by this process
+     * cannot be overwritten by an older read.
+     */
+    private void pollOnce() {
+        if (feeds.isEmpty()) {
+            return;
+        }
+        
+        String query = "SELECT seat_change_seq, seat_bitmap FROM screenings WHERE id = ? AND seat_change_seq <> ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            for (ScreeningFeed feed : feeds.values()) {
+                SeatChangeEvent event;
+                synchronized (feed) {
+                    stmt.setInt(1, feed.screeningId);
+                    stmt.setLong(2, feed.lastSequence);
+                    
+                    long sequence;
+                    SeatBitmap stored;
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            continue; // Unchanged, or the screening was deleted
+                        }
+                        sequence = rs.getLong("seat_change_seq");
+                        stored = new SeatBitmap(rs.getBytes("seat_bitmap"));
+                    }
+                    
+                    event = feed.diff(stored);
+                    feed.lastSequence = sequence;
+                    
+                    // Bring the inventory up to date too; the feed already knows, so this publishes nothing
+                    SeatInventory.getInstance().applySeatState(event.getReservedSeatIds(), true);
+                    SeatInventory.getInstance().applySeatState(event.getReleasedSeatIds(), false);
+                }
+                
+                if (!event.isEmpty()) {
+                    feed.notifyListeners(event);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Subscribers and last known seat bitmap of one screening.
+     */
+    private static class ScreeningFeed {
+        private final int screeningId;
+        private final List<Consumer<SeatChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+        private SeatBitmap known;
+        private volatile long lastSequence = -1;
+        
+        ScreeningFeed(int screeningId, SeatBitmap known) {
+            this.screeningId = screeningId;
+            this.known = known;
+        }
+        
+        /**
+         * Replaces the known bitmap with a stored one and lists the seats that differ.
+         */
+        SeatChangeEvent diff(SeatBitmap stored) {
+            byte[] before = known.toBytes();
+            byte[] after = stored.toBytes();
+            List<Integer> reserved = new ArrayList<>();
+            List<Integer> released = new ArrayList<>();
+            
+            for (int i = 0; i < Math.max(before.length, after.length); i++) {
+                int oldBits = i < before.length ? before[i] & 0xFF : 0;
+                int newBits = i < after.length ? after[i] & 0xFF : 0;
+                int changed = oldBits ^ newBits;
+                while (changed != 0) {
+                    int bit = Integer.numberOfTrailingZeros(changed);
+                    changed &= changed - 1;
+                    int seatId = SeatLayout.seatId(screeningId, i * 8 + bit);
+                    if ((newBits & (1 << bit)) != 0) {
+                        reserved.add(seatId);
+                    } else {
+                        released.add(seatId);
+                    }
+                }
+            }
+            
+            known = stored;
+            return new SeatChangeEvent(screeningId, reserved, released);
+        }
+        
+        void notifyListeners(SeatChangeEvent event) {
+            for (Consumer<SeatChangeEvent> listener : listeners) {
+                try {
+                    listener.accept(event);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.cinebook.dao;
 
 import com.cinebook.model.Seat;
+import com.cinebook.model.SeatBitmap;
+import com.cinebook.model.SeatClaimResult;
+import com.cinebook.model.SeatLayout;
 import com.cinebook.model.SeatType;
 
 import java.sql.Connection;
@@ -8,14 +11,40 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for Seat operations.
- * Handles operations for seats in the database.
+ * Handles operations for seats in the database. The seats of a screening come from the seat
+ * layout it was scheduled with; the seats table holds only the seats that deviate from it
+ * (reserved, held or booked). A seat row is written the first time the seat is reserved and
+ * keeps the seat's layout-derived ID (see {@link SeatLayout#seatId(int, int)}).
+ * The reserved/held state of all seats of a screening is also kept as a packed
+ * {@link SeatBitmap} on the screening row, updated in the same transaction as the seat rows,
+ * so seat maps and availability counts are answered from a single row.
  */
 public class SeatDAO {
     
+    // Writes a seat row from its layout data, or updates the row if the seat is already materialized
+    private static final String UPSERT_SEAT_QUERY =
+        "INSERT INTO seats (id, screening_id, seat_number, seat_type, is_reserved, row_number, column_number) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (id) DO UPDATE SET is_reserved = excluded.is_reserved, " +
+        "seat_number = excluded.seat_number, seat_type = excluded.seat_type, " +
+        "row_number = excluded.row_number, column_number = excluded.column_number";
+    
+    // Bind parameters per IN clause when loading by many IDs, well below SQLite's variable limit
+    static final int MAX_BATCH_SIZE = 500;
+    
+    private CinemaDAO cinemaDAO = new CinemaDAO();
+    
     /**
      * Retrieves a seat by its ID.
      *
@@ -26,7 +55,7 @@ public class SeatDAO {
     public Seat getSeatById(int id) throws SQLException {
         String query = "SELECT * FROM seats WHERE id = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, id);
@@ -38,33 +67,124 @@ public class SeatDAO {
             }
         }
         
-        return null; // Seat not found
+        // Not materialized yet; the seat is free if its screening's layout has it
+        SeatLayout layout = cinemaDAO.getSeatLayoutByScreening(SeatLayout.screeningIdOf(id));
+        return layout == null ? null : layout.toSeat(SeatLayout.screeningIdOf(id), SeatLayout.positionOf(id));
     }
     
     /**
      * Retrieves all seats for a specific screening.
+     * The seats of the screening's layout are merged with its seat bitmap, so the whole seat
+     * map costs one screening row read however large the house is.
      *
      * @param screeningId The ID of the screening
-     * @return A list of seats for the screening
+     * @return A list of seats for the screening, ordered by row and column
      * @throws SQLException If a database error occurs
      */
     public List<Seat> getSeatsByScreening(int screeningId) throws SQLException {
-        String query = "SELECT * FROM seats WHERE screening_id = ? ORDER BY row_number, column_number";
+        String query = "SELECT layout_id, seat_bitmap FROM screenings WHERE id = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        int layoutId;
+        SeatBitmap bitmap;
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, screeningId);
             
-            List<Seat> seats = new ArrayList<>();
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    seats.add(extractSeatFromResultSet(rs));
+                if (!rs.next()) {
+                    return new ArrayList<>(); // Screening not found
+                }
+                layoutId = rs.getInt("layout_id");
+                bitmap = new SeatBitmap(rs.getBytes("seat_bitmap"));
+            }
+        }
+        
+        SeatLayout layout = cinemaDAO.getSeatLayoutById(layoutId);
+        if (layout == null) {
+            return new ArrayList<>();
+        }
+        
+        List<Seat> seats = layout.toSeats(screeningId);
+        for (Seat seat : seats) {
+            seat.setReserved(bitmap.isReserved(SeatLayout.positionOf(seat.getId())));
+        }
+        return seats;
+    }
+    
+    /**
+     * Retrieves the packed reserved/held state of a screening's seats.
+     *
+     * @param screeningId The ID of the screening
+     * @return The seat bitmap, or null if the screening does not exist
+     * @throws SQLException If a database error occurs
+     */
+    public SeatBitmap getSeatBitmap(int screeningId) throws SQLException {
+        String query = "SELECT seat_bitmap FROM screenings WHERE id = ?";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setInt(1, screeningId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new SeatBitmap(rs.getBytes("seat_bitmap"));
                 }
             }
+        }
+        
+        return null; // Screening not found
+    }
+    
+    /**
+     * Counts the free seats of several screenings from their seat bitmaps.
+     *
+     * @param screeningIds The IDs of the screenings
+     * @return The number of free seats by screening ID; unknown screenings are left out
+     * @throws SQLException If a database error occurs
+     */
+    public Map<Integer, Integer> getAvailableSeatCounts(Collection<Integer> screeningIds) throws SQLException {
+        Map<Integer, Integer> counts = new HashMap<>();
+        if (screeningIds == null || screeningIds.isEmpty()) {
+            return counts;
+        }
+        
+        String query = "SELECT id, layout_id, seat_bitmap FROM screenings " +
+                      "WHERE id IN (" + placeholders(screeningIds.size()) + ")";
+        
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            int index = 1;
+            for (int screeningId : screeningIds) {
+                stmt.setInt(index++, screeningId);
+            }
             
-            return seats;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    SeatLayout layout = cinemaDAO.getSeatLayoutById(rs.getInt("layout_id"));
+                    if (layout != null) {
+                        SeatBitmap bitmap = new SeatBitmap(rs.getBytes("seat_bitmap"));
+                        counts.put(rs.getInt("id"), layout.getSeatCount() - bitmap.getReservedCount());
+                    }
+                }
+            }
         }
+        
+        return counts;
+    }
+    
+    /**
+     * Checks whether any seat of a screening is reserved or held.
+     *
+     * @param screeningId The ID of the screening
+     * @return true if at least one seat is reserved
+     * @throws SQLException If a database error occurs
+     */
+    public boolean hasReservedSeats(int screeningId) throws SQLException {
+        SeatBitmap bitmap = getSeatBitmap(screeningId);
+        return bitmap != null && bitmap.getReservedCount() > 0;
     }
     
     /**
@@ -76,16 +196,31 @@ public class SeatDAO {
      * @throws SQLException If a database error occurs
      */
     public boolean updateSeatReservation(int seatId, boolean isReserved) throws SQLException {
-        String query = "UPDATE seats SET is_reserved = ? WHERE id = ?";
+        Seat seat = getLayoutSeats(Collections.singletonList(seatId)).get(seatId);
+        if (seat == null) {
+            return false; // Seat not found
+        }
         
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(UPSERT_SEAT_QUERY)) {
             
-            stmt.setInt(1, isReserved ? 1 : 0);
-            stmt.setInt(2, seatId);
+            conn.setAutoCommit(false);
             
-            int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+            try {
+                bindSeat(stmt, 1, seat, isReserved);
+                
+                int affectedRows = stmt.executeUpdate();
+                updateSeatBitmaps(conn, Collections.singletonList(seatId), isReserved);
+                conn.commit();
+                
+                SeatInventory.getInstance().applySeatState(Collections.singletonList(seatId), isReserved);
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
     
@@ -105,31 +240,39 @@ public class SeatDAO {
         
         System.out.println("Updating seat reservations: seats=" + seatIds + ", isReserved=" + isReserved);
         
-        String query = "UPDATE seats SET is_reserved = ? WHERE id = ?";
+        Map<Integer, Seat> layoutSeats = getLayoutSeats(seatIds);
+        List<Integer> knownSeatIds = new ArrayList<>();
+        for (int seatId : seatIds) {
+            if (layoutSeats.containsKey(seatId)) {
+                knownSeatIds.add(seatId);
+            } else {
+                System.out.println("Seat " + seatId + ": Not updated (not part of its screening's layout)");
+            }
+        }
+        
         boolean success = true;
         
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(UPSERT_SEAT_QUERY)) {
             
             conn.setAutoCommit(false);
             
             try {
-                for (int seatId : seatIds) {
-                    stmt.setInt(1, isReserved ? 1 : 0);
-                    stmt.setInt(2, seatId);
+                for (int seatId : knownSeatIds) {
+                    bindSeat(stmt, 1, layoutSeats.get(seatId), isReserved);
                     stmt.addBatch();
                     
                     // Print debug info
-                    System.out.println("Adding to batch: UPDATE seats SET is_reserved = " + 
-                                      (isReserved ? 1 : 0) + " WHERE id = " + seatId);
+                    System.out.println("Adding to batch: set is_reserved = " + 
+                                      (isReserved ? 1 : 0) + " for seat " + seatId);
                 }
                 
-                int[] results = stmt.executeBatch();
+                int[] results = knownSeatIds.isEmpty() ? new int[0] : stmt.executeBatch();
                 
                 // Log the results
                 System.out.println("Batch execution results: ");
                 for (int i = 0; i < results.length; i++) {
-                    System.out.println("Seat " + seatIds.get(i) + ": " + 
+                    System.out.println("Seat " + knownSeatIds.get(i) + ": " + 
                                      (results[i] > 0 ? "Updated" : "Not updated"));
                     
                     // Consider the update successful even if the seat wasn't changed
@@ -140,7 +283,9 @@ public class SeatDAO {
                 }
                 
                 if (success) {
+                    updateSeatBitmaps(conn, knownSeatIds, isReserved);
                     conn.commit();
+                    SeatInventory.getInstance().applySeatState(knownSeatIds, isReserved);
                     System.out.println("Successfully committed seat reservation updates");
                 } else {
                     conn.rollback();
@@ -159,32 +304,210 @@ public class SeatDAO {
     }
     
     /**
-     * Retrieves all seats reserved for a specific reservation.
+     * Atomically claims a set of seats for a screening.
+     * The seats are first reserved in the in-memory {@link SeatInventory}, so claims on seats
+     * that are known to be taken fail without touching the database. A single conditional
+     * UPDATE then flips only the seats that are still free; if it did not flip every requested
+     * seat, the transaction is rolled back and nothing is claimed. Because the condition is
+     * evaluated by the database, this holds across threads, windows and processes.
      *
-     * @param reservationId The ID of the reservation
-     * @return A list of seats for the reservation
+     * @param screeningId The ID of the screening the seats belong to
+     * @param seatIds The IDs of the seats to claim
+     * @return The claimed seats, or the IDs of the seats that were already taken or do not exist
      * @throws SQLException If a database error occurs
      */
-    public List<Seat> getSeatsByReservation(int reservationId) throws SQLException {
-        String query = "SELECT s.* FROM seats s " +
-                      "JOIN reservation_seats rs ON s.id = rs.seat_id " +
-                      "WHERE rs.reservation_id = ? " +
-                      "ORDER BY s.row_number, s.column_number";
+    public SeatClaimResult claimSeats(int screeningId, List<Integer> seatIds) throws SQLException {
+        Set<Integer> requested = new LinkedHashSet<>(seatIds);
+        if (requested.isEmpty()) {
+            return SeatClaimResult.lost(new ArrayList<>());
+        }
+        
+        SeatInventory inventory = SeatInventory.getInstance();
+        List<Integer> lostInMemory = inventory.tryReserve(screeningId, requested);
+        if (!lostInMemory.isEmpty()) {
+            return SeatClaimResult.lost(lostInMemory);
+        }
+        
+        // The in-memory check only passes seats of this screening's layout; re-check against the layout itself
+        Map<Integer, Seat> layoutSeats = getLayoutSeats(requested);
+        List<Integer> unknown = new ArrayList<>();
+        for (int seatId : requested) {
+            Seat seat = layoutSeats.get(seatId);
+            if (seat == null || seat.getScreeningId() != screeningId) {
+                unknown.add(seatId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            inventory.applySeatState(requested, false);
+            return SeatClaimResult.lost(unknown);
+        }
+        
+        // Materializes free seats and flips materialized ones that are still free. RETURNING gives
+        // back exactly the rows this statement inserted or flipped (SQLite 3.35+). A free row may
+        // predate a re-pinned layout, so the flip also takes the seat's description from the layout.
+        StringBuilder query = new StringBuilder(
+            "INSERT INTO seats (id, screening_id, seat_number, seat_type, is_reserved, row_number, column_number) " +
+            "VALUES ");
+        for (int i = 0; i < requested.size(); i++) {
+            query.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?)");
+        }
+        query.append(" ON CONFLICT (id) DO UPDATE SET is_reserved = 1, " +
+                     "seat_number = excluded.seat_number, seat_type = excluded.seat_type, " +
+                     "row_number = excluded.row_number, column_number = excluded.column_number " +
+                     "WHERE seats.is_reserved = 0 AND seats.screening_id = excluded.screening_id " +
+                     "RETURNING *");
         
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(query.toString())) {
             
-            stmt.setInt(1, reservationId);
+            conn.setAutoCommit(false);
             
-            List<Seat> seats = new ArrayList<>();
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    seats.add(extractSeatFromResultSet(rs));
+            try {
+                int index = 1;
+                for (int seatId : requested) {
+                    bindSeat(stmt, index, layoutSeats.get(seatId), true);
+                    index += 7;
+                }
+                
+                List<Seat> claimed = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        claimed.add(extractSeatFromResultSet(rs));
+                    }
+                }
+                
+                if (claimed.size() == requested.size()) {
+                    updateSeatBitmaps(conn, requested, true);
+                    conn.commit();
+                    // Already set in memory by tryReserve; this publishes the claim to seat map subscribers
+                    inventory.applySeatState(requested, true);
+                    claimed.sort(Comparator.comparingInt(Seat::getRowNumber)
+                                           .thenComparingInt(Seat::getColumnNumber));
+                    return SeatClaimResult.claimed(claimed);
+                }
+                
+                conn.rollback();
+                
+                Set<Integer> lost = new LinkedHashSet<>(requested);
+                for (Seat seat : claimed) {
+                    lost.remove(seat.getId());
                 }
+                
+                // Another process took these seats; correct the in-memory view both ways
+                Set<Integer> stillFree = new LinkedHashSet<>(requested);
+                stillFree.removeAll(lost);
+                inventory.applySeatState(lost, true);
+                inventory.applySeatState(stillFree, false);
+                return SeatClaimResult.lost(new ArrayList<>(lost));
+            } catch (SQLException e) {
+                conn.rollback();
+                inventory.applySeatState(requested, false);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
+        }
+    }
+    
+    /**
+     * Releases a set of seats in a single statement.
+     *
+     * @param seatIds The IDs of the seats to release
+     * @return The number of seats that were released
+     * @throws SQLException If a database error occurs
+     */
+    public int releaseSeats(List<Integer> seatIds) throws SQLException {
+        if (seatIds == null || seatIds.isEmpty()) {
+            return 0;
+        }
+        
+        String query = "UPDATE seats SET is_reserved = 0 " +
+                      "WHERE id IN (" + placeholders(seatIds.size()) + ") AND is_reserved = 1 " +
+                      "RETURNING id";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            conn.setAutoCommit(false);
             
-            return seats;
+            try {
+                for (int i = 0; i < seatIds.size(); i++) {
+                    stmt.setInt(i + 1, seatIds.get(i));
+                }
+                
+                List<Integer> released = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        released.add(rs.getInt("id"));
+                    }
+                }
+                
+                updateSeatBitmaps(conn, released, false);
+                conn.commit();
+                
+                SeatInventory.getInstance().applySeatState(released, false);
+                return released.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    /**
+     * Retrieves all seats reserved for a specific reservation.
+     *
+     * @param reservationId The ID of the reservation
+     * @return A list of seats for the reservation
+     * @throws SQLException If a database error occurs
+     */
+    public List<Seat> getSeatsByReservation(int reservationId) throws SQLException {
+        List<Seat> seats = getSeatsByReservations(Collections.singletonList(reservationId)).get(reservationId);
+        return seats != null ? seats : new ArrayList<>();
+    }
+    
+    /**
+     * Retrieves the reserved seats of several reservations at once.
+     * Runs one query per {@link #MAX_BATCH_SIZE} reservations instead of one per reservation.
+     *
+     * @param reservationIds The IDs of the reservations
+     * @return The seats by reservation ID, ordered by row and column; reservations without seats are left out
+     * @throws SQLException If a database error occurs
+     */
+    public Map<Integer, List<Seat>> getSeatsByReservations(Collection<Integer> reservationIds) throws SQLException {
+        Map<Integer, List<Seat>> seatsByReservation = new HashMap<>();
+        if (reservationIds == null || reservationIds.isEmpty()) {
+            return seatsByReservation;
         }
+        
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(reservationIds));
+        try (Connection conn = DBConnection.getReadConnection()) {
+            for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+                List<Integer> batch = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+                String query = "SELECT s.*, rs.reservation_id FROM seats s " +
+                              "JOIN reservation_seats rs ON s.id = rs.seat_id " +
+                              "WHERE rs.reservation_id IN (" + placeholders(batch.size()) + ") " +
+                              "ORDER BY rs.reservation_id, s.row_number, s.column_number";
+                
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    int index = 1;
+                    for (int reservationId : batch) {
+                        stmt.setInt(index++, reservationId);
+                    }
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            seatsByReservation.computeIfAbsent(rs.getInt("reservation_id"), k -> new ArrayList<>())
+                                              .add(extractSeatFromResultSet(rs));
+                        }
+                    }
+                }
+            }
+        }
+        
+        return seatsByReservation;
     }
     
     /**
@@ -205,4 +528,106 @@ public class SeatDAO {
         seat.setColumnNumber(rs.getInt("column_number"));
         return seat;
     }
+    
+    /**
+     * Writes seat state changes into the seat bitmaps of the screenings the seats belong to.
+     * Must run inside the transaction that changed the seat rows and after its first write, so
+     * the write lock is already held and the read-modify-write cannot interleave with another writer.
+     *
+     * @param conn The connection of the surrounding transaction
+     * @param seatIds The IDs of the seats whose state changed
+     * @param reserved The new reservation status
+     * @throws SQLException If a database error occurs
+     */
+    void updateSeatBitmaps(Connection conn, Collection<Integer> seatIds, boolean reserved) throws SQLException {
+        if (seatIds.isEmpty()) {
+            return;
+        }
+        
+        Map<Integer, List<Integer>> positionsByScreening = new HashMap<>();
+        for (int seatId : seatIds) {
+            positionsByScreening.computeIfAbsent(SeatLayout.screeningIdOf(seatId), k -> new ArrayList<>())
+                                .add(SeatLayout.positionOf(seatId));
+        }
+        
+        String selectQuery = "SELECT seat_bitmap FROM screenings WHERE id = ?";
+        String updateQuery = "UPDATE screenings SET seat_bitmap = ?, seat_change_seq = seat_change_seq + 1 " +
+                            "WHERE id = ?";
+        
+        try (PreparedStatement selectStmt = conn.prepareStatement(selectQuery);
+             PreparedStatement updateStmt = conn.prepareStatement(updateQuery)) {
+            
+            for (Map.Entry<Integer, List<Integer>> entry : positionsByScreening.entrySet()) {
+                selectStmt.setInt(1, entry.getKey());
+                SeatBitmap bitmap;
+                try (ResultSet rs = selectStmt.executeQuery()) {
+                    if (!rs.next()) {
+                        continue; // Screening was deleted
+                    }
+                    bitmap = new SeatBitmap(rs.getBytes("seat_bitmap"));
+                }
+                
+                for (int position : entry.getValue()) {
+                    bitmap.setReserved(position, reserved);
+                }
+                
+                updateStmt.setBytes(1, bitmap.toBytes());
+                updateStmt.setInt(2, entry.getKey());
+                updateStmt.executeUpdate();
+            }
+        }
+    }
+    
+    /**
+     * Builds the seats for a set of seat IDs from the layouts of their screenings.
+     *
+     * @param seatIds The IDs of the seats
+     * @return The free layout seats by ID; IDs that are not part of a layout are left out
+     * @throws SQLException If a database error occurs
+     */
+    private Map<Integer, Seat> getLayoutSeats(Collection<Integer> seatIds) throws SQLException {
+        Map<Integer, SeatLayout> layouts = new HashMap<>();
+        Map<Integer, Seat> seats = new HashMap<>();
+        for (int seatId : seatIds) {
+            int screeningId = SeatLayout.screeningIdOf(seatId);
+            if (!layouts.containsKey(screeningId)) {
+                layouts.put(screeningId, cinemaDAO.getSeatLayoutByScreening(screeningId));
+            }
+            SeatLayout layout = layouts.get(screeningId);
+            Seat seat = layout == null ? null : layout.toSeat(screeningId, SeatLayout.positionOf(seatId));
+            if (seat != null) {
+                seats.put(seatId, seat);
+            }
+        }
+        return seats;
+    }
+    
+    /**
+     * Helper method to bind one seat row of {@link #UPSERT_SEAT_QUERY} or a multi-row insert.
+     *
+     * @param stmt The statement to bind
+     * @param index The index of the first parameter of the row
+     * @param seat The seat to write
+     * @param isReserved The reservation status to write
+     * @throws SQLException If a database error occurs
+     */
+    private static void bindSeat(PreparedStatement stmt, int index, Seat seat, boolean isReserved) throws SQLException {
+        stmt.setInt(index, seat.getId());
+        stmt.setInt(index + 1, seat.getScreeningId());
+        stmt.setString(index + 2, seat.getSeatNumber());
+        stmt.setString(index + 3, seat.getSeatType().name());
+        stmt.setInt(index + 4, isReserved ? 1 : 0);
+        stmt.setInt(index + 5, seat.getRowNumber());
+        stmt.setInt(index + 6, seat.getColumnNumber());
+    }
+    
+    /**
+     * Helper method to build a comma-separated list of bind parameters for an IN clause.
+     *
+     * @param count The number of parameters
+     * @return A string such as "?, ?, ?"
+     */
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
 }
@@ -0,0 +1,258 @@
+package com.cinebook.dao;
+
+import com.cinebook.model.Seat;
+import com.cinebook.model.SeatClaimResult;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data Access Object for temporary seat holds.
+ * A hold marks seats as reserved while a customer finishes checkout. Every hold has a token,
+ * the session that owns it and an expiry; holds that are not extended or confirmed in time
+ * are released in bulk by {@link #releaseExpiredHolds()}.
+ */
+public class SeatHoldDAO {
+    
+    private SeatDAO seatDAO = new SeatDAO();
+    
+    /**
+     * Claims seats and records them under a hold token, all in one transaction.
+     * If the token already holds other seats, their expiry is moved to the new expiry as well.
+     *
+     * @param holdToken The token identifying the hold
+     * @param ownerSession The session that owns the hold
+     * @param screeningId The ID of the screening the seats belong to
+     * @param seatIds The IDs of the seats to hold
+     * @param expiresAt When the hold expires (UTC epoch seconds)
+     * @return The claim result, listing the lost seats if any seat was already taken
+     * @throws SQLException If a database error occurs
+     */
+    public SeatClaimResult holdSeats(String holdToken, String ownerSession, int screeningId,
+                                     List<Integer> seatIds, long expiresAt) throws SQLException {
+        // Any row left for a seat that was free until now is stale, so it is replaced
+        String insertQuery = "INSERT OR REPLACE INTO seat_holds (seat_id, hold_token, screening_id, " +
+                            "owner_session, created_at, expires_at) VALUES (?, ?, ?, ?, ?, ?)";
+        String extendQuery = "UPDATE seat_holds SET expires_at = ? WHERE hold_token = ?";
+        
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try {
+                // Joins this transaction through the pooled connection lease
+                SeatClaimResult claim = seatDAO.claimSeats(screeningId, seatIds);
+                if (!claim.isSuccessful()) {
+                    conn.rollback();
+                    return claim;
+                }
+                
+                long now = currentEpochSeconds();
+                try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+                    for (Seat seat : claim.getClaimedSeats()) {
+                        stmt.setInt(1, seat.getId());
+                        stmt.setString(2, holdToken);
+                        stmt.setInt(3, screeningId);
+                        stmt.setString(4, ownerSession);
+                        stmt.setLong(5, now);
+                        stmt.setLong(6, expiresAt);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                
+                try (PreparedStatement stmt = conn.prepareStatement(extendQuery)) {
+                    stmt.setLong(1, expiresAt);
+                    stmt.setString(2, holdToken);
+                    stmt.executeUpdate();
+                }
+                
+                conn.commit();
+                return claim;
+            } catch (SQLException e) {
+                conn.rollback();
+                // The claim may already be in the inventory; have it re-read from the database
+                SeatInventory.getInstance().invalidate(screeningId);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    /**
+     * Moves the expiry of a hold that has not expired yet.
+     *
+     * @param holdToken The token identifying the hold
+     * @param expiresAt The new expiry (UTC epoch seconds)
+     * @return The number of seats still held; 0 if the hold has expired or was released
+     * @throws SQLException If a database error occurs
+     */
+    public int extendHold(String holdToken, long expiresAt) throws SQLException {
+        String query = "UPDATE seat_holds SET expires_at = ? WHERE hold_token = ? AND expires_at > ?";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setLong(1, expiresAt);
+            stmt.setString(2, holdToken);
+            stmt.setLong(3, currentEpochSeconds());
+            
+            return stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Turns a hold into a permanent reservation by removing it before it expires.
+     * The seats stay reserved; the reaper can no longer release them.
+     *
+     * @param holdToken The token identifying the hold
+     * @return The IDs of the seats confirmed; empty if the hold has expired or was released
+     * @throws SQLException If a database error occurs
+     */
+    public List<Integer> confirmHold(String holdToken) throws SQLException {
+        String query = "DELETE FROM seat_holds WHERE hold_token = ? AND expires_at > ? RETURNING seat_id";
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            
+            stmt.setString(1, holdToken);
+            stmt.setLong(2, currentEpochSeconds());
+            
+            return readSeatIds(stmt);
+        }
+    }
+    
+    /**
+     * Releases some of the seats in a hold.
+     *
+     * @param holdToken The token identifying the hold
+     * @param seatIds The IDs of the seats to release
+     * @return The number of seats released
+     * @throws SQLException If a database error occurs
+     */
+    public int releaseSeats(String holdToken, List<Integer> seatIds) throws SQLException {
+        if (seatIds == null || seatIds.isEmpty()) {
+            return 0;
+        }
+        
+        String inClause = String.join(", ", Collections.nCopies(seatIds.size(), "?"));
+        String condition = "hold_token = ? AND seat_id IN (" + inClause + ")";
+        return release(condition, holdToken, seatIds);
+    }
+    
+    /**
+     * Releases every seat in a hold.
+     *
+     * @param holdToken The token identifying the hold
+     * @return The number of seats released
+     * @throws SQLException If a database error occurs
+     */
+    public int releaseHold(String holdToken) throws SQLException {
+        return release("hold_token = ?", holdToken, Collections.emptyList());
+    }
+    
+    /**
+     * Releases all holds that have expired, in bulk.
+     *
+     * @return The number of seats released
+     * @throws SQLException If a database error occurs
+     */
+    public int releaseExpiredHolds() throws SQLException {
+        String releaseSeatsQuery = "UPDATE seats SET is_reserved = 0 " +
+                                  "WHERE id IN (SELECT seat_id FROM seat_holds WHERE expires_at <= ?) " +
+                                  "RETURNING id";
+        String deleteHoldsQuery = "DELETE FROM seat_holds WHERE expires_at <= ?";
+        
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement releaseStmt = conn.prepareStatement(releaseSeatsQuery);
+                 PreparedStatement deleteStmt = conn.prepareStatement(deleteHoldsQuery)) {
+                
+                // Use one cut-off for both statements so no hold is half-released
+                long now = currentEpochSeconds();
+                releaseStmt.setLong(1, now);
+                List<Integer> releasedSeatIds = readSeatIds(releaseStmt);
+                seatDAO.updateSeatBitmaps(conn, releasedSeatIds, false);
+                
+                deleteStmt.setLong(1, now);
+                int released = deleteStmt.executeUpdate();
+                
+                conn.commit();
+                SeatInventory.getInstance().applySeatState(releasedSeatIds, false);
+                return released;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    /**
+     * Helper method to release the seats of the holds matching a condition and delete those holds.
+     *
+     * @param condition The WHERE condition on seat_holds, starting with one string parameter
+     * @param key The value for the first parameter
+     * @param seatIds The values for any further seat ID parameters
+     * @return The number of seats released
+     * @throws SQLException If a database error occurs
+     */
+    private int release(String condition, String key, List<Integer> seatIds) throws SQLException {
+        String releaseSeatsQuery = "UPDATE seats SET is_reserved = 0 " +
+                                  "WHERE id IN (SELECT seat_id FROM seat_holds WHERE " + condition + ") " +
+                                  "RETURNING id";
+        String deleteHoldsQuery = "DELETE FROM seat_holds WHERE " + condition;
+        
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement releaseStmt = conn.prepareStatement(releaseSeatsQuery);
+                 PreparedStatement deleteStmt = conn.prepareStatement(deleteHoldsQuery)) {
+                
+                bind(releaseStmt, key, seatIds);
+                List<Integer> releasedSeatIds = readSeatIds(releaseStmt);
+                seatDAO.updateSeatBitmaps(conn, releasedSeatIds, false);
+                
+                bind(deleteStmt, key, seatIds);
+                int released = deleteStmt.executeUpdate();
+                
+                conn.commit();
+                SeatInventory.getInstance().applySeatState(releasedSeatIds, false);
+                return released;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    private static List<Integer> readSeatIds(PreparedStatement stmt) throws SQLException {
+        List<Integer> seatIds = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                seatIds.add(rs.getInt(1));
+            }
+        }
+        return seatIds;
+    }
+    
+    private static void bind(PreparedStatement stmt, String key, List<Integer> seatIds) throws SQLException {
+        stmt.setString(1, key);
+        for (int i = 0; i < seatIds.size(); i++) {
+            stmt.setInt(i + 2, seatIds.get(i));
+        }
+    }
+    
+    private static long currentEpochSeconds() {
+        return System.currentTimeMillis() / 1000L;
+    }
+}
@@ -0,0 +1,264 @@
+package com.cinebook.dao;
+
+import com.cinebook.model.Seat;
+import com.cinebook.model.SeatLayout;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory seat inventory, one compact bitset per screening.
+ * Availability checks and the first stage of a seat claim are answered from memory with
+ * compare-and-set on an {@link AtomicLongArray}; only claims that win in memory go on to the
+ * database, which stays the source of truth across processes. Every seat write in
+ * {@link SeatDAO} and {@link SeatHoldDAO} is written through to this inventory, which passes
+ * it on to the {@link SeatChangeFeed}.
+ */
+public class SeatInventory {
+    // Snapshots older than this are reloaded so changes made by other processes show up
+    private static final long MAX_AGE_MILLIS = Long.getLong("cinebook.inventory.maxAgeSeconds", 60L) * 1000L;
+    
+    private static final SeatInventory INSTANCE = new SeatInventory();
+    
+    private final Map<Integer, ScreeningSeats> screenings = new ConcurrentHashMap<>();
+    private final SeatDAO seatDAO = new SeatDAO();
+    
+    private SeatInventory() {
+    }
+    
+    /**
+     * Gets the shared seat inventory.
+     *
+     * @return The seat inventory instance
+     */
+    public static SeatInventory getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Retrieves all seats for a screening with their current reservation status.
+     *
+     * @param screeningId The ID of the screening
+     * @return A list of seats ordered by row and column
+     * @throws SQLException If the screening had to be loaded and a database error occurred
+     */
+    public List<Seat> getSeats(int screeningId) throws SQLException {
+        return get(screeningId).toSeats();
+    }
+    
+    /**
+     * Checks whether a seat is free.
+     *
+     * @param screeningId The ID of the screening
+     * @param seatId The ID of the seat
+     * @return true if the seat exists and is not reserved or held
+     * @throws SQLException If the screening had to be loaded and a database error occurred
+     */
+    public boolean isAvailable(int screeningId, int seatId) throws SQLException {
+        ScreeningSeats state = get(screeningId);
+        Integer index = state.indexById.get(seatId);
+        return index != null && !state.isReserved(index);
+    }
+    
+    /**
+     * Counts the free seats of a screening.
+     *
+     * @param screeningId The ID of the screening
+     * @return The number of seats that are not reserved or held
+     * @throws SQLException If the screening had to be loaded and a database error occurred
+     */
+    public int getAvailableCount(int screeningId) throws SQLException {
+        ScreeningSeats state = get(screeningId);
+        return state.seats.length - state.reservedCount();
+    }
+    
+    /**
+     * Loads the given screenings so their first seat map is served from memory.
+     *
+     * @param screeningIds The IDs of the screenings to load
+     * @throws SQLException If a database error occurs
+     */
+    public void preload(Collection<Integer> screeningIds) throws SQLException {
+        for (int screeningId : screeningIds) {
+            get(screeningId);
+        }
+    }
+    
+    /**
+     * Reloads a screening from the database on its next use.
+     *
+     * @param screeningId The ID of the screening
+     */
+    public void invalidate(int screeningId) {
+        screenings.remove(screeningId);
+        SeatChangeFeed.getInstance().resync(screeningId);
+    }
+    
+    /**
+     * Drops every loaded screening.
+     */
+    public void invalidateAll() {
+        screenings.clear();
+    }
+    
+    /**
+     * Reserves seats in memory, all or nothing.
+     * Each seat is flipped with compare-and-set; if any seat is already taken, the seats
+     * flipped so far are put back and nothing is reserved.
+     *
+     * @param screeningId The ID of the screening
+     * @param seatIds The IDs of the seats to reserve
+     * @return The IDs of the seats that were already taken or are not part of the screening;
+     *         empty if every seat was reserved
+     * @throws SQLException If the screening had to be loaded and a database error occurred
+     */
+    List<Integer> tryReserve(int screeningId, Collection<Integer> seatIds) throws SQLException {
+        ScreeningSeats state = get(screeningId);
+        List<Integer> flipped = new ArrayList<>();
+        List<Integer> lost = new ArrayList<>();
+        
+        for (int seatId : seatIds) {
+            Integer index = state.indexById.get(seatId);
+            if (index == null) {
+                lost.add(seatId);
+            } else if (!lost.isEmpty()) {
+                // Already failing; only collect the remaining lost seats
+                if (state.isReserved(index)) {
+                    lost.add(seatId);
+                }
+            } else if (state.compareAndSet(index, false, true)) {
+                flipped.add(index);
+            } else {
+                lost.add(seatId);
+            }
+        }
+        
+        if (!lost.isEmpty()) {
+            for (int index : flipped) {
+                state.compareAndSet(index, true, false);
+            }
+        }
+        return lost;
+    }
+    
+    /**
+     * Records the reservation status of seats after it was written to the database and
+     * publishes it to seat map subscribers.
+     * Seats of screenings that are not loaded are ignored; they are read fresh when loaded.
+     *
+     * @param seatIds The IDs of the seats
+     * @param reserved The new reservation status
+     */
+    void applySeatState(Collection<Integer> seatIds, boolean reserved) {
+        if (seatIds.isEmpty()) {
+            return;
+        }
+        for (int seatId : seatIds) {
+            // Seat IDs encode their screening, so each seat goes straight to its screening's state
+            ScreeningSeats state = screenings.get(SeatLayout.screeningIdOf(seatId));
+            Integer index = state == null ? null : state.indexById.get(seatId);
+            if (index != null) {
+                state.set(index, reserved);
+            }
+        }
+        SeatChangeFeed.getInstance().publish(seatIds, reserved);
+    }
+    
+    /**
+     * Gets the loaded state of a screening, loading it from the database if needed.
+     */
+    private ScreeningSeats get(int screeningId) throws SQLException {
+        ScreeningSeats state = screenings.get(screeningId);
+        if (state != null && System.currentTimeMillis() - state.loadedAt < MAX_AGE_MILLIS) {
+            return state;
+        }
+        
+        // Concurrent loads of the same screening are harmless; the last one wins
+        state = new ScreeningSeats(seatDAO.getSeatsByScreening(screeningId));
+        screenings.put(screeningId, state);
+        return state;
+    }
+    
+    /**
+     * Seat layout and reservation bits of one screening.
+     * The layout is immutable; bit i of the bitset is set when seat i is reserved or held.
+     */
+    private static class ScreeningSeats {
+        private final Seat[] seats;
+        private final Map<Integer, Integer> indexById;
+        private final AtomicLongArray bits;
+        private final long loadedAt;
+        
+        ScreeningSeats(List<Seat> seatList) {
+            this.seats = seatList.toArray(new Seat[0]);
+            this.bits = new AtomicLongArray((seats.length + 63) / 64);
+            
+            Map<Integer, Integer> index = new HashMap<>(seats.length * 2);
+            for (int i = 0; i < seats.length; i++) {
+                index.put(seats[i].getId(), i);
+                if (seats[i].isReserved()) {
+                    set(i, true);
+                }
+            }
+            this.indexById = Collections.unmodifiableMap(index);
+            this.loadedAt = System.currentTimeMillis();
+        }
+        
+        boolean isReserved(int index) {
+            return (bits.get(index >>> 6) & (1L << index)) != 0;
+        }
+        
+        boolean compareAndSet(int index, boolean expected, boolean reserved) {
+            int word = index >>> 6;
+            long mask = 1L << index;
+            while (true) {
+                long current = bits.get(word);
+                if (((current & mask) != 0) != expected) {
+                    return false;
+                }
+                long updated = reserved ? current | mask : current & ~mask;
+                if (bits.compareAndSet(word, current, updated)) {
+                    return true;
+                }
+            }
+        }
+        
+        void set(int index, boolean reserved) {
+            int word = index >>> 6;
+            long mask = 1L << index;
+            while (true) {
+                long current = bits.get(word);
+                long updated = reserved ? current | mask : current & ~mask;
+                if (current == updated || bits.compareAndSet(word, current, updated)) {
+                    return;
+                }
+            }
+        }
+        
+        int reservedCount() {
+            int count = 0;
+            for (int i = 0; i < bits.length(); i++) {
+                count += Long.bitCount(bits.get(i));
+            }
+            return count;
+        }
+        
+        List<Seat> toSeats() {
+            List<Seat> result = new ArrayList<>(seats.length);
+            for (int i = 0; i < seats.length; i++) {
+                Seat template = seats[i];
+                result.add(new Seat(template.getId(), template.getScreeningId(), template.getSeatNumber(),
+                                    template.getSeatType(), isReserved(i), template.getRowNumber(),
+                                    template.getColumnNumber()));
+            }
+            return result;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cinebook.dao;
 
 import com.cinebook.model.SeatType;
 import com.cinebook.model.Ticket;
+import com.cinebook.util.DateTimeUtil;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -95,7 +96,7 @@ public class TicketDAO {
      */
     public Ticket getTicketById(int id) throws SQLException {
         String query = "SELECT t.*, s.seat_number, s.seat_type, " +
-                      "sc.screening_time, m.title as movie_title, c.name as cinema_name, " +
+                      "sc.screening_epoch, m.title as movie_title, c.name as cinema_name, " +
                       "CASE WHEN r.user_id IS NULL THEN r.guest_name ELSE u.full_name END as customer_name " +
                       "FROM tickets t " +
                       "JOIN seats s ON t.seat_id = s.id " +
@@ -106,7 +107,7 @@ public class TicketDAO {
                       "LEFT JOIN users u ON r.user_id = u.id " +
                       "WHERE t.id = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, id);
@@ -130,7 +131,7 @@ public class TicketDAO {
      */
     public Ticket getTicketByCode(String ticketCode) throws SQLException {
         String query = "SELECT t.*, s.seat_number, s.seat_type, " +
-                      "sc.screening_time, m.title as movie_title, c.name as cinema_name, " +
+                      "sc.screening_epoch, m.title as movie_title, c.name as cinema_name, " +
                       "CASE WHEN r.user_id IS NULL THEN r.guest_name ELSE u.full_name END as customer_name " +
                       "FROM tickets t " +
                       "JOIN seats s ON t.seat_id = s.id " +
@@ -141,7 +142,7 @@ public class TicketDAO {
                       "LEFT JOIN users u ON r.user_id = u.id " +
                       "WHERE t.ticket_code = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setString(1, ticketCode);
@@ -187,7 +188,7 @@ public class TicketDAO {
      */
     public List<Ticket> getTicketsByReservation(int reservationId) throws SQLException {
         String query = "SELECT t.*, s.seat_number, s.seat_type, " +
-                      "sc.screening_time, m.title as movie_title, c.name as cinema_name, " +
+                      "sc.screening_epoch, m.title as movie_title, c.name as cinema_name, " +
                       "CASE WHEN r.user_id IS NULL THEN r.guest_name ELSE u.full_name END as customer_name " +
                       "FROM tickets t " +
                       "JOIN seats s ON t.seat_id = s.id " +
@@ -199,7 +200,7 @@ public class TicketDAO {
                       "WHERE t.reservation_id = ? " +
                       "ORDER BY s.seat_number";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, reservationId);
@@ -239,8 +240,7 @@ public class TicketDAO {
         ticket.setSeatNumber(rs.getString("seat_number"));
         ticket.setSeatType(SeatType.valueOf(rs.getString("seat_type")));
         
-        LocalDateTime screeningTime = LocalDateTime.parse(
-            rs.getString("screening_time"), DB_FORMATTER);
+        LocalDateTime screeningTime = DateTimeUtil.fromEpochSeconds(rs.getLong("screening_epoch"));
         ticket.setScreeningTime(screeningTime);
         
         ticket.setMovieTitle(rs.getString("movie_title"));
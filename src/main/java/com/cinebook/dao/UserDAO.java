@@ -27,7 +27,7 @@ public class UserDAO {
     public User authenticateUser(String username, String password) throws SQLException {
         String query = "SELECT * FROM users WHERE username = ? AND password = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setString(1, username);
@@ -90,7 +90,7 @@ public class UserDAO {
     public User getUserById(int id) throws SQLException {
         String query = "SELECT * FROM users WHERE id = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setInt(1, id);
@@ -115,7 +115,7 @@ public class UserDAO {
     public User getUserByUsername(String username) throws SQLException {
         String query = "SELECT * FROM users WHERE username = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setString(1, username);
@@ -187,7 +187,7 @@ public class UserDAO {
         String query = "SELECT * FROM users ORDER BY username";
         List<User> users = new ArrayList<>();
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
@@ -209,7 +209,7 @@ public class UserDAO {
     public boolean usernameExists(String username) throws SQLException {
         String query = "SELECT COUNT(*) FROM users WHERE username = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setString(1, username);
@@ -234,7 +234,7 @@ public class UserDAO {
     public boolean emailExists(String email) throws SQLException {
         String query = "SELECT COUNT(*) FROM users WHERE email = ?";
         
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             stmt.setString(1, email);
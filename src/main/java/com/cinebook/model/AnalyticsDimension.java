@@ -0,0 +1,28 @@
+package com.cinebook.model;
+
+/**
+ * Enum representing the dimensions an analytics query can group screenings and their sales by.
+ * All dimensions are attributes of the screening: its movie, cinema and start time.
+ */
+public enum AnalyticsDimension {
+    MOVIE("Movie"),
+    CINEMA("Cinema"),
+    HOUR_OF_DAY("Hour of Day"),
+    WEEKDAY("Weekday"),
+    DAY("Day");
+    
+    private final String displayName;
+    
+    AnalyticsDimension(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
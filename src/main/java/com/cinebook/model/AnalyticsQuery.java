@@ -0,0 +1,85 @@
+package com.cinebook.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Represents an ad-hoc analytics query: the screenings of a date range, optionally narrowed to
+ * one movie or cinema, grouped by up to three dimensions.
+ */
+public class AnalyticsQuery {
+    public static final int MAX_DIMENSIONS = 3;
+    
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final List<AnalyticsDimension> dimensions;
+    private Integer movieId;
+    private Integer cinemaId;
+    
+    /**
+     * Constructor for AnalyticsQuery.
+     *
+     * @param startDate The first screening date, inclusive
+     * @param endDate The last screening date, inclusive
+     * @param dimensions The dimensions to group by, in column order; none for a single total row
+     */
+    public AnalyticsQuery(LocalDate startDate, LocalDate endDate, AnalyticsDimension... dimensions) {
+        if (dimensions.length > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("An analytics query can group by at most " + MAX_DIMENSIONS + " dimensions");
+        }
+        if (new HashSet<>(Arrays.asList(dimensions)).size() != dimensions.length) {
+            throw new IllegalArgumentException("An analytics query cannot group by the same dimension twice");
+        }
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.dimensions = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(dimensions)));
+    }
+    
+    // Getters and Setters
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public List<AnalyticsDimension> getDimensions() {
+        return dimensions;
+    }
+    
+    public Integer getMovieId() {
+        return movieId;
+    }
+    
+    /**
+     * Narrows the query to the screenings of one movie.
+     *
+     * @param movieId The ID of the movie, or null for all movies
+     */
+    public void setMovieId(Integer movieId) {
+        this.movieId = movieId;
+    }
+    
+    public Integer getCinemaId() {
+        return cinemaId;
+    }
+    
+    /**
+     * Narrows the query to the screenings in one cinema.
+     *
+     * @param cinemaId The ID of the cinema, or null for all cinemas
+     */
+    public void setCinemaId(Integer cinemaId) {
+        this.cinemaId = cinemaId;
+    }
+    
+    @Override
+    public String toString() {
+        return startDate + " to " + endDate + " by " + dimensions;
+    }
+}
@@ -0,0 +1,108 @@
+package com.cinebook.model;
+
+import java.util.List;
+
+/**
+ * Represents one group of an analytics query result, such as one movie in one cinema at one
+ * hour of the day. Amounts are kept in centavos so sums are exact; the derived figures
+ * (occupancy, average basket and concession attach rate) are computed from the totals.
+ */
+public class AnalyticsRow {
+    private final List<String> labels;
+    private final int screeningCount;
+    private final long capacity;
+    private final long reservationCount;
+    private final long ticketCount;
+    private final long grossCents;
+    private final long concessionCents;
+    private final long reservationsWithConcessions;
+    
+    // Constructor
+    public AnalyticsRow(List<String> labels, int screeningCount, long capacity, long reservationCount,
+                        long ticketCount, long grossCents, long concessionCents, long reservationsWithConcessions) {
+        this.labels = labels;
+        this.screeningCount = screeningCount;
+        this.capacity = capacity;
+        this.reservationCount = reservationCount;
+        this.ticketCount = ticketCount;
+        this.grossCents = grossCents;
+        this.concessionCents = concessionCents;
+        this.reservationsWithConcessions = reservationsWithConcessions;
+    }
+    
+    // Getters
+    
+    /**
+     * Gets the value of each grouping dimension, in the order of the query's dimensions.
+     *
+     * @return The group labels
+     */
+    public List<String> getLabels() {
+        return labels;
+    }
+    
+    public int getScreeningCount() {
+        return screeningCount;
+    }
+    
+    public long getCapacity() {
+        return capacity;
+    }
+    
+    public long getReservationCount() {
+        return reservationCount;
+    }
+    
+    public long getTicketCount() {
+        return ticketCount;
+    }
+    
+    public long getGrossCents() {
+        return grossCents;
+    }
+    
+    public long getConcessionCents() {
+        return concessionCents;
+    }
+    
+    public long getReservationsWithConcessions() {
+        return reservationsWithConcessions;
+    }
+    
+    public double getGross() {
+        return grossCents / 100.0;
+    }
+    
+    /**
+     * Gets the share of the screenings' seats that were sold.
+     *
+     * @return Tickets sold divided by seats available, between 0 and 1
+     */
+    public double getOccupancy() {
+        return capacity == 0 ? 0.0 : (double) ticketCount / capacity;
+    }
+    
+    /**
+     * Gets the average amount paid per reservation.
+     *
+     * @return The average basket in pesos
+     */
+    public double getAverageBasket() {
+        return reservationCount == 0 ? 0.0 : grossCents / 100.0 / reservationCount;
+    }
+    
+    /**
+     * Gets the share of reservations that included at least one concession.
+     *
+     * @return The concession attach rate, between 0 and 1
+     */
+    public double getConcessionAttachRate() {
+        return reservationCount == 0 ? 0.0 : (double) reservationsWithConcessions / reservationCount;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d screening(s), %.1f%% occupancy, %d reservation(s), ₱%.2f", labels,
+                             screeningCount, getOccupancy() * 100, reservationCount, getGross());
+    }
+}
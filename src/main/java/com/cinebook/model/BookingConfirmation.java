@@ -0,0 +1,45 @@
+package com.cinebook.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a completed checkout: the saved reservation with its seats and concessions,
+ * the payment and the issued tickets, as written in a single transaction.
+ */
+public class BookingConfirmation {
+    private final Reservation reservation;
+    private final Payment payment;
+    private final List<Ticket> tickets;
+    
+    // Constructor
+    public BookingConfirmation(Reservation reservation, Payment payment, List<Ticket> tickets) {
+        this.reservation = reservation;
+        this.payment = payment;
+        this.tickets = Collections.unmodifiableList(new ArrayList<>(tickets));
+    }
+    
+    // Getters
+    public Reservation getReservation() {
+        return reservation;
+    }
+    
+    public Payment getPayment() {
+        return payment;
+    }
+    
+    public List<Ticket> getTickets() {
+        return tickets;
+    }
+    
+    public int getReservationId() {
+        return reservation.getId();
+    }
+    
+    @Override
+    public String toString() {
+        return "Reservation #" + reservation.getId() + " paid by " + payment.getPaymentMethod() +
+               " (" + payment.getTransactionReference() + "), " + tickets.size() + " ticket(s)";
+    }
+}
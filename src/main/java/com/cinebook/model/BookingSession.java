@@ -0,0 +1,78 @@
+package com.cinebook.model;
+
+/**
+ * Represents one booking in progress, such as a box-office window or a kiosk.
+ * Each session has its own cart (the reservation being created), its own seat hold and its own
+ * idle expiry, so bookings in different sessions never share state. Code that changes a session
+ * synchronizes on the session object itself.
+ */
+public class BookingSession {
+    private final String sessionId;
+    private volatile Reservation reservation; // The reservation being created, or null between bookings
+    private volatile String holdToken; // Token of the seat hold for the reservation
+    private volatile long lastActivityEpoch;
+    private volatile boolean closed;
+    
+    // Constructor
+    public BookingSession(String sessionId) {
+        this.sessionId = sessionId;
+        touch();
+    }
+    
+    /**
+     * Records activity so the session is not expired while it is in use.
+     */
+    public void touch() {
+        lastActivityEpoch = System.currentTimeMillis() / 1000L;
+    }
+    
+    /**
+     * Checks whether the session has been idle for longer than a time-to-live.
+     *
+     * @param nowEpoch The current time in epoch seconds
+     * @param idleSeconds The idle time-to-live in seconds
+     * @return true if the session is idle past its time-to-live
+     */
+    public boolean isIdle(long nowEpoch, long idleSeconds) {
+        return nowEpoch - lastActivityEpoch > idleSeconds;
+    }
+    
+    // Getters and Setters
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    public Reservation getReservation() {
+        return reservation;
+    }
+    
+    public void setReservation(Reservation reservation) {
+        this.reservation = reservation;
+    }
+    
+    public String getHoldToken() {
+        return holdToken;
+    }
+    
+    public void setHoldToken(String holdToken) {
+        this.holdToken = holdToken;
+    }
+    
+    public long getLastActivityEpoch() {
+        return lastActivityEpoch;
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    public void setClosed(boolean closed) {
+        this.closed = closed;
+    }
+    
+    @Override
+    public String toString() {
+        return "Session " + sessionId + (reservation != null ? " (screening " + reservation.getScreeningId() + ", " +
+               reservation.getSelectedSeats().size() + " seat(s))" : " (idle)");
+    }
+}
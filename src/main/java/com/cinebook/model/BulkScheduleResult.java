@@ -0,0 +1,81 @@
+package com.cinebook.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the outcome of creating many screenings at once.
+ */
+public class BulkScheduleResult {
+    private List<Integer> screeningIds;
+    private int seatCount;
+    private int skippedScreenings;
+    private long elapsedMillis;
+    
+    // Default constructor
+    public BulkScheduleResult() {
+        this.screeningIds = new ArrayList<>();
+    }
+    
+    // Constructor with all fields
+    public BulkScheduleResult(List<Integer> screeningIds, int seatCount, long elapsedMillis) {
+        this.screeningIds = screeningIds;
+        this.seatCount = seatCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    // Getters and Setters
+    public List<Integer> getScreeningIds() {
+        return screeningIds;
+    }
+    
+    public void setScreeningIds(List<Integer> screeningIds) {
+        this.screeningIds = screeningIds;
+    }
+    
+    public int getScreeningsCreated() {
+        return screeningIds.size();
+    }
+    
+    public int getSeatCount() {
+        return seatCount;
+    }
+    
+    public void setSeatCount(int seatCount) {
+        this.seatCount = seatCount;
+    }
+    
+    public int getSkippedScreenings() {
+        return skippedScreenings;
+    }
+    
+    public void setSkippedScreenings(int skippedScreenings) {
+        this.skippedScreenings = skippedScreenings;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    /**
+     * Gets the number of screening rows written per second.
+     * Seats are not counted; they come from the layout and are only written when reserved.
+     *
+     * @return The write throughput in rows per second
+     */
+    public double getRowsPerSecond() {
+        int rows = getScreeningsCreated();
+        return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d screening(s) with %d seat(s) created, %d skipped, in %d ms (%.0f rows/s)",
+                             getScreeningsCreated(), seatCount, skippedScreenings, elapsedMillis,
+                             getRowsPerSecond());
+    }
+}
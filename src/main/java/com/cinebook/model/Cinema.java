@@ -112,4 +112,10 @@ public class Cinema {
     public String toString() {
         return name + " (" + location + ")";
     }
+    
+    // Create a copy of this cinema
+    public Cinema copy() {
+        return new Cinema(this.id, this.name, this.location, this.totalSeats, this.totalRows,
+                          this.seatsPerRow, this.hasDeluxeSeats, this.isActive);
+    }
 }
@@ -0,0 +1,25 @@
+package com.cinebook.model;
+
+/**
+ * Enum representing the record types that can be exported for a date range.
+ */
+public enum ExportDataset {
+    RESERVATIONS("Reservations"),
+    PAYMENTS("Payments"),
+    TICKETS("Tickets");
+    
+    private final String displayName;
+    
+    ExportDataset(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
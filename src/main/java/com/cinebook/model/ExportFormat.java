@@ -0,0 +1,35 @@
+package com.cinebook.model;
+
+/**
+ * Enum representing the file formats reports can be exported to.
+ */
+public enum ExportFormat {
+    CSV("CSV (comma-separated)", "csv"),
+    XLSX("Excel Workbook", "xlsx");
+    
+    private final String displayName;
+    private final String extension;
+    
+    ExportFormat(String displayName, String extension) {
+        this.displayName = displayName;
+        this.extension = extension;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Gets the file name extension for the format, without the dot.
+     *
+     * @return The file name extension
+     */
+    public String getExtension() {
+        return extension;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,60 @@
+package com.cinebook.model;
+
+import java.io.File;
+
+/**
+ * Represents the outcome of a report export: how many rows were written, how fast, and whether
+ * the export ran to the end. A cancelled export leaves no file behind.
+ */
+public class ExportResult {
+    private final ExportDataset dataset;
+    private final File file;
+    private final long rowCount;
+    private final long elapsedMillis;
+    private final boolean cancelled;
+    
+    // Constructor
+    public ExportResult(ExportDataset dataset, File file, long rowCount, long elapsedMillis, boolean cancelled) {
+        this.dataset = dataset;
+        this.file = file;
+        this.rowCount = rowCount;
+        this.elapsedMillis = elapsedMillis;
+        this.cancelled = cancelled;
+    }
+    
+    // Getters
+    public ExportDataset getDataset() {
+        return dataset;
+    }
+    
+    public File getFile() {
+        return file;
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Gets the export throughput.
+     *
+     * @return The rows written per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowCount * 1000.0 : rowCount * 1000.0 / elapsedMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d row(s) in %.1f s (%.0f rows/s)%s", dataset, rowCount, elapsedMillis / 1000.0,
+                             getRowsPerSecond(), cancelled ? ", cancelled" : "");
+    }
+}
@@ -151,4 +151,10 @@ public class Movie {
     public String toString() {
         return title;
     }
+    
+    // Create a copy of this movie
+    public Movie copy() {
+        return new Movie(this.id, this.title, this.director, this.cast, this.genre, this.synopsis,
+                         this.durationMinutes, this.rating, this.releaseDate, this.posterUrl, this.isActive);
+    }
 }
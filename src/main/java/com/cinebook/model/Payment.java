@@ -14,6 +14,7 @@ public class Payment {
     private String transactionReference;
     private LocalDateTime paymentTime;
     private boolean isSuccessful;
+    private String idempotencyKey; // Client-generated; a retried submission with the same key is not charged again
     
     // Additional fields for display purposes
     private String customerName;
@@ -104,6 +105,14 @@ public class Payment {
         isSuccessful = successful;
     }
     
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
     public String getCustomerName() {
         return customerName;
     }
@@ -18,6 +18,22 @@ public enum PaymentMethod {
         return displayName;
     }
     
+    /**
+     * Gets the payment method for a stored value, which is either its display name or its constant name.
+     *
+     * @param value The stored value
+     * @return The payment method
+     * @throws IllegalArgumentException If the value matches no payment method
+     */
+    public static PaymentMethod fromString(String value) {
+        for (PaymentMethod method : values()) {
+            if (method.displayName.equals(value) || method.name().equals(value)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payment method: " + value);
+    }
+    
     @Override
     public String toString() {
         return displayName;
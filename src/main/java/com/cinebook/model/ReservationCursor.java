@@ -0,0 +1,44 @@
+package com.cinebook.model;
+
+import com.cinebook.util.DateTimeUtil;
+
+/**
+ * Represents a position in a list of reservations ordered by reservation time and ID.
+ * Paged queries take the cursor of the last row of the previous page and seek past it,
+ * so every page costs the same no matter how deep into the list it is.
+ */
+public class ReservationCursor {
+    private final long reservationEpoch;
+    private final int reservationId;
+    
+    // Constructor
+    public ReservationCursor(long reservationEpoch, int reservationId) {
+        this.reservationEpoch = reservationEpoch;
+        this.reservationId = reservationId;
+    }
+    
+    /**
+     * Creates the cursor positioned at a reservation.
+     *
+     * @param reservation The reservation, typically the last row of a page
+     * @return The cursor for the reservation
+     */
+    public static ReservationCursor of(Reservation reservation) {
+        return new ReservationCursor(DateTimeUtil.toEpochSeconds(reservation.getReservationTime()),
+                                     reservation.getId());
+    }
+    
+    // Getters
+    public long getReservationEpoch() {
+        return reservationEpoch;
+    }
+    
+    public int getReservationId() {
+        return reservationId;
+    }
+    
+    @Override
+    public String toString() {
+        return reservationEpoch + "/" + reservationId;
+    }
+}
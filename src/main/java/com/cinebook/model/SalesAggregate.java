@@ -0,0 +1,48 @@
+package com.cinebook.model;
+
+/**
+ * Represents one row of an aggregated sales report, such as the sales of one movie or one hour.
+ * Reports are aggregated in the database, so only these rows, not the underlying reservations,
+ * are loaded.
+ */
+public class SalesAggregate {
+    private final String label;
+    private final int reservationCount;
+    private final int quantity;
+    private final double amount;
+    
+    // Constructor
+    public SalesAggregate(String label, int reservationCount, int quantity, double amount) {
+        this.label = label;
+        this.reservationCount = reservationCount;
+        this.quantity = quantity;
+        this.amount = amount;
+    }
+    
+    // Getters
+    public String getLabel() {
+        return label;
+    }
+    
+    public int getReservationCount() {
+        return reservationCount;
+    }
+    
+    /**
+     * Gets the number of units sold: tickets, or items for concession reports.
+     *
+     * @return The number of units sold
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public double getAmount() {
+        return amount;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d reservation(s), %d sold, ₱%.2f", label, reservationCount, quantity, amount);
+    }
+}
@@ -0,0 +1,50 @@
+package com.cinebook.model;
+
+/**
+ * Represents the sales totals of a date range, read from the daily sales rollup.
+ * The gross includes the concession sales; refunds are the amounts paid for reservations
+ * cancelled in the range, whose sales are no longer part of the gross.
+ */
+public class SalesSummary {
+    private final double gross;
+    private final int reservationCount;
+    private final int ticketCount;
+    private final double concessions;
+    private final double refunds;
+
+    // Constructor
+    public SalesSummary(double gross, int reservationCount, int ticketCount, double concessions, double refunds) {
+        this.gross = gross;
+        this.reservationCount = reservationCount;
+        this.ticketCount = ticketCount;
+        this.concessions = concessions;
+        this.refunds = refunds;
+    }
+
+    // Getters
+    public double getGross() {
+        return gross;
+    }
+
+    public int getReservationCount() {
+        return reservationCount;
+    }
+
+    public int getTicketCount() {
+        return ticketCount;
+    }
+
+    public double getConcessions() {
+        return concessions;
+    }
+
+    public double getRefunds() {
+        return refunds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("₱%.2f gross, %d reservation(s), %d ticket(s), ₱%.2f concessions, ₱%.2f refunds",
+                             gross, reservationCount, ticketCount, concessions, refunds);
+    }
+}
@@ -0,0 +1,83 @@
+package com.cinebook.model;
+
+import java.util.Arrays;
+
+/**
+ * Represents the reserved/held state of all seats of a screening as a packed bitmap.
+ * Bit i (least significant bit first within each byte) is set when the seat at grid position i
+ * of the screening's {@link SeatLayout} is reserved or held, so a 150-seat house fits in 19 bytes.
+ * Positions beyond the end of the bitmap are free.
+ */
+public class SeatBitmap {
+    private byte[] bits;
+    
+    // Default constructor
+    public SeatBitmap() {
+        this.bits = new byte[0];
+    }
+    
+    // Constructor with stored bytes; null means no seat is reserved
+    public SeatBitmap(byte[] bits) {
+        this.bits = bits == null ? new byte[0] : bits;
+    }
+    
+    /**
+     * Checks whether the seat at a grid position is reserved or held.
+     *
+     * @param position The 0-based grid position
+     * @return true if the seat is reserved
+     */
+    public boolean isReserved(int position) {
+        int index = position >>> 3;
+        return index < bits.length && (bits[index] & (1 << (position & 7))) != 0;
+    }
+    
+    /**
+     * Sets the reservation status of the seat at a grid position, growing the bitmap if needed.
+     *
+     * @param position The 0-based grid position
+     * @param reserved The new reservation status
+     */
+    public void setReserved(int position, boolean reserved) {
+        int index = position >>> 3;
+        if (index >= bits.length) {
+            if (!reserved) {
+                return;
+            }
+            bits = Arrays.copyOf(bits, index + 1);
+        }
+        
+        if (reserved) {
+            bits[index] |= (byte) (1 << (position & 7));
+        } else {
+            bits[index] &= (byte) ~(1 << (position & 7));
+        }
+    }
+    
+    /**
+     * Counts the reserved and held seats.
+     *
+     * @return The number of set bits
+     */
+    public int getReservedCount() {
+        int count = 0;
+        for (byte b : bits) {
+            count += Integer.bitCount(b & 0xFF);
+        }
+        return count;
+    }
+    
+    /**
+     * Gets the packed bytes as stored in the database.
+     *
+     * @return The bitmap bytes
+     */
+    public byte[] toBytes() {
+        return bits;
+    }
+    
+    @Override
+    public String toString() {
+        return "SeatBitmap{" + getReservedCount() + " reserved, " + bits.length + " bytes}";
+    }
+}
@@ -0,0 +1,44 @@
+package com.cinebook.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the seats of one screening whose reservation status changed.
+ * Only seats whose status actually changed are listed, so a seat map can repaint just those seats.
+ */
+public class SeatChangeEvent {
+    private final int screeningId;
+    private final List<Integer> reservedSeatIds;
+    private final List<Integer> releasedSeatIds;
+    
+    // Constructor
+    public SeatChangeEvent(int screeningId, List<Integer> reservedSeatIds, List<Integer> releasedSeatIds) {
+        this.screeningId = screeningId;
+        this.reservedSeatIds = Collections.unmodifiableList(new ArrayList<>(reservedSeatIds));
+        this.releasedSeatIds = Collections.unmodifiableList(new ArrayList<>(releasedSeatIds));
+    }
+    
+    // Getters
+    public int getScreeningId() {
+        return screeningId;
+    }
+    
+    public List<Integer> getReservedSeatIds() {
+        return reservedSeatIds;
+    }
+    
+    public List<Integer> getReleasedSeatIds() {
+        return releasedSeatIds;
+    }
+    
+    public boolean isEmpty() {
+        return reservedSeatIds.isEmpty() && releasedSeatIds.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return "Screening " + screeningId + ": reserved " + reservedSeatIds + ", released " + releasedSeatIds;
+    }
+}
@@ -0,0 +1,60 @@
+package com.cinebook.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the outcome of an all-or-nothing attempt to claim a set of seats.
+ * Either every requested seat was claimed, or none were and the lost seats are listed.
+ */
+public class SeatClaimResult {
+    private final List<Seat> claimedSeats;
+    private final List<Integer> lostSeatIds;
+    
+    // Constructor
+    public SeatClaimResult(List<Seat> claimedSeats, List<Integer> lostSeatIds) {
+        this.claimedSeats = Collections.unmodifiableList(new ArrayList<>(claimedSeats));
+        this.lostSeatIds = Collections.unmodifiableList(new ArrayList<>(lostSeatIds));
+    }
+    
+    /**
+     * Creates a result for a claim that succeeded for every seat.
+     *
+     * @param claimedSeats The seats that were claimed
+     * @return A successful claim result
+     */
+    public static SeatClaimResult claimed(List<Seat> claimedSeats) {
+        return new SeatClaimResult(claimedSeats, Collections.emptyList());
+    }
+    
+    /**
+     * Creates a result for a claim that was rolled back.
+     *
+     * @param lostSeatIds The IDs of the seats that were already taken or do not exist
+     * @return A failed claim result
+     */
+    public static SeatClaimResult lost(List<Integer> lostSeatIds) {
+        return new SeatClaimResult(Collections.emptyList(), lostSeatIds);
+    }
+    
+    // Getters
+    public List<Seat> getClaimedSeats() {
+        return claimedSeats;
+    }
+    
+    public List<Integer> getLostSeatIds() {
+        return lostSeatIds;
+    }
+    
+    public boolean isSuccessful() {
+        return lostSeatIds.isEmpty() && !claimedSeats.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return isSuccessful()
+            ? "Claimed " + claimedSeats.size() + " seat(s)"
+            : "Lost seat(s) " + lostSeatIds;
+    }
+}
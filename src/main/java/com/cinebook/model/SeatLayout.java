@@ -0,0 +1,264 @@
+package com.cinebook.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents one version of a cinema's seat layout.
+ * The layout is a grid stored in row-major order with one character per cell: 'S' for a
+ * standard seat, 'D' for a deluxe seat and '.' for a gap such as an aisle. Each screening
+ * refers to the layout version that was current when it was scheduled and stores only the
+ * seats that deviate from it (reserved or held), so editing a cinema never changes screenings
+ * that already exist.
+ */
+public class SeatLayout {
+    public static final char STANDARD_CELL = 'S';
+    public static final char DELUXE_CELL = 'D';
+    public static final char GAP_CELL = '.';
+    
+    // A seat's ID is screening_id * SEAT_ID_STRIDE + its grid position, so every seat of a
+    // screening has a stable ID before (and after) its row is materialized
+    public static final int SEAT_ID_STRIDE = 4096;
+    
+    private int id;
+    private int cinemaId;
+    private int version;
+    private int totalRows;
+    private int seatsPerRow;
+    private String cells;
+    
+    // Default constructor
+    public SeatLayout() {
+    }
+    
+    // Constructor with all fields except id and version
+    public SeatLayout(int cinemaId, int totalRows, int seatsPerRow, String cells) {
+        this.cinemaId = cinemaId;
+        this.totalRows = totalRows;
+        this.seatsPerRow = seatsPerRow;
+        this.cells = cells;
+    }
+    
+    // Constructor with all fields
+    public SeatLayout(int id, int cinemaId, int version, int totalRows, int seatsPerRow, String cells) {
+        this.id = id;
+        this.cinemaId = cinemaId;
+        this.version = version;
+        this.totalRows = totalRows;
+        this.seatsPerRow = seatsPerRow;
+        this.cells = cells;
+    }
+    
+    /**
+     * Creates the default layout for a cinema: a full grid whose last three rows are deluxe
+     * when the cinema has deluxe seats.
+     *
+     * @param cinemaId The ID of the cinema
+     * @param totalRows The number of rows
+     * @param seatsPerRow The number of seats in each row
+     * @param hasDeluxeSeats Whether the cinema has deluxe seats
+     * @return The default layout
+     */
+    public static SeatLayout standard(int cinemaId, int totalRows, int seatsPerRow, boolean hasDeluxeSeats) {
+        int deluxeRowStart = hasDeluxeSeats ? totalRows - 2 : totalRows + 1;
+        StringBuilder cells = new StringBuilder(totalRows * seatsPerRow);
+        for (int row = 1; row <= totalRows; row++) {
+            char cell = row >= deluxeRowStart ? DELUXE_CELL : STANDARD_CELL;
+            for (int column = 1; column <= seatsPerRow; column++) {
+                cells.append(cell);
+            }
+        }
+        return new SeatLayout(cinemaId, totalRows, seatsPerRow, cells.toString());
+    }
+    
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+    
+    public void setId(int id) {
+        this.id = id;
+    }
+    
+    public int getCinemaId() {
+        return cinemaId;
+    }
+    
+    public void setCinemaId(int cinemaId) {
+        this.cinemaId = cinemaId;
+    }
+    
+    public int getVersion() {
+        return version;
+    }
+    
+    public void setVersion(int version) {
+        this.version = version;
+    }
+    
+    public int getTotalRows() {
+        return totalRows;
+    }
+    
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+    
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+    
+    public void setSeatsPerRow(int seatsPerRow) {
+        this.seatsPerRow = seatsPerRow;
+    }
+    
+    public String getCells() {
+        return cells;
+    }
+    
+    public void setCells(String cells) {
+        this.cells = cells;
+    }
+    
+    /**
+     * Checks whether the grid is consistent and small enough for the seat ID scheme.
+     *
+     * @return true if the layout can be stored
+     */
+    public boolean isValid() {
+        if (totalRows <= 0 || seatsPerRow <= 0 || totalRows * seatsPerRow > SEAT_ID_STRIDE ||
+            cells == null || cells.length() != totalRows * seatsPerRow) {
+            return false;
+        }
+        for (int i = 0; i < cells.length(); i++) {
+            char cell = cells.charAt(i);
+            if (cell != STANDARD_CELL && cell != DELUXE_CELL && cell != GAP_CELL) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Gets the grid position of a cell.
+     *
+     * @param rowNumber The 1-based row number
+     * @param columnNumber The 1-based column number
+     * @return The 0-based position in row-major order
+     */
+    public int getPosition(int rowNumber, int columnNumber) {
+        return (rowNumber - 1) * seatsPerRow + (columnNumber - 1);
+    }
+    
+    /**
+     * Counts the seats in the layout, excluding gaps.
+     *
+     * @return The number of seats
+     */
+    public int getSeatCount() {
+        int count = 0;
+        for (int i = 0; i < cells.length(); i++) {
+            if (cells.charAt(i) != GAP_CELL) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Checks whether the layout has any deluxe seats.
+     *
+     * @return true if at least one seat is deluxe
+     */
+    public boolean hasDeluxeSeats() {
+        return cells.indexOf(DELUXE_CELL) >= 0;
+    }
+    
+    /**
+     * Creates the seat at a grid position for a screening, not reserved.
+     *
+     * @param screeningId The ID of the screening
+     * @param position The 0-based grid position
+     * @return The seat, or null if the position is a gap or outside the grid
+     */
+    public Seat toSeat(int screeningId, int position) {
+        if (position < 0 || position >= cells.length() || cells.charAt(position) == GAP_CELL) {
+            return null;
+        }
+        
+        int rowNumber = position / seatsPerRow + 1;
+        int columnNumber = position % seatsPerRow + 1;
+        SeatType seatType = cells.charAt(position) == DELUXE_CELL ? SeatType.DELUXE : SeatType.STANDARD;
+        return new Seat(seatId(screeningId, position), screeningId, getRowLabel(rowNumber) + columnNumber,
+                        seatType, false, rowNumber, columnNumber);
+    }
+    
+    /**
+     * Creates all seats of the layout for a screening, not reserved.
+     *
+     * @param screeningId The ID of the screening
+     * @return The seats ordered by row and column
+     */
+    public List<Seat> toSeats(int screeningId) {
+        List<Seat> seats = new ArrayList<>();
+        for (int position = 0; position < cells.length(); position++) {
+            Seat seat = toSeat(screeningId, position);
+            if (seat != null) {
+                seats.add(seat);
+            }
+        }
+        return seats;
+    }
+    
+    /**
+     * Gets the ID of the seat at a grid position of a screening.
+     *
+     * @param screeningId The ID of the screening
+     * @param position The 0-based grid position
+     * @return The seat ID
+     */
+    public static int seatId(int screeningId, int position) {
+        return screeningId * SEAT_ID_STRIDE + position;
+    }
+    
+    /**
+     * Gets the screening a seat ID belongs to.
+     *
+     * @param seatId The seat ID
+     * @return The ID of the screening
+     */
+    public static int screeningIdOf(int seatId) {
+        return seatId / SEAT_ID_STRIDE;
+    }
+    
+    /**
+     * Gets the grid position encoded in a seat ID.
+     *
+     * @param seatId The seat ID
+     * @return The 0-based grid position
+     */
+    public static int positionOf(int seatId) {
+        return seatId % SEAT_ID_STRIDE;
+    }
+    
+    /**
+     * Converts a row number to a letter label (A-Z, then AA, AB, etc.)
+     *
+     * @param rowNumber The numeric row number
+     * @return A letter label for the row
+     */
+    public static String getRowLabel(int rowNumber) {
+        if (rowNumber <= 26) {
+            return String.valueOf((char) ('A' + rowNumber - 1));
+        } else {
+            int firstChar = (rowNumber - 1) / 26;
+            int secondChar = (rowNumber - 1) % 26;
+            return String.valueOf((char) ('A' + firstChar - 1)) + String.valueOf((char) ('A' + secondChar));
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "Layout v" + version + " (" + totalRows + "x" + seatsPerRow + ", " + getSeatCount() + " seats)";
+    }
+}
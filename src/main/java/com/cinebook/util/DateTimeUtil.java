@@ -0,0 +1,109 @@
+package com.cinebook.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Utility class for converting between local date-times and the epoch columns in the database.
+ * Timestamps are stored as "local epoch seconds": the wall-clock time of the cinema counted as if
+ * it were UTC. This round-trips a LocalDateTime exactly, is unaffected by daylight saving changes,
+ * and matches SQLite's strftime('%s', text) on the legacy text columns.
+ */
+public class DateTimeUtil {
+    private static final DateTimeFormatter LEGACY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final long SECONDS_PER_DAY = 86400L;
+
+    /**
+     * Converts a local date-time to local epoch seconds.
+     *
+     * @param dateTime The local date-time
+     * @return The number of seconds since 1970-01-01T00:00 local time
+     */
+    public static long toEpochSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Converts local epoch seconds back to a local date-time without any string parsing.
+     *
+     * @param epochSeconds The number of seconds since 1970-01-01T00:00 local time
+     * @return The local date-time
+     */
+    public static LocalDateTime fromEpochSeconds(long epochSeconds) {
+        return LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Gets the first second of a date, for use as an inclusive lower bound.
+     *
+     * @param date The date
+     * @return The local epoch seconds at the start of the date
+     */
+    public static long startOfDay(LocalDate date) {
+        return date.toEpochDay() * SECONDS_PER_DAY;
+    }
+
+    /**
+     * Gets the first second of the day after a date, for use as an exclusive upper bound.
+     *
+     * @param date The date
+     * @return The local epoch seconds at the start of the following date
+     */
+    public static long startOfNextDay(LocalDate date) {
+        return (date.toEpochDay() + 1) * SECONDS_PER_DAY;
+    }
+
+    /**
+     * Gets the first second of a date given as text, for use as an inclusive lower bound.
+     *
+     * @param date The date (format: YYYY-MM-DD)
+     * @return The local epoch seconds at the start of the date
+     */
+    public static long startOfDay(String date) {
+        return startOfDay(LocalDate.parse(date));
+    }
+
+    /**
+     * Gets the first second of the day after a date given as text, for use as an exclusive upper bound.
+     *
+     * @param date The date (format: YYYY-MM-DD)
+     * @return The local epoch seconds at the start of the following date
+     */
+    public static long startOfNextDay(String date) {
+        return startOfNextDay(LocalDate.parse(date));
+    }
+
+    /**
+     * Gets the day a timestamp falls on, as the number of days since 1970-01-01.
+     * This is the day number of the daily_sales rollup and of {@link LocalDate#toEpochDay()}.
+     *
+     * @param epochSeconds The local epoch seconds
+     * @return The local epoch day
+     */
+    public static long epochDay(long epochSeconds) {
+        return Math.floorDiv(epochSeconds, SECONDS_PER_DAY);
+    }
+
+    /**
+     * Gets the current local time in epoch seconds.
+     *
+     * @return The local epoch seconds for now
+     */
+    public static long nowEpochSeconds() {
+        return toEpochSeconds(LocalDateTime.now());
+    }
+
+    /**
+     * Formats a local date-time for the legacy text timestamp columns.
+     * These columns are still written so external tools and scripts keep working,
+     * but the application reads and filters on the epoch columns only.
+     *
+     * @param dateTime The local date-time
+     * @return The date-time as yyyy-MM-dd HH:mm:ss
+     */
+    public static String toLegacyText(LocalDateTime dateTime) {
+        return dateTime.format(LEGACY_FORMATTER);
+    }
+}
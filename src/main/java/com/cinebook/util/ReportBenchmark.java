@@ -0,0 +1,272 @@
+package com.cinebook.util;
+
+import com.cinebook.dao.DBConnection;
+import com.cinebook.dao.ReportDAO;
+import com.cinebook.dao.ReservationDAO;
+import com.cinebook.dao.SalesAnalytics;
+import com.cinebook.dao.SalesRollupDAO;
+import com.cinebook.model.AnalyticsDimension;
+import com.cinebook.model.AnalyticsQuery;
+import com.cinebook.model.Reservation;
+import com.cinebook.model.SeatLayout;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * Measures sales report latency as the reservation history grows.
+ * A copy of the database gets a fixed week of recent reservations, then more and more older
+ * history; after each step the one-week reports are timed. The rollup and GROUP BY reports in
+ * ReportDAO should stay flat and the in-memory analytics cross-tab over the whole history should
+ * stay in milliseconds, while the old approach of loading every reservation of the range and
+ * summing in Java is shown for comparison.
+ * The live database is never touched.
+ *
+ * Usage: java -cp ... com.cinebook.util.ReportBenchmark [historySize ...]
+ */
+public class ReportBenchmark {
+    private static final int RECENT_RESERVATIONS = 2000;
+    private static final int RUNS = 7;
+    private static final int SEATS_PER_RESERVATION = 2;
+    private static final int SEATS_PER_SCREENING = 40;
+    
+    private final Random random = new Random(42);
+    private final List<Integer> screeningIds = new ArrayList<>();
+    private final List<Integer> concessionIds = new ArrayList<>();
+    private int historySize;
+    
+    public static void main(String[] args) throws Exception {
+        int[] historySizes = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[]{10000, 100000, 500000};
+        
+        // Point the application at a scratch copy before DBConnection is first used
+        File source = new File(System.getProperty("cinebook.db.path", "db/cinebook.db"));
+        File copy = File.createTempFile("cinebook-benchmark-", ".db");
+        copy.deleteOnExit();
+        if (source.exists()) {
+            Files.copy(source.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        System.setProperty("cinebook.db.path", copy.getPath());
+        
+        try {
+            new ReportBenchmark().run(historySizes);
+        } finally {
+            DBConnection.closeConnection();
+            new File(copy.getPath() + "-wal").delete();
+            new File(copy.getPath() + "-shm").delete();
+            copy.delete();
+        }
+    }
+    
+    private void run(int[] historySizes) throws SQLException {
+        loadScreeningsAndConcessions();
+        
+        LocalDate today = LocalDate.now();
+        String startDate = today.minusDays(6).toString();
+        String endDate = today.toString();
+        long windowStart = DateTimeUtil.startOfDay(startDate);
+        long windowEnd = DateTimeUtil.startOfNextDay(endDate);
+        
+        // The week the reports cover stays the same at every step
+        insertReservations(RECENT_RESERVATIONS, windowStart, windowEnd);
+        
+        ReportDAO reportDAO = new ReportDAO();
+        ReservationDAO reservationDAO = new ReservationDAO();
+        
+        System.out.printf("Report latency for %s to %s (%d reservations), median of %d runs in ms%n",
+                          startDate, endDate, RECENT_RESERVATIONS, RUNS);
+        // The analytics cross-tab covers the whole history, not just the report week
+        AnalyticsQuery crossTab = new AnalyticsQuery(LocalDate.of(1970, 1, 1), today.plusYears(1),
+            AnalyticsDimension.MOVIE, AnalyticsDimension.CINEMA, AnalyticsDimension.HOUR_OF_DAY);
+        
+        System.out.printf("%10s %12s %10s %10s %10s %10s %10s %10s %10s %10s%n", "history", "java-summed",
+                          "movie", "cinema", "tickets", "hour", "weekday", "seatType", "concession", "analytics");
+        
+        for (int targetSize : historySizes) {
+            // Older history lies before the report window, up to three years back
+            if (targetSize > historySize) {
+                insertReservations(targetSize - historySize, windowStart - 3L * 365 * 86400, windowStart);
+                historySize = targetSize;
+            }
+            // The synthetic rows bypass the DAOs, so the rollup is regenerated before timing
+            new SalesRollupDAO().rebuild();
+            analyze();
+            
+            System.out.printf("%10d %12.2f %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                historySize + RECENT_RESERVATIONS,
+                time(() -> sumInJava(reservationDAO.getReservationsByDateRange(startDate, endDate))),
+                time(() -> reportDAO.getSalesByMovie(startDate, endDate)),
+                time(() -> reportDAO.getSalesByCinema(startDate, endDate)),
+                time(() -> reportDAO.countTicketsSold(startDate, endDate)),
+                time(() -> reportDAO.getSalesByHour(startDate, endDate)),
+                time(() -> reportDAO.getSalesByWeekday(startDate, endDate)),
+                time(() -> reportDAO.getSalesBySeatType(startDate, endDate)),
+                time(() -> reportDAO.getSalesByConcession(startDate, endDate)),
+                time(() -> SalesAnalytics.getInstance().query(crossTab)));
+        }
+    }
+    
+    /**
+     * The reports as they were computed before ReportDAO: every reservation loaded and summed in a map.
+     */
+    private static Map<String, Double> sumInJava(List<Reservation> reservations) {
+        Map<String, Double> salesByMovie = new HashMap<>();
+        int tickets = 0;
+        for (Reservation reservation : reservations) {
+            if (reservation.isPaid()) {
+                salesByMovie.merge(reservation.getMovieTitle(), reservation.getTotalAmount(), Double::sum);
+                tickets += reservation.getSelectedSeats().size();
+            }
+        }
+        salesByMovie.put("tickets", (double) tickets);
+        return salesByMovie;
+    }
+    
+    private static double time(Callable<?> report) {
+        try {
+            report.call(); // Warm up
+            double[] millis = new double[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                report.call();
+                millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+            Arrays.sort(millis);
+            return millis[RUNS / 2];
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private void loadScreeningsAndConcessions() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT id FROM screenings ORDER BY id LIMIT 50")) {
+                while (rs.next()) {
+                    screeningIds.add(rs.getInt("id"));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT id FROM concessions ORDER BY id")) {
+                while (rs.next()) {
+                    concessionIds.add(rs.getInt("id"));
+                }
+            }
+        }
+        if (screeningIds.isEmpty()) {
+            throw new IllegalStateException("The database has no screenings to book");
+        }
+        
+        // Materialize a block of seats per screening for the synthetic bookings to point at
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "INSERT OR IGNORE INTO seats (id, screening_id, seat_number, seat_type, is_reserved, row_number, column_number) " +
+                 "VALUES (?, ?, ?, ?, 1, 1, ?)")) {
+            for (int screeningId : screeningIds) {
+                for (int position = 0; position < SEATS_PER_SCREENING; position++) {
+                    stmt.setInt(1, SeatLayout.seatId(screeningId, position));
+                    stmt.setInt(2, screeningId);
+                    stmt.setString(3, "Z" + (position + 1));
+                    stmt.setString(4, position % 4 == 0 ? "DELUXE" : "STANDARD");
+                    stmt.setInt(5, position + 1);
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Inserts paid reservations with their payment, seats and, for every third one, a concession.
+     */
+    private void insertReservations(int count, long fromEpoch, long toEpoch) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement reservationStmt = conn.prepareStatement(
+                     "INSERT INTO reservations (guest_name, guest_email, guest_phone, screening_id, reservation_time, " +
+                     "reservation_epoch, total_amount, is_paid) VALUES ('Benchmark', 'bench@example.com', '0', ?, ?, ?, ?, 1) " +
+                     "RETURNING id");
+                 PreparedStatement seatStmt = conn.prepareStatement(
+                     "INSERT INTO reservation_seats (reservation_id, seat_id) VALUES (?, ?)");
+                 PreparedStatement concessionStmt = conn.prepareStatement(
+                     "INSERT INTO reservation_concessions (reservation_id, concession_id, quantity) VALUES (?, ?, ?)");
+                 PreparedStatement paymentStmt = conn.prepareStatement(
+                     "INSERT INTO payments (reservation_id, amount, payment_method, transaction_reference, " +
+                     "payment_time, payment_epoch, is_successful) VALUES (?, ?, 'GCash', 'BENCHMARK', ?, ?, 1)")) {
+                
+                for (int i = 0; i < count; i++) {
+                    int screeningId = screeningIds.get(random.nextInt(screeningIds.size()));
+                    long epoch = fromEpoch + (long) (random.nextDouble() * (toEpoch - fromEpoch));
+                    LocalDateTime time = DateTimeUtil.fromEpochSeconds(epoch);
+                    
+                    reservationStmt.setInt(1, screeningId);
+                    reservationStmt.setString(2, DateTimeUtil.toLegacyText(time));
+                    reservationStmt.setLong(3, epoch);
+                    double amount = 300 + random.nextInt(700);
+                    reservationStmt.setDouble(4, amount);
+                    int reservationId;
+                    try (ResultSet rs = reservationStmt.executeQuery()) {
+                        rs.next();
+                        reservationId = rs.getInt(1);
+                    }
+                    
+                    paymentStmt.setInt(1, reservationId);
+                    paymentStmt.setDouble(2, amount);
+                    paymentStmt.setString(3, DateTimeUtil.toLegacyText(time));
+                    paymentStmt.setLong(4, epoch);
+                    paymentStmt.addBatch();
+                    
+                    int firstSeat = random.nextInt(SEATS_PER_SCREENING - SEATS_PER_RESERVATION);
+                    for (int seat = 0; seat < SEATS_PER_RESERVATION; seat++) {
+                        seatStmt.setInt(1, reservationId);
+                        seatStmt.setInt(2, SeatLayout.seatId(screeningId, firstSeat + seat));
+                        seatStmt.addBatch();
+                    }
+                    if (!concessionIds.isEmpty() && i % 3 == 0) {
+                        concessionStmt.setInt(1, reservationId);
+                        concessionStmt.setInt(2, concessionIds.get(random.nextInt(concessionIds.size())));
+                        concessionStmt.setInt(3, 1 + random.nextInt(3));
+                        concessionStmt.addBatch();
+                    }
+                    
+                    if (i % 10000 == 9999) {
+                        paymentStmt.executeBatch();
+                        seatStmt.executeBatch();
+                        concessionStmt.executeBatch();
+                    }
+                }
+                paymentStmt.executeBatch();
+                seatStmt.executeBatch();
+                concessionStmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+    
+    private static void analyze() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE");
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.cinebook.util;
+
+import com.cinebook.dao.ExportDAO;
+import com.cinebook.model.ExportDataset;
+import com.cinebook.model.ExportFormat;
+import com.cinebook.model.ExportResult;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports reservations, payments or tickets of a date range to a CSV file or an Excel workbook.
+ * Rows are streamed from the database straight into a buffered writer, so memory use does not
+ * depend on the number of rows. The XLSX writer writes the worksheet XML directly into the zip
+ * file and starts a new sheet whenever one is full.
+ * An export runs on the calling thread; interrupting that thread cancels it and deletes the
+ * partly written file.
+ */
+public class ReportExporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final ExportDAO exportDAO = new ExportDAO();
+
+    /**
+     * Receives the progress of an export.
+     */
+    public interface ProgressListener {
+        /**
+         * Called on the exporting thread every few thousand rows and once at the end.
+         *
+         * @param rowsWritten The rows written so far
+         * @param totalRows The rows the export will write in total
+         */
+        void progress(long rowsWritten, long totalRows);
+    }
+
+    /**
+     * Exports the records of a date range to a file.
+     *
+     * @param dataset The records to export
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @param file The file to write; an existing file is replaced
+     * @param format The file format
+     * @param listener The progress listener, or null
+     * @return The number of rows written and the throughput
+     * @throws SQLException If a database error occurs
+     * @throws IOException If the file could not be written
+     */
+    public ExportResult export(ExportDataset dataset, String startDate, String endDate, File file,
+                               ExportFormat format, ProgressListener listener) throws SQLException, IOException {
+        long start = System.nanoTime();
+        long totalRows = exportDAO.countRows(dataset, startDate, endDate);
+
+        boolean[] cancelled = new boolean[1];
+        long[] written = new long[1];
+        boolean completed = false;
+        try (TableWriter writer = format == ExportFormat.XLSX
+                 ? new XlsxTableWriter(new FileOutputStream(file), dataset.getDisplayName())
+                 : new CsvTableWriter(new FileOutputStream(file))) {
+
+            exportDAO.streamRows(dataset, startDate, endDate, new ExportDAO.RowHandler() {
+                @Override
+                public void columns(String[] columns) throws IOException {
+                    writer.writeHeader(columns);
+                }
+
+                @Override
+                public boolean row(Object[] values) throws IOException {
+                    writer.writeRow(values);
+                    if (++written[0] % PROGRESS_INTERVAL == 0) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            cancelled[0] = true;
+                            return false;
+                        }
+                        if (listener != null) {
+                            listener.progress(written[0], totalRows);
+                        }
+                    }
+                    return true;
+                }
+            });
+            completed = !cancelled[0];
+        } finally {
+            if (!completed) {
+                file.delete();
+            }
+        }
+
+        if (listener != null && !cancelled[0]) {
+            listener.progress(written[0], Math.max(totalRows, written[0]));
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        return new ExportResult(dataset, file, written[0], elapsedMillis, cancelled[0]);
+    }
+
+    /**
+     * Writes a table row by row.
+     */
+    private interface TableWriter extends Closeable {
+        void writeHeader(String[] columns) throws IOException;
+
+        void writeRow(Object[] values) throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV in UTF-8 with a byte order mark, so spreadsheet programs show the peso sign.
+     */
+    private static class CsvTableWriter implements TableWriter {
+        private final Writer out;
+
+        CsvTableWriter(OutputStream stream) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            out.write('\uFEFF');
+        }
+
+        @Override
+        public void writeHeader(String[] columns) throws IOException {
+            writeRow(columns);
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Minimal SpreadsheetML (XLSX) writer with inline strings.
+     * Each sheet is streamed into its own zip entry; the workbook parts that list the sheets are
+     * written when the writer is closed, once the number of sheets is known.
+     */
+    private static class XlsxTableWriter implements TableWriter {
+        private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+        private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+        private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+        private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+        private static final String PACKAGE_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+        private final ZipOutputStream zip;
+        private final Writer out;
+        private final String sheetName;
+        private final List<String> sheetNames = new ArrayList<>();
+        private String[] columns;
+        private int sheetRows;
+
+        XlsxTableWriter(OutputStream stream, String sheetName) {
+            this.zip = new ZipOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+            this.out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.sheetName = sheetName;
+        }
+
+        @Override
+        public void writeHeader(String[] columns) throws IOException {
+            this.columns = columns.clone();
+            startSheet();
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            if (sheetRows == MAX_ROWS_PER_SHEET) {
+                endSheet();
+                startSheet();
+            }
+            sheetRows++;
+            out.write("<row r=\"");
+            out.write(Integer.toString(sheetRows));
+            out.write("\">");
+            for (Object value : values) {
+                if (value == null) {
+                    out.write("<c/>");
+                } else if (value instanceof Number) {
+                    out.write("<c><v>");
+                    out.write(value.toString());
+                    out.write("</v></c>");
+                } else {
+                    out.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                    writeEscaped(value.toString());
+                    out.write("</t></is></c>");
+                }
+            }
+            out.write("</row>");
+        }
+
+        private void startSheet() throws IOException {
+            sheetNames.add(sheetNames.isEmpty() ? sheetName : sheetName + " " + (sheetNames.size() + 1));
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNames.size() + ".xml"));
+            out.write(XML_HEADER);
+            out.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+            sheetRows = 0;
+            writeRow(columns);
+        }
+
+        private void endSheet() throws IOException {
+            out.write("</sheetData></worksheet>");
+            out.flush();
+            zip.closeEntry();
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&':
+                        out.write("&amp;");
+                        break;
+                    case '<':
+                        out.write("&lt;");
+                        break;
+                    case '>':
+                        out.write("&gt;");
+                        break;
+                    case '"':
+                        out.write("&quot;");
+                        break;
+                    default:
+                        // Control characters other than tab and line breaks are not allowed in XML
+                        if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                            out.write(c);
+                        }
+                }
+            }
+        }
+
+        private void writeEntry(String name, String content) throws IOException {
+            zip.putNextEntry(new ZipEntry(name));
+            out.write(XML_HEADER);
+            out.write(content);
+            out.flush();
+            zip.closeEntry();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (sheetNames.isEmpty()) {
+                    columns = new String[0];
+                    startSheet();
+                }
+                endSheet();
+
+                StringBuilder contentTypes = new StringBuilder(
+                    "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+                    "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+                    "<Default Extension=\"xml\" ContentType=\"application/xml\"/>" +
+                    "<Override PartName=\"/xl/workbook.xml\" " +
+                    "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+                StringBuilder sheets = new StringBuilder();
+                StringBuilder relationships = new StringBuilder();
+                for (int i = 1; i <= sheetNames.size(); i++) {
+                    contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml\" ")
+                                .append("ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+                    sheets.append("<sheet name=\"").append(sheetNames.get(i - 1)).append("\" sheetId=\"").append(i)
+                          .append("\" r:id=\"rId").append(i).append("\"/>");
+                    relationships.append("<Relationship Id=\"rId").append(i).append("\" ")
+                                 .append("Type=\"").append(REL_NS).append("/worksheet\" ")
+                                 .append("Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+                }
+                contentTypes.append("</Types>");
+
+                writeEntry("[Content_Types].xml", contentTypes.toString());
+                writeEntry("_rels/.rels",
+                    "<Relationships xmlns=\"" + PACKAGE_REL_NS + "\">" +
+                    "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+                    "</Relationships>");
+                writeEntry("xl/workbook.xml",
+                    "<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\"><sheets>" + sheets + "</sheets></workbook>");
+                writeEntry("xl/_rels/workbook.xml.rels",
+                    "<Relationships xmlns=\"" + PACKAGE_REL_NS + "\">" + relationships + "</Relationships>");
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
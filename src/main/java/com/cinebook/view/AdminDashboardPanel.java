@@ -22,6 +22,7 @@ public class AdminDashboardPanel extends JPanel {
     private UserManagementPanel userManagementPanel;
     private PromoCodeManagementPanel promoCodeManagementPanel;
     private ReportPanel reportPanel;
+    private SystemStatusPanel systemStatusPanel;
     
     // UI Components
     private JTabbedPane tabbedPane;
@@ -44,6 +45,7 @@ public class AdminDashboardPanel extends JPanel {
         this.userManagementPanel = new UserManagementPanel(mainFrame, adminController);
         this.promoCodeManagementPanel = new PromoCodeManagementPanel(mainFrame);
         this.reportPanel = new ReportPanel(mainFrame, adminController);
+        this.systemStatusPanel = new SystemStatusPanel();
         
         // Setup panel properties
         setLayout(new BorderLayout());
@@ -99,6 +101,7 @@ public class AdminDashboardPanel extends JPanel {
         tabbedPane.addTab("User Management", null, userManagementPanel, "Manage user accounts");
         tabbedPane.addTab("Promo Codes", null, promoCodeManagementPanel, "Manage promotional codes");
         tabbedPane.addTab("Reports & Analytics", null, reportPanel, "View sales reports and analytics");
+        tabbedPane.addTab("System Status", null, systemStatusPanel, "View connection pool and background task statistics");
         
         // Add listener to refresh data when tab is selected
         tabbedPane.addChangeListener(e -> {
@@ -117,6 +120,9 @@ public class AdminDashboardPanel extends JPanel {
                 case 3:
                     reportPanel.refreshData();
                     break;
+                case 4:
+                    systemStatusPanel.refreshData();
+                    break;
             }
         });
         
@@ -150,6 +156,9 @@ public class AdminDashboardPanel extends JPanel {
             case 3:
                 reportPanel.refreshData();
                 break;
+            case 4:
+                systemStatusPanel.refreshData();
+                break;
         }
     }
 }
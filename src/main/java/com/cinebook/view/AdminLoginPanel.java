@@ -1,5 +1,6 @@
 package com.cinebook.view;
 
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.UserController;
 
 import javax.swing.*;
@@ -105,31 +106,44 @@ public class AdminLoginPanel extends JPanel {
                     return;
                 }
                 
-                boolean success = userController.login(username, password);
-                
-                if (success) {
-                    if (userController.isCurrentUserAdmin()) {
-                        JOptionPane.showMessageDialog(mainFrame,
-                            "Admin login successful!",
-                            "Login Success",
-                            JOptionPane.INFORMATION_MESSAGE);
+                loginButton.setEnabled(false);
+                AsyncExecutor.onEdt(
+                    AsyncExecutor.getInstance().submit("users.login", () -> userController.login(username, password)),
+                    success -> {
+                        loginButton.setEnabled(true);
                         
-                        clearFields();
-                        mainFrame.updateUserUI(userController.getCurrentUser());
-                    } else {
+                        if (success) {
+                            if (userController.isCurrentUserAdmin()) {
+                                JOptionPane.showMessageDialog(mainFrame,
+                                    "Admin login successful!",
+                                    "Login Success",
+                                    JOptionPane.INFORMATION_MESSAGE);
+                                
+                                clearFields();
+                                mainFrame.updateUserUI(userController.getCurrentUser());
+                            } else {
+                                JOptionPane.showMessageDialog(mainFrame,
+                                    "Login successful, but you do not have admin privileges.",
+                                    "Access Denied",
+                                    JOptionPane.WARNING_MESSAGE);
+                                
+                                userController.logout();
+                            }
+                        } else {
+                            JOptionPane.showMessageDialog(mainFrame,
+                                "Invalid admin credentials. Please try again.",
+                                "Login Error",
+                                JOptionPane.ERROR_MESSAGE);
+                        }
+                    },
+                    error -> {
+                        loginButton.setEnabled(true);
+                        error.printStackTrace();
                         JOptionPane.showMessageDialog(mainFrame,
-                            "Login successful, but you do not have admin privileges.",
-                            "Access Denied",
-                            JOptionPane.WARNING_MESSAGE);
-                        
-                        userController.logout();
-                    }
-                } else {
-                    JOptionPane.showMessageDialog(mainFrame,
-                        "Invalid admin credentials. Please try again.",
-                        "Login Error",
-                        JOptionPane.ERROR_MESSAGE);
-                }
+                            "The database could not be reached. Please try again.",
+                            "Login Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    });
             }
         });
         
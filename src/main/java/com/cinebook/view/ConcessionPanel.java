@@ -1,5 +1,6 @@
 package com.cinebook.view;
 
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.ReservationController;
 import com.cinebook.controller.UserController;
 import com.cinebook.model.Concession;
@@ -13,6 +14,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Panel for selecting concession items during the booking process.
@@ -21,6 +23,7 @@ public class ConcessionPanel extends JPanel {
     private MainFrame mainFrame;
     private UserController userController;
     private ReservationController reservationController;
+    private SeatHoldKeepAlive seatHoldKeepAlive;
     
     // UI Components
     private JLabel pageTitle;
@@ -32,6 +35,7 @@ public class ConcessionPanel extends JPanel {
     private JLabel totalLabel;
     private JButton continueButton;
     private JButton skipButton;
+    private CompletableFuture<List<Concession>> pendingConcessions; // Category load still running
     private JButton backButton;
     
     private List<Concession> selectedConcessions;
@@ -42,11 +46,14 @@ public class ConcessionPanel extends JPanel {
      *
      * @param mainFrame The parent MainFrame
      * @param userController The UserController instance
+     * @param reservationController The ReservationController holding the current booking
      */
-    public ConcessionPanel(MainFrame mainFrame, UserController userController) {
+    public ConcessionPanel(MainFrame mainFrame, UserController userController,
+                           ReservationController reservationController) {
         this.mainFrame = mainFrame;
         this.userController = userController;
-        this.reservationController = new ReservationController();
+        this.reservationController = reservationController;
+        this.seatHoldKeepAlive = new SeatHoldKeepAlive(this, mainFrame, reservationController);
         this.selectedConcessions = new ArrayList<>();
         this.totalPrice = 0.0;
         
@@ -160,17 +167,7 @@ public class ConcessionPanel extends JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 // Skip concessions - continue with empty concession list
-                boolean success = reservationController.addConcessionsToReservation(new ArrayList<>());
-                
-                if (success) {
-                    mainFrame.getPaymentPanel().initialize();
-                    mainFrame.navigateTo(MainFrame.PAYMENT_PANEL);
-                } else {
-                    JOptionPane.showMessageDialog(mainFrame,
-                        "Failed to proceed to payment. Please try again.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                }
+                proceedToPayment(new ArrayList<>(), "Failed to proceed to payment. Please try again.");
             }
         });
         
@@ -178,25 +175,54 @@ public class ConcessionPanel extends JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 // Continue with selected concessions
-                boolean success = reservationController.addConcessionsToReservation(selectedConcessions);
+                proceedToPayment(new ArrayList<>(selectedConcessions),
+                    "Failed to add concessions to the reservation. Please try again.");
+            }
+        });
+        
+        bottomPanel.add(backButton);
+        bottomPanel.add(skipButton);
+        bottomPanel.add(continueButton);
+        
+        add(bottomPanel, BorderLayout.SOUTH);
+    }
+    
+    /**
+     * Adds concessions to the reservation in the background and moves on to payment.
+     *
+     * @param concessions The concessions to add
+     * @param failureMessage The message to show if they could not be added
+     */
+    private void proceedToPayment(List<Concession> concessions, String failureMessage) {
+        skipButton.setEnabled(false);
+        continueButton.setEnabled(false);
+        
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("reservations.addConcessions",
+                () -> reservationController.addConcessionsToReservation(concessions)),
+            success -> {
+                skipButton.setEnabled(true);
+                continueButton.setEnabled(true);
                 
                 if (success) {
                     mainFrame.getPaymentPanel().initialize();
                     mainFrame.navigateTo(MainFrame.PAYMENT_PANEL);
                 } else {
                     JOptionPane.showMessageDialog(mainFrame,
-                        "Failed to add concessions to the reservation. Please try again.",
+                        failureMessage,
                         "Error",
                         JOptionPane.ERROR_MESSAGE);
                 }
-            }
-        });
-        
-        bottomPanel.add(backButton);
-        bottomPanel.add(skipButton);
-        bottomPanel.add(continueButton);
-        
-        add(bottomPanel, BorderLayout.SOUTH);
+            },
+            error -> {
+                skipButton.setEnabled(true);
+                continueButton.setEnabled(true);
+                error.printStackTrace();
+                JOptionPane.showMessageDialog(mainFrame,
+                    failureMessage,
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            });
     }
     
     /**
@@ -215,18 +241,37 @@ public class ConcessionPanel extends JPanel {
             return;
         }
         
+        // Keep the selected seats held while the customer picks concessions
+        seatHoldKeepAlive.start();
+        
         // Clear previous concessions
         selectedConcessions.clear();
         totalPrice = 0.0;
         
-        // Get available concession categories
-        List<String> categories = reservationController.getAvailableConcessionCategories();
-        
         // Clear and update UI components
         categoriesPanel.removeAll();
         concessionItemsPanel.removeAll();
         cartTableModel.setRowCount(0);
         
+        // Update totals
+        updateCart();
+        
+        // Get available concession categories
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("concessions.categories",
+                reservationController::getAvailableConcessionCategories),
+            this::showCategories,
+            null);
+    }
+    
+    /**
+     * Shows a button per concession category and the items of the first one.
+     *
+     * @param categories The concession categories
+     */
+    private void showCategories(List<String> categories) {
+        categoriesPanel.removeAll();
+        
         // Add category buttons
         for (String category : categories) {
             JButton categoryButton = new JButton(category);
@@ -244,9 +289,6 @@ public class ConcessionPanel extends JPanel {
             displayConcessionsByCategory(categories.get(0));
         }
         
-        // Update totals
-        updateCart();
-        
         // Update UI
         revalidate();
         repaint();
@@ -258,11 +300,25 @@ public class ConcessionPanel extends JPanel {
      * @param category The category to display items for
      */
     private void displayConcessionsByCategory(String category) {
-        // Clear items panel
-        concessionItemsPanel.removeAll();
+        // Only the category clicked last is shown
+        if (pendingConcessions != null) {
+            pendingConcessions.cancel(true);
+        }
         
         // Get concessions for this category
-        List<Concession> concessions = reservationController.getConcessionsByCategory(category);
+        pendingConcessions = AsyncExecutor.getInstance().submit("concessions.byCategory",
+            () -> reservationController.getConcessionsByCategory(category));
+        AsyncExecutor.onEdt(pendingConcessions, this::showConcessions, null);
+    }
+    
+    /**
+     * Displays concession items of one category.
+     *
+     * @param concessions The concession items to display
+     */
+    private void showConcessions(List<Concession> concessions) {
+        // Clear items panel
+        concessionItemsPanel.removeAll();
         
         if (concessions.isEmpty()) {
             JLabel noItemsLabel = new JLabel("No items available in this category.");
@@ -1,7 +1,9 @@
 package com.cinebook.view;
 
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.ReservationController;
 import com.cinebook.controller.UserController;
+import com.cinebook.model.BookingConfirmation;
 import com.cinebook.model.Concession;
 import com.cinebook.model.Reservation;
 import com.cinebook.model.Seat;
@@ -17,12 +19,17 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Panel for displaying booking confirmation and tickets.
  */
 public class ConfirmationPanel extends JPanel {
+    // Sending mail can take much longer than a database call
+    private static final long EMAIL_TIMEOUT_MILLIS = 120000L;
+    
     private MainFrame mainFrame;
     private UserController userController;
     private ReservationController reservationController;
@@ -234,20 +241,53 @@ public class ConfirmationPanel extends JPanel {
         // Clear table
         ticketsTableModel.setRowCount(0);
         
-        // Get reservation details
-        currentReservation = reservationController.getReservationById(reservationId);
-        
-        if (currentReservation == null) {
-            JOptionPane.showMessageDialog(mainFrame,
-                "Failed to load reservation details.",
-                "Error",
-                JOptionPane.ERROR_MESSAGE);
-            mainFrame.navigateTo(MainFrame.MOVIE_LISTING_PANEL);
-            return;
-        }
-        
-        // Get tickets for this reservation
-        tickets = reservationController.getTicketsByReservation(reservationId);
+        // Get reservation details and the tickets for this reservation
+        List<Ticket> loadedTickets = new ArrayList<>();
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("reservations.confirmation", () -> {
+                Reservation reservation = reservationController.getReservationById(reservationId);
+                if (reservation != null) {
+                    loadedTickets.addAll(reservationController.getTicketsByReservation(reservationId));
+                }
+                return reservation;
+            }),
+            reservation -> {
+                if (reservation == null) {
+                    JOptionPane.showMessageDialog(mainFrame,
+                        "Failed to load reservation details.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    mainFrame.navigateTo(MainFrame.MOVIE_LISTING_PANEL);
+                    return;
+                }
+                
+                currentReservation = reservation;
+                tickets = loadedTickets;
+                
+                // Update UI with reservation details
+                updateReservationDetails();
+                
+                // Update tickets table
+                updateTicketsTable();
+            },
+            error -> {
+                error.printStackTrace();
+                JOptionPane.showMessageDialog(mainFrame,
+                    "Failed to load reservation details.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+                mainFrame.navigateTo(MainFrame.MOVIE_LISTING_PANEL);
+            });
+    }
+    
+    /**
+     * Initializes the panel straight from a completed checkout, without reading it back.
+     *
+     * @param confirmation The confirmation returned by the checkout
+     */
+    public void initialize(BookingConfirmation confirmation) {
+        currentReservation = confirmation.getReservation();
+        tickets = confirmation.getTickets();
         
         // Update UI with reservation details
         updateReservationDetails();
@@ -453,50 +493,44 @@ public class ConfirmationPanel extends JPanel {
         progressDialog.setSize(300, 100);
         progressDialog.setLocationRelativeTo(mainFrame);
         
-        new Thread(() -> {
+        Reservation reservation = currentReservation;
+        List<Ticket> reservationTickets = tickets;
+        CompletableFuture<Boolean> sending = AsyncExecutor.getInstance().submit("tickets.email", () -> {
+            // Generate PDF file
+            File pdfFile = pdfGenerator.generateTicketsPDF(reservation, reservationTickets);
             try {
-                // Generate PDF file
-                File pdfFile = pdfGenerator.generateTicketsPDF(currentReservation, tickets);
-                
                 // Send email with PDF attachment
-                boolean success = emailService.sendTicketsEmail(
-                    finalEmail, 
-                    currentReservation, 
-                    pdfFile
-                );
-                
-                SwingUtilities.invokeLater(() -> {
-                    progressDialog.dispose();
-                    
-                    if (success) {
-                        JOptionPane.showMessageDialog(mainFrame,
-                            "Tickets have been sent to " + finalEmail + ".",
-                            "Email Sent",
-                            JOptionPane.INFORMATION_MESSAGE);
-                    } else {
-                        JOptionPane.showMessageDialog(mainFrame,
-                            "Failed to send tickets via email. Please try again later.",
-                            "Email Error",
-                            JOptionPane.ERROR_MESSAGE);
-                    }
-                });
-                
+                return emailService.sendTicketsEmail(finalEmail, reservation, pdfFile);
+            } finally {
                 // Delete temporary PDF file
                 if (pdfFile != null && pdfFile.exists()) {
                     pdfFile.delete();
                 }
-                
-            } catch (Exception e) {
-                e.printStackTrace();
-                SwingUtilities.invokeLater(() -> {
-                    progressDialog.dispose();
-                    JOptionPane.showMessageDialog(mainFrame,
-                        "An error occurred while sending the tickets: " + e.getMessage(),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                });
             }
-        }).start();
+        }, EMAIL_TIMEOUT_MILLIS);
+        
+        AsyncExecutor.onEdt(sending, success -> {
+            progressDialog.dispose();
+            
+            if (success) {
+                JOptionPane.showMessageDialog(mainFrame,
+                    "Tickets have been sent to " + finalEmail + ".",
+                    "Email Sent",
+                    JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(mainFrame,
+                    "Failed to send tickets via email. Please try again later.",
+                    "Email Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }, error -> {
+            error.printStackTrace();
+            progressDialog.dispose();
+            JOptionPane.showMessageDialog(mainFrame,
+                "An error occurred while sending the tickets: " + error.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        });
         
         progressDialog.setVisible(true);
     }
@@ -521,37 +555,34 @@ public class ConfirmationPanel extends JPanel {
         progressDialog.setSize(300, 100);
         progressDialog.setLocationRelativeTo(mainFrame);
         
-        new Thread(() -> {
-            try {
-                // Generate PDF file
-                File pdfFile = pdfGenerator.generateTicketsPDF(currentReservation, tickets);
-                
-                // Open PDF for printing
-                boolean success = pdfGenerator.openPDFForPrinting(pdfFile);
-                
-                SwingUtilities.invokeLater(() -> {
-                    progressDialog.dispose();
-                    
-                    if (!success) {
-                        JOptionPane.showMessageDialog(mainFrame,
-                            "Could not open the PDF for printing. The file has been saved to: " + 
-                            pdfFile.getAbsolutePath(),
-                            "Print Error",
-                            JOptionPane.WARNING_MESSAGE);
-                    }
-                });
-                
-            } catch (Exception e) {
-                e.printStackTrace();
-                SwingUtilities.invokeLater(() -> {
-                    progressDialog.dispose();
-                    JOptionPane.showMessageDialog(mainFrame,
-                        "An error occurred while generating the tickets: " + e.getMessage(),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                });
+        Reservation reservation = currentReservation;
+        List<Ticket> reservationTickets = tickets;
+        CompletableFuture<File> printing = AsyncExecutor.getInstance().submit("tickets.print", () -> {
+            // Generate PDF file
+            File pdfFile = pdfGenerator.generateTicketsPDF(reservation, reservationTickets);
+            
+            // Open PDF for printing; hand back the file only if it could not be opened
+            return pdfGenerator.openPDFForPrinting(pdfFile) ? null : pdfFile;
+        });
+        
+        AsyncExecutor.onEdt(printing, unopenedFile -> {
+            progressDialog.dispose();
+            
+            if (unopenedFile != null) {
+                JOptionPane.showMessageDialog(mainFrame,
+                    "Could not open the PDF for printing. The file has been saved to: " + 
+                    unopenedFile.getAbsolutePath(),
+                    "Print Error",
+                    JOptionPane.WARNING_MESSAGE);
             }
-        }).start();
+        }, error -> {
+            error.printStackTrace();
+            progressDialog.dispose();
+            JOptionPane.showMessageDialog(mainFrame,
+                "An error occurred while generating the tickets: " + error.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        });
         
         progressDialog.setVisible(true);
     }
@@ -1,5 +1,6 @@
 package com.cinebook.view;
 
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.UserController;
 import com.cinebook.util.UIStyle;
 
@@ -124,22 +125,35 @@ public class LoginPanel extends JPanel {
                     return;
                 }
                 
-                boolean success = userController.login(username, password);
-                
-                if (success) {
-                    JOptionPane.showMessageDialog(mainFrame,
-                        "Login successful! Welcome, " + userController.getCurrentUser().getFullName(),
-                        "Login Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                    
-                    clearFields();
-                    mainFrame.updateUserUI(userController.getCurrentUser());
-                } else {
-                    JOptionPane.showMessageDialog(mainFrame,
-                        "Invalid username or password. Please try again.",
-                        "Login Error",
-                        JOptionPane.ERROR_MESSAGE);
-                }
+                loginButton.setEnabled(false);
+                AsyncExecutor.onEdt(
+                    AsyncExecutor.getInstance().submit("users.login", () -> userController.login(username, password)),
+                    success -> {
+                        loginButton.setEnabled(true);
+                        
+                        if (success) {
+                            JOptionPane.showMessageDialog(mainFrame,
+                                "Login successful! Welcome, " + userController.getCurrentUser().getFullName(),
+                                "Login Success",
+                                JOptionPane.INFORMATION_MESSAGE);
+                            
+                            clearFields();
+                            mainFrame.updateUserUI(userController.getCurrentUser());
+                        } else {
+                            JOptionPane.showMessageDialog(mainFrame,
+                                "Invalid username or password. Please try again.",
+                                "Login Error",
+                                JOptionPane.ERROR_MESSAGE);
+                        }
+                    },
+                    error -> {
+                        loginButton.setEnabled(true);
+                        error.printStackTrace();
+                        JOptionPane.showMessageDialog(mainFrame,
+                            "The database could not be reached. Please try again.",
+                            "Login Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    });
             }
         });
         
@@ -1,5 +1,6 @@
 package com.cinebook.view;
 
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.ReservationController;
 import com.cinebook.controller.ScreeningController;
 import com.cinebook.controller.UserController;
@@ -74,6 +75,11 @@ public class MainFrame extends JFrame {
                 );
                 
                 if (response == JOptionPane.YES_OPTION) {
+                    // Give this window's held seats back right away instead of when the hold expires
+                    reservationController.closeSession();
+                    for (AsyncExecutor.AsyncStatistics statistics : AsyncExecutor.getInstance().getStatistics()) {
+                        System.out.println(statistics);
+                    }
                     dispose();
                     System.exit(0);
                 }
@@ -111,10 +117,10 @@ public class MainFrame extends JFrame {
     private void initializePanels() {
         loginPanel = new LoginPanel(this, userController);
         registerPanel = new RegisterPanel(this, userController);
-        movieListingPanel = new MovieListingPanel(this, userController);
+        movieListingPanel = new MovieListingPanel(this, userController, reservationController);
         seatSelectionPanel = new SeatSelectionPanel(this, userController, screeningController, reservationController);
-        concessionPanel = new ConcessionPanel(this, userController);
-        paymentPanel = new PaymentPanel(this, userController);
+        concessionPanel = new ConcessionPanel(this, userController, reservationController);
+        paymentPanel = new PaymentPanel(this, userController, reservationController);
         confirmationPanel = new ConfirmationPanel(this, userController);
         adminLoginPanel = new AdminLoginPanel(this, userController);
         adminDashboardPanel = new AdminDashboardPanel(this, userController);
@@ -157,6 +163,15 @@ public class MainFrame extends JFrame {
         }
     }
     
+    /**
+     * Gets the reservation controller of this window's booking session.
+     *
+     * @return The ReservationController instance
+     */
+    public ReservationController getReservationController() {
+        return reservationController;
+    }
+    
     /**
      * Gets the seat selection panel.
      *
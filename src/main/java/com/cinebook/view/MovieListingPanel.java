@@ -1,14 +1,18 @@
 package com.cinebook.view;
 
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.MovieController;
 import com.cinebook.controller.ReservationController;
 import com.cinebook.controller.ScreeningController;
 import com.cinebook.controller.UserController;
 import com.cinebook.model.Movie;
 import com.cinebook.model.Screening;
+import com.cinebook.model.User;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
@@ -17,7 +21,11 @@ import java.awt.event.ActionListener;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Panel for displaying movie listings and allowing users to select a movie and screening.
@@ -30,8 +38,14 @@ public class MovieListingPanel extends JPanel {
     private ReservationController reservationController;
     
     // UI Components
+    private static final int SEARCH_PAGE_SIZE = 50;
+    
     private JPanel movieListPanel;
     private JScrollPane movieScrollPane;
+    private JTextField searchField;
+    private Timer searchTimer; // Searches once typing pauses
+    private List<Movie> listedMovies = new ArrayList<>();
+    private CompletableFuture<List<Movie>> pendingMovies; // Movie list load still running
     private JPanel movieDetailsPanel;
     private JLabel titleLabel;
     private JTextArea synopsisArea;
@@ -42,8 +56,11 @@ public class MovieListingPanel extends JPanel {
     private JLabel ratingLabel;
     private JComboBox<String> dateComboBox;
     private JComboBox<String> cinemaComboBox;
+    private Map<String, Integer> cinemaIds = new HashMap<>(); // Cinema combo box names to IDs
     private JList<Screening> screeningList;
     private DefaultListModel<Screening> screeningListModel;
+    private Map<Integer, Integer> seatsLeft = new HashMap<>();
+    private CompletableFuture<List<Screening>> pendingScreenings; // Screening list load still running
     private JButton selectScreeningButton;
     private JButton loginButton;
     private JButton logoutButton;
@@ -56,13 +73,15 @@ public class MovieListingPanel extends JPanel {
      *
      * @param mainFrame The parent MainFrame
      * @param userController The UserController instance
+     * @param reservationController The ReservationController of the window's booking session
      */
-    public MovieListingPanel(MainFrame mainFrame, UserController userController) {
+    public MovieListingPanel(MainFrame mainFrame, UserController userController,
+                             ReservationController reservationController) {
         this.mainFrame = mainFrame;
         this.userController = userController;
         this.movieController = new MovieController();
         this.screeningController = new ScreeningController();
-        this.reservationController = new ReservationController();
+        this.reservationController = reservationController;
         
         // Setup panel properties
         setLayout(new BorderLayout());
@@ -77,8 +96,7 @@ public class MovieListingPanel extends JPanel {
         contentPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
         
         // Create movie list panel
-        createMovieListPanel();
-        contentPanel.add(movieScrollPane, BorderLayout.WEST);
+        contentPanel.add(createMovieListPanel(), BorderLayout.WEST);
         
         // Create movie details panel
         createMovieDetailsPanel();
@@ -141,14 +159,43 @@ public class MovieListingPanel extends JPanel {
     }
     
     /**
-     * Creates the movie list panel.
+     * Creates the movie list panel with its search field.
+     *
+     * @return The created JPanel
      */
-    private void createMovieListPanel() {
+    private JPanel createMovieListPanel() {
+        JPanel listPanel = new JPanel(new BorderLayout(0, 5));
+        listPanel.setBorder(BorderFactory.createTitledBorder("Now Showing"));
+        
+        searchField = new JTextField();
+        searchField.setToolTipText("Search by title, director, cast, genre or synopsis");
+        searchTimer = new Timer(200, e -> loadMovies(0));
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        listPanel.add(searchField, BorderLayout.NORTH);
+        
         movieListPanel = new JPanel();
         movieListPanel.setLayout(new BoxLayout(movieListPanel, BoxLayout.Y_AXIS));
         movieScrollPane = new JScrollPane(movieListPanel);
         movieScrollPane.setPreferredSize(new Dimension(300, 500));
-        movieScrollPane.setBorder(BorderFactory.createTitledBorder("Now Showing"));
+        listPanel.add(movieScrollPane, BorderLayout.CENTER);
+        
+        return listPanel;
     }
     
     /**
@@ -232,6 +279,18 @@ public class MovieListingPanel extends JPanel {
         screeningListModel = new DefaultListModel<>();
         screeningList = new JList<>(screeningListModel);
         screeningList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        screeningList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                Integer left = seatsLeft.get(((Screening) value).getId());
+                if (left != null) {
+                    setText(value + " (" + (left == 0 ? "Sold out" : left + " seats left") + ")");
+                }
+                return this;
+            }
+        });
         JScrollPane screeningScrollPane = new JScrollPane(screeningList);
         screeningScrollPane.setPreferredSize(new Dimension(200, 150));
         
@@ -286,18 +345,10 @@ public class MovieListingPanel extends JPanel {
                 if (selectedScreening != null) {
                     if (userController.isUserLoggedIn()) {
                         // Start reservation for logged in user
-                        boolean success = reservationController.startReservationForUser(
-                                userController.getCurrentUser(), selectedScreening.getId());
-                        
-                        if (success) {
-                            mainFrame.getSeatSelectionPanel().initialize(selectedScreening);
-                            mainFrame.navigateTo(MainFrame.SEAT_SELECTION_PANEL);
-                        } else {
-                            JOptionPane.showMessageDialog(mainFrame,
-                                "Failed to start the reservation process. Please try again.",
-                                "Reservation Error",
-                                JOptionPane.ERROR_MESSAGE);
-                        }
+                        User user = userController.getCurrentUser();
+                        int screeningId = selectedScreening.getId();
+                        startReservation(selectedScreening,
+                            () -> reservationController.startReservationForUser(user, screeningId));
                     } else {
                         // Show guest info dialog
                         showGuestInfoDialog();
@@ -353,21 +404,48 @@ public class MovieListingPanel extends JPanel {
             }
             
             // Start reservation for guest
-            boolean success = reservationController.startReservationForGuest(
-                    name, email, phone, selectedScreening.getId());
-            
-            if (success) {
-                mainFrame.getSeatSelectionPanel().initialize(selectedScreening);
-                mainFrame.navigateTo(MainFrame.SEAT_SELECTION_PANEL);
-            } else {
-                JOptionPane.showMessageDialog(mainFrame,
-                    "Failed to start the reservation process. Please try again.",
-                    "Reservation Error",
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            int screeningId = selectedScreening.getId();
+            startReservation(selectedScreening,
+                () -> reservationController.startReservationForGuest(name, email, phone, screeningId));
         }
     }
     
+    /**
+     * Starts a reservation off the EDT and moves on to seat selection once it has started.
+     *
+     * @param screening The screening being booked
+     * @param start Starts the reservation, returning true on success
+     */
+    private void startReservation(Screening screening, Callable<Boolean> start) {
+        selectScreeningButton.setEnabled(false);
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("reservations.start", start),
+            success -> {
+                selectScreeningButton.setEnabled(selectedScreening != null);
+                if (success) {
+                    mainFrame.getSeatSelectionPanel().initialize(screening);
+                    mainFrame.navigateTo(MainFrame.SEAT_SELECTION_PANEL);
+                } else {
+                    showReservationError();
+                }
+            },
+            error -> {
+                selectScreeningButton.setEnabled(selectedScreening != null);
+                error.printStackTrace();
+                showReservationError();
+            });
+    }
+    
+    /**
+     * Tells the user the reservation could not be started.
+     */
+    private void showReservationError() {
+        JOptionPane.showMessageDialog(mainFrame,
+            "Failed to start the reservation process. Please try again.",
+            "Reservation Error",
+            JOptionPane.ERROR_MESSAGE);
+    }
+    
     /**
      * Populates the date combo box with the next 7 days.
      */
@@ -389,14 +467,16 @@ public class MovieListingPanel extends JPanel {
      */
     private void populateCinemaComboBox() {
         cinemaComboBox.removeAllItems();
+        cinemaIds.clear();
         cinemaComboBox.addItem("All Cinemas");
         
-        try {
-            screeningController.getAllActiveCinemas().forEach(cinema -> 
-                cinemaComboBox.addItem(cinema.getName()));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("cinemas.active", screeningController::getAllActiveCinemas),
+            cinemas -> cinemas.forEach(cinema -> {
+                cinemaIds.put(cinema.getName(), cinema.getId());
+                cinemaComboBox.addItem(cinema.getName());
+            }),
+            null);
     }
     
     /**
@@ -405,32 +485,51 @@ public class MovieListingPanel extends JPanel {
     private void updateScreeningList() {
         screeningListModel.clear();
         
+        // A newer selection replaces the list still being loaded for the previous one
+        if (pendingScreenings != null) {
+            pendingScreenings.cancel(true);
+            pendingScreenings = null;
+        }
+        
         if (selectedMovie == null) {
             return;
         }
         
+        int movieId = selectedMovie.getId();
         String selectedDate = (String) dateComboBox.getSelectedItem();
+        String date = selectedDate == null || selectedDate.equals("All Dates") ? null : selectedDate;
         String selectedCinema = (String) cinemaComboBox.getSelectedItem();
+        Integer cinemaId = selectedCinema == null ? null : cinemaIds.get(selectedCinema);
+        Map<Integer, Integer> counts = new HashMap<>();
         
-        List<Screening> allScreenings = screeningController.getScreeningsByMovie(selectedMovie.getId());
-        List<Screening> filteredScreenings = new ArrayList<>();
-        
-        // Filter screenings
-        for (Screening screening : allScreenings) {
-            boolean dateMatch = selectedDate.equals("All Dates") || 
-                               screening.getFormattedDate().equals(selectedDate);
-            boolean cinemaMatch = selectedCinema.equals("All Cinemas") || 
-                                 screening.getCinemaName().equals(selectedCinema);
+        pendingScreenings = AsyncExecutor.getInstance().submit("screenings.byMovie", () -> {
+            // One range scan of the movie's (and cinema's) schedule for the day, or for all days
+            List<Screening> filteredScreenings = screeningController.getScreenings(movieId, cinemaId, date, date);
             
-            if (dateMatch && cinemaMatch) {
-                filteredScreenings.add(screening);
+            // Seats left for all listed screenings, one bitmap read each
+            List<Integer> screeningIds = new ArrayList<>();
+            for (Screening screening : filteredScreenings) {
+                screeningIds.add(screening.getId());
             }
-        }
+            counts.putAll(screeningController.getAvailableSeatCounts(screeningIds));
+            return filteredScreenings;
+        });
         
-        // Add filtered screenings to the list model
-        for (Screening screening : filteredScreenings) {
-            screeningListModel.addElement(screening);
-        }
+        AsyncExecutor.onEdt(pendingScreenings, filteredScreenings -> {
+            seatsLeft = counts;
+            
+            // Add filtered screenings to the list model
+            screeningListModel.clear();
+            for (Screening screening : filteredScreenings) {
+                screeningListModel.addElement(screening);
+            }
+        }, error -> {
+            error.printStackTrace();
+            JOptionPane.showMessageDialog(mainFrame,
+                "Could not load the screenings. Please try again.",
+                "Loading Error",
+                JOptionPane.ERROR_MESSAGE);
+        });
     }
     
     /**
@@ -478,9 +577,58 @@ public class MovieListingPanel extends JPanel {
      * Refreshes the movie list with the latest data from the database.
      */
     public void refreshMovies() {
+        updateLoginButton();
+        loadMovies(0);
+    }
+    
+    /**
+     * Loads the active movies, or a page of the movies matching the search text.
+     *
+     * @param offset The number of search results already listed, which the page is added to
+     */
+    private void loadMovies(int offset) {
+        // A newer search replaces the list still being loaded for the previous one
+        if (pendingMovies != null) {
+            pendingMovies.cancel(true);
+            pendingMovies = null;
+        }
+        
+        String text = searchField.getText().trim();
+        if (text.isEmpty()) {
+            pendingMovies = AsyncExecutor.getInstance().submit("movies.active", movieController::getAllActiveMovies);
+        } else {
+            pendingMovies = AsyncExecutor.getInstance().submit("movies.search",
+                () -> movieController.searchMovies(text, true, offset, SEARCH_PAGE_SIZE));
+        }
+        
+        AsyncExecutor.onEdt(pendingMovies, movies -> {
+            if (offset == 0) {
+                listedMovies = new ArrayList<>();
+            }
+            listedMovies.addAll(movies);
+            boolean more = !text.isEmpty() && movies.size() == SEARCH_PAGE_SIZE;
+            showMovies(listedMovies, more ? offset + movies.size() : -1);
+        }, error -> {
+                error.printStackTrace();
+                JOptionPane.showMessageDialog(mainFrame,
+                    "Could not load the movies. Please try again.",
+                    "Loading Error",
+                    JOptionPane.ERROR_MESSAGE);
+            });
+    }
+    
+    /**
+     * Replaces the movie list with a button per movie.
+     *
+     * @param movies The movies to list
+     * @param nextOffset The offset of the next page of search results, or -1 if there is none
+     */
+    private void showMovies(List<Movie> movies, int nextOffset) {
         movieListPanel.removeAll();
         
-        List<Movie> movies = movieController.getAllActiveMovies();
+        if (movies.isEmpty() && !searchField.getText().trim().isEmpty()) {
+            movieListPanel.add(new JLabel("No movies match your search."));
+        }
         
         for (Movie movie : movies) {
             JButton movieButton = new JButton(movie.getTitle());
@@ -501,9 +649,14 @@ public class MovieListingPanel extends JPanel {
             movieListPanel.add(Box.createRigidArea(new Dimension(0, 5)));
         }
         
+        if (nextOffset >= 0) {
+            JButton moreButton = new JButton("More results...");
+            moreButton.addActionListener(e -> loadMovies(nextOffset));
+            movieListPanel.add(moreButton);
+        }
+        
         // Update UI
         movieListPanel.revalidate();
         movieListPanel.repaint();
-        updateLoginButton();
     }
 }
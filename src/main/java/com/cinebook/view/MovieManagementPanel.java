@@ -1,8 +1,10 @@
 package com.cinebook.view;
 
 import com.cinebook.controller.AdminController;
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.MovieController;
 import com.cinebook.controller.ScreeningController;
+import com.cinebook.model.BulkScheduleResult;
 import com.cinebook.model.Cinema;
 import com.cinebook.model.Movie;
 import com.cinebook.model.Screening;
@@ -10,6 +12,8 @@ import com.cinebook.model.Screening;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.DefaultTableModel;
@@ -20,12 +24,17 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Panel for managing movies in the admin dashboard.
  */
 public class MovieManagementPanel extends JPanel {
+    private static final int SEARCH_PAGE_SIZE = 100;
+    
     private MainFrame mainFrame;
     private AdminController adminController;
     private MovieController movieController;
@@ -37,11 +46,17 @@ public class MovieManagementPanel extends JPanel {
     private JButton addMovieButton;
     private JButton editMovieButton;
     private JButton deleteMovieButton;
+    private JTextField searchField;
+    private Timer searchTimer; // Searches once typing pauses
+    private JButton moreMoviesButton;
+    private int nextSearchOffset; // Offset of the next page of search results
+    private CompletableFuture<List<Movie>> pendingMovies;
     
     // Screenings components
     private JTable screeningsTable;
     private DefaultTableModel screeningsTableModel;
     private JButton addScreeningButton;
+    private JButton scheduleRecurringButton;
     private JButton editScreeningButton;
     private JButton deleteScreeningButton;
     
@@ -49,6 +64,9 @@ public class MovieManagementPanel extends JPanel {
     private Movie selectedMovie;
     private Screening selectedScreening;
     
+    // Screenings still loading for the previously selected movie
+    private CompletableFuture<List<Screening>> pendingScreenings;
+    
     /**
      * Constructor for MovieManagementPanel.
      *
@@ -152,42 +170,7 @@ public class MovieManagementPanel extends JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 if (selectedMovie != null) {
-                    // Check if there are any screenings for this movie
-                    List<Screening> screenings = screeningController.getScreeningsByMovie(selectedMovie.getId());
-                    
-                    if (!screenings.isEmpty()) {
-                        JOptionPane.showMessageDialog(mainFrame,
-                            "Cannot delete movie. There are screenings associated with this movie.",
-                            "Delete Error",
-                            JOptionPane.ERROR_MESSAGE);
-                        return;
-                    }
-                    
-                    int confirm = JOptionPane.showConfirmDialog(mainFrame,
-                        "Are you sure you want to delete the movie '" + selectedMovie.getTitle() + "'?",
-                        "Confirm Delete",
-                        JOptionPane.YES_NO_OPTION);
-                    
-                    if (confirm == JOptionPane.YES_OPTION) {
-                        boolean success = movieController.deleteMovie(selectedMovie.getId());
-                        
-                        if (success) {
-                            refreshMoviesTable();
-                            selectedMovie = null;
-                            clearScreeningsTable();
-                            updateButtonStates();
-                            
-                            JOptionPane.showMessageDialog(mainFrame,
-                                "Movie deleted successfully!",
-                                "Success",
-                                JOptionPane.INFORMATION_MESSAGE);
-                        } else {
-                            JOptionPane.showMessageDialog(mainFrame,
-                                "Failed to delete movie. Please try again.",
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE);
-                        }
-                    }
+                    deleteMovie(selectedMovie);
                 }
             }
         });
@@ -196,7 +179,37 @@ public class MovieManagementPanel extends JPanel {
         buttonsPanel.add(editMovieButton);
         buttonsPanel.add(deleteMovieButton);
         
+        // Search panel; the table lists every movie while the search is empty
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchField = new JTextField(30);
+        searchField.setToolTipText("Search by title, director, cast, genre or synopsis");
+        searchTimer = new Timer(200, e -> loadMovies(0));
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        moreMoviesButton = new JButton("More Results");
+        moreMoviesButton.setEnabled(false);
+        moreMoviesButton.addActionListener(e -> loadMovies(nextSearchOffset));
+        searchPanel.add(new JLabel("Search:"));
+        searchPanel.add(searchField);
+        searchPanel.add(moreMoviesButton);
+        
         // Add components to panel
+        moviesPanel.add(searchPanel, BorderLayout.NORTH);
         moviesPanel.add(moviesScrollPane, BorderLayout.CENTER);
         moviesPanel.add(buttonsPanel, BorderLayout.SOUTH);
         
@@ -255,6 +268,7 @@ public class MovieManagementPanel extends JPanel {
         JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         
         addScreeningButton = new JButton("Add Screening");
+        scheduleRecurringButton = new JButton("Schedule Recurring");
         editScreeningButton = new JButton("Edit Screening");
         deleteScreeningButton = new JButton("Delete Screening");
         
@@ -273,6 +287,16 @@ public class MovieManagementPanel extends JPanel {
             }
         });
         
+        // Schedule Recurring button action
+        scheduleRecurringButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (selectedMovie != null) {
+                    openRecurringScheduleDialog();
+                }
+            }
+        });
+        
         // Edit Screening button action
         editScreeningButton.addActionListener(new ActionListener() {
             @Override
@@ -288,46 +312,13 @@ public class MovieManagementPanel extends JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 if (selectedScreening != null) {
-                    // Check if there are any reservations for this screening
-                    boolean hasReservedSeats = screeningController.hasReservedSeats(selectedScreening.getId());
-                    
-                    if (hasReservedSeats) {
-                        JOptionPane.showMessageDialog(mainFrame,
-                            "Cannot delete screening. There are reserved seats for this screening.",
-                            "Delete Error",
-                            JOptionPane.ERROR_MESSAGE);
-                        return;
-                    }
-                    
-                    int confirm = JOptionPane.showConfirmDialog(mainFrame,
-                        "Are you sure you want to delete this screening?",
-                        "Confirm Delete",
-                        JOptionPane.YES_NO_OPTION);
-                    
-                    if (confirm == JOptionPane.YES_OPTION) {
-                        boolean success = screeningController.deleteScreening(selectedScreening.getId());
-                        
-                        if (success) {
-                            refreshScreeningsTable();
-                            selectedScreening = null;
-                            updateButtonStates();
-                            
-                            JOptionPane.showMessageDialog(mainFrame,
-                                "Screening deleted successfully!",
-                                "Success",
-                                JOptionPane.INFORMATION_MESSAGE);
-                        } else {
-                            JOptionPane.showMessageDialog(mainFrame,
-                                "Failed to delete screening. Please try again.",
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE);
-                        }
-                    }
+                    deleteScreening(selectedScreening);
                 }
             }
         });
         
         buttonsPanel.add(addScreeningButton);
+        buttonsPanel.add(scheduleRecurringButton);
         buttonsPanel.add(editScreeningButton);
         buttonsPanel.add(deleteScreeningButton);
         
@@ -343,11 +334,47 @@ public class MovieManagementPanel extends JPanel {
      * Refreshes the movies table with data from the database.
      */
     private void refreshMoviesTable() {
-        // Clear table
-        moviesTableModel.setRowCount(0);
+        loadMovies(0);
+    }
+    
+    /**
+     * Loads all movies, or a page of the movies matching the search text.
+     *
+     * @param offset The number of search results already in the table, which the page is added to
+     */
+    private void loadMovies(int offset) {
+        // A newer search replaces the movies still being loaded for the previous one
+        if (pendingMovies != null) {
+            pendingMovies.cancel(true);
+            pendingMovies = null;
+        }
+        moreMoviesButton.setEnabled(false);
         
-        // Get all movies
-        List<Movie> movies = movieController.getAllMovies();
+        String text = searchField.getText().trim();
+        if (text.isEmpty()) {
+            pendingMovies = AsyncExecutor.getInstance().submit("movies.all", movieController::getAllMovies);
+        } else {
+            pendingMovies = AsyncExecutor.getInstance().submit("movies.search",
+                () -> movieController.searchMovies(text, false, offset, SEARCH_PAGE_SIZE));
+        }
+        
+        AsyncExecutor.onEdt(pendingMovies, movies -> {
+            showMovies(movies, offset > 0);
+            nextSearchOffset = offset + movies.size();
+            moreMoviesButton.setEnabled(!text.isEmpty() && movies.size() == SEARCH_PAGE_SIZE);
+        }, error -> showLoadError("movies", error));
+    }
+    
+    /**
+     * Replaces or extends the rows of the movies table.
+     *
+     * @param movies The movies to show
+     * @param append Whether to add the movies after the rows already shown
+     */
+    private void showMovies(List<Movie> movies, boolean append) {
+        if (!append) {
+            moviesTableModel.setRowCount(0);
+        }
         
         // Populate table
         for (Movie movie : movies) {
@@ -365,44 +392,215 @@ public class MovieManagementPanel extends JPanel {
         }
     }
     
+    /**
+     * Deletes a movie after checking it has no screenings and confirming with the user.
+     *
+     * @param movie The movie to delete
+     */
+    private void deleteMovie(Movie movie) {
+        int movieId = movie.getId();
+        deleteMovieButton.setEnabled(false);
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("screenings.byMovie",
+                () -> screeningController.getScreeningsByMovie(movieId)),
+            screenings -> {
+                // Check if there are any screenings for this movie
+                if (!screenings.isEmpty()) {
+                    updateButtonStates();
+                    JOptionPane.showMessageDialog(mainFrame,
+                        "Cannot delete movie. There are screenings associated with this movie.",
+                        "Delete Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                int confirm = JOptionPane.showConfirmDialog(mainFrame,
+                    "Are you sure you want to delete the movie '" + movie.getTitle() + "'?",
+                    "Confirm Delete",
+                    JOptionPane.YES_NO_OPTION);
+                
+                if (confirm != JOptionPane.YES_OPTION) {
+                    updateButtonStates();
+                    return;
+                }
+                
+                AsyncExecutor.onEdt(
+                    AsyncExecutor.getInstance().submit("movies.delete",
+                        () -> movieController.deleteMovie(movieId)),
+                    success -> {
+                        if (success) {
+                            refreshMoviesTable();
+                            if (selectedMovie != null && selectedMovie.getId() == movieId) {
+                                selectedMovie = null;
+                                clearScreeningsTable();
+                            }
+                            updateButtonStates();
+                            
+                            JOptionPane.showMessageDialog(mainFrame,
+                                "Movie deleted successfully!",
+                                "Success",
+                                JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            updateButtonStates();
+                            JOptionPane.showMessageDialog(mainFrame,
+                                "Failed to delete movie. Please try again.",
+                                "Error",
+                                JOptionPane.ERROR_MESSAGE);
+                        }
+                    },
+                    error -> showSaveError("movie", error));
+            },
+            error -> showSaveError("movie", error));
+    }
+    
+    /**
+     * Deletes a screening after checking it has no reserved seats and confirming with the user.
+     *
+     * @param screening The screening to delete
+     */
+    private void deleteScreening(Screening screening) {
+        int screeningId = screening.getId();
+        deleteScreeningButton.setEnabled(false);
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("screenings.hasReservedSeats",
+                () -> screeningController.hasReservedSeats(screeningId)),
+            hasReservedSeats -> {
+                // Check if there are any reservations for this screening
+                if (hasReservedSeats) {
+                    updateButtonStates();
+                    JOptionPane.showMessageDialog(mainFrame,
+                        "Cannot delete screening. There are reserved seats for this screening.",
+                        "Delete Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                int confirm = JOptionPane.showConfirmDialog(mainFrame,
+                    "Are you sure you want to delete this screening?",
+                    "Confirm Delete",
+                    JOptionPane.YES_NO_OPTION);
+                
+                if (confirm != JOptionPane.YES_OPTION) {
+                    updateButtonStates();
+                    return;
+                }
+                
+                AsyncExecutor.onEdt(
+                    AsyncExecutor.getInstance().submit("screenings.delete",
+                        () -> screeningController.deleteScreening(screeningId)),
+                    success -> {
+                        if (success) {
+                            refreshScreeningsTable();
+                            if (selectedScreening != null && selectedScreening.getId() == screeningId) {
+                                selectedScreening = null;
+                            }
+                            updateButtonStates();
+                            
+                            JOptionPane.showMessageDialog(mainFrame,
+                                "Screening deleted successfully!",
+                                "Success",
+                                JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            updateButtonStates();
+                            JOptionPane.showMessageDialog(mainFrame,
+                                "Failed to delete screening. Please try again.",
+                                "Error",
+                                JOptionPane.ERROR_MESSAGE);
+                        }
+                    },
+                    error -> showSaveError("screening", error));
+            },
+            error -> showSaveError("screening", error));
+    }
+    
+    /**
+     * Re-enables the buttons and reports a failed change.
+     *
+     * @param what What was being changed, e.g. "movie"
+     * @param error The failure
+     */
+    private void showSaveError(String what, Throwable error) {
+        error.printStackTrace();
+        updateButtonStates();
+        JOptionPane.showMessageDialog(mainFrame,
+            "Could not save the " + what + ". Please try again.",
+            "Error",
+            JOptionPane.ERROR_MESSAGE);
+    }
+    
     /**
      * Refreshes the screenings table with data for the selected movie.
      */
     private void refreshScreeningsTable() {
+        if (pendingScreenings != null) {
+            pendingScreenings.cancel(true);
+        }
+        
+        if (selectedMovie == null) {
+            pendingScreenings = null;
+            screeningsTableModel.setRowCount(0);
+            return;
+        }
+        
+        int movieId = selectedMovie.getId();
+        pendingScreenings = AsyncExecutor.getInstance().submit("screenings.byMovie",
+            () -> screeningController.getScreeningsByMovie(movieId));
+        AsyncExecutor.onEdt(pendingScreenings, this::showScreenings, error -> showLoadError("screenings", error));
+    }
+    
+    /**
+     * Replaces the rows of the screenings table.
+     *
+     * @param screenings The screenings of the selected movie
+     */
+    private void showScreenings(List<Screening> screenings) {
         // Clear table
         screeningsTableModel.setRowCount(0);
         
-        if (selectedMovie != null) {
-            // Get screenings for the selected movie
-            List<Screening> screenings = screeningController.getScreeningsByMovie(selectedMovie.getId());
-            
-            // Date formatter
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+        // Date formatter
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+        
+        // Populate table
+        for (Screening screening : screenings) {
+            String date = screening.getScreeningTime().format(dateFormatter);
+            String time = screening.getScreeningTime().format(timeFormatter);
             
-            // Populate table
-            for (Screening screening : screenings) {
-                String date = screening.getScreeningTime().format(dateFormatter);
-                String time = screening.getScreeningTime().format(timeFormatter);
-                
-                Object[] row = {
-                    screening.getId(),
-                    screening.getCinemaName(),
-                    date,
-                    time,
-                    String.format("₱%.2f", screening.getStandardSeatPrice()),
-                    String.format("₱%.2f", screening.getDeluxeSeatPrice()),
-                    screening.isActive() ? "Active" : "Inactive"
-                };
-                screeningsTableModel.addRow(row);
-            }
+            Object[] row = {
+                screening.getId(),
+                screening.getCinemaName(),
+                date,
+                time,
+                String.format("₱%.2f", screening.getStandardSeatPrice()),
+                String.format("₱%.2f", screening.getDeluxeSeatPrice()),
+                screening.isActive() ? "Active" : "Inactive"
+            };
+            screeningsTableModel.addRow(row);
         }
     }
     
+    /**
+     * Tells the administrator that a list could not be loaded.
+     *
+     * @param what What was being loaded, e.g. "movies"
+     * @param error The cause of the failure
+     */
+    private void showLoadError(String what, Throwable error) {
+        error.printStackTrace();
+        JOptionPane.showMessageDialog(this,
+            "Could not load the " + what + ". Please try again.",
+            "Loading Error",
+            JOptionPane.ERROR_MESSAGE);
+    }
+    
     /**
      * Clears the screenings table.
      */
     private void clearScreeningsTable() {
+        if (pendingScreenings != null) {
+            pendingScreenings.cancel(true);
+            pendingScreenings = null;
+        }
         screeningsTableModel.setRowCount(0);
     }
     
@@ -414,6 +612,7 @@ public class MovieManagementPanel extends JPanel {
         deleteMovieButton.setEnabled(selectedMovie != null);
         
         addScreeningButton.setEnabled(selectedMovie != null);
+        scheduleRecurringButton.setEnabled(selectedMovie != null);
         editScreeningButton.setEnabled(selectedScreening != null);
         deleteScreeningButton.setEnabled(selectedScreening != null);
     }
@@ -558,49 +757,63 @@ public class MovieManagementPanel extends JPanel {
                     isActiveCheckBox.isSelected()
                 );
                 
-                boolean success;
+                Callable<Boolean> save;
                 if (movie != null) {
                     // Update existing movie
                     movieData.setId(movie.getId());
-                    success = movieController.updateMovie(movieData);
+                    save = () -> movieController.updateMovie(movieData);
                 } else {
                     // Add new movie
-                    success = movieController.addMovie(movieData) > 0;
+                    save = () -> movieController.addMovie(movieData) > 0;
                 }
                 
-                if (success) {
-                    refreshMoviesTable();
-                    // Select the added/updated movie
-                    if (movie == null) {
-                        // Find the row with the new movie title
-                        for (int i = 0; i < moviesTable.getRowCount(); i++) {
-                            if (moviesTable.getValueAt(i, 1).equals(movieData.getTitle())) {
-                                moviesTable.setRowSelectionInterval(i, i);
-                                break;
-                            }
-                        }
-                    } else {
-                        // Find the row with the movie ID
-                        for (int i = 0; i < moviesTable.getRowCount(); i++) {
-                            if (Integer.parseInt(moviesTable.getValueAt(i, 0).toString()) == movie.getId()) {
-                                moviesTable.setRowSelectionInterval(i, i);
-                                break;
+                saveButton.setEnabled(false);
+                AsyncExecutor.onEdt(
+                    AsyncExecutor.getInstance().submit("movies.save", save),
+                    success -> {
+                        saveButton.setEnabled(true);
+                        if (success) {
+                            refreshMoviesTable();
+                            // Select the added/updated movie
+                            if (movie == null) {
+                                // Find the row with the new movie title
+                                for (int i = 0; i < moviesTable.getRowCount(); i++) {
+                                    if (moviesTable.getValueAt(i, 1).equals(movieData.getTitle())) {
+                                        moviesTable.setRowSelectionInterval(i, i);
+                                        break;
+                                    }
+                                }
+                            } else {
+                                // Find the row with the movie ID
+                                for (int i = 0; i < moviesTable.getRowCount(); i++) {
+                                    if (Integer.parseInt(moviesTable.getValueAt(i, 0).toString()) == movie.getId()) {
+                                        moviesTable.setRowSelectionInterval(i, i);
+                                        break;
+                                    }
+                                }
                             }
+                            
+                            dialog.dispose();
+                            
+                            JOptionPane.showMessageDialog(mainFrame,
+                                movie == null ? "Movie added successfully!" : "Movie updated successfully!",
+                                "Success",
+                                JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(dialog,
+                                movie == null ? "Failed to add movie." : "Failed to update movie.",
+                                "Error",
+                                JOptionPane.ERROR_MESSAGE);
                         }
-                    }
-                    
-                    dialog.dispose();
-                    
-                    JOptionPane.showMessageDialog(mainFrame,
-                        movie == null ? "Movie added successfully!" : "Movie updated successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(dialog,
-                        movie == null ? "Failed to add movie." : "Failed to update movie.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                }
+                    },
+                    error -> {
+                        saveButton.setEnabled(true);
+                        error.printStackTrace();
+                        JOptionPane.showMessageDialog(dialog,
+                            movie == null ? "Failed to add movie." : "Failed to update movie.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    });
             }
         });
         
@@ -786,7 +999,7 @@ public class MovieManagementPanel extends JPanel {
                 // Get selected cinema
                 Cinema selectedCinema = (Cinema) cinemaComboBox.getSelectedItem();
                 
-                boolean success;
+                Callable<Boolean> save;
                 if (screening != null) {
                     // Update existing screening
                     Screening updatedScreening = new Screening(
@@ -799,32 +1012,64 @@ public class MovieManagementPanel extends JPanel {
                         isActiveCheckBox.isSelected()
                     );
                     
-                    success = screeningController.updateScreening(updatedScreening);
+                    save = () -> screeningController.updateScreening(updatedScreening);
                 } else {
                     // Add new screening
-                    success = screeningController.createScreening(
-                        selectedMovie.getId(),
+                    int movieId = selectedMovie.getId();
+                    LocalDateTime newScreeningTime = screeningDateTime;
+                    save = () -> screeningController.createScreening(
+                        movieId,
                         selectedCinema.getId(),
-                        screeningDateTime,
+                        newScreeningTime,
                         standardPrice,
                         deluxePrice
                     ) > 0;
                 }
                 
-                if (success) {
-                    refreshScreeningsTable();
-                    dialog.dispose();
-                    
-                    JOptionPane.showMessageDialog(mainFrame,
-                        screening == null ? "Screening added successfully!" : "Screening updated successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
+                String failureMessage = screening == null ? "Failed to add screening." : "Failed to update screening.";
+                saveButton.setEnabled(false);
+                CompletableFuture<Boolean> saved;
+                if (screening != null && selectedCinema.getId() != screening.getCinemaId()) {
+                    // Seats are positions in the cinema's layout, so taken seats tie the screening to its cinema
+                    int screeningId = screening.getId();
+                    saved = AsyncExecutor.getInstance().submit("screenings.hasReservedSeats",
+                            () -> screeningController.hasReservedSeats(screeningId))
+                        .thenCompose(taken -> taken
+                            ? CompletableFuture.completedFuture((Boolean) null)
+                            : AsyncExecutor.getInstance().submit("screenings.save", save));
                 } else {
+                    saved = AsyncExecutor.getInstance().submit("screenings.save", save);
+                }
+                
+                AsyncExecutor.onEdt(saved, success -> {
+                    saveButton.setEnabled(true);
+                    if (success == null) {
+                        JOptionPane.showMessageDialog(dialog,
+                            "Cannot move this screening to another cinema. Some of its seats are already reserved or held.",
+                            "Validation Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    } else if (success) {
+                        refreshScreeningsTable();
+                        dialog.dispose();
+                        
+                        JOptionPane.showMessageDialog(mainFrame,
+                            screening == null ? "Screening added successfully!" : "Screening updated successfully!",
+                            "Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(dialog,
+                            failureMessage,
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    }
+                }, error -> {
+                    saveButton.setEnabled(true);
+                    error.printStackTrace();
                     JOptionPane.showMessageDialog(dialog,
-                        screening == null ? "Failed to add screening." : "Failed to update screening.",
+                        failureMessage,
                         "Error",
                         JOptionPane.ERROR_MESSAGE);
-                }
+                });
             }
         });
         
@@ -839,6 +1084,182 @@ public class MovieManagementPanel extends JPanel {
         dialog.setVisible(true);
     }
     
+    /**
+     * Opens a dialog to schedule the selected movie at the same times every day over a date range.
+     */
+    private void openRecurringScheduleDialog() {
+        // Create dialog
+        JDialog dialog = new JDialog(mainFrame, "Schedule Recurring Screenings", true);
+        dialog.setSize(400, 450);
+        dialog.setLocationRelativeTo(mainFrame);
+        dialog.setLayout(new BorderLayout());
+        
+        // Create form panel
+        JPanel formPanel = new JPanel();
+        formPanel.setLayout(new BoxLayout(formPanel, BoxLayout.Y_AXIS));
+        formPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+        
+        // Create form fields
+        JComboBox<Cinema> cinemaComboBox = new JComboBox<>();
+        for (Cinema cinema : screeningController.getAllActiveCinemas()) {
+            cinemaComboBox.addItem(cinema);
+        }
+        
+        JTextField startDateField = new JTextField(LocalDate.now().plusDays(1).toString(), 10);
+        JTextField endDateField = new JTextField(LocalDate.now().plusDays(7).toString(), 10);
+        JTextField timesField = new JTextField("13:00, 16:00, 19:00", 10);
+        timesField.setToolTipText("Comma-separated times, HH:mm");
+        JTextField standardPriceField = new JTextField("180.00", 10);
+        JTextField deluxePriceField = new JTextField("280.00", 10);
+        
+        // Add fields to form panel
+        addFormField(formPanel, "Cinema:", cinemaComboBox);
+        addFormField(formPanel, "From Date (YYYY-MM-DD):", startDateField);
+        addFormField(formPanel, "To Date (YYYY-MM-DD):", endDateField);
+        addFormField(formPanel, "Daily Times (HH:mm, comma-separated):", timesField);
+        addFormField(formPanel, "Standard Seat Price:", standardPriceField);
+        addFormField(formPanel, "Deluxe Seat Price:", deluxePriceField);
+        
+        // Create buttons panel
+        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton cancelButton = new JButton("Cancel");
+        JButton scheduleButton = new JButton("Schedule");
+        
+        cancelButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                dialog.dispose();
+            }
+        });
+        
+        scheduleButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (cinemaComboBox.getSelectedItem() == null) {
+                    JOptionPane.showMessageDialog(dialog,
+                        "Please select a cinema.",
+                        "Validation Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                // Parse prices
+                double standardPrice, deluxePrice;
+                try {
+                    standardPrice = Double.parseDouble(standardPriceField.getText().trim());
+                    deluxePrice = Double.parseDouble(deluxePriceField.getText().trim());
+                    
+                    if (standardPrice <= 0 || deluxePrice <= 0) {
+                        throw new NumberFormatException();
+                    }
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(dialog,
+                        "Prices must be positive numbers.",
+                        "Validation Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                // Parse dates
+                LocalDate startDate, endDate;
+                try {
+                    startDate = LocalDate.parse(startDateField.getText().trim());
+                    endDate = LocalDate.parse(endDateField.getText().trim());
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(dialog,
+                        "Invalid date format. Please use YYYY-MM-DD.",
+                        "Validation Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                if (startDate.isBefore(LocalDate.now()) || endDate.isBefore(startDate)) {
+                    JOptionPane.showMessageDialog(dialog,
+                        "The date range must start today or later and end on or after its first day.",
+                        "Validation Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                // Parse times
+                List<LocalTime> times = new ArrayList<>();
+                try {
+                    for (String part : timesField.getText().split(",")) {
+                        if (!part.trim().isEmpty()) {
+                            times.add(LocalTime.parse(part.trim(), DateTimeFormatter.ofPattern("H:mm")));
+                        }
+                    }
+                } catch (Exception ex) {
+                    times.clear();
+                }
+                
+                if (times.isEmpty()) {
+                    JOptionPane.showMessageDialog(dialog,
+                        "Please enter one or more times in HH:mm format, separated by commas.",
+                        "Validation Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                Cinema selectedCinema = (Cinema) cinemaComboBox.getSelectedItem();
+                int movieId = selectedMovie.getId();
+                int cinemaId = selectedCinema.getId();
+                scheduleButton.setEnabled(false);
+                AsyncExecutor.onEdt(
+                    AsyncExecutor.getInstance().submit("screenings.scheduleRecurring",
+                        () -> screeningController.scheduleRecurringScreenings(
+                            movieId,
+                            cinemaId,
+                            times,
+                            startDate,
+                            endDate,
+                            standardPrice,
+                            deluxePrice
+                        )),
+                    result -> {
+                        scheduleButton.setEnabled(true);
+                        if (result != null) {
+                            refreshScreeningsTable();
+                            dialog.dispose();
+                            
+                            JOptionPane.showMessageDialog(mainFrame,
+                                String.format("Created %d screening(s) with %d seat(s) on sale.%n" +
+                                              "Skipped %d time(s) already taken in this cinema.%n" +
+                                              "Took %d ms (%.0f rows/s).",
+                                              result.getScreeningsCreated(), result.getSeatCount(),
+                                              result.getSkippedScreenings(), result.getElapsedMillis(),
+                                              result.getRowsPerSecond()),
+                                "Success",
+                                JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(dialog,
+                                "Failed to schedule screenings. No screenings were created.",
+                                "Error",
+                                JOptionPane.ERROR_MESSAGE);
+                        }
+                    },
+                    error -> {
+                        scheduleButton.setEnabled(true);
+                        error.printStackTrace();
+                        JOptionPane.showMessageDialog(dialog,
+                            "Failed to schedule screenings. No screenings were created.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    });
+            }
+        });
+        
+        buttonsPanel.add(cancelButton);
+        buttonsPanel.add(scheduleButton);
+        
+        // Add panels to dialog
+        dialog.add(formPanel, BorderLayout.CENTER);
+        dialog.add(buttonsPanel, BorderLayout.SOUTH);
+        
+        // Show dialog
+        dialog.setVisible(true);
+    }
+    
     /**
      * Helper method to add a form field with label to a panel.
      *
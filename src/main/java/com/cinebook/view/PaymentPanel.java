@@ -1,8 +1,10 @@
 package com.cinebook.view;
 
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.PaymentController;
 import com.cinebook.controller.ReservationController;
 import com.cinebook.controller.UserController;
+import com.cinebook.model.BookingConfirmation;
 import com.cinebook.model.Concession;
 import com.cinebook.model.PaymentMethod;
 import com.cinebook.model.Reservation;
@@ -16,6 +18,9 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Panel for processing payment for a reservation.
@@ -24,7 +29,9 @@ public class PaymentPanel extends JPanel {
     private MainFrame mainFrame;
     private UserController userController;
     private ReservationController reservationController;
+    private SeatHoldKeepAlive seatHoldKeepAlive;
     private PaymentController paymentController;
+    private String checkoutKey; // Sent with every submission of this checkout so a repeat is not charged twice
     
     // UI Components
     private JPanel orderSummaryPanel;
@@ -48,11 +55,14 @@ public class PaymentPanel extends JPanel {
      *
      * @param mainFrame The parent MainFrame
      * @param userController The UserController instance
+     * @param reservationController The ReservationController holding the current booking
      */
-    public PaymentPanel(MainFrame mainFrame, UserController userController) {
+    public PaymentPanel(MainFrame mainFrame, UserController userController,
+                        ReservationController reservationController) {
         this.mainFrame = mainFrame;
         this.userController = userController;
-        this.reservationController = new ReservationController();
+        this.reservationController = reservationController;
+        this.seatHoldKeepAlive = new SeatHoldKeepAlive(this, mainFrame, reservationController);
         this.paymentController = new PaymentController();
         
         // Setup panel properties
@@ -417,6 +427,12 @@ public class PaymentPanel extends JPanel {
             return;
         }
         
+        // One key per checkout; double clicks and retries resubmit the same key
+        checkoutKey = UUID.randomUUID().toString();
+        
+        // Keep the selected seats held while the customer enters payment details
+        seatHoldKeepAlive.start();
+        
         // Clear table
         tableModel.setRowCount(0);
         
@@ -493,74 +509,60 @@ public class PaymentPanel extends JPanel {
             progressDialog.setSize(300, 100);
             progressDialog.setLocationRelativeTo(mainFrame);
             
-            // Process payment in a separate thread to allow progress dialog to show
-            new Thread(() -> {
-                try {
+            // The hold is confirmed or released by checkout from here on
+            seatHoldKeepAlive.stop();
+            
+            // Process payment in the background to allow progress dialog to show
+            CompletableFuture<BookingConfirmation> checkout =
+                AsyncExecutor.getInstance().submit("reservations.checkout", () -> {
                     // Simulate payment processing delay
                     Thread.sleep(1500);
                     
-                    // Finalize the reservation
-                    int reservationId = reservationController.completeReservation();
+                    // Save the reservation, payment and tickets in one transaction
+                    return reservationController.checkout(paymentMethod, checkoutKey);
+                });
+            
+            AsyncExecutor.onEdt(checkout, confirmation -> {
+                progressDialog.dispose();
+                
+                if (confirmation != null) {
+                    // Show success message
+                    JOptionPane.showMessageDialog(mainFrame,
+                        "Payment successful! " + confirmation.getTickets().size() +
+                        " ticket(s) have been generated.",
+                        "Payment Success",
+                        JOptionPane.INFORMATION_MESSAGE);
                     
-                    if (reservationId > 0) {
-                        // Process payment
-                        int paymentId = paymentController.processPayment(reservationId, paymentMethod);
-                        
-                        if (paymentId > 0) {
-                            // Generate tickets
-                            int ticketsGenerated = reservationController.generateTickets(reservationId);
-                            
-                            SwingUtilities.invokeLater(() -> {
-                                progressDialog.dispose();
-                                
-                                if (ticketsGenerated > 0) {
-                                    // Show success message
-                                    JOptionPane.showMessageDialog(mainFrame,
-                                        "Payment successful! " + ticketsGenerated + " ticket(s) have been generated.",
-                                        "Payment Success",
-                                        JOptionPane.INFORMATION_MESSAGE);
-                                    
-                                    // Navigate to confirmation screen
-                                    mainFrame.getConfirmationPanel().initialize(reservationId);
-                                    mainFrame.navigateTo(MainFrame.CONFIRMATION_PANEL);
-                                } else {
-                                    JOptionPane.showMessageDialog(mainFrame,
-                                        "Payment successful but failed to generate tickets. Please contact support.",
-                                        "Partial Success",
-                                        JOptionPane.WARNING_MESSAGE);
-                                    
-                                    mainFrame.navigateTo(MainFrame.MOVIE_LISTING_PANEL);
-                                }
-                            });
-                        } else {
-                            SwingUtilities.invokeLater(() -> {
-                                progressDialog.dispose();
-                                JOptionPane.showMessageDialog(mainFrame,
-                                    "Payment processing failed. Please try again.",
-                                    "Payment Error",
-                                    JOptionPane.ERROR_MESSAGE);
-                            });
-                        }
-                    } else {
-                        SwingUtilities.invokeLater(() -> {
-                            progressDialog.dispose();
-                            JOptionPane.showMessageDialog(mainFrame,
-                                "Failed to complete the reservation. Please try again.",
-                                "Reservation Error",
-                                JOptionPane.ERROR_MESSAGE);
-                        });
-                    }
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    SwingUtilities.invokeLater(() -> {
-                        progressDialog.dispose();
-                        JOptionPane.showMessageDialog(mainFrame,
-                            "Payment processing was interrupted. Please try again.",
-                            "Payment Error",
-                            JOptionPane.ERROR_MESSAGE);
-                    });
+                    // Navigate to confirmation screen
+                    mainFrame.getConfirmationPanel().initialize(confirmation);
+                    mainFrame.navigateTo(MainFrame.CONFIRMATION_PANEL);
+                } else if (reservationController.needsSeatSelection()) {
+                    // The hold expired and the seats were released; paying again would book seats we no longer hold
+                    JOptionPane.showMessageDialog(mainFrame,
+                        "Your seats were held for too long and have been released. Your payment was not taken. " +
+                        "Please select your seats again.",
+                        "Seat Hold Expired",
+                        JOptionPane.ERROR_MESSAGE);
+                    mainFrame.getSeatSelectionPanel().refreshSeatMap();
+                    mainFrame.navigateTo(MainFrame.SEAT_SELECTION_PANEL);
+                } else {
+                    JOptionPane.showMessageDialog(mainFrame,
+                        "Failed to complete the reservation. Your payment was not taken. Please try again.",
+                        "Reservation Error",
+                        JOptionPane.ERROR_MESSAGE);
                 }
-            }).start();
+            }, error -> {
+                error.printStackTrace();
+                progressDialog.dispose();
+                // Submitting again reuses the checkout key, so a checkout that did go through is not repeated
+                JOptionPane.showMessageDialog(mainFrame,
+                    error instanceof TimeoutException
+                        ? "Payment processing is taking longer than expected. Please try again; " +
+                          "you will not be charged twice."
+                        : "Payment processing was interrupted. Please try again.",
+                    "Payment Error",
+                    JOptionPane.ERROR_MESSAGE);
+            });
             
             progressDialog.setVisible(true);
         }
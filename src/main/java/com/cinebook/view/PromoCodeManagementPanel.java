@@ -1,5 +1,6 @@
 package com.cinebook.view;
 
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.PromoCodeController;
 import com.cinebook.model.PromoCode;
 import com.cinebook.model.PromoCode.DiscountType;
@@ -14,6 +15,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Panel for managing promo codes.
@@ -43,6 +45,7 @@ public class PromoCodeManagementPanel extends JPanel {
     private JButton clearButton;
     
     private int selectedPromoCodeId = -1;
+    private CompletableFuture<PromoCode> pendingDetails;
     
     /**
      * Constructor for PromoCodeManagementPanel.
@@ -98,8 +101,6 @@ public class PromoCodeManagementPanel extends JPanel {
                 if (selectedRow != -1) {
                     selectedPromoCodeId = (int) tableModel.getValueAt(selectedRow, 0);
                     loadPromoCodeDetails(selectedPromoCodeId);
-                    updateButton.setEnabled(true);
-                    deleteButton.setEnabled(true);
                 } else {
                     clearFields();
                 }
@@ -264,12 +265,27 @@ public class PromoCodeManagementPanel extends JPanel {
      * Load all promo codes from the database and populate the table.
      */
     private void loadPromoCodes() {
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("promoCodes.all", promoCodeController::getAllPromoCodes),
+            this::showPromoCodes,
+            error -> {
+                error.printStackTrace();
+                JOptionPane.showMessageDialog(this,
+                    "Could not load the promo codes. Please try again.",
+                    "Loading Error",
+                    JOptionPane.ERROR_MESSAGE);
+            });
+    }
+    
+    /**
+     * Replace the rows of the table with the given promo codes.
+     *
+     * @param promoCodes The promo codes to show
+     */
+    private void showPromoCodes(List<PromoCode> promoCodes) {
         // Clear the table
         tableModel.setRowCount(0);
         
-        // Get all promo codes
-        List<PromoCode> promoCodes = promoCodeController.getAllPromoCodes();
-        
         // Add to table
         for (PromoCode promoCode : promoCodes) {
             Object[] rowData = new Object[9];
@@ -298,8 +314,33 @@ public class PromoCodeManagementPanel extends JPanel {
      * @param id The ID of the promo code to load
      */
     private void loadPromoCodeDetails(int id) {
-        PromoCode promoCode = promoCodeController.getPromoCodeById(id);
+        if (pendingDetails != null) {
+            pendingDetails.cancel(true);
+        }
         
+        updateButton.setEnabled(false);
+        deleteButton.setEnabled(false);
+        pendingDetails = AsyncExecutor.getInstance().submit("promoCodes.byId",
+            () -> promoCodeController.getPromoCodeById(id));
+        AsyncExecutor.onEdt(pendingDetails, promoCode -> {
+            if (id == selectedPromoCodeId) {
+                showPromoCodeDetails(promoCode);
+            }
+        }, error -> {
+            error.printStackTrace();
+            JOptionPane.showMessageDialog(this,
+                "Could not load the promo code. Please try again.",
+                "Loading Error",
+                JOptionPane.ERROR_MESSAGE);
+        });
+    }
+    
+    /**
+     * Fill the form fields with the details of a promo code.
+     *
+     * @param promoCode The promo code to show, or null if it no longer exists
+     */
+    private void showPromoCodeDetails(PromoCode promoCode) {
         if (promoCode != null) {
             codeField.setText(promoCode.getCode());
             descriptionField.setText(promoCode.getDescription());
@@ -316,6 +357,8 @@ public class PromoCodeManagementPanel extends JPanel {
             
             minPurchaseAmountField.setText(String.valueOf(promoCode.getMinPurchaseAmount()));
             isActiveCheckBox.setSelected(promoCode.isActive());
+            updateButton.setEnabled(true);
+            deleteButton.setEnabled(true);
         }
     }
     
@@ -323,6 +366,11 @@ public class PromoCodeManagementPanel extends JPanel {
      * Clear the form fields and reset the selection.
      */
     private void clearFields() {
+        if (pendingDetails != null) {
+            pendingDetails.cancel(true);
+            pendingDetails = null;
+        }
+        
         selectedPromoCodeId = -1;
         codeField.setText("");
         descriptionField.setText("");
@@ -446,16 +494,26 @@ public class PromoCodeManagementPanel extends JPanel {
         String maxUses = maxUsesField.getText().trim();
         double minPurchaseAmount = Double.parseDouble(minPurchaseAmountField.getText().trim());
         
-        int id = promoCodeController.addPromoCode(code, description, discountType, discountAmount, 
-                                           validFrom, validUntil, maxUses, minPurchaseAmount);
-        
-        if (id != -1) {
-            JOptionPane.showMessageDialog(mainFrame, "Promo code added successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadPromoCodes();
-            clearFields();
-        } else {
-            JOptionPane.showMessageDialog(mainFrame, "Failed to add promo code. Please check your inputs and try again.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        addButton.setEnabled(false);
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("promoCodes.add",
+                () -> promoCodeController.addPromoCode(code, description, discountType, discountAmount, 
+                                                       validFrom, validUntil, maxUses, minPurchaseAmount)),
+            id -> {
+                addButton.setEnabled(true);
+                if (id != -1) {
+                    JOptionPane.showMessageDialog(mainFrame, "Promo code added successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    loadPromoCodes();
+                    clearFields();
+                } else {
+                    JOptionPane.showMessageDialog(mainFrame, "Failed to add promo code. Please check your inputs and try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            },
+            error -> {
+                addButton.setEnabled(true);
+                error.printStackTrace();
+                JOptionPane.showMessageDialog(mainFrame, "Failed to add promo code. Please check your inputs and try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
     }
     
     /**
@@ -480,25 +538,37 @@ public class PromoCodeManagementPanel extends JPanel {
         String maxUses = maxUsesField.getText().trim();
         double minPurchaseAmount = Double.parseDouble(minPurchaseAmountField.getText().trim());
         boolean isActive = isActiveCheckBox.isSelected();
+        int promoCodeId = selectedPromoCodeId;
         
-        // Get current promo code to preserve current usage count
-        PromoCode currentPromoCode = promoCodeController.getPromoCodeById(selectedPromoCodeId);
-        int currentUses = 0;
-        if (currentPromoCode != null) {
-            currentUses = currentPromoCode.getCurrentUses();
-        }
-        
-        boolean success = promoCodeController.updatePromoCode(selectedPromoCodeId, code, description, 
-                                                     discountType, discountAmount, validFrom, validUntil, 
-                                                     maxUses, currentUses, minPurchaseAmount, isActive);
-        
-        if (success) {
-            JOptionPane.showMessageDialog(mainFrame, "Promo code updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadPromoCodes();
-            clearFields();
-        } else {
-            JOptionPane.showMessageDialog(mainFrame, "Failed to update promo code. Please check your inputs and try again.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        updateButton.setEnabled(false);
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("promoCodes.update", () -> {
+                // Get current promo code to preserve current usage count
+                PromoCode currentPromoCode = promoCodeController.getPromoCodeById(promoCodeId);
+                int currentUses = 0;
+                if (currentPromoCode != null) {
+                    currentUses = currentPromoCode.getCurrentUses();
+                }
+                
+                return promoCodeController.updatePromoCode(promoCodeId, code, description, 
+                                                           discountType, discountAmount, validFrom, validUntil, 
+                                                           maxUses, currentUses, minPurchaseAmount, isActive);
+            }),
+            success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(mainFrame, "Promo code updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    loadPromoCodes();
+                    clearFields();
+                } else {
+                    updateButton.setEnabled(promoCodeId == selectedPromoCodeId);
+                    JOptionPane.showMessageDialog(mainFrame, "Failed to update promo code. Please check your inputs and try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            },
+            error -> {
+                updateButton.setEnabled(promoCodeId == selectedPromoCodeId);
+                error.printStackTrace();
+                JOptionPane.showMessageDialog(mainFrame, "Failed to update promo code. Please check your inputs and try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
     }
     
     /**
@@ -516,15 +586,26 @@ public class PromoCodeManagementPanel extends JPanel {
                                                  JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean success = promoCodeController.deletePromoCode(selectedPromoCodeId);
-            
-            if (success) {
-                JOptionPane.showMessageDialog(mainFrame, "Promo code deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadPromoCodes();
-                clearFields();
-            } else {
-                JOptionPane.showMessageDialog(mainFrame, "Failed to delete promo code.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            int promoCodeId = selectedPromoCodeId;
+            deleteButton.setEnabled(false);
+            AsyncExecutor.onEdt(
+                AsyncExecutor.getInstance().submit("promoCodes.delete",
+                    () -> promoCodeController.deletePromoCode(promoCodeId)),
+                success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(mainFrame, "Promo code deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        loadPromoCodes();
+                        clearFields();
+                    } else {
+                        deleteButton.setEnabled(promoCodeId == selectedPromoCodeId);
+                        JOptionPane.showMessageDialog(mainFrame, "Failed to delete promo code.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                },
+                error -> {
+                    deleteButton.setEnabled(promoCodeId == selectedPromoCodeId);
+                    error.printStackTrace();
+                    JOptionPane.showMessageDialog(mainFrame, "Failed to delete promo code.", "Error", JOptionPane.ERROR_MESSAGE);
+                });
         }
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.cinebook.view;
 
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.UserController;
 
 import javax.swing.*;
@@ -182,22 +183,36 @@ public class RegisterPanel extends JPanel {
                 }
                 
                 // Register user
-                boolean success = userController.registerUser(username, password, email, phone, fullName, false);
-                
-                if (success) {
-                    JOptionPane.showMessageDialog(mainFrame,
-                        "Registration successful! You can now log in with your credentials.",
-                        "Registration Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                    
-                    clearFields();
-                    mainFrame.navigateTo(MainFrame.LOGIN_PANEL);
-                } else {
-                    JOptionPane.showMessageDialog(mainFrame,
-                        "Registration failed. Username or email may already be in use.",
-                        "Registration Error",
-                        JOptionPane.ERROR_MESSAGE);
-                }
+                registerButton.setEnabled(false);
+                AsyncExecutor.onEdt(
+                    AsyncExecutor.getInstance().submit("users.register",
+                        () -> userController.registerUser(username, password, email, phone, fullName, false)),
+                    success -> {
+                        registerButton.setEnabled(true);
+                        
+                        if (success) {
+                            JOptionPane.showMessageDialog(mainFrame,
+                                "Registration successful! You can now log in with your credentials.",
+                                "Registration Success",
+                                JOptionPane.INFORMATION_MESSAGE);
+                            
+                            clearFields();
+                            mainFrame.navigateTo(MainFrame.LOGIN_PANEL);
+                        } else {
+                            JOptionPane.showMessageDialog(mainFrame,
+                                "Registration failed. Username or email may already be in use.",
+                                "Registration Error",
+                                JOptionPane.ERROR_MESSAGE);
+                        }
+                    },
+                    error -> {
+                        registerButton.setEnabled(true);
+                        error.printStackTrace();
+                        JOptionPane.showMessageDialog(mainFrame,
+                            "The database could not be reached. Please try again.",
+                            "Registration Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    });
             }
         });
         
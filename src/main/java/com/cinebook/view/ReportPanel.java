@@ -1,8 +1,16 @@
 package com.cinebook.view;
 
 import com.cinebook.controller.AdminController;
+import com.cinebook.controller.AsyncExecutor;
+import com.cinebook.model.AnalyticsDimension;
+import com.cinebook.model.AnalyticsQuery;
+import com.cinebook.model.AnalyticsRow;
+import com.cinebook.model.ExportDataset;
+import com.cinebook.model.ExportFormat;
+import com.cinebook.model.ExportResult;
 import com.cinebook.model.Payment;
-import com.cinebook.model.Reservation;
+import com.cinebook.model.SalesAggregate;
+import com.cinebook.model.SalesSummary;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -11,10 +19,17 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 /**
  * Panel for displaying reports and analytics in the admin dashboard.
@@ -34,14 +49,25 @@ public class ReportPanel extends JPanel {
     private JComboBox<Integer> yearComboBox;
     private JComboBox<String> monthComboBox;
     
+    // Analysis components
+    private final List<JComboBox<Object>> dimensionComboBoxes = new ArrayList<>();
+    
     // Tables
     private JTable revenueTable;
     private DefaultTableModel revenueTableModel;
+    private JTable aggregateTable;
+    private DefaultTableModel aggregateTableModel;
+    private JTable analyticsTable;
+    private DefaultTableModel analyticsTableModel;
     private JTable reservationsTable;
-    private DefaultTableModel reservationsTableModel;
+    private ReservationTableModel reservationsTableModel;
     
     // Data formatter
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private CompletableFuture<?> pendingReport; // Report query still running
+    
+    // A rollup rebuild reads the whole payment history
+    private static final long REBUILD_TIMEOUT_MILLIS = 10 * 60 * 1000L;
     
     /**
      * Constructor for ReportPanel.
@@ -82,7 +108,8 @@ public class ReportPanel extends JPanel {
         String[] reportTypes = {
             "Daily Revenue", "Weekly Revenue", "Monthly Revenue",
             "Revenue by Movie", "Revenue by Cinema", "Ticket Sales",
-            "Recent Reservations"
+            "Revenue by Hour", "Revenue by Weekday", "Tickets by Seat Type", "Concession Sales",
+            "Ad-hoc Analysis", "Recent Reservations"
         };
         
         reportTypeComboBox = new JComboBox<>(reportTypes);
@@ -96,6 +123,16 @@ public class ReportPanel extends JPanel {
         
         reportTypePanel.add(reportTypeComboBox);
         
+        JButton rebuildButton = new JButton("Rebuild Sales Rollups");
+        rebuildButton.setToolTipText("Regenerate the daily sales totals from the payment history");
+        rebuildButton.addActionListener(e -> rebuildSalesRollups(rebuildButton));
+        reportTypePanel.add(rebuildButton);
+        
+        JButton exportButton = new JButton("Export...");
+        exportButton.setToolTipText("Export reservations, payments or tickets to CSV or Excel");
+        exportButton.addActionListener(e -> exportReport(exportButton));
+        reportTypePanel.add(exportButton);
+        
         // Filter panel (dynamic based on report type)
         filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         
@@ -135,15 +172,34 @@ public class ReportPanel extends JPanel {
         revenueTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         revenueTable.getTableHeader().setReorderingAllowed(false);
         
-        // Reservations table
-        String[] reservationsColumns = {"ID", "User", "Movie", "Cinema", "Date", "Time", "Seats", "Total Amount", "Status"};
-        reservationsTableModel = new DefaultTableModel(reservationsColumns, 0) {
+        // Grouped sales table; the columns are set per report
+        aggregateTableModel = new DefaultTableModel(0, 4) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        
+        aggregateTable = new JTable(aggregateTableModel);
+        aggregateTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        aggregateTable.getTableHeader().setReorderingAllowed(false);
+        
+        // Analysis table; the columns are set per query
+        analyticsTableModel = new DefaultTableModel(0, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
             }
         };
         
+        analyticsTable = new JTable(analyticsTableModel);
+        analyticsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        analyticsTable.getTableHeader().setReorderingAllowed(false);
+        analyticsTable.setAutoCreateRowSorter(true);
+        
+        // Reservations table
+        reservationsTableModel = new ReservationTableModel(adminController);
+        
         reservationsTable = new JTable(reservationsTableModel);
         reservationsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         reservationsTable.getTableHeader().setReorderingAllowed(false);
@@ -171,6 +227,10 @@ public class ReportPanel extends JPanel {
                    selectedReportType.equals("Revenue by Movie") || 
                    selectedReportType.equals("Revenue by Cinema") ||
                    selectedReportType.equals("Ticket Sales") ||
+                   selectedReportType.equals("Revenue by Hour") ||
+                   selectedReportType.equals("Revenue by Weekday") ||
+                   selectedReportType.equals("Tickets by Seat Type") ||
+                   selectedReportType.equals("Concession Sales") ||
                    selectedReportType.equals("Recent Reservations")) {
             // Date range selector
             filterPanel.add(new JLabel("Start Date:"));
@@ -183,6 +243,37 @@ public class ReportPanel extends JPanel {
             endDateField.setText(LocalDate.now().format(dateFormatter));
             filterPanel.add(endDateField);
             
+            JButton generateButton = new JButton("Generate Report");
+            generateButton.addActionListener(e -> generateReport());
+            filterPanel.add(generateButton);
+        } else if (selectedReportType.equals("Ad-hoc Analysis")) {
+            // Screening date range and up to three dimensions to group by
+            filterPanel.add(new JLabel("Start Date:"));
+            startDateField = new JTextField(10);
+            startDateField.setText(LocalDate.now().minusDays(30).format(dateFormatter));
+            filterPanel.add(startDateField);
+            
+            filterPanel.add(new JLabel("End Date:"));
+            endDateField = new JTextField(10);
+            endDateField.setText(LocalDate.now().format(dateFormatter));
+            filterPanel.add(endDateField);
+            
+            filterPanel.add(new JLabel("Group by:"));
+            dimensionComboBoxes.clear();
+            AnalyticsDimension[] defaults = {
+                AnalyticsDimension.MOVIE, AnalyticsDimension.CINEMA, AnalyticsDimension.HOUR_OF_DAY
+            };
+            for (AnalyticsDimension dimension : defaults) {
+                JComboBox<Object> comboBox = new JComboBox<>();
+                comboBox.addItem("(none)");
+                for (AnalyticsDimension option : AnalyticsDimension.values()) {
+                    comboBox.addItem(option);
+                }
+                comboBox.setSelectedItem(dimension);
+                dimensionComboBoxes.add(comboBox);
+                filterPanel.add(comboBox);
+            }
+            
             JButton generateButton = new JButton("Generate Report");
             generateButton.addActionListener(e -> generateReport());
             filterPanel.add(generateButton);
@@ -239,6 +330,25 @@ public class ReportPanel extends JPanel {
             case "Ticket Sales":
                 showTicketSalesReport();
                 break;
+            case "Revenue by Hour":
+                showSalesAggregateReport("Revenue by Hour", "reports.salesByHour", "Hour", "Tickets",
+                                         adminController::getSalesByHour);
+                break;
+            case "Revenue by Weekday":
+                showSalesAggregateReport("Revenue by Weekday", "reports.salesByWeekday", "Weekday", "Tickets",
+                                         adminController::getSalesByWeekday);
+                break;
+            case "Tickets by Seat Type":
+                showSalesAggregateReport("Tickets by Seat Type", "reports.salesBySeatType", "Seat Type", "Tickets",
+                                         adminController::getSalesBySeatType);
+                break;
+            case "Concession Sales":
+                showSalesAggregateReport("Concession Sales", "reports.salesByConcession", "Concession", "Items",
+                                         adminController::getSalesByConcession);
+                break;
+            case "Ad-hoc Analysis":
+                showAnalyticsReport();
+                break;
             case "Recent Reservations":
                 showRecentReservationsReport();
                 break;
@@ -251,27 +361,27 @@ public class ReportPanel extends JPanel {
     private void showDailyRevenueReport() {
         // Get data
         String date = startDateField.getText();
-        double totalSales = adminController.getDailySalesReport(date);
-        
-        // Clear and update table
-        revenueTableModel.setRowCount(0);
-        revenueTableModel.addRow(new Object[]{"Total Sales", String.format("₱%.2f", totalSales)});
-        
-        // Set content
-        JScrollPane scrollPane = new JScrollPane(revenueTable);
-        
-        // Summary panel
-        JPanel summaryPanel = new JPanel(new BorderLayout());
-        JLabel summaryLabel = new JLabel("Daily Revenue Report for " + date);
-        summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
-        summaryPanel.add(summaryLabel, BorderLayout.NORTH);
-        
-        // Update content panel
-        reportContentPanel.removeAll();
-        reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
-        reportContentPanel.add(scrollPane, BorderLayout.CENTER);
-        reportContentPanel.revalidate();
-        reportContentPanel.repaint();
+        loadReport("reports.dailySales", () -> adminController.getSalesSummary(date, date), summary -> {
+            // Clear and update table
+            revenueTableModel.setRowCount(0);
+            addSalesSummaryRows(summary);
+            
+            // Set content
+            JScrollPane scrollPane = new JScrollPane(revenueTable);
+            
+            // Summary panel
+            JPanel summaryPanel = new JPanel(new BorderLayout());
+            JLabel summaryLabel = new JLabel("Daily Revenue Report for " + date);
+            summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
+            summaryPanel.add(summaryLabel, BorderLayout.NORTH);
+            
+            // Update content panel
+            reportContentPanel.removeAll();
+            reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
+            reportContentPanel.add(scrollPane, BorderLayout.CENTER);
+            reportContentPanel.revalidate();
+            reportContentPanel.repaint();
+        });
     }
     
     /**
@@ -281,27 +391,27 @@ public class ReportPanel extends JPanel {
         // Get data
         String startDate = startDateField.getText();
         String endDate = endDateField.getText();
-        double totalSales = adminController.getWeeklySalesReport(startDate, endDate);
-        
-        // Clear and update table
-        revenueTableModel.setRowCount(0);
-        revenueTableModel.addRow(new Object[]{"Total Sales", String.format("₱%.2f", totalSales)});
-        
-        // Set content
-        JScrollPane scrollPane = new JScrollPane(revenueTable);
-        
-        // Summary panel
-        JPanel summaryPanel = new JPanel(new BorderLayout());
-        JLabel summaryLabel = new JLabel("Revenue Report from " + startDate + " to " + endDate);
-        summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
-        summaryPanel.add(summaryLabel, BorderLayout.NORTH);
-        
-        // Update content panel
-        reportContentPanel.removeAll();
-        reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
-        reportContentPanel.add(scrollPane, BorderLayout.CENTER);
-        reportContentPanel.revalidate();
-        reportContentPanel.repaint();
+        loadReport("reports.weeklySales", () -> adminController.getSalesSummary(startDate, endDate), summary -> {
+            // Clear and update table
+            revenueTableModel.setRowCount(0);
+            addSalesSummaryRows(summary);
+            
+            // Set content
+            JScrollPane scrollPane = new JScrollPane(revenueTable);
+            
+            // Summary panel
+            JPanel summaryPanel = new JPanel(new BorderLayout());
+            JLabel summaryLabel = new JLabel("Revenue Report from " + startDate + " to " + endDate);
+            summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
+            summaryPanel.add(summaryLabel, BorderLayout.NORTH);
+            
+            // Update content panel
+            reportContentPanel.removeAll();
+            reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
+            reportContentPanel.add(scrollPane, BorderLayout.CENTER);
+            reportContentPanel.revalidate();
+            reportContentPanel.repaint();
+        });
     }
     
     /**
@@ -312,28 +422,50 @@ public class ReportPanel extends JPanel {
         int year = (Integer) yearComboBox.getSelectedItem();
         int month = monthComboBox.getSelectedIndex() + 1;
         String monthName = (String) monthComboBox.getSelectedItem();
+        LocalDate firstDay = LocalDate.of(year, month, 1);
+        String startDate = firstDay.format(dateFormatter);
+        String endDate = firstDay.plusMonths(1).minusDays(1).format(dateFormatter);
+        
+        loadReport("reports.monthlySales", () -> adminController.getSalesSummary(startDate, endDate), summary -> {
+            // Clear and update table
+            revenueTableModel.setRowCount(0);
+            addSalesSummaryRows(summary);
+            
+            // Set content
+            JScrollPane scrollPane = new JScrollPane(revenueTable);
+            
+            // Summary panel
+            JPanel summaryPanel = new JPanel(new BorderLayout());
+            JLabel summaryLabel = new JLabel("Monthly Revenue Report for " + monthName + " " + year);
+            summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
+            summaryPanel.add(summaryLabel, BorderLayout.NORTH);
+            
+            // Update content panel
+            reportContentPanel.removeAll();
+            reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
+            reportContentPanel.add(scrollPane, BorderLayout.CENTER);
+            reportContentPanel.revalidate();
+            reportContentPanel.repaint();
+        });
+    }
+    
+    /**
+     * Fills the revenue table with the rows of a sales summary.
+     *
+     * @param summary The sales totals, or null if they could not be read
+     */
+    private void addSalesSummaryRows(SalesSummary summary) {
+        if (summary == null) {
+            revenueTableModel.addRow(new Object[]{"Total Sales", "Not available"});
+            return;
+        }
         
-        double totalSales = adminController.getMonthlySalesReport(year, month);
-        
-        // Clear and update table
-        revenueTableModel.setRowCount(0);
-        revenueTableModel.addRow(new Object[]{"Total Sales", String.format("₱%.2f", totalSales)});
-        
-        // Set content
-        JScrollPane scrollPane = new JScrollPane(revenueTable);
-        
-        // Summary panel
-        JPanel summaryPanel = new JPanel(new BorderLayout());
-        JLabel summaryLabel = new JLabel("Monthly Revenue Report for " + monthName + " " + year);
-        summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
-        summaryPanel.add(summaryLabel, BorderLayout.NORTH);
-        
-        // Update content panel
-        reportContentPanel.removeAll();
-        reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
-        reportContentPanel.add(scrollPane, BorderLayout.CENTER);
-        reportContentPanel.revalidate();
-        reportContentPanel.repaint();
+        revenueTableModel.addRow(new Object[]{"Reservations", summary.getReservationCount()});
+        revenueTableModel.addRow(new Object[]{"Tickets Sold", summary.getTicketCount()});
+        revenueTableModel.addRow(new Object[]{"Concessions", String.format("₱%.2f", summary.getConcessions())});
+        revenueTableModel.addRow(new Object[]{"Refunds", String.format("₱%.2f", summary.getRefunds())});
+        revenueTableModel.addRow(new Object[]{"", ""});
+        revenueTableModel.addRow(new Object[]{"Total Sales", String.format("₱%.2f", summary.getGross())});
     }
     
     /**
@@ -343,35 +475,35 @@ public class ReportPanel extends JPanel {
         // Get data
         String startDate = startDateField.getText();
         String endDate = endDateField.getText();
-        Map<String, Double> salesByMovie = adminController.getSalesByMovie(startDate, endDate);
-        
-        // Clear and update table
-        revenueTableModel.setRowCount(0);
-        
-        double totalSales = 0.0;
-        for (Map.Entry<String, Double> entry : salesByMovie.entrySet()) {
-            revenueTableModel.addRow(new Object[]{entry.getKey(), String.format("₱%.2f", entry.getValue())});
-            totalSales += entry.getValue();
-        }
-        
-        revenueTableModel.addRow(new Object[]{"", ""});
-        revenueTableModel.addRow(new Object[]{"Total", String.format("₱%.2f", totalSales)});
-        
-        // Set content
-        JScrollPane scrollPane = new JScrollPane(revenueTable);
-        
-        // Summary panel
-        JPanel summaryPanel = new JPanel(new BorderLayout());
-        JLabel summaryLabel = new JLabel("Revenue by Movie from " + startDate + " to " + endDate);
-        summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
-        summaryPanel.add(summaryLabel, BorderLayout.NORTH);
-        
-        // Update content panel
-        reportContentPanel.removeAll();
-        reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
-        reportContentPanel.add(scrollPane, BorderLayout.CENTER);
-        reportContentPanel.revalidate();
-        reportContentPanel.repaint();
+        loadReport("reports.salesByMovie", () -> adminController.getSalesByMovie(startDate, endDate), salesByMovie -> {
+            // Clear and update table
+            revenueTableModel.setRowCount(0);
+            
+            double totalSales = 0.0;
+            for (Map.Entry<String, Double> entry : salesByMovie.entrySet()) {
+                revenueTableModel.addRow(new Object[]{entry.getKey(), String.format("₱%.2f", entry.getValue())});
+                totalSales += entry.getValue();
+            }
+            
+            revenueTableModel.addRow(new Object[]{"", ""});
+            revenueTableModel.addRow(new Object[]{"Total", String.format("₱%.2f", totalSales)});
+            
+            // Set content
+            JScrollPane scrollPane = new JScrollPane(revenueTable);
+            
+            // Summary panel
+            JPanel summaryPanel = new JPanel(new BorderLayout());
+            JLabel summaryLabel = new JLabel("Revenue by Movie from " + startDate + " to " + endDate);
+            summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
+            summaryPanel.add(summaryLabel, BorderLayout.NORTH);
+            
+            // Update content panel
+            reportContentPanel.removeAll();
+            reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
+            reportContentPanel.add(scrollPane, BorderLayout.CENTER);
+            reportContentPanel.revalidate();
+            reportContentPanel.repaint();
+        });
     }
     
     /**
@@ -381,35 +513,35 @@ public class ReportPanel extends JPanel {
         // Get data
         String startDate = startDateField.getText();
         String endDate = endDateField.getText();
-        Map<String, Double> salesByCinema = adminController.getSalesByCinema(startDate, endDate);
-        
-        // Clear and update table
-        revenueTableModel.setRowCount(0);
-        
-        double totalSales = 0.0;
-        for (Map.Entry<String, Double> entry : salesByCinema.entrySet()) {
-            revenueTableModel.addRow(new Object[]{entry.getKey(), String.format("₱%.2f", entry.getValue())});
-            totalSales += entry.getValue();
-        }
-        
-        revenueTableModel.addRow(new Object[]{"", ""});
-        revenueTableModel.addRow(new Object[]{"Total", String.format("₱%.2f", totalSales)});
-        
-        // Set content
-        JScrollPane scrollPane = new JScrollPane(revenueTable);
-        
-        // Summary panel
-        JPanel summaryPanel = new JPanel(new BorderLayout());
-        JLabel summaryLabel = new JLabel("Revenue by Cinema from " + startDate + " to " + endDate);
-        summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
-        summaryPanel.add(summaryLabel, BorderLayout.NORTH);
-        
-        // Update content panel
-        reportContentPanel.removeAll();
-        reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
-        reportContentPanel.add(scrollPane, BorderLayout.CENTER);
-        reportContentPanel.revalidate();
-        reportContentPanel.repaint();
+        loadReport("reports.salesByCinema", () -> adminController.getSalesByCinema(startDate, endDate), salesByCinema -> {
+            // Clear and update table
+            revenueTableModel.setRowCount(0);
+            
+            double totalSales = 0.0;
+            for (Map.Entry<String, Double> entry : salesByCinema.entrySet()) {
+                revenueTableModel.addRow(new Object[]{entry.getKey(), String.format("₱%.2f", entry.getValue())});
+                totalSales += entry.getValue();
+            }
+            
+            revenueTableModel.addRow(new Object[]{"", ""});
+            revenueTableModel.addRow(new Object[]{"Total", String.format("₱%.2f", totalSales)});
+            
+            // Set content
+            JScrollPane scrollPane = new JScrollPane(revenueTable);
+            
+            // Summary panel
+            JPanel summaryPanel = new JPanel(new BorderLayout());
+            JLabel summaryLabel = new JLabel("Revenue by Cinema from " + startDate + " to " + endDate);
+            summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
+            summaryPanel.add(summaryLabel, BorderLayout.NORTH);
+            
+            // Update content panel
+            reportContentPanel.removeAll();
+            reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
+            reportContentPanel.add(scrollPane, BorderLayout.CENTER);
+            reportContentPanel.revalidate();
+            reportContentPanel.repaint();
+        });
     }
     
     /**
@@ -419,27 +551,140 @@ public class ReportPanel extends JPanel {
         // Get data
         String startDate = startDateField.getText();
         String endDate = endDateField.getText();
-        int ticketsSold = adminController.getTicketsSold(startDate, endDate);
-        
-        // Clear and update table
-        revenueTableModel.setRowCount(0);
-        revenueTableModel.addRow(new Object[]{"Total Tickets Sold", ticketsSold});
-        
-        // Set content
-        JScrollPane scrollPane = new JScrollPane(revenueTable);
-        
-        // Summary panel
-        JPanel summaryPanel = new JPanel(new BorderLayout());
-        JLabel summaryLabel = new JLabel("Ticket Sales Report from " + startDate + " to " + endDate);
-        summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
-        summaryPanel.add(summaryLabel, BorderLayout.NORTH);
-        
-        // Update content panel
-        reportContentPanel.removeAll();
-        reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
-        reportContentPanel.add(scrollPane, BorderLayout.CENTER);
-        reportContentPanel.revalidate();
-        reportContentPanel.repaint();
+        loadReport("reports.ticketsSold", () -> adminController.getTicketsSold(startDate, endDate), ticketsSold -> {
+            // Clear and update table
+            revenueTableModel.setRowCount(0);
+            revenueTableModel.addRow(new Object[]{"Total Tickets Sold", ticketsSold});
+            
+            // Set content
+            JScrollPane scrollPane = new JScrollPane(revenueTable);
+            
+            // Summary panel
+            JPanel summaryPanel = new JPanel(new BorderLayout());
+            JLabel summaryLabel = new JLabel("Ticket Sales Report from " + startDate + " to " + endDate);
+            summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
+            summaryPanel.add(summaryLabel, BorderLayout.NORTH);
+            
+            // Update content panel
+            reportContentPanel.removeAll();
+            reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
+            reportContentPanel.add(scrollPane, BorderLayout.CENTER);
+            reportContentPanel.revalidate();
+            reportContentPanel.repaint();
+        });
+    }
+    
+    /**
+     * Shows a report of sales grouped by one dimension, one row per group plus a total.
+     *
+     * @param title The title of the report
+     * @param taskName The name the query is counted under in the executor statistics
+     * @param groupColumn The header of the group column
+     * @param quantityColumn The header of the units sold column
+     * @param query The controller report method
+     */
+    private void showSalesAggregateReport(String title, String taskName, String groupColumn, String quantityColumn,
+                                          BiFunction<String, String, List<SalesAggregate>> query) {
+        // Get data
+        String startDate = startDateField.getText();
+        String endDate = endDateField.getText();
+        loadReport(taskName, () -> query.apply(startDate, endDate), rows -> {
+            // Clear and update table
+            aggregateTableModel.setColumnIdentifiers(new Object[]{groupColumn, "Reservations", quantityColumn, "Amount (₱)"});
+            aggregateTableModel.setRowCount(0);
+            
+            int totalReservations = 0;
+            int totalQuantity = 0;
+            double totalAmount = 0.0;
+            for (SalesAggregate row : rows) {
+                aggregateTableModel.addRow(new Object[]{row.getLabel(), row.getReservationCount(), row.getQuantity(),
+                                                        String.format("₱%.2f", row.getAmount())});
+                totalReservations += row.getReservationCount();
+                totalQuantity += row.getQuantity();
+                totalAmount += row.getAmount();
+            }
+            
+            aggregateTableModel.addRow(new Object[]{"", "", "", ""});
+            aggregateTableModel.addRow(new Object[]{"Total", totalReservations, totalQuantity,
+                                                    String.format("₱%.2f", totalAmount)});
+            
+            // Set content
+            JScrollPane scrollPane = new JScrollPane(aggregateTable);
+            
+            // Summary panel
+            JPanel summaryPanel = new JPanel(new BorderLayout());
+            JLabel summaryLabel = new JLabel(title + " from " + startDate + " to " + endDate);
+            summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
+            summaryPanel.add(summaryLabel, BorderLayout.NORTH);
+            
+            // Update content panel
+            reportContentPanel.removeAll();
+            reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
+            reportContentPanel.add(scrollPane, BorderLayout.CENTER);
+            reportContentPanel.revalidate();
+            reportContentPanel.repaint();
+        });
+    }
+    
+    /**
+     * Shows an ad-hoc analysis of screenings grouped by the selected dimensions, with their
+     * occupancy, average basket and concession attach rate.
+     */
+    private void showAnalyticsReport() {
+        // Get data
+        String startDate = startDateField.getText();
+        String endDate = endDateField.getText();
+        List<AnalyticsDimension> dimensions = new ArrayList<>();
+        for (JComboBox<Object> comboBox : dimensionComboBoxes) {
+            Object selected = comboBox.getSelectedItem();
+            if (selected instanceof AnalyticsDimension && !dimensions.contains(selected)) {
+                dimensions.add((AnalyticsDimension) selected);
+            }
+        }
+        
+        loadReport("reports.analytics", () -> adminController.runAnalytics(
+                new AnalyticsQuery(LocalDate.parse(startDate), LocalDate.parse(endDate),
+                                   dimensions.toArray(new AnalyticsDimension[0]))), rows -> {
+            // Clear and update table
+            List<Object> columns = new ArrayList<>();
+            for (AnalyticsDimension dimension : dimensions) {
+                columns.add(dimension.getDisplayName());
+            }
+            columns.addAll(Arrays.asList("Screenings", "Seats", "Tickets", "Occupancy", "Reservations",
+                                         "Avg Basket (₱)", "Attach Rate", "Gross (₱)"));
+            analyticsTableModel.setColumnIdentifiers(columns.toArray());
+            analyticsTableModel.setRowCount(0);
+            
+            for (AnalyticsRow row : rows) {
+                List<Object> values = new ArrayList<>(row.getLabels());
+                values.add(row.getScreeningCount());
+                values.add(row.getCapacity());
+                values.add(row.getTicketCount());
+                values.add(String.format("%.1f%%", row.getOccupancy() * 100));
+                values.add(row.getReservationCount());
+                values.add(String.format("₱%.2f", row.getAverageBasket()));
+                values.add(String.format("%.1f%%", row.getConcessionAttachRate() * 100));
+                values.add(String.format("₱%.2f", row.getGross()));
+                analyticsTableModel.addRow(values.toArray());
+            }
+            
+            // Set content
+            JScrollPane scrollPane = new JScrollPane(analyticsTable);
+            
+            // Summary panel
+            JPanel summaryPanel = new JPanel(new BorderLayout());
+            JLabel summaryLabel = new JLabel("Screenings from " + startDate + " to " + endDate +
+                                             (dimensions.isEmpty() ? "" : " by " + dimensions));
+            summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
+            summaryPanel.add(summaryLabel, BorderLayout.NORTH);
+            
+            // Update content panel
+            reportContentPanel.removeAll();
+            reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
+            reportContentPanel.add(scrollPane, BorderLayout.CENTER);
+            reportContentPanel.revalidate();
+            reportContentPanel.repaint();
+        });
     }
     
     /**
@@ -449,47 +694,220 @@ public class ReportPanel extends JPanel {
         // Get data
         String startDate = startDateField.getText();
         String endDate = endDateField.getText();
-        List<Reservation> reservations = adminController.getReservationsByDateRange(startDate, endDate);
-        
-        // Clear and update table
-        reservationsTableModel.setRowCount(0);
-        
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-        
-        for (Reservation reservation : reservations) {
-            String date = reservation.getReservationTime().toLocalDate().format(dateFormatter);
-            String time = reservation.getReservationTime().toLocalTime().format(timeFormatter);
-            
-            Object[] row = {
-                reservation.getId(),
-                reservation.getCustomerName(),
-                reservation.getMovieTitle(),
-                reservation.getCinemaName(),
-                date,
-                time,
-                reservation.getSelectedSeats().size(),
-                String.format("₱%.2f", reservation.getTotalAmount()),
-                reservation.isPaid() ? "Paid" : "Pending"
-            };
+        loadReport("reports.reservations", () -> reservationsTableModel.loadIndex(startDate, endDate), index -> {
+            // Rows are fetched page by page as they are scrolled into view
+            reservationsTableModel.setIndex(index);
+            
+            // Set content
+            JScrollPane scrollPane = new JScrollPane(reservationsTable);
             
-            reservationsTableModel.addRow(row);
+            // Summary panel
+            JPanel summaryPanel = new JPanel(new BorderLayout());
+            JLabel summaryLabel = new JLabel("Reservations from " + startDate + " to " + endDate +
+                                             " (" + index.getRowCount() + ")");
+            summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
+            summaryPanel.add(summaryLabel, BorderLayout.NORTH);
+            
+            // Update content panel
+            reportContentPanel.removeAll();
+            reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
+            reportContentPanel.add(scrollPane, BorderLayout.CENTER);
+            reportContentPanel.revalidate();
+            reportContentPanel.repaint();
+        });
+    }
+    
+    /**
+     * Runs a report query in the background and renders its result on the event dispatch thread.
+     * A report still loading is cancelled when another one is requested.
+     *
+     * @param taskName The name the query is counted under in the executor statistics
+     * @param query The report query
+     * @param render Renders the result into the report content panel
+     */
+    private <T> void loadReport(String taskName, Callable<T> query, Consumer<T> render) {
+        if (pendingReport != null) {
+            pendingReport.cancel(true);
+        }
+        
+        CompletableFuture<T> report = AsyncExecutor.getInstance().submit(taskName, query);
+        pendingReport = report;
+        AsyncExecutor.onEdt(report, render, error -> {
+            error.printStackTrace();
+            JOptionPane.showMessageDialog(mainFrame,
+                "The report could not be generated. Please try again.",
+                "Report Error",
+                JOptionPane.ERROR_MESSAGE);
+        });
+    }
+    
+    /**
+     * Regenerates the daily sales rollup in the background and refreshes the report.
+     *
+     * @param rebuildButton The button, disabled while the rebuild runs
+     */
+    private void rebuildSalesRollups(JButton rebuildButton) {
+        int choice = JOptionPane.showConfirmDialog(mainFrame,
+            "Regenerate the daily sales totals from the payment history?",
+            "Rebuild Sales Rollups",
+            JOptionPane.YES_NO_OPTION);
+        if (choice != JOptionPane.YES_OPTION) {
+            return;
+        }
+        
+        rebuildButton.setEnabled(false);
+        CompletableFuture<Integer> rebuild = AsyncExecutor.getInstance().submit("reports.rebuildSalesRollups",
+                                                                                adminController::rebuildSalesRollups,
+                                                                                REBUILD_TIMEOUT_MILLIS);
+        AsyncExecutor.onEdt(rebuild, rows -> {
+            rebuildButton.setEnabled(true);
+            if (rows < 0) {
+                JOptionPane.showMessageDialog(mainFrame,
+                    "The sales rollups could not be rebuilt. Please try again.",
+                    "Report Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            generateReport();
+        }, error -> {
+            rebuildButton.setEnabled(true);
+            error.printStackTrace();
+        });
+    }
+    
+    /**
+     * Asks for the records, format, date range and file to export, then exports in the background
+     * with a progress dialog that can cancel the export.
+     *
+     * @param exportButton The button, disabled while the export runs
+     */
+    private void exportReport(JButton exportButton) {
+        JComboBox<ExportDataset> datasetComboBox = new JComboBox<>(ExportDataset.values());
+        JComboBox<ExportFormat> formatComboBox = new JComboBox<>(ExportFormat.values());
+        String today = LocalDate.now().format(dateFormatter);
+        JTextField exportStartField = new JTextField(startDateField != null ? startDateField.getText() : today, 10);
+        JTextField exportEndField = new JTextField(endDateField != null ? endDateField.getText() : today, 10);
+        
+        JPanel optionsPanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        optionsPanel.add(new JLabel("Records:"));
+        optionsPanel.add(datasetComboBox);
+        optionsPanel.add(new JLabel("Format:"));
+        optionsPanel.add(formatComboBox);
+        optionsPanel.add(new JLabel("Start Date (YYYY-MM-DD):"));
+        optionsPanel.add(exportStartField);
+        optionsPanel.add(new JLabel("End Date (YYYY-MM-DD):"));
+        optionsPanel.add(exportEndField);
+        
+        int choice = JOptionPane.showConfirmDialog(mainFrame, optionsPanel, "Export Records",
+                                                   JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
         }
         
-        // Set content
-        JScrollPane scrollPane = new JScrollPane(reservationsTable);
-        
-        // Summary panel
-        JPanel summaryPanel = new JPanel(new BorderLayout());
-        JLabel summaryLabel = new JLabel("Reservations from " + startDate + " to " + endDate);
-        summaryLabel.setFont(new Font("Serif", Font.BOLD, 16));
-        summaryPanel.add(summaryLabel, BorderLayout.NORTH);
-        
-        // Update content panel
-        reportContentPanel.removeAll();
-        reportContentPanel.add(summaryPanel, BorderLayout.NORTH);
-        reportContentPanel.add(scrollPane, BorderLayout.CENTER);
-        reportContentPanel.revalidate();
-        reportContentPanel.repaint();
+        String startDate = exportStartField.getText().trim();
+        String endDate = exportEndField.getText().trim();
+        try {
+            if (LocalDate.parse(startDate, dateFormatter).isAfter(LocalDate.parse(endDate, dateFormatter))) {
+                JOptionPane.showMessageDialog(mainFrame,
+                    "The start date must not be after the end date.",
+                    "Export Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(mainFrame,
+                "Please enter the dates in the format YYYY-MM-DD.",
+                "Export Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        ExportDataset dataset = (ExportDataset) datasetComboBox.getSelectedItem();
+        ExportFormat format = (ExportFormat) formatComboBox.getSelectedItem();
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File(dataset.name().toLowerCase() + "_" + startDate + "_" + endDate
+                                             + "." + format.getExtension()));
+        if (fileChooser.showSaveDialog(mainFrame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File selected = fileChooser.getSelectedFile();
+        File file = selected.getName().toLowerCase().endsWith("." + format.getExtension())
+            ? selected
+            : new File(selected.getParentFile(), selected.getName() + "." + format.getExtension());
+        if (file.exists()) {
+            int overwrite = JOptionPane.showConfirmDialog(mainFrame,
+                file.getName() + " already exists. Replace it?",
+                "Export Records",
+                JOptionPane.YES_NO_OPTION);
+            if (overwrite != JOptionPane.YES_OPTION) {
+                return;
+            }
+        }
+        
+        // Progress dialog; the export itself never touches Swing components
+        JDialog progressDialog = new JDialog(mainFrame, "Exporting " + dataset.getDisplayName(), false);
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Counting rows...");
+        JButton cancelButton = new JButton("Cancel");
+        JPanel progressPanel = new JPanel(new BorderLayout(5, 5));
+        progressPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+        progressPanel.add(new JLabel("Writing " + file.getName()), BorderLayout.NORTH);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressPanel.add(cancelButton, BorderLayout.SOUTH);
+        progressDialog.setContentPane(progressPanel);
+        progressDialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        progressDialog.pack();
+        progressDialog.setSize(Math.max(progressDialog.getWidth(), 350), progressDialog.getHeight());
+        progressDialog.setLocationRelativeTo(mainFrame);
+        
+        exportButton.setEnabled(false);
+        CompletableFuture<ExportResult> export = AsyncExecutor.getInstance().submit("reports.export",
+            () -> adminController.exportReport(dataset, startDate, endDate, file, format,
+                (rowsWritten, totalRows) -> SwingUtilities.invokeLater(() -> {
+                    progressBar.setIndeterminate(false);
+                    progressBar.setMaximum((int) Math.min(Integer.MAX_VALUE, Math.max(totalRows, 1)));
+                    progressBar.setValue((int) Math.min(Integer.MAX_VALUE, rowsWritten));
+                    progressBar.setString(String.format("%,d of %,d rows", rowsWritten, totalRows));
+                })),
+            0); // Exports of the whole history may run for minutes; the user can cancel instead
+        
+        // A cancelled future calls no callback, so cancelling closes the dialog itself
+        cancelButton.addActionListener(e -> {
+            export.cancel(true);
+            progressDialog.dispose();
+            exportButton.setEnabled(true);
+        });
+        AsyncExecutor.onEdt(export, result -> {
+            progressDialog.dispose();
+            exportButton.setEnabled(true);
+            if (result == null) {
+                JOptionPane.showMessageDialog(mainFrame,
+                    "The export could not be written. Please try again.",
+                    "Export Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (result.isCancelled()) {
+                return;
+            }
+            JOptionPane.showMessageDialog(mainFrame,
+                String.format("Exported %,d row(s) to %s in %.1f s (%,.0f rows/s).",
+                              result.getRowCount(), result.getFile().getAbsolutePath(),
+                              result.getElapsedMillis() / 1000.0, result.getRowsPerSecond()),
+                "Export Complete",
+                JOptionPane.INFORMATION_MESSAGE);
+        }, error -> {
+            progressDialog.dispose();
+            exportButton.setEnabled(true);
+            error.printStackTrace();
+            JOptionPane.showMessageDialog(mainFrame,
+                "The export could not be written. Please try again.",
+                "Export Error",
+                JOptionPane.ERROR_MESSAGE);
+        });
+        progressDialog.setVisible(true);
     }
     
     /**
@@ -0,0 +1,201 @@
+package com.cinebook.view;
+
+import com.cinebook.controller.AdminController;
+import com.cinebook.controller.AsyncExecutor;
+import com.cinebook.model.Reservation;
+import com.cinebook.model.ReservationCursor;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Table model for the reservations report that loads its rows a page at a time.
+ * Only the row count and the cursor of every page are loaded up front. A page is fetched in the
+ * background the first time one of its rows is painted, and only the most recently viewed pages
+ * are kept, so memory stays flat no matter how long the date range is.
+ * All methods are called on the event dispatch thread.
+ */
+public class ReservationTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"ID", "User", "Movie", "Cinema", "Date", "Time", "Seats", "Total Amount", "Status"};
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 8;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    
+    private final AdminController adminController;
+    private PageIndex index = new PageIndex(null, null, 0, Collections.singletonList(null));
+    
+    // Loaded pages by page number, least recently viewed first
+    private final Map<Integer, List<Reservation>> pages = new LinkedHashMap<Integer, List<Reservation>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Reservation>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Map<Integer, CompletableFuture<List<Reservation>>> loadingPages = new HashMap<>();
+    
+    /**
+     * Constructor for ReservationTableModel.
+     *
+     * @param adminController The AdminController the pages are loaded through
+     */
+    public ReservationTableModel(AdminController adminController) {
+        this.adminController = adminController;
+    }
+    
+    /**
+     * Loads the row count and page cursors of a date range. Safe to call off the event thread;
+     * pass the result to {@link #setIndex(PageIndex)} on the event thread to show it.
+     *
+     * @param startDate The start date (format: YYYY-MM-DD)
+     * @param endDate The end date (format: YYYY-MM-DD)
+     * @return The page index of the date range
+     */
+    public PageIndex loadIndex(String startDate, String endDate) {
+        int rowCount = adminController.countReservationsByDateRange(startDate, endDate);
+        List<ReservationCursor> cursors = adminController.getReservationPageCursors(startDate, endDate, PAGE_SIZE);
+        return new PageIndex(startDate, endDate, rowCount, cursors);
+    }
+    
+    /**
+     * Shows a date range, dropping the pages of the previous one.
+     *
+     * @param index The page index of the date range
+     */
+    public void setIndex(PageIndex index) {
+        for (CompletableFuture<List<Reservation>> loading : loadingPages.values()) {
+            loading.cancel(true);
+        }
+        loadingPages.clear();
+        pages.clear();
+        this.index = index;
+        fireTableDataChanged();
+    }
+    
+    /**
+     * Gets the number of reservations in the date range shown.
+     *
+     * @return The number of reservations
+     */
+    @Override
+    public int getRowCount() {
+        return index.rowCount;
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+    
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+    
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / PAGE_SIZE;
+        List<Reservation> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return column == 1 ? "Loading..." : "";
+        }
+        
+        int offset = row % PAGE_SIZE;
+        if (offset >= rows.size()) {
+            return ""; // Reservations were deleted since the range was counted
+        }
+        
+        Reservation reservation = rows.get(offset);
+        switch (column) {
+            case 0:
+                return reservation.getId();
+            case 1:
+                return reservation.getCustomerName();
+            case 2:
+                return reservation.getMovieTitle();
+            case 3:
+                return reservation.getCinemaName();
+            case 4:
+                return reservation.getReservationTime().toLocalDate().format(DATE_FORMATTER);
+            case 5:
+                return reservation.getReservationTime().toLocalTime().format(TIME_FORMATTER);
+            case 6:
+                return reservation.getSelectedSeats().size();
+            case 7:
+                return String.format("₱%.2f", reservation.getTotalAmount());
+            case 8:
+                return reservation.isPaid() ? "Paid" : "Pending";
+            default:
+                return "";
+        }
+    }
+    
+    /**
+     * Fetches a page in the background unless it is already being fetched.
+     */
+    private void requestPage(int page) {
+        if (loadingPages.containsKey(page) || page >= index.cursors.size()) {
+            return;
+        }
+        
+        PageIndex requestedIndex = index;
+        ReservationCursor after = requestedIndex.cursors.get(page);
+        CompletableFuture<List<Reservation>> loading = AsyncExecutor.getInstance().submit("reports.reservationPage",
+            () -> adminController.getReservationsByDateRange(requestedIndex.startDate, requestedIndex.endDate,
+                                                             after, PAGE_SIZE));
+        loadingPages.put(page, loading);
+        
+        AsyncExecutor.onEdt(loading, rows -> {
+            if (index != requestedIndex) {
+                return; // Another date range is shown by now
+            }
+            loadingPages.remove(page);
+            pages.put(page, new ArrayList<>(rows));
+            
+            int firstRow = page * PAGE_SIZE;
+            int lastRow = Math.min(firstRow + PAGE_SIZE, index.rowCount) - 1;
+            if (firstRow <= lastRow) {
+                fireTableRowsUpdated(firstRow, lastRow);
+            }
+        }, error -> {
+            if (index == requestedIndex) {
+                loadingPages.remove(page);
+            }
+            error.printStackTrace();
+        });
+    }
+    
+    /**
+     * Row count and page cursors of one date range.
+     */
+    public static class PageIndex {
+        private final String startDate;
+        private final String endDate;
+        private final int rowCount;
+        private final List<ReservationCursor> cursors;
+        
+        PageIndex(String startDate, String endDate, int rowCount, List<ReservationCursor> cursors) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.rowCount = rowCount;
+            this.cursors = cursors;
+        }
+        
+        public int getRowCount() {
+            return rowCount;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.cinebook.view;
+
+import com.cinebook.controller.ReservationController;
+
+import javax.swing.*;
+
+/**
+ * Keeps the seat hold of the current reservation alive while a checkout panel is on screen.
+ * The hold is extended well before it expires; once the panel is hidden the timer stops and
+ * the hold runs out on its own unless the next panel takes over.
+ */
+public class SeatHoldKeepAlive {
+    private final JComponent panel;
+    private final MainFrame mainFrame;
+    private final ReservationController reservationController;
+    private final Timer timer;
+    
+    /**
+     * Constructor for SeatHoldKeepAlive.
+     *
+     * @param panel The checkout panel that keeps the hold alive while it is showing
+     * @param mainFrame The parent MainFrame
+     * @param reservationController The controller holding the current reservation
+     */
+    public SeatHoldKeepAlive(JComponent panel, MainFrame mainFrame, ReservationController reservationController) {
+        this.panel = panel;
+        this.mainFrame = mainFrame;
+        this.reservationController = reservationController;
+        
+        // Extend at a third of the time-to-live so one missed tick never loses the seats
+        int intervalMillis = (int) Math.max(1000L, ReservationController.getHoldTtlSeconds() * 1000L / 3);
+        this.timer = new Timer(intervalMillis, e -> extendHold());
+        this.timer.setRepeats(true);
+    }
+    
+    /**
+     * Starts extending the hold. Called when the panel is initialized.
+     */
+    public void start() {
+        timer.restart();
+    }
+    
+    /**
+     * Stops extending the hold.
+     */
+    public void stop() {
+        timer.stop();
+    }
+    
+    private void extendHold() {
+        if (!panel.isShowing()) {
+            stop();
+            return;
+        }
+        
+        if (!reservationController.extendSeatHold()) {
+            stop();
+            DialogManager.showErrorDialog(
+                mainFrame,
+                "Your seats were held for too long without activity and have been released. " +
+                "Please select your seats again.",
+                "Seat Hold Expired"
+            );
+            mainFrame.getSeatSelectionPanel().refreshSeatMap();
+            mainFrame.navigateTo(MainFrame.SEAT_SELECTION_PANEL);
+        }
+    }
+}
@@ -1,28 +1,39 @@
 package com.cinebook.view;
 
 import com.cinebook.controller.AdminController;
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.ReservationController;
 import com.cinebook.controller.ScreeningController;
 import com.cinebook.controller.UserController;
 import com.cinebook.model.Cinema;
 import com.cinebook.model.Screening;
 import com.cinebook.model.Seat;
+import com.cinebook.model.SeatChangeEvent;
+import com.cinebook.model.SeatClaimResult;
 import com.cinebook.model.SeatType;
+import com.cinebook.model.User;
 import com.cinebook.util.UIStyle;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
+import javax.swing.text.DefaultFormatter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Panel for seat selection during the booking process.
@@ -35,8 +46,16 @@ public class SeatSelectionPanel extends JPanel {
     
     private Screening currentScreening;
     private List<SeatButton> seatButtons;
+    private Map<Integer, SeatButton> seatButtonsById;
     private List<Integer> selectedSeatIds;
     
+    // Seat changes arrive on other threads and are applied on the event dispatch thread
+    private final Consumer<SeatChangeEvent> seatChangeListener =
+        event -> SwingUtilities.invokeLater(() -> applySeatChanges(event));
+    private int subscribedScreeningId = -1;
+    private CompletableFuture<List<Seat>> pendingSeatMap; // Seat map load still running
+    private CompletableFuture<List<Seat>> pendingBestSeats; // Seat suggestion still being computed
+    
     // UI Components
     private JPanel seatMapPanel;
     private JPanel legendPanel;
@@ -50,6 +69,9 @@ public class SeatSelectionPanel extends JPanel {
     private JButton continueButton;
     private JButton cancelButton;
     private JButton arPreviewButton;
+    private JSpinner partySizeSpinner;
+    private JComboBox<String> partySeatTypeComboBox;
+    private JLabel partyStatusLabel;
 
     /**
      * Constructor for the seat selection panel.
@@ -68,6 +90,7 @@ public class SeatSelectionPanel extends JPanel {
         this.reservationController = reservationController;
         
         this.seatButtons = new ArrayList<>();
+        this.seatButtonsById = new HashMap<>();
         this.selectedSeatIds = new ArrayList<>();
         
         setLayout(new BorderLayout(0, 0));
@@ -79,6 +102,19 @@ public class SeatSelectionPanel extends JPanel {
         
         // Register button listeners once during initialization
         registerButtonListeners();
+        
+        // Only follow seat changes while the seat map is on screen
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent e) {
+                subscribeToSeatChanges();
+            }
+            
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                unsubscribeFromSeatChanges();
+            }
+        });
     }
     
     /**
@@ -96,18 +132,26 @@ public class SeatSelectionPanel extends JPanel {
                 // Try to fix the issue by starting a new reservation
                 if (userController.getCurrentUser() != null) {
                     int screeningId = currentScreening.getId();
-                    boolean started = reservationController.startReservationForUser(
-                        userController.getCurrentUser(), screeningId);
-                    
-                    if (!started) {
-                        DialogManager.showErrorDialog(
-                            mainFrame,
-                            "Unable to start a new reservation. Please try again or contact customer support.",
-                            "Reservation Error"
-                        );
-                        return;
-                    }
-                    System.out.println("Created new reservation for screening: " + screeningId);
+                    User user = userController.getCurrentUser();
+                    continueButton.setEnabled(false);
+                    AsyncExecutor.onEdt(
+                        AsyncExecutor.getInstance().submit("reservations.start",
+                            () -> reservationController.startReservationForUser(user, screeningId)),
+                        started -> {
+                            continueButton.setEnabled(true);
+                            if (!started) {
+                                showReservationStartError();
+                                return;
+                            }
+                            System.out.println("Created new reservation for screening: " + screeningId);
+                            claimSelectedSeats();
+                        },
+                        error -> {
+                            continueButton.setEnabled(true);
+                            error.printStackTrace();
+                            showReservationStartError();
+                        });
+                    return;
                 } else {
                     // Cannot proceed without user
                     DialogManager.showErrorDialog(
@@ -119,61 +163,101 @@ public class SeatSelectionPanel extends JPanel {
                 }
             }
             
-            System.out.println("Proceeding with reservation - adding seats: " + selectedSeatIds);
-            boolean success = reservationController.addSeatsToReservation(selectedSeatIds);
-            System.out.println("Reservation success: " + success);
+            claimSelectedSeats();
+        } else {
+            System.out.println("No seats selected");
+            DialogManager.showInfoDialog(
+                mainFrame,
+                "Please select at least one seat before continuing.",
+                "No Seats Selected"
+            );
+        }
+    }
+    
+    /**
+     * Claims the selected seats for the current reservation off the EDT.
+     */
+    private void claimSelectedSeats() {
+        System.out.println("Proceeding with reservation - adding seats: " + selectedSeatIds);
+        List<Integer> seatIds = new ArrayList<>(selectedSeatIds);
+        continueButton.setEnabled(false);
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("reservations.claimSeats",
+                () -> reservationController.claimSeatsForReservation(seatIds)),
+            claim -> {
+                continueButton.setEnabled(true);
+                handleClaimResult(claim);
+            },
+            error -> {
+                continueButton.setEnabled(true);
+                error.printStackTrace();
+                handleClaimResult(SeatClaimResult.lost(new ArrayList<>()));
+            });
+    }
+    
+    /**
+     * Tells the user a new reservation could not be started.
+     */
+    private void showReservationStartError() {
+        DialogManager.showErrorDialog(
+            mainFrame,
+            "Unable to start a new reservation. Please try again or contact customer support.",
+            "Reservation Error"
+        );
+    }
+    
+    /**
+     * Moves on to concessions after a successful seat claim, or shows which seats were lost.
+     *
+     * @param claim The result of claiming the selected seats
+     */
+    private void handleClaimResult(SeatClaimResult claim) {
+        System.out.println("Reservation result: " + claim);
+        
+        if (claim.isSuccessful()) {
+            // Our own claim is not a change to show on this map
+            unsubscribeFromSeatChanges();
+            
+            // Successfully added seats, proceed to concessions
+            mainFrame.getConcessionPanel().initialize();
+            mainFrame.navigateTo(MainFrame.CONCESSION_PANEL);
+        } else {
+            System.err.println("FAILED: Could not add seats to reservation");
             
-            if (success) {
-                // Successfully added seats, proceed to concessions
-                mainFrame.getConcessionPanel().initialize();
-                mainFrame.navigateTo(MainFrame.CONCESSION_PANEL);
-            } else {
-                System.err.println("FAILED: Could not add seats to reservation");
-                
-                // Check if seats are actually reserved
-                boolean anyReserved = false;
-                try {
-                    for (int seatId : selectedSeatIds) {
-                        Seat seat = screeningController.getSeatsByScreening(currentScreening.getId())
-                            .stream()
-                            .filter(s -> s.getId() == seatId)
-                            .findFirst()
-                            .orElse(null);
-                            
-                        if (seat != null && seat.isReserved()) {
-                            anyReserved = true;
-                            System.out.println("Confirmed seat " + seatId + " is reserved");
-                            break;
-                        }
+            if (!claim.getLostSeatIds().isEmpty()) {
+                // Name the seats that were taken so the customer knows what to change
+                List<String> lostSeatNumbers = new ArrayList<>();
+                for (int lostSeatId : claim.getLostSeatIds()) {
+                    SeatButton seatButton = seatButtonsById.get(lostSeatId);
+                    if (seatButton != null) {
+                        lostSeatNumbers.add(seatButton.getSeat().getSeatNumber());
+                        seatButton.setSeatReserved(true);
                     }
-                } catch (Exception e) {
-                    System.err.println("Error checking seat reservation status: " + e.getMessage());
                 }
+                updateSelectionSummary();
                 
-                if (anyReserved) {
-                    DialogManager.showErrorDialog(
-                        mainFrame,
-                        "One or more selected seats have been reserved by another user. Please select different seats.",
-                        "Seats Unavailable"
-                    );
-                } else {
-                    DialogManager.showErrorDialog(
-                        mainFrame,
-                        "There was an error processing your seat reservation. Please try again.",
-                        "Reservation Error"
-                    );
-                }
+                // Pick up anything else that changed elsewhere instead of reloading the whole map
+                AsyncExecutor.getInstance().submit("seats.checkForChanges", () -> {
+                    screeningController.checkForSeatChanges();
+                    return null;
+                });
+                
+                DialogManager.showErrorDialog(
+                    mainFrame,
+                    "Seat(s) " + String.join(", ", lostSeatNumbers) + " have just been reserved by another " +
+                    "customer. Please select different seats.",
+                    "Seats Unavailable"
+                );
+            } else {
+                DialogManager.showErrorDialog(
+                    mainFrame,
+                    "There was an error processing your seat reservation. Please try again.",
+                    "Reservation Error"
+                );
                 
                 // Refresh the seat map to show the latest seat statuses
                 refreshSeatMap();
             }
-        } else {
-            System.out.println("No seats selected");
-            DialogManager.showInfoDialog(
-                mainFrame,
-                "Please select at least one seat before continuing.",
-                "No Seats Selected"
-            );
         }
     }
     
@@ -191,8 +275,23 @@ public class SeatSelectionPanel extends JPanel {
         );
         
         if (response == JOptionPane.YES_OPTION) {
-            reservationController.cancelReservationProcess();
-            mainFrame.navigateTo(MainFrame.MOVIE_LISTING_PANEL);
+            unsubscribeFromSeatChanges();
+            cancelButton.setEnabled(false);
+            AsyncExecutor.onEdt(
+                AsyncExecutor.getInstance().submit("reservations.cancel", () -> {
+                    reservationController.cancelReservationProcess();
+                    return null;
+                }),
+                ignored -> {
+                    cancelButton.setEnabled(true);
+                    mainFrame.navigateTo(MainFrame.MOVIE_LISTING_PANEL);
+                },
+                error -> {
+                    // The hold expires on its own, so leave the booking anyway
+                    cancelButton.setEnabled(true);
+                    error.printStackTrace();
+                    mainFrame.navigateTo(MainFrame.MOVIE_LISTING_PANEL);
+                });
         }
     }
     
@@ -313,6 +412,62 @@ public class SeatSelectionPanel extends JPanel {
         
         sidePanel.add(infoPanel);
         
+        // Party booking panel - suggests the best block of adjacent seats for a group
+        JPanel partyPanel = new JPanel();
+        partyPanel.setLayout(new BoxLayout(partyPanel, BoxLayout.Y_AXIS));
+        partyPanel.setBackground(UIStyle.SURFACE_COLOR);
+        partyPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(0, 0, 1, 0, UIStyle.BORDER_COLOR),
+            BorderFactory.createEmptyBorder(15, 20, 15, 20)
+        ));
+        
+        JLabel partyLabel = new JLabel("Best Available Seats");
+        partyLabel.setFont(UIStyle.SUBHEADER_FONT);
+        partyLabel.setForeground(UIStyle.TEXT_PRIMARY);
+        partyPanel.add(partyLabel);
+        partyPanel.add(Box.createVerticalStrut(10));
+        
+        JPanel partyInputPanel = new JPanel(new GridLayout(2, 2, 5, 5));
+        partyInputPanel.setBackground(UIStyle.SURFACE_COLOR);
+        partyInputPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        
+        JLabel partySizeLabel = new JLabel("Party size:");
+        partySizeLabel.setFont(UIStyle.BODY_FONT);
+        partySizeLabel.setForeground(UIStyle.TEXT_SECONDARY);
+        partyInputPanel.add(partySizeLabel);
+        
+        partySizeSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 50, 1));
+        partySizeSpinner.setFont(UIStyle.BODY_FONT);
+        // Commit every valid keystroke so the suggestion follows the party size as it is typed
+        JFormattedTextField partySizeField = ((JSpinner.DefaultEditor) partySizeSpinner.getEditor()).getTextField();
+        ((DefaultFormatter) partySizeField.getFormatter()).setCommitsOnValidEdit(true);
+        partyInputPanel.add(partySizeSpinner);
+        
+        JLabel partySeatTypeLabel = new JLabel("Seat type:");
+        partySeatTypeLabel.setFont(UIStyle.BODY_FONT);
+        partySeatTypeLabel.setForeground(UIStyle.TEXT_SECONDARY);
+        partyInputPanel.add(partySeatTypeLabel);
+        
+        partySeatTypeComboBox = new JComboBox<>(new String[]{
+            "Any", SeatType.STANDARD.toString(), SeatType.DELUXE.toString()
+        });
+        partySeatTypeComboBox.setFont(UIStyle.BODY_FONT);
+        partyInputPanel.add(partySeatTypeComboBox);
+        
+        partyPanel.add(partyInputPanel);
+        partyPanel.add(Box.createVerticalStrut(8));
+        
+        partyStatusLabel = new JLabel(" ");
+        partyStatusLabel.setFont(UIStyle.SMALL_FONT);
+        partyStatusLabel.setForeground(UIStyle.TEXT_SECONDARY);
+        partyPanel.add(partyStatusLabel);
+        
+        // Listeners are added once here; the spinner and combo box are never recreated
+        partySizeSpinner.addChangeListener(e -> selectBestAvailableSeats());
+        partySeatTypeComboBox.addActionListener(e -> selectBestAvailableSeats());
+        
+        sidePanel.add(partyPanel);
+        
         // Create AR preview button
         JPanel arPreviewContainer = new JPanel(new BorderLayout());
         arPreviewContainer.setBackground(UIStyle.SURFACE_COLOR);
@@ -487,83 +642,154 @@ public class SeatSelectionPanel extends JPanel {
      * @param screening The screening to initialize the panel for
      */
     public void initialize(Screening screening) {
-        try {
-            // Get a fresh copy of the screening from the database to ensure we have latest data
-            this.currentScreening = screeningController.getScreeningById(screening.getId());
-            
-            // Clear any previous selection
-            selectedSeatIds.clear();
-            
-            // Update information labels
-            movieLabel.setText(currentScreening.getMovieTitle());
-            cinemaLabel.setText(currentScreening.getCinemaName());
-            dateTimeLabel.setText(currentScreening.getFormattedDateTime());
-            
-            // Load and display seat map with fresh data
-            loadSeatMap();
-            
-            // Update pricing in legend
-            updateLegend();
-            
-            // Update selection summary
-            updateSelectionSummary();
-            
-            // Register button listeners properly
-            registerButtonListeners();
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            DialogManager.showErrorDialog(
-                mainFrame,
-                "An error occurred while initializing the seat map. Please try again.",
-                "Initialization Error"
-            );
-            
-            // Use the provided screening if there was an error
-            this.currentScreening = screening;
-            loadSeatMap();
-        }
+        // Show what we already know while the fresh copy loads
+        this.currentScreening = screening;
+        
+        // Clear any previous selection
+        selectedSeatIds.clear();
+        partySizeSpinner.setValue(0);
+        partyStatusLabel.setText(" ");
+        
+        // Register button listeners properly
+        registerButtonListeners();
+        
+        // Get a fresh copy of the screening from the database to ensure we have latest data
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("screenings.byId",
+                () -> screeningController.getScreeningById(screening.getId())),
+            freshScreening -> {
+                this.currentScreening = freshScreening != null ? freshScreening : screening;
+                showScreening();
+            },
+            error -> {
+                error.printStackTrace();
+                DialogManager.showErrorDialog(
+                    mainFrame,
+                    "An error occurred while initializing the seat map. Please try again.",
+                    "Initialization Error"
+                );
+                
+                // Use the provided screening if there was an error
+                showScreening();
+            });
+    }
+    
+    /**
+     * Shows the current screening's details and loads its seat map.
+     */
+    private void showScreening() {
+        // Update information labels
+        movieLabel.setText(currentScreening.getMovieTitle());
+        cinemaLabel.setText(currentScreening.getCinemaName());
+        dateTimeLabel.setText(currentScreening.getFormattedDateTime());
+        
+        // Load and display seat map with fresh data
+        loadSeatMap(null);
+        
+        // Update pricing in legend
+        updateLegend();
+        
+        // Update selection summary
+        updateSelectionSummary();
     }
     
     /**
      * Refreshes the seat map to reflect the latest seat status.
      * This is useful when seat reservation status might have changed.
      */
-    private void refreshSeatMap() {
+    public void refreshSeatMap() {
         if (currentScreening != null) {
-            try {
-                // Clear the current selection
-                selectedSeatIds.clear();
-                seatButtons.clear();
-                
-                // Get a fresh copy of the screening to ensure we have the latest seat status
-                currentScreening = screeningController.getScreeningById(currentScreening.getId());
-                
-                // Reload the seat map
-                loadSeatMap();
-                
-                // Update the selection summary
-                updateSelectionSummary();
-            } catch (Exception e) {
-                e.printStackTrace();
-                DialogManager.showErrorDialog(
-                    mainFrame,
-                    "An error occurred while refreshing the seat map. Please try again.",
-                    "Refresh Error"
-                );
-            }
+            // Clear the current selection
+            selectedSeatIds.clear();
+            seatButtons.clear();
+            
+            // Get a fresh copy of the screening to ensure we have the latest seat status
+            int screeningId = currentScreening.getId();
+            AsyncExecutor.onEdt(
+                AsyncExecutor.getInstance().submit("screenings.refreshSeats", () -> {
+                    Screening freshScreening = screeningController.getScreeningById(screeningId);
+                    screeningController.refreshSeatsByScreening(screeningId);
+                    return freshScreening;
+                }),
+                freshScreening -> {
+                    if (freshScreening != null) {
+                        currentScreening = freshScreening;
+                    }
+                    
+                    // Reload the seat map
+                    loadSeatMap(() -> {
+                        // Suggest a fresh block for the party, if one was being booked
+                        if ((Integer) partySizeSpinner.getValue() > 0) {
+                            selectBestAvailableSeats();
+                        }
+                        
+                        // Update the selection summary
+                        updateSelectionSummary();
+                    });
+                },
+                error -> {
+                    error.printStackTrace();
+                    DialogManager.showErrorDialog(
+                        mainFrame,
+                        "An error occurred while refreshing the seat map. Please try again.",
+                        "Refresh Error"
+                    );
+                });
         }
     }
     
     /**
-     * Loads and displays the seat map for the current screening.
+     * Loads the seat map for the current screening in the background and displays it.
+     *
+     * @param onLoaded Run on the event dispatch thread once the seat map is shown, or null
      */
-    private void loadSeatMap() {
+    private void loadSeatMap(Runnable onLoaded) {
+        // A newer load replaces one still running for an earlier screening
+        if (pendingSeatMap != null) {
+            pendingSeatMap.cancel(true);
+            pendingSeatMap = null;
+        }
+        
+        if (currentScreening == null) {
+            showSeatMap(new ArrayList<>());
+            return;
+        }
+        
+        Screening screening = currentScreening;
+        pendingSeatMap = AsyncExecutor.getInstance().submit("seats.byScreening",
+            () -> screeningController.getSeatsByScreening(screening.getId()));
+        AsyncExecutor.onEdt(pendingSeatMap, seats -> {
+            if (screening != currentScreening) {
+                return; // The screening changed while loading
+            }
+            showSeatMap(seats);
+            if (onLoaded != null) {
+                onLoaded.run();
+            }
+        }, error -> {
+            error.printStackTrace();
+            DialogManager.showErrorDialog(
+                mainFrame,
+                "The seat map could not be loaded. Please try again.",
+                "Loading Error"
+            );
+        });
+    }
+    
+    /**
+     * Displays the seat map for the current screening.
+     *
+     * @param seats The seats of the screening
+     */
+    private void showSeatMap(List<Seat> seats) {
         // Clear any existing components
         seatMapPanel.removeAll();
         seatButtons.clear();
+        seatButtonsById.clear();
         
         if (currentScreening == null) {
+            seatMapPanel.revalidate();
+            seatMapPanel.repaint();
             return;
         }
         
@@ -572,7 +798,6 @@ public class SeatSelectionPanel extends JPanel {
         int cols = 0;
         
         // Map seats to determine the grid dimensions
-        List<Seat> seats = screeningController.getSeatsByScreening(currentScreening.getId());
         for (Seat seat : seats) {
             rows = Math.max(rows, seat.getRowNumber());
             cols = Math.max(cols, seat.getColumnNumber());
@@ -594,6 +819,7 @@ public class SeatSelectionPanel extends JPanel {
             SeatButton seatButton = new SeatButton(seat);
             seatButtonGrid[seat.getRowNumber()][seat.getColumnNumber()] = seatButton;
             seatButtons.add(seatButton);
+            seatButtonsById.put(seat.getId(), seatButton);
         }
         
         // Add the seat buttons to the panel
@@ -610,11 +836,70 @@ public class SeatSelectionPanel extends JPanel {
             }
         }
         
+        // Follow changes to the seats just loaded
+        unsubscribeFromSeatChanges();
+        subscribeToSeatChanges();
+        
         // Update the UI
         seatMapPanel.revalidate();
         seatMapPanel.repaint();
     }
     
+    /**
+     * Subscribes to the seat changes of the current screening, if not already subscribed.
+     */
+    private void subscribeToSeatChanges() {
+        if (currentScreening == null || subscribedScreeningId == currentScreening.getId()) {
+            return;
+        }
+        
+        unsubscribeFromSeatChanges();
+        if (screeningController.subscribeToSeatChanges(currentScreening.getId(), seatChangeListener)) {
+            subscribedScreeningId = currentScreening.getId();
+        }
+    }
+    
+    /**
+     * Stops following seat changes; events that are already queued are ignored.
+     */
+    private void unsubscribeFromSeatChanges() {
+        if (subscribedScreeningId != -1) {
+            screeningController.unsubscribeFromSeatChanges(subscribedScreeningId, seatChangeListener);
+            subscribedScreeningId = -1;
+        }
+    }
+    
+    /**
+     * Repaints only the seats that changed since the seat map was loaded.
+     * A selected seat that someone else took is dropped from the selection.
+     *
+     * @param event The seat changes of the screening
+     */
+    private void applySeatChanges(SeatChangeEvent event) {
+        if (event.getScreeningId() != subscribedScreeningId) {
+            return;
+        }
+        
+        boolean selectionChanged = false;
+        for (int seatId : event.getReservedSeatIds()) {
+            SeatButton seatButton = seatButtonsById.get(seatId);
+            if (seatButton != null) {
+                selectionChanged |= selectedSeatIds.contains(seatId);
+                seatButton.setSeatReserved(true);
+            }
+        }
+        for (int seatId : event.getReleasedSeatIds()) {
+            SeatButton seatButton = seatButtonsById.get(seatId);
+            if (seatButton != null) {
+                seatButton.setSeatReserved(false);
+            }
+        }
+        
+        if (selectionChanged) {
+            updateSelectionSummary();
+        }
+    }
+    
     /**
      * Updates the legend panel with seat types and pricing.
      */
@@ -705,6 +990,82 @@ public class SeatSelectionPanel extends JPanel {
         legendPanel.repaint();
     }
     
+    /**
+     * Replaces the current selection with the best block of adjacent free seats for the party size.
+     * Runs on every change of the party size or seat type. The block is found in the background,
+     * since the seat inventory reads the database when its copy of the screening is stale.
+     */
+    private void selectBestAvailableSeats() {
+        // A newer party size or seat type replaces the suggestion still being computed
+        if (pendingBestSeats != null) {
+            pendingBestSeats.cancel(true);
+            pendingBestSeats = null;
+        }
+        
+        if (currentScreening == null) {
+            return;
+        }
+        
+        int partySize = (Integer) partySizeSpinner.getValue();
+        if (partySize == 0) {
+            applySuggestedSeats(new ArrayList<>(), partySize);
+            return;
+        }
+        
+        String seatTypeName = (String) partySeatTypeComboBox.getSelectedItem();
+        SeatType preferredType = null;
+        for (SeatType seatType : SeatType.values()) {
+            if (seatType.toString().equals(seatTypeName)) {
+                preferredType = seatType;
+            }
+        }
+        
+        int screeningId = currentScreening.getId();
+        SeatType seatType = preferredType;
+        pendingBestSeats = AsyncExecutor.getInstance().submit("seats.bestBlock",
+            () -> reservationController.findBestAvailableSeats(screeningId, partySize, seatType));
+        AsyncExecutor.onEdt(pendingBestSeats, bestSeats -> {
+            if (currentScreening != null && currentScreening.getId() == screeningId) {
+                applySuggestedSeats(bestSeats, partySize);
+            }
+        }, error -> {
+            error.printStackTrace();
+            partyStatusLabel.setText("Could not suggest seats. Please select them on the map.");
+        });
+    }
+    
+    /**
+     * Selects the suggested seats on the seat map in place of the current selection.
+     *
+     * @param bestSeats The suggested seats, empty if there are none
+     * @param partySize The party size they were suggested for
+     */
+    private void applySuggestedSeats(List<Seat> bestSeats, int partySize) {
+        List<Integer> bestSeatIds = new ArrayList<>();
+        for (Seat seat : bestSeats) {
+            bestSeatIds.add(seat.getId());
+        }
+        
+        selectedSeatIds.clear();
+        for (SeatButton seatButton : seatButtons) {
+            boolean selected = bestSeatIds.contains(seatButton.getSeat().getId()) && !seatButton.getSeat().isReserved();
+            seatButton.setSeatSelected(selected);
+            if (selected) {
+                selectedSeatIds.add(seatButton.getSeat().getId());
+            }
+        }
+        
+        if (partySize == 0) {
+            partyStatusLabel.setText(" ");
+        } else if (selectedSeatIds.size() < partySize) {
+            partyStatusLabel.setText("No row has " + partySize + " seats together.");
+        } else {
+            partyStatusLabel.setText("Suggested seats selected.");
+        }
+        
+        updateSelectionSummary();
+    }
+    
     /**
      * Updates the selection summary with the selected seats and total price.
      */
@@ -770,10 +1131,7 @@ public class SeatSelectionPanel extends JPanel {
             selectedSeats.add(selectedSeat);
             
             // Get cinema from the controller
-            Cinema cinema = screeningController.getAllCinemas().stream()
-                .filter(c -> c.getId() == currentScreening.getCinemaId())
-                .findFirst()
-                .orElse(null);
+            Cinema cinema = screeningController.getCinemaById(currentScreening.getCinemaId());
                 
             if (cinema == null) {
                 System.err.println("Could not find cinema for AR preview");
@@ -866,6 +1224,33 @@ public class SeatSelectionPanel extends JPanel {
             updateSelectionSummary();
         }
         
+        /**
+         * Sets the selection state of this seat without touching the selected seats list.
+         *
+         * @param selected true to show the seat as selected
+         */
+        public void setSeatSelected(boolean selected) {
+            if (isSelected != selected) {
+                isSelected = selected;
+                updateAppearance();
+            }
+        }
+        
+        /**
+         * Sets the reservation status of this seat after it changed elsewhere.
+         * A seat that becomes reserved is dropped from the selected seats list.
+         *
+         * @param reserved The new reservation status
+         */
+        public void setSeatReserved(boolean reserved) {
+            seat.setReserved(reserved);
+            if (reserved && isSelected) {
+                isSelected = false;
+                selectedSeatIds.remove(Integer.valueOf(seat.getId()));
+            }
+            updateAppearance();
+        }
+        
         /**
          * Updates the appearance based on the seat type and selection state.
          */
@@ -0,0 +1,74 @@
+package com.cinebook.view;
+
+import com.cinebook.controller.AsyncExecutor;
+import com.cinebook.controller.BookingSessionRegistry;
+import com.cinebook.dao.ConnectionPool;
+import com.cinebook.dao.DBConnection;
+import com.cinebook.dao.ReportCache;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Panel showing the load of the application in the admin dashboard:
+ * the database connection pools, the background task executor, the report cache and the open
+ * booking sessions.
+ */
+public class SystemStatusPanel extends JPanel {
+    private JTextArea statusArea;
+    private JButton refreshButton;
+    
+    /**
+     * Constructor for SystemStatusPanel.
+     */
+    public SystemStatusPanel() {
+        // Setup panel properties
+        setLayout(new BorderLayout());
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        
+        statusArea = new JTextArea();
+        statusArea.setEditable(false);
+        statusArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        add(new JScrollPane(statusArea), BorderLayout.CENTER);
+        
+        refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refreshData());
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(refreshButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+    
+    /**
+     * Refreshes the statistics displayed in the panel.
+     * The statistics are in-memory counters, so they are read on the event thread.
+     */
+    public void refreshData() {
+        StringBuilder status = new StringBuilder();
+        
+        status.append("Database connection pools\n");
+        for (ConnectionPool.PoolStatistics statistics : DBConnection.getPoolStatistics()) {
+            status.append("  ").append(statistics).append('\n');
+        }
+        
+        AsyncExecutor executor = AsyncExecutor.getInstance();
+        status.append("\nBackground tasks (")
+              .append(executor.isUsingVirtualThreads() ? "virtual threads" : "platform threads")
+              .append(")\n");
+        for (AsyncExecutor.AsyncStatistics statistics : executor.getStatistics()) {
+            status.append("  ").append(statistics).append('\n');
+        }
+        
+        status.append("\nReport cache\n");
+        for (ReportCache.CacheStatistics statistics : ReportCache.getInstance().getStatistics()) {
+            status.append("  ").append(statistics).append('\n');
+        }
+        
+        status.append("\nOpen booking sessions: ")
+              .append(BookingSessionRegistry.getInstance().getSessionCount())
+              .append('\n');
+        
+        statusArea.setText(status.toString());
+        statusArea.setCaretPosition(0);
+    }
+}
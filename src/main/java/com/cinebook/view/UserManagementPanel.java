@@ -1,6 +1,7 @@
 package com.cinebook.view;
 
 import com.cinebook.controller.AdminController;
+import com.cinebook.controller.AsyncExecutor;
 import com.cinebook.controller.UserController;
 import com.cinebook.model.User;
 
@@ -14,6 +15,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Panel for managing users in the admin dashboard.
@@ -292,20 +294,34 @@ public class UserManagementPanel extends JPanel {
                                 return;
                             }
                             
-                            boolean success = adminController.resetUserPassword(selectedUser.getId(), password);
-                            
-                            if (success) {
-                                resetDialog.dispose();
-                                JOptionPane.showMessageDialog(mainFrame,
-                                    "Password reset successfully!",
-                                    "Success",
-                                    JOptionPane.INFORMATION_MESSAGE);
-                            } else {
-                                JOptionPane.showMessageDialog(resetDialog,
-                                    "Failed to reset password.",
-                                    "Error",
-                                    JOptionPane.ERROR_MESSAGE);
-                            }
+                            int userId = selectedUser.getId();
+                            resetButton.setEnabled(false);
+                            AsyncExecutor.onEdt(
+                                AsyncExecutor.getInstance().submit("users.resetPassword",
+                                    () -> adminController.resetUserPassword(userId, password)),
+                                success -> {
+                                    resetButton.setEnabled(true);
+                                    if (success) {
+                                        resetDialog.dispose();
+                                        JOptionPane.showMessageDialog(mainFrame,
+                                            "Password reset successfully!",
+                                            "Success",
+                                            JOptionPane.INFORMATION_MESSAGE);
+                                    } else {
+                                        JOptionPane.showMessageDialog(resetDialog,
+                                            "Failed to reset password.",
+                                            "Error",
+                                            JOptionPane.ERROR_MESSAGE);
+                                    }
+                                },
+                                error -> {
+                                    resetButton.setEnabled(true);
+                                    error.printStackTrace();
+                                    JOptionPane.showMessageDialog(resetDialog,
+                                        "Failed to reset password.",
+                                        "Error",
+                                        JOptionPane.ERROR_MESSAGE);
+                                });
                         }
                     });
                     
@@ -482,34 +498,50 @@ public class UserManagementPanel extends JPanel {
                     return;
                 }
                 
-                boolean success;
+                Callable<Boolean> save;
                 if (user == null) {
                     // Create new user
                     User newUser = new User(username, password, email, phone, fullName, isAdmin);
-                    success = adminController.addUser(newUser) > 0;
+                    save = () -> adminController.addUser(newUser) > 0;
                 } else {
                     // Update existing user
                     user.setEmail(email);
                     user.setPhoneNumber(phone);
                     user.setFullName(fullName);
                     user.setAdmin(isAdmin);
-                    success = adminController.updateUser(user);
+                    save = () -> adminController.updateUser(user);
                 }
                 
-                if (success) {
-                    refreshData();
-                    dialog.dispose();
-                    
-                    JOptionPane.showMessageDialog(mainFrame,
-                        user == null ? "User added successfully!" : "User updated successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(dialog,
-                        user == null ? "Failed to add user. Username may already exist." : "Failed to update user.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                }
+                String failureMessage = user == null
+                    ? "Failed to add user. Username may already exist." : "Failed to update user.";
+                saveButton.setEnabled(false);
+                AsyncExecutor.onEdt(
+                    AsyncExecutor.getInstance().submit("users.save", save),
+                    success -> {
+                        saveButton.setEnabled(true);
+                        if (success) {
+                            refreshData();
+                            dialog.dispose();
+                            
+                            JOptionPane.showMessageDialog(mainFrame,
+                                user == null ? "User added successfully!" : "User updated successfully!",
+                                "Success",
+                                JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(dialog,
+                                failureMessage,
+                                "Error",
+                                JOptionPane.ERROR_MESSAGE);
+                        }
+                    },
+                    error -> {
+                        saveButton.setEnabled(true);
+                        error.printStackTrace();
+                        JOptionPane.showMessageDialog(dialog,
+                            failureMessage,
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    });
             }
         });
         
@@ -528,12 +560,27 @@ public class UserManagementPanel extends JPanel {
      * Refreshes the data displayed in the panel.
      */
     public void refreshData() {
+        AsyncExecutor.onEdt(
+            AsyncExecutor.getInstance().submit("users.all", adminController::getAllUsers),
+            this::showUsers,
+            error -> {
+                error.printStackTrace();
+                JOptionPane.showMessageDialog(this,
+                    "Could not load the users. Please try again.",
+                    "Loading Error",
+                    JOptionPane.ERROR_MESSAGE);
+            });
+    }
+    
+    /**
+     * Replaces the rows of the users table.
+     *
+     * @param users The users to show
+     */
+    private void showUsers(List<User> users) {
         // Clear table
         usersTableModel.setRowCount(0);
         
-        // Get all users
-        List<User> users = adminController.getAllUsers();
-        
         // Populate table
         for (User user : users) {
             String formattedDate = user.getRegistrationDate() != null ? user.getRegistrationDate() : "";